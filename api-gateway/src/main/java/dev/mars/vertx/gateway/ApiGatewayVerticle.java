@@ -1,5 +1,7 @@
 package dev.mars.vertx.gateway;
 
+import dev.mars.vertx.common.util.RequestLimits;
+import dev.mars.vertx.gateway.handler.PassthroughHandler;
 import dev.mars.vertx.gateway.handler.ServiceHandler;
 import dev.mars.vertx.gateway.router.RouterFactory;
 import dev.mars.vertx.gateway.service.MicroserviceClient;
@@ -13,7 +15,7 @@ import io.vertx.ext.web.RoutingContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -64,11 +66,13 @@ public class ApiGatewayVerticle extends AbstractVerticle {
 
     /**
      * Creates the handlers for all routes.
+     * Routes are matched in the order they are added, so fixed paths such as
+     * {@code /api/service-two/cities} must come before the {@code :id} routes they would match.
      *
-     * @return a map of path patterns to handlers
+     * @return a map of path patterns to handlers, in registration order
      */
     private Map<String, Handler<RoutingContext>> createHandlers() {
-        Map<String, Handler<RoutingContext>> handlers = new HashMap<>();
+        Map<String, Handler<RoutingContext>> handlers = new LinkedHashMap<>();
 
         // Get service clients
         MicroserviceClient serviceOneClient = clientFactory.getClient("service-one");
@@ -117,45 +121,49 @@ public class ApiGatewayVerticle extends AbstractVerticle {
                     .end(health.encode());
         });
 
-        // Service One routes
-        handlers.put("GET:/api/service-one", new ServiceHandler(serviceOneClient, "service-one"));
-        handlers.put("POST:/api/service-one", new ServiceHandler(serviceOneClient, "service-one"));
-        handlers.put("GET:/api/service-one/:id", new ServiceHandler(serviceOneClient, "service-one"));
-        handlers.put("PUT:/api/service-one/:id", new ServiceHandler(serviceOneClient, "service-one"));
-        handlers.put("DELETE:/api/service-one/:id", new ServiceHandler(serviceOneClient, "service-one"));
-
-        // Service Two routes - using the request transformer to set the action
-        handlers.put("GET:/api/service-two/random", new ServiceHandler(serviceTwoClient, "service-two"));
-        handlers.put("GET:/api/service-two/forecast/:city", new ServiceHandler(serviceTwoClient, ctx -> {
-            JsonObject request = ServiceHandler.createDefaultRequestObject(ctx);
-            request.put("action", "forecast");
-            return request;
-        }, "service-two"));
-        handlers.put("GET:/api/service-two/cities", new ServiceHandler(serviceTwoClient, ctx -> {
-            JsonObject request = ServiceHandler.createDefaultRequestObject(ctx);
-            request.put("action", "cities");
-            return request;
-        }, "service-two"));
-        handlers.put("GET:/api/service-two/stats", new ServiceHandler(serviceTwoClient, ctx -> {
-            JsonObject request = ServiceHandler.createDefaultRequestObject(ctx);
-            request.put("action", "stats");
-            return request;
-        }, "service-two"));
+        // Service One routes - the action tells the service (and a sharded client) what to do
+        // List and bulk requests are shaped at the gateway, so they never use passthrough mode
+        handlers.put("GET:/api/service-one", new ServiceHandler(serviceOneClient, ServiceHandler.withIdList("getMany", ServiceHandler.withPagination("list")), "service-one"));
+        handlers.put("POST:/api/service-one", serviceRoute(serviceOneClient, "create", "service-one"));
+        handlers.put("POST:/api/service-one/_bulk", new ServiceHandler(serviceOneClient, ServiceHandler.withArrayBody("bulk", "operations", RequestLimits.MAX_BULK_OPERATIONS), "service-one"));
+        handlers.put("GET:/api/service-one/:id", serviceRoute(serviceOneClient, null, "service-one"));
+        handlers.put("PUT:/api/service-one/:id", serviceRoute(serviceOneClient, "update", "service-one"));
+        handlers.put("DELETE:/api/service-one/:id", serviceRoute(serviceOneClient, "delete", "service-one"));
+
+        // Service Two routes - the action tells the service what to do
+        handlers.put("GET:/api/service-two/random", serviceRoute(serviceTwoClient, null, "service-two"));
+        handlers.put("GET:/api/service-two/forecast/:city", serviceRoute(serviceTwoClient, "forecast", "service-two"));
+        handlers.put("GET:/api/service-two/cities", serviceRoute(serviceTwoClient, "cities", "service-two"));
+        handlers.put("GET:/api/service-two/stats", serviceRoute(serviceTwoClient, "stats", "service-two"));
 
         // Service Two CRUD operations
-        handlers.put("GET:/api/service-two", new ServiceHandler(serviceTwoClient, ctx -> {
-            JsonObject request = ServiceHandler.createDefaultRequestObject(ctx);
-            request.put("action", "list");
-            return request;
-        }, "service-two"));
-        handlers.put("PUT:/api/service-two/:id", new ServiceHandler(serviceTwoClient, "service-two"));
-        handlers.put("DELETE:/api/service-two/:id", new ServiceHandler(serviceTwoClient, "service-two"));
-        handlers.put("GET:/api/service-two/:id", new ServiceHandler(serviceTwoClient, "service-two"));
-        handlers.put("POST:/api/service-two", new ServiceHandler(serviceTwoClient, "service-two"));
+        handlers.put("GET:/api/service-two", serviceRoute(serviceTwoClient, "list", "service-two"));
+        handlers.put("PUT:/api/service-two/:id", serviceRoute(serviceTwoClient, null, "service-two"));
+        handlers.put("DELETE:/api/service-two/:id", serviceRoute(serviceTwoClient, null, "service-two"));
+        handlers.put("GET:/api/service-two/:id", serviceRoute(serviceTwoClient, null, "service-two"));
+        handlers.put("POST:/api/service-two", serviceRoute(serviceTwoClient, null, "service-two"));
 
         return handlers;
     }
 
+    /**
+     * Creates the handler of a route that sends the request with a fixed action, or none.
+     * When the client is in passthrough mode, the request body is forwarded without being parsed.
+     *
+     * @param client the microservice client
+     * @param action the action the service should perform, or null to let the service infer it
+     * @param serviceName the name of the service for logging
+     * @return the route handler
+     */
+    private Handler<RoutingContext> serviceRoute(MicroserviceClient client, String action, String serviceName) {
+        if (client.isPassthroughEnabled()) {
+            return new PassthroughHandler(client, action, serviceName);
+        }
+        return action != null
+                ? new ServiceHandler(client, ServiceHandler.withAction(action), serviceName)
+                : new ServiceHandler(client, serviceName);
+    }
+
     @Override
     public void stop(Promise<Void> stopPromise) {
         logger.info("Stopping API Gateway Verticle");
@@ -0,0 +1,218 @@
+package dev.mars.vertx.gateway.handler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.RoutingContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects requests with 503 and a {@code Retry-After} header while the event loop serving them is
+ * falling behind, so that the requests it does accept are still answered in time.
+ *
+ * The handler measures the lag of its event loop with a timer: each tick is scheduled
+ * {@code check-interval-ms} ahead, and the time by which it fires late is how long work waited in
+ * the loop's queue. The lag used for shedding is the highest one of the current and the previous
+ * {@code lag-window-ms}, so that one late tick sheds for a while instead of flapping, and a tick
+ * that is overdue right now counts as well. It also counts the requests it let in that have not
+ * been answered yet. Once the lag exceeds {@code max-lag-ms}, or the pending requests reach
+ * {@code max-pending-requests}, requests are shed, except for those whose path is one of the
+ * {@code exempt-paths} or below one of them (so {@code /admin} exempts {@code /admin/stats} but
+ * not {@code /administrator}): health checks and admin routes always pass, since they are how an
+ * overloaded gateway is observed and operated.
+ *
+ * A handler must be created on the event loop context that serves its router, such as a
+ * verticle's start method, and all of its state is confined to that context. Configured by the
+ * {@code load-shedding} section:
+ *
+ * <pre>
+ * load-shedding:
+ *   enabled: true
+ *   check-interval-ms: 50
+ *   lag-window-ms: 1000
+ *   max-lag-ms: 200
+ *   max-pending-requests: 1000
+ *   retry-after-s: 1
+ *   exempt-paths: [/health, /admin]
+ * </pre>
+ */
+public class LoadSheddingHandler implements Handler<RoutingContext> {
+    private static final Logger logger = LoggerFactory.getLogger(LoadSheddingHandler.class);
+
+    private final Vertx vertx;
+    private final MeterRegistry registry;
+    private final long checkIntervalNanos;
+    private final long lagWindowNanos;
+    private final long maxLagNanos;
+    private final int maxPendingRequests;
+    private final String retryAfter;
+    private final List<String> exemptPaths = new ArrayList<>();
+    private final Counter shedOnLag;
+    private final Counter shedOnPending;
+
+    private long expectedTickNanos;
+    private long windowStartNanos;
+    private long windowMaxLagNanos;
+    private long previousWindowMaxLagNanos;
+    private long lastLagNanos;
+    private int pendingRequests;
+
+    /**
+     * Creates a load shedding handler and starts measuring the lag of the current event loop.
+     *
+     * @param vertx the Vertx instance
+     * @param config the {@code load-shedding} configuration section
+     * @param registry the registry to report the lag, the pending requests and the shed requests to
+     */
+    public LoadSheddingHandler(Vertx vertx, JsonObject config, MeterRegistry registry) {
+        this.vertx = vertx;
+        this.registry = registry;
+        long checkIntervalMs = config.getLong("check-interval-ms", 50L);
+        if (checkIntervalMs < 1) {
+            throw new IllegalArgumentException("Invalid load shedding check interval: " + checkIntervalMs);
+        }
+        this.checkIntervalNanos = TimeUnit.MILLISECONDS.toNanos(checkIntervalMs);
+        this.lagWindowNanos = TimeUnit.MILLISECONDS.toNanos(config.getLong("lag-window-ms", 1000L));
+        this.maxLagNanos = TimeUnit.MILLISECONDS.toNanos(config.getLong("max-lag-ms", 200L));
+        this.maxPendingRequests = config.getInteger("max-pending-requests", 1000);
+        this.retryAfter = String.valueOf(config.getInteger("retry-after-s", 1));
+        JsonArray exempt = config.getJsonArray("exempt-paths", new JsonArray().add("/health").add("/admin"));
+        for (int i = 0; i < exempt.size(); i++) {
+            exemptPaths.add(exempt.getString(i));
+        }
+
+        this.shedOnLag = shedCounter("event-loop-lag");
+        this.shedOnPending = shedCounter("pending-requests");
+        this.expectedTickNanos = System.nanoTime() + checkIntervalNanos;
+
+        vertx.getOrCreateContext().runOnContext(v -> {
+            // Tagged with the thread the ticks actually run on, one series per event loop
+            String eventLoop = Thread.currentThread().getName();
+            TimeGauge.builder("gateway.event-loop.lag", this, TimeUnit.NANOSECONDS, LoadSheddingHandler::getLastLagNanos)
+                .description("How late the event loop ran its last lag check")
+                .tag("event-loop", eventLoop)
+                .register(registry);
+            Gauge.builder("gateway.load-shedding.pending-requests", this, LoadSheddingHandler::getPendingRequests)
+                .description("Requests accepted by the event loop and not answered yet")
+                .tag("event-loop", eventLoop)
+                .register(registry);
+
+            windowStartNanos = System.nanoTime();
+            scheduleTick();
+            logger.info("Load shedding on {} above {} ms lag or {} pending requests", eventLoop,
+                TimeUnit.NANOSECONDS.toMillis(maxLagNanos), maxPendingRequests);
+        });
+    }
+
+    private Counter shedCounter(String reason) {
+        return Counter.builder("gateway.load-shedding.shed")
+            .description("Requests rejected because the gateway was overloaded")
+            .tag("reason", reason)
+            .register(registry);
+    }
+
+    private void scheduleTick() {
+        expectedTickNanos = System.nanoTime() + checkIntervalNanos;
+        vertx.setTimer(TimeUnit.NANOSECONDS.toMillis(checkIntervalNanos), id -> {
+            long now = System.nanoTime();
+            recordLag(Math.max(0, now - expectedTickNanos), now);
+            scheduleTick();
+        });
+    }
+
+    private void recordLag(long lagNanos, long now) {
+        if (now - windowStartNanos >= lagWindowNanos) {
+            previousWindowMaxLagNanos = windowMaxLagNanos;
+            windowMaxLagNanos = 0;
+            windowStartNanos = now;
+        }
+        lastLagNanos = lagNanos;
+        windowMaxLagNanos = Math.max(windowMaxLagNanos, lagNanos);
+    }
+
+    @Override
+    public void handle(RoutingContext context) {
+        String path = context.request().path();
+        if (!isExempt(path)) {
+            if (getLagNanos() > maxLagNanos) {
+                shed(context, shedOnLag, "event loop lag");
+                return;
+            }
+            if (pendingRequests >= maxPendingRequests) {
+                shed(context, shedOnPending, "pending requests");
+                return;
+            }
+        }
+
+        pendingRequests++;
+        context.addEndHandler(ar -> pendingRequests--);
+        context.next();
+    }
+
+    private boolean isExempt(String path) {
+        if (path == null) {
+            return false;
+        }
+        for (String prefix : exemptPaths) {
+            // Whole path segments only, without building prefix + "/" per request
+            if (path.startsWith(prefix)
+                    && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void shed(RoutingContext context, Counter counter, String reason) {
+        counter.increment();
+        logger.debug("Shedding {} {} because of {}", context.request().method(), context.request().uri(), reason);
+        context.response()
+            .setStatusCode(503)
+            .putHeader("Retry-After", retryAfter)
+            .putHeader("Content-Type", "application/json")
+            .end(new JsonObject()
+                .put("error", "Service Unavailable")
+                .put("message", "Gateway is overloaded, retry later")
+                .put("path", context.request().uri())
+                .encode());
+    }
+
+    /**
+     * Gets the event loop lag used for shedding: the highest lag of the current and previous
+     * window, or how overdue the next tick is, if that is more.
+     *
+     * @return the lag in nanoseconds
+     */
+    public long getLagNanos() {
+        long overdue = System.nanoTime() - expectedTickNanos;
+        return Math.max(Math.max(windowMaxLagNanos, previousWindowMaxLagNanos), overdue);
+    }
+
+    /**
+     * Gets the lag measured by the last tick.
+     *
+     * @return the lag in nanoseconds
+     */
+    public long getLastLagNanos() {
+        return lastLagNanos;
+    }
+
+    /**
+     * Gets the number of requests accepted and not answered yet.
+     *
+     * @return the number of pending requests
+     */
+    public int getPendingRequests() {
+        return pendingRequests;
+    }
+}
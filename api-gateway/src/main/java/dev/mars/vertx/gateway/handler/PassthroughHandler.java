@@ -0,0 +1,88 @@
+package dev.mars.vertx.gateway.handler;
+
+import dev.mars.vertx.common.eventbus.Passthrough;
+import dev.mars.vertx.gateway.service.MicroserviceClient;
+import dev.mars.vertx.gateway.service.ServiceOverloadedException;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.RoutingContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handler that forwards requests to a service without parsing them (passthrough mode).
+ * The raw HTTP body is sent as a Buffer, with the action, HTTP method, and path and query
+ * parameters as message headers; the service builds the request object and replies with the
+ * encoded response, which is written to the HTTP response as it is. The gateway never builds a
+ * JSON tree for the request or the response.
+ *
+ * Passthrough requests are neither coalesced nor cached, since both need the request object.
+ */
+public class PassthroughHandler extends ServiceHandler {
+    private static final Logger logger = LoggerFactory.getLogger(PassthroughHandler.class);
+    
+    private final MicroserviceClient client;
+    private final String action;
+    
+    /**
+     * Creates a new passthrough handler.
+     *
+     * @param client the microservice client
+     * @param action the action the service should perform, or null to let the service infer it
+     * @param serviceName the name of the service for logging
+     */
+    public PassthroughHandler(MicroserviceClient client, String action, String serviceName) {
+        super(client, serviceName);
+        this.client = client;
+        this.action = action;
+    }
+    
+    @Override
+    public void handle(RoutingContext context) {
+        logger.debug("Forwarding {} service request: {}", getServiceName(), context.request().uri());
+        
+        Buffer body = context.getBody() != null ? context.getBody() : Buffer.buffer();
+        client.sendPassthrough(body, createHeaders(context))
+            .onSuccess(response -> sendResponse(context, response))
+            .onFailure(err -> {
+                if (err instanceof ReplyException && ((ReplyException) err).failureCode() == 400) {
+                    handleError(context, new IllegalArgumentException(err.getMessage()));
+                } else if (err instanceof ServiceOverloadedException) {
+                    handleError(context, err);
+                } else {
+                    logger.error("Error calling {} service", getServiceName(), err);
+                    handleError(context, new RuntimeException("Service unavailable: " + err.getMessage()));
+                }
+            });
+    }
+    
+    /**
+     * Passthrough requests have no request object.
+     *
+     * @param context the routing context
+     * @return null
+     */
+    @Override
+    public JsonObject createRequest(RoutingContext context) {
+        return null;
+    }
+    
+    /**
+     * Creates the passthrough headers carrying the routing metadata of a request.
+     *
+     * @param context the routing context
+     * @return the headers
+     */
+    MultiMap createHeaders(RoutingContext context) {
+        MultiMap headers = MultiMap.caseInsensitiveMultiMap();
+        headers.add(Passthrough.METHOD, context.request().method().name());
+        if (action != null) {
+            headers.add(Passthrough.ACTION, action);
+        }
+        context.pathParams().forEach((name, value) -> headers.add(Passthrough.PATH_PARAM_PREFIX + name, value));
+        context.queryParams().forEach(entry -> headers.add(Passthrough.QUERY_PARAM_PREFIX + entry.getKey(), entry.getValue()));
+        return headers;
+    }
+}
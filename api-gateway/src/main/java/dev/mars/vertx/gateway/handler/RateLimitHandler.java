@@ -0,0 +1,97 @@
+package dev.mars.vertx.gateway.handler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.RoutingContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the rate limit of one route to each client, in front of the route's handler.
+ * Clients are told apart by the subject of their JWT when the request is authenticated, and by
+ * their remote address otherwise. Each client has its own token bucket for the route in the shared
+ * RateLimiter; when it is empty the request is rejected with 429 Too Many Requests and a
+ * {@code Retry-After} header.
+ *
+ * Every response carries the {@code RateLimit-Limit}, {@code RateLimit-Remaining} and
+ * {@code RateLimit-Reset} headers, the last one in seconds until the bucket is full again.
+ */
+public class RateLimitHandler implements Handler<RoutingContext> {
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitHandler.class);
+
+    private final RateLimiter limiter;
+    private final RateLimiter.Policy policy;
+    private final String route;
+    private final Counter rejections;
+
+    /**
+     * Creates a new rate limit handler.
+     *
+     * @param limiter the rate limiter shared by all routes
+     * @param policy the limit of this route
+     * @param route the route, such as {@code GET:/api/service-one/:id}, used in bucket keys and as a metric tag
+     * @param registry the registry to report rejected requests to
+     */
+    public RateLimitHandler(RateLimiter limiter, RateLimiter.Policy policy, String route, MeterRegistry registry) {
+        this.limiter = limiter;
+        this.policy = policy;
+        this.route = route;
+        this.rejections = Counter.builder("gateway.rate-limit.rejections")
+            .description("Requests rejected because the client exceeded the route's rate limit")
+            .tag("route", route)
+            .register(registry);
+    }
+
+    @Override
+    public void handle(RoutingContext context) {
+        String client = clientKey(context);
+        RateLimiter.Decision decision = limiter.tryAcquire(client + " " + route, policy);
+
+        HttpServerResponse response = context.response();
+        response.putHeader("RateLimit-Limit", String.valueOf(decision.getLimit()))
+            .putHeader("RateLimit-Remaining", String.valueOf(decision.getRemaining()))
+            .putHeader("RateLimit-Reset", String.valueOf(toSeconds(decision.getResetNanos())));
+
+        if (decision.isAllowed()) {
+            context.next();
+            return;
+        }
+
+        rejections.increment();
+        logger.debug("Rate limit of {} exceeded by {}", route, client);
+        response.setStatusCode(429)
+            .putHeader("Retry-After", String.valueOf(toSeconds(decision.getRetryAfterNanos())))
+            .putHeader("Content-Type", "application/json")
+            .end(new JsonObject()
+                .put("error", "Too Many Requests")
+                .put("message", "Rate limit exceeded, retry later")
+                .put("path", context.request().uri())
+                .encode());
+    }
+
+    /**
+     * Identifies the client of a request: the JWT subject if the request is authenticated,
+     * the remote address otherwise.
+     */
+    static String clientKey(RoutingContext context) {
+        if (context.user() != null) {
+            String subject = context.user().principal().getString("sub");
+            if (subject != null) {
+                return "user:" + subject;
+            }
+        }
+        return context.request().remoteAddress() != null
+            ? "ip:" + context.request().remoteAddress().host()
+            : "ip:unknown";
+    }
+
+    private static long toSeconds(long nanos) {
+        // Rounded up, so a client waiting that long finds a token
+        return (Math.max(0, nanos) + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,267 @@
+package dev.mars.vertx.gateway.handler;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets of the gateway's rate limits, one per client and route, shared by all gateway
+ * verticle instances of a Vertx instance so that a client gets the same limit whichever event
+ * loop serves it.
+ *
+ * Each bucket is a single {@link AtomicLong} updated with compare-and-set, so refilling and taking
+ * a token never lock, whichever threads race for the same bucket. The bucket stores the time at
+ * which it would be full again if no more requests came (the theoretical arrival time of the
+ * generic cell rate algorithm): every request pushes that time one refill interval further, and a
+ * request is rejected when that would put it more than {@code capacity} intervals in the future.
+ * This is equivalent to a bucket of {@code capacity} tokens refilled continuously, without a
+ * separate token count to keep consistent with the refill time.
+ *
+ * The number of buckets is bounded. A bucket that has filled up again behaves exactly like a new
+ * one, so full buckets are dropped: every {@code sweep-interval-ms}, and whenever the map reaches
+ * {@code max-buckets}. If every bucket is still draining at that point, arbitrary ones are
+ * dropped, which only forgives those clients part of their usage.
+ */
+public class RateLimiter implements Shareable {
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+
+    private static final String SHARED_MAP = "gateway.rate-limit";
+    private static final String SHARED_KEY = "buckets";
+
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final int maxBuckets;
+    private final long sweepIntervalNanos;
+    private final AtomicLong lastSweepNanos = new AtomicLong(System.nanoTime());
+
+    /**
+     * Creates a new rate limiter.
+     *
+     * @param maxBuckets the maximum number of buckets kept
+     * @param sweepIntervalMs how often full buckets are dropped
+     * @param registry the registry to report the number of buckets to
+     */
+    public RateLimiter(int maxBuckets, long sweepIntervalMs, MeterRegistry registry) {
+        if (maxBuckets < 1) {
+            throw new IllegalArgumentException("Invalid maximum number of rate limit buckets: " + maxBuckets);
+        }
+        this.maxBuckets = maxBuckets;
+        this.sweepIntervalNanos = TimeUnit.MILLISECONDS.toNanos(sweepIntervalMs);
+        Gauge.builder("gateway.rate-limit.buckets", buckets, ConcurrentHashMap::size)
+            .description("Rate limit buckets of clients that are not at full capacity")
+            .register(registry);
+    }
+
+    /**
+     * Gets the rate limiter shared by the verticles of a Vertx instance, creating it on first use.
+     *
+     * @param vertx the Vertx instance
+     * @param config the {@code rate-limit} configuration section
+     * @param registry the registry to report the number of buckets to
+     * @return the shared rate limiter
+     */
+    public static RateLimiter shared(Vertx vertx, JsonObject config, MeterRegistry registry) {
+        LocalMap<String, RateLimiter> map = vertx.sharedData().getLocalMap(SHARED_MAP);
+        RateLimiter limiter = map.get(SHARED_KEY);
+        if (limiter == null) {
+            RateLimiter created = new RateLimiter(
+                config.getInteger("max-buckets", 100000),
+                config.getLong("sweep-interval-ms", 10000L),
+                registry);
+            limiter = map.putIfAbsent(SHARED_KEY, created);
+            if (limiter == null) {
+                limiter = created;
+                logger.info("Created rate limiter with at most {} buckets", limiter.maxBuckets);
+            }
+        }
+        return limiter;
+    }
+
+    /**
+     * Takes a token from a bucket, creating the bucket full if it does not exist.
+     *
+     * @param key the bucket key, naming the client and the route
+     * @param policy the limit of the route
+     * @return the outcome, with the state of the bucket for the rate limit headers
+     */
+    public Decision tryAcquire(String key, Policy policy) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (now - lastSweepNanos.get() >= sweepIntervalNanos || buckets.size() >= maxBuckets) {
+                sweep(now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(policy, now));
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    /**
+     * Drops full buckets, then arbitrary ones if the map is still at its bound.
+     * Only one thread sweeps at a time; the others carry on without waiting for it.
+     */
+    private void sweep(long now) {
+        long last = lastSweepNanos.get();
+        boolean due = now - last >= sweepIntervalNanos;
+        if (due && !lastSweepNanos.compareAndSet(last, now)) {
+            return;
+        }
+
+        int removed = 0;
+        for (Iterator<TokenBucket> it = buckets.values().iterator(); it.hasNext(); ) {
+            if (it.next().isFull(now)) {
+                it.remove();
+                removed++;
+            }
+        }
+        for (Iterator<TokenBucket> it = buckets.values().iterator(); it.hasNext() && buckets.size() >= maxBuckets; ) {
+            it.next();
+            it.remove();
+            removed++;
+        }
+        if (removed > 0) {
+            logger.debug("Dropped {} rate limit buckets, {} left", removed, buckets.size());
+        }
+    }
+
+    /**
+     * Gets the number of buckets.
+     *
+     * @return the number of buckets
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * The limit of a route: a burst of up to {@code capacity} requests, refilled at
+     * {@code refillPerSecond} requests per second.
+     */
+    public static final class Policy {
+        private final int capacity;
+        private final double refillPerSecond;
+        private final long intervalNanos;
+        private final long burstNanos;
+
+        public Policy(int capacity, double refillPerSecond) {
+            if (capacity < 1 || refillPerSecond <= 0) {
+                throw new IllegalArgumentException("Invalid rate limit: capacity " + capacity + ", refill " + refillPerSecond + "/s");
+            }
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+            this.burstNanos = capacity * intervalNanos;
+        }
+
+        /**
+         * Creates a policy from its configuration.
+         *
+         * @param config the policy configuration, with {@code capacity} and {@code refill-per-second}
+         * @return the policy
+         */
+        public static Policy fromConfig(JsonObject config) {
+            return new Policy(config.getInteger("capacity", 100), config.getDouble("refill-per-second", 50.0));
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+    }
+
+    /**
+     * The outcome of taking a token.
+     */
+    public static final class Decision {
+        private final boolean allowed;
+        private final int limit;
+        private final int remaining;
+        private final long resetNanos;
+        private final long retryAfterNanos;
+
+        private Decision(boolean allowed, int limit, int remaining, long resetNanos, long retryAfterNanos) {
+            this.allowed = allowed;
+            this.limit = limit;
+            this.remaining = remaining;
+            this.resetNanos = resetNanos;
+            this.retryAfterNanos = retryAfterNanos;
+        }
+
+        public boolean isAllowed() {
+            return allowed;
+        }
+
+        /**
+         * @return the capacity of the bucket
+         */
+        public int getLimit() {
+            return limit;
+        }
+
+        /**
+         * @return the tokens left after this request
+         */
+        public int getRemaining() {
+            return remaining;
+        }
+
+        /**
+         * @return the time until the bucket is full again
+         */
+        public long getResetNanos() {
+            return resetNanos;
+        }
+
+        /**
+         * @return the time until a request would be allowed, 0 if this one was
+         */
+        public long getRetryAfterNanos() {
+            return retryAfterNanos;
+        }
+    }
+
+    /**
+     * A token bucket held as the time at which it is full again.
+     */
+    static final class TokenBucket {
+        private final Policy policy;
+        private final AtomicLong fullAt;
+
+        TokenBucket(Policy policy, long now) {
+            this.policy = policy;
+            this.fullAt = new AtomicLong(now);
+        }
+
+        Decision tryAcquire(long now) {
+            while (true) {
+                long current = fullAt.get();
+                // A bucket that filled up in the past is full now, not fuller
+                long next = Math.max(current, now) + policy.intervalNanos;
+                long debt = next - now;
+                if (debt > policy.burstNanos) {
+                    return new Decision(false, policy.capacity, 0, current - now, debt - policy.burstNanos);
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    int remaining = (int) ((policy.burstNanos - debt) / policy.intervalNanos);
+                    return new Decision(true, policy.capacity, remaining, debt, 0);
+                }
+            }
+        }
+
+        boolean isFull(long now) {
+            return now - fullAt.get() >= 0;
+        }
+    }
+}
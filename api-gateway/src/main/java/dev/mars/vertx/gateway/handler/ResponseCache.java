@@ -0,0 +1,200 @@
+package dev.mars.vertx.gateway.handler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of encoded service responses, shared by the ResponseCacheHandlers of one router.
+ * Entries remember the service and, for single-item requests, the item ID they were built from, so a
+ * mutation event can drop exactly the entries it may have changed: every entry of the item, and every
+ * entry of the service that was not about a single item (lists, multi-gets).
+ *
+ * Not thread-safe: the cache is confined to the event loop of the verticle that owns the router.
+ */
+public class ResponseCache {
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCache.class);
+
+    private final LinkedHashMap<String, Entry> entries;
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Counter invalidations;
+    private long generation;
+
+    /**
+     * Creates a new response cache.
+     *
+     * @param maxEntries the maximum number of cached responses
+     * @param registry the registry to report cache metrics to
+     */
+    public ResponseCache(int maxEntries, MeterRegistry registry) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = requests(registry, "hit");
+        this.staleHits = requests(registry, "stale");
+        this.misses = requests(registry, "miss");
+        this.invalidations = Counter.builder("gateway.cache.invalidations")
+            .description("Cached responses dropped by service mutation events")
+            .register(registry);
+    }
+
+    private static Counter requests(MeterRegistry registry, String result) {
+        return Counter.builder("gateway.cache.requests")
+            .description("Cacheable requests by cache outcome")
+            .tag("result", result)
+            .register(registry);
+    }
+
+    /**
+     * Gets the entry for a key, whether fresh or stale.
+     *
+     * @param key the cache key
+     * @return the entry, or null if there is none
+     */
+    Entry get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Gets the current invalidation generation, to pass to {@link #put} once the response is fetched.
+     *
+     * @return the generation
+     */
+    long generation() {
+        return generation;
+    }
+
+    /**
+     * Stores a response, unless an invalidation happened since it was requested: the response may
+     * then predate the mutation that caused it.
+     *
+     * @param key the cache key
+     * @param body the encoded response
+     * @param service the service that produced the response
+     * @param itemId the item the response is about, or null if it is not about a single item
+     * @param policy the cache policy of the route
+     * @param requestedAt the generation returned by {@link #generation()} before the request was sent
+     */
+    void put(String key, Buffer body, String service, String itemId, CachePolicy policy, long requestedAt) {
+        if (requestedAt != generation) {
+            logger.debug("Not caching response for {} fetched before an invalidation", key);
+            return;
+        }
+        entries.put(key, new Entry(body, service, itemId, System.currentTimeMillis(), policy));
+    }
+
+    /**
+     * Drops the entries a mutation of the given items may have changed.
+     *
+     * @param service the service whose data changed
+     * @param ids the IDs of the changed items
+     */
+    public void invalidate(String service, JsonArray ids) {
+        generation++;
+        int removed = 0;
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+            Entry entry = it.next();
+            if (entry.service.equals(service) && (entry.itemId == null || ids.contains(entry.itemId))) {
+                it.remove();
+                removed++;
+            }
+        }
+        invalidations.increment(removed);
+        logger.debug("Invalidated {} cached responses of {} for items {}", removed, service, ids);
+    }
+
+    /**
+     * Gets the number of cached responses.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordStaleHit() {
+        staleHits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    /**
+     * Per-route cache settings, all in milliseconds.
+     * A response is fresh for {@code ttl}; for {@code staleWhileRevalidate} after that it is still
+     * served while a background refresh runs; for {@code staleIfError} after it expired it is
+     * served when the service cannot be reached.
+     */
+    public static final class CachePolicy {
+        private final long ttl;
+        private final long staleWhileRevalidate;
+        private final long staleIfError;
+
+        public CachePolicy(long ttl, long staleWhileRevalidate, long staleIfError) {
+            this.ttl = ttl;
+            this.staleWhileRevalidate = staleWhileRevalidate;
+            this.staleIfError = staleIfError;
+        }
+
+        public long getTtl() {
+            return ttl;
+        }
+
+        public long getStaleWhileRevalidate() {
+            return staleWhileRevalidate;
+        }
+
+        public long getStaleIfError() {
+            return staleIfError;
+        }
+    }
+
+    /**
+     * A cached response.
+     */
+    static final class Entry {
+        final Buffer body;
+        final String service;
+        final String itemId;
+        final long storedAt;
+        final CachePolicy policy;
+        boolean revalidating;
+
+        private Entry(Buffer body, String service, String itemId, long storedAt, CachePolicy policy) {
+            this.body = body;
+            this.service = service;
+            this.itemId = itemId;
+            this.storedAt = storedAt;
+            this.policy = policy;
+        }
+
+        boolean isFresh(long now) {
+            return now - storedAt < policy.ttl;
+        }
+
+        boolean isRevalidatable(long now) {
+            return now - storedAt < policy.ttl + policy.staleWhileRevalidate;
+        }
+
+        boolean isUsableOnError(long now) {
+            return now - storedAt < policy.ttl + policy.staleIfError;
+        }
+    }
+}
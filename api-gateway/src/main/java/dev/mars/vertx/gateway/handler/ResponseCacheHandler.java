@@ -0,0 +1,103 @@
+package dev.mars.vertx.gateway.handler;
+
+import dev.mars.vertx.gateway.service.SingleFlight;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.RoutingContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves GET requests of a route from a ResponseCache, in front of the route's ServiceHandler.
+ * A fresh entry is sent as stored, without any JSON work. A stale entry within the
+ * stale-while-revalidate window is sent as well, while one background request refreshes it. On a
+ * miss the ServiceHandler fetches the response, which is cached and sent; if the service fails, an
+ * entry within the stale-if-error window is sent instead of the error.
+ *
+ * Requests that cannot be cached (no shareable scope, or an invalid request) are passed on to the
+ * ServiceHandler unchanged. The {@code X-Cache} response header reports HIT, STALE or MISS.
+ */
+public class ResponseCacheHandler implements Handler<RoutingContext> {
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCacheHandler.class);
+
+    private final ResponseCache cache;
+    private final ResponseCache.CachePolicy policy;
+    private final ServiceHandler serviceHandler;
+
+    /**
+     * Creates a new response cache handler.
+     *
+     * @param cache the cache shared by the router's routes
+     * @param policy the cache policy of this route
+     * @param serviceHandler the handler of this route that fetches responses from the service
+     */
+    public ResponseCacheHandler(ResponseCache cache, ResponseCache.CachePolicy policy, ServiceHandler serviceHandler) {
+        this.cache = cache;
+        this.policy = policy;
+        this.serviceHandler = serviceHandler;
+    }
+
+    @Override
+    public void handle(RoutingContext context) {
+        String scope = ServiceHandler.requestScope(context);
+        JsonObject request;
+        try {
+            request = scope != null ? serviceHandler.createRequest(context) : null;
+        } catch (IllegalArgumentException e) {
+            request = null;
+        }
+        if (request == null) {
+            context.next();
+            return;
+        }
+
+        String key = scope + " " + SingleFlight.canonical(request);
+        ResponseCache.Entry entry = cache.get(key);
+        long now = System.currentTimeMillis();
+
+        if (entry != null && entry.isFresh(now)) {
+            cache.recordHit();
+            send(context, entry.body, "HIT");
+            return;
+        }
+
+        if (entry != null && entry.isRevalidatable(now)) {
+            cache.recordStaleHit();
+            send(context, entry.body, "STALE");
+            if (!entry.revalidating) {
+                entry.revalidating = true;
+                fetch(key, request, scope).onComplete(ar -> entry.revalidating = false);
+            }
+            return;
+        }
+
+        cache.recordMiss();
+        fetch(key, request, scope)
+            .onSuccess(body -> send(context, body, "MISS"))
+            .onFailure(err -> {
+                ResponseCache.Entry fallback = cache.get(key);
+                if (fallback != null && fallback.isUsableOnError(System.currentTimeMillis())) {
+                    logger.warn("Serving stale response for {} after error: {}", key, err.getMessage());
+                    cache.recordStaleHit();
+                    send(context, fallback.body, "STALE");
+                } else {
+                    serviceHandler.handleError(context, err);
+                }
+            });
+    }
+
+    private Future<Buffer> fetch(String key, JsonObject request, String scope) {
+        long generation = cache.generation();
+        return serviceHandler.fetch(request, scope)
+            .onSuccess(body -> cache.put(key, body, serviceHandler.getServiceName(), request.getString("id"), policy, generation));
+    }
+
+    private static void send(RoutingContext context, Buffer body, String cacheStatus) {
+        context.response()
+                .putHeader("Content-Type", "application/json")
+                .putHeader("X-Cache", cacheStatus)
+                .end(body);
+    }
+}
@@ -1,7 +1,15 @@
 package dev.mars.vertx.gateway.handler;
 
+import dev.mars.vertx.common.eventbus.Passthrough;
+import dev.mars.vertx.common.util.PageCursor;
+import dev.mars.vertx.common.util.RequestLimits;
 import dev.mars.vertx.gateway.service.MicroserviceClient;
+import dev.mars.vertx.gateway.service.ServiceOverloadedException;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.RoutingContext;
 import org.slf4j.Logger;
@@ -15,6 +23,8 @@ import java.util.function.Function;
  */
 public class ServiceHandler implements Handler<RoutingContext> {
     private static final Logger logger = LoggerFactory.getLogger(ServiceHandler.class);
+    // Seconds a client rejected at a service's concurrency limit is asked to wait
+    private static final String OVERLOADED_RETRY_AFTER_S = "1";
     
     private final MicroserviceClient client;
     private final Function<RoutingContext, JsonObject> requestTransformer;
@@ -34,13 +44,14 @@ public class ServiceHandler implements Handler<RoutingContext> {
     }
     
     /**
-     * Creates a new service handler with a default request transformer.
+     * Creates a new service handler for a route without an action, with the request transformer
+     * of {@link #withMutationMethod()}.
      *
      * @param client the microservice client
      * @param serviceName the name of the service for logging
      */
     public ServiceHandler(MicroserviceClient client, String serviceName) {
-        this(client, ServiceHandler::createDefaultRequestObject, serviceName);
+        this(client, withMutationMethod(), serviceName);
     }
     
     @Override
@@ -49,23 +60,85 @@ public class ServiceHandler implements Handler<RoutingContext> {
             logger.debug("Handling {} service request: {}", serviceName, context.request().uri());
             
             // Create request object using the transformer
-            JsonObject request = requestTransformer.apply(context);
+            JsonObject request = createRequest(context);
             
-            // Send request to service
-            client.sendRequest(request)
-                .onSuccess(response -> {
-                    logger.debug("Received response from {} service: {}", serviceName, response);
-                    sendResponse(context, response);
-                })
-                .onFailure(err -> {
-                    logger.error("Error calling {} service", serviceName, err);
-                    handleError(context, new RuntimeException("Service unavailable: " + err.getMessage()));
-                });
+            // Send request to service; identical concurrent GETs may share one downstream request
+            fetch(request, requestScope(context))
+                .onSuccess(body -> sendResponse(context, body))
+                .onFailure(err -> handleError(context, err));
         } catch (Exception e) {
             handleError(context, e);
         }
     }
     
+    /**
+     * Creates the request object for the service from the routing context.
+     *
+     * @param context the routing context
+     * @return the request object
+     * @throws IllegalArgumentException if the HTTP request is invalid
+     */
+    public JsonObject createRequest(RoutingContext context) {
+        return requestTransformer.apply(context);
+    }
+    
+    /**
+     * Sends a request to the service and encodes its response.
+     *
+     * @param request the request object
+     * @param scope the coalescing scope, or null to never coalesce the request
+     * @return a Future with the encoded response body
+     */
+    public Future<Buffer> fetch(JsonObject request, String scope) {
+        return client.sendRequest(request, scope)
+            .onSuccess(response -> logger.debug("Received response from {} service: {}", serviceName, response))
+            .map(JsonObject::toBuffer)
+            .recover(err -> {
+                if (err instanceof ServiceOverloadedException) {
+                    return Future.failedFuture(err);
+                }
+                logger.error("Error calling {} service", serviceName, err);
+                return Future.failedFuture(new RuntimeException("Service unavailable: " + err.getMessage()));
+            });
+    }
+    
+    /**
+     * Gets the name of the service this handler calls.
+     *
+     * @return the service name
+     */
+    public String getServiceName() {
+        return serviceName;
+    }
+    
+    /**
+     * Gets the scope within which identical requests may share a response, by coalescing or caching.
+     * Only GET requests are shared. The scope covers the route and the caller, so that two users
+     * never share a response; an authenticated user without a subject never shares one.
+     *
+     * @param context the routing context
+     * @return the scope, or null if the request must not share a response
+     */
+    static String requestScope(RoutingContext context) {
+        if (context.request().method() != HttpMethod.GET) {
+            return null;
+        }
+        
+        String caller = "anonymous";
+        if (context.user() != null) {
+            caller = context.user().principal().getString("sub");
+            if (caller == null) {
+                return null;
+            }
+            caller = "user:" + caller;
+        }
+        
+        String route = context.currentRoute() != null && context.currentRoute().getPath() != null
+                ? context.currentRoute().getPath()
+                : context.request().path();
+        return "GET " + route + " " + caller;
+    }
+    
     /**
      * Creates a default request object from the routing context.
      *
@@ -94,6 +167,149 @@ public class ServiceHandler implements Handler<RoutingContext> {
         return request;
     }
     
+    /**
+     * Creates a request transformer for routes without an action: the default request object,
+     * naming the HTTP method of a POST, PUT or DELETE so that the service can tell a create, update
+     * or delete from a lookup. Reads carry no method.
+     *
+     * @return the request transformer
+     */
+    public static Function<RoutingContext, JsonObject> withMutationMethod() {
+        return context -> {
+            JsonObject request = createDefaultRequestObject(context);
+            String method = context.request().method().name();
+            if (Passthrough.isMutation(method)) {
+                request.put("method", method);
+            }
+            return request;
+        };
+    }
+    
+    /**
+     * Creates a request transformer that builds the default request object and sets an action on it.
+     *
+     * @param action the action the service should perform
+     * @return the request transformer
+     */
+    public static Function<RoutingContext, JsonObject> withAction(String action) {
+        return context -> createDefaultRequestObject(context).put("action", action);
+    }
+    
+    /**
+     * Creates a request transformer that also accepts a bare JSON array as the body.
+     * An array body is placed in the given field of the request; an object body is merged as usual.
+     * Either way, the field must be an array of at most the given size, or the request is rejected
+     * with 400 at the gateway.
+     *
+     * @param action the action the service should perform
+     * @param field the request field that receives an array body
+     * @param maxSize the largest number of elements the array may have
+     * @return the request transformer
+     */
+    public static Function<RoutingContext, JsonObject> withArrayBody(String action, String field, int maxSize) {
+        return context -> {
+            JsonObject request = arrayBodyRequest(context, action, field);
+            Object array = request.getValue(field);
+            if (array != null && !(array instanceof JsonArray)) {
+                throw new IllegalArgumentException("Field " + field + " must be an array");
+            }
+            if (array != null && ((JsonArray) array).size() > maxSize) {
+                throw new IllegalArgumentException("Field " + field + " is limited to " + maxSize + " elements");
+            }
+            return request;
+        };
+    }
+    
+    private static JsonObject arrayBodyRequest(RoutingContext context, String action, String field) {
+        Buffer body = context.getBody();
+        if (body != null && body.length() > 0 && body.getByte(firstNonWhitespace(body)) == '[') {
+            JsonObject request = new JsonObject();
+            context.pathParams().forEach(request::put);
+            context.queryParams().forEach(entry -> request.put(entry.getKey(), entry.getValue()));
+            try {
+                request.put(field, new JsonArray(body));
+            } catch (Exception e) {
+                throw new IllegalArgumentException("Invalid JSON body");
+            }
+            return request.put("action", action);
+        }
+        return withAction(action).apply(context);
+    }
+    
+    private static int firstNonWhitespace(Buffer body) {
+        int i = 0;
+        while (i < body.length() - 1 && Character.isWhitespace(body.getByte(i))) {
+            i++;
+        }
+        return i;
+    }
+    
+    /**
+     * Creates a request transformer for paginated list requests.
+     * Validates the optional {@code limit} and {@code cursor} query parameters, so malformed values
+     * and limits over {@link RequestLimits#MAX_PAGE_SIZE} are rejected with 400 at the gateway, and
+     * forwards the limit as a number and the cursor unchanged.
+     *
+     * @param action the action the service should perform
+     * @return the request transformer
+     */
+    public static Function<RoutingContext, JsonObject> withPagination(String action) {
+        return context -> {
+            JsonObject request = withAction(action).apply(context);
+            
+            String limit = context.queryParams().get("limit");
+            if (limit != null) {
+                int parsedLimit;
+                try {
+                    parsedLimit = Integer.parseInt(limit);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid limit: " + limit);
+                }
+                if (parsedLimit < 1 || parsedLimit > RequestLimits.MAX_PAGE_SIZE) {
+                    throw new IllegalArgumentException("Limit must be between 1 and " + RequestLimits.MAX_PAGE_SIZE);
+                }
+                request.put("limit", parsedLimit);
+            }
+            
+            // Cursors are opaque to clients, but a malformed one can be rejected early
+            PageCursor.decode(context.queryParams().get("cursor"));
+            return request;
+        };
+    }
+    
+    /**
+     * Creates a request transformer for collection requests that may name the items to fetch.
+     * When the {@code ids} query parameter is present, its comma-separated IDs are forwarded as an
+     * array with the given action; otherwise the request is built by the fallback transformer.
+     * More than {@link RequestLimits#MAX_IDS_PER_REQUEST} IDs are rejected with 400 at the gateway.
+     *
+     * @param action the action the service should perform for an ID list
+     * @param fallback the transformer for requests without an ID list
+     * @return the request transformer
+     */
+    public static Function<RoutingContext, JsonObject> withIdList(String action, Function<RoutingContext, JsonObject> fallback) {
+        return context -> {
+            String ids = context.queryParams().get("ids");
+            if (ids == null) {
+                return fallback.apply(context);
+            }
+            
+            JsonArray idList = new JsonArray();
+            for (String id : ids.split(",")) {
+                if (!id.isBlank()) {
+                    idList.add(id.trim());
+                }
+            }
+            if (idList.isEmpty()) {
+                throw new IllegalArgumentException("Invalid ids: " + ids);
+            }
+            if (idList.size() > RequestLimits.MAX_IDS_PER_REQUEST) {
+                throw new IllegalArgumentException("Multi-get requests are limited to " + RequestLimits.MAX_IDS_PER_REQUEST + " IDs");
+            }
+            return withAction(action).apply(context).put("ids", idList);
+        };
+    }
+    
     /**
      * Handles an error.
      *
@@ -109,6 +325,9 @@ public class ServiceHandler implements Handler<RoutingContext> {
         // Determine appropriate status code based on exception type
         if (e instanceof IllegalArgumentException) {
             statusCode = 400; // Bad Request
+        } else if (e instanceof ServiceOverloadedException) {
+            statusCode = 503; // Service Unavailable, rejected without calling the service
+            context.response().putHeader("Retry-After", OVERLOADED_RETRY_AFTER_S);
         }
         
         sendError(context, statusCode, errorMessage);
@@ -123,7 +342,7 @@ public class ServiceHandler implements Handler<RoutingContext> {
      */
     protected void sendError(RoutingContext context, int statusCode, String message) {
         JsonObject response = new JsonObject()
-                .put("error", statusCode == 404 ? "Not Found" : "Internal Server Error")
+                .put("error", statusCode == 404 ? "Not Found" : statusCode == 503 ? "Service Unavailable" : "Internal Server Error")
                 .put("message", message)
                 .put("path", context.request().uri());
         
@@ -137,11 +356,11 @@ public class ServiceHandler implements Handler<RoutingContext> {
      * Sends a JSON response.
      *
      * @param context the routing context
-     * @param response the response object
+     * @param body the encoded response object
      */
-    protected void sendResponse(RoutingContext context, JsonObject response) {
+    protected void sendResponse(RoutingContext context, Buffer body) {
         context.response()
                 .putHeader("Content-Type", "application/json")
-                .end(response.encode());
+                .end(body);
     }
 }
\ No newline at end of file
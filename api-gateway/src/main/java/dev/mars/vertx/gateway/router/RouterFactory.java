@@ -1,13 +1,23 @@
 package dev.mars.vertx.gateway.router;
 
+import dev.mars.vertx.common.metrics.MetricsManager;
+import dev.mars.vertx.gateway.handler.LoadSheddingHandler;
+import dev.mars.vertx.gateway.handler.PassthroughHandler;
+import dev.mars.vertx.gateway.handler.RateLimitHandler;
+import dev.mars.vertx.gateway.handler.RateLimiter;
+import dev.mars.vertx.gateway.handler.ResponseCache;
+import dev.mars.vertx.gateway.handler.ResponseCacheHandler;
 import dev.mars.vertx.gateway.handler.ServiceHandler;
+import dev.mars.vertx.gateway.security.SecurityManager;
 import io.vertx.core.Handler;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Route;
 import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.BodyHandler;
 import io.vertx.ext.web.handler.CorsHandler;
 import io.vertx.ext.web.handler.LoggerHandler;
@@ -27,6 +37,9 @@ public class RouterFactory {
 
     private final Vertx vertx;
     private final JsonObject config;
+    private final ResponseCache responseCache;
+    private final RateLimiter rateLimiter;
+    private final SecurityManager securityManager;
 
     /**
      * Creates a new router factory.
@@ -37,6 +50,21 @@ public class RouterFactory {
     public RouterFactory(Vertx vertx, JsonObject config) {
         this.vertx = vertx;
         this.config = config;
+
+        // Responses of the GET routes listed under cache.routes are cached when the cache is enabled
+        JsonObject cacheConfig = config.getJsonObject("cache", new JsonObject());
+        this.responseCache = cacheConfig.getBoolean("enabled", false)
+                ? new ResponseCache(cacheConfig.getInteger("max-entries", 10000), MetricsManager.getRegistry())
+                : null;
+
+        // Token buckets per client and route, shared with the other gateway verticles
+        JsonObject rateLimitConfig = config.getJsonObject("rate-limit", new JsonObject());
+        this.rateLimiter = rateLimitConfig.getBoolean("enabled", false)
+                ? RateLimiter.shared(vertx, rateLimitConfig, MetricsManager.getRegistry())
+                : null;
+
+        // Route authorization policies, enforced when security is enabled
+        this.securityManager = new SecurityManager(vertx, config);
         logger.info("Created RouterFactory");
     }
 
@@ -50,6 +78,9 @@ public class RouterFactory {
         logger.info("Creating router with {} handlers", handlers.size());
         Router router = Router.router(vertx);
 
+        // Shed load before any other work is spent on a request
+        configureLoadShedding(router);
+
         // Add common middleware
         router.route().handler(LoggerHandler.create());
         router.route().handler(ResponseTimeHandler.create());
@@ -61,6 +92,9 @@ public class RouterFactory {
         // Configure routes from handlers map
         configureRoutes(router, handlers);
 
+        // Drop cached responses when services report mutations
+        configureCacheInvalidation();
+
         // Add error handling
         configureErrorHandler(router);
 
@@ -68,6 +102,21 @@ public class RouterFactory {
         return Future.succeededFuture(router);
     }
 
+    /**
+     * Installs the load shedding handler in front of all routes, if load shedding is enabled.
+     * The handler measures the lag of the event loop this method runs on, which is the one
+     * serving the router when it is created from a verticle.
+     *
+     * @param router the router
+     */
+    private void configureLoadShedding(Router router) {
+        JsonObject sheddingConfig = config.getJsonObject("load-shedding", new JsonObject());
+        if (sheddingConfig.getBoolean("enabled", false)) {
+            router.route().handler(new LoadSheddingHandler(vertx, sheddingConfig, MetricsManager.getRegistry()));
+            logger.info("Load shedding enabled");
+        }
+    }
+
     /**
      * Configures routes from the handlers map.
      *
@@ -76,25 +125,46 @@ public class RouterFactory {
      */
     private void configureRoutes(Router router, Map<String, io.vertx.core.Handler<io.vertx.ext.web.RoutingContext>> handlers) {
         handlers.forEach((path, handler) -> {
+            Route route;
             if (path.startsWith("GET:")) {
                 String routePath = path.substring(4);
-                router.get(routePath).handler(handler);
+                route = router.get(routePath);
+                addAuthorization(route, path);
+                addRateLimit(route, path);
+                ResponseCacheHandler cacheHandler = createCacheHandler(routePath, handler);
+                if (cacheHandler != null) {
+                    route.handler(cacheHandler);
+                    logger.debug("Added response cache to GET route: {}", routePath);
+                }
+                route.handler(handler);
                 logger.debug("Added GET route: {}", routePath);
             } else if (path.startsWith("POST:")) {
                 String routePath = path.substring(5);
-                router.post(routePath).handler(handler);
+                route = router.post(routePath);
+                addAuthorization(route, path);
+                addRateLimit(route, path);
+                route.handler(handler);
                 logger.debug("Added POST route: {}", routePath);
             } else if (path.startsWith("PUT:")) {
                 String routePath = path.substring(4);
-                router.put(routePath).handler(handler);
+                route = router.put(routePath);
+                addAuthorization(route, path);
+                addRateLimit(route, path);
+                route.handler(handler);
                 logger.debug("Added PUT route: {}", routePath);
             } else if (path.startsWith("DELETE:")) {
                 String routePath = path.substring(7);
-                router.delete(routePath).handler(handler);
+                route = router.delete(routePath);
+                addAuthorization(route, path);
+                addRateLimit(route, path);
+                route.handler(handler);
                 logger.debug("Added DELETE route: {}", routePath);
             } else {
                 // Default to GET if no method specified
-                router.get(path).handler(handler);
+                route = router.get(path);
+                addAuthorization(route, path);
+                addRateLimit(route, path);
+                route.handler(handler);
                 logger.debug("Added default GET route: {}", path);
             }
         });
@@ -103,6 +173,107 @@ public class RouterFactory {
         configureFallbackHandler(router);
     }
 
+    /**
+     * Adds the authorization policy handler to a route, if security is enabled. It goes before the
+     * rate limit, so that authenticated clients are limited by their JWT subject.
+     *
+     * @param route the route
+     * @param key the route's key in the handlers map
+     */
+    private void addAuthorization(Route route, String key) {
+        Handler<RoutingContext> authorizationHandler = securityManager.createPolicyAuthorizationHandler(key);
+        if (authorizationHandler != null) {
+            route.handler(authorizationHandler);
+            logger.debug("Added authorization policy handler to route: {}", key);
+        }
+    }
+
+    /**
+     * Adds the rate limit handler to a route, if rate limiting is enabled. The route's limit is
+     * the one configured under {@code rate-limit.routes} for its handler key, such as
+     * {@code POST:/api/service-one}, or else the default limit. A route with neither, or whose
+     * limit has {@code enabled: false}, is not limited.
+     *
+     * @param route the route
+     * @param key the route's key in the handlers map
+     */
+    private void addRateLimit(Route route, String key) {
+        if (rateLimiter == null) {
+            return;
+        }
+
+        JsonObject rateLimitConfig = config.getJsonObject("rate-limit");
+        JsonObject policyConfig = rateLimitConfig.getJsonObject("routes", new JsonObject()).getJsonObject(key,
+                rateLimitConfig.getJsonObject("default"));
+        if (policyConfig == null || !policyConfig.getBoolean("enabled", true)) {
+            return;
+        }
+
+        RateLimiter.Policy policy = RateLimiter.Policy.fromConfig(policyConfig);
+        route.handler(new RateLimitHandler(rateLimiter, policy, key, MetricsManager.getRegistry()));
+        logger.debug("Added rate limit of {} requests, refilled at {}/s, to route: {}",
+                policy.getCapacity(), policy.getRefillPerSecond(), key);
+    }
+
+    /**
+     * Creates the response cache handler for a GET route, if the route has a cache policy.
+     * Only routes served by a ServiceHandler can be cached; passthrough routes cannot, since the
+     * gateway never builds their request objects.
+     *
+     * @param routePath the route path
+     * @param handler the route's handler
+     * @return the cache handler, or null if the route is not cached
+     */
+    private ResponseCacheHandler createCacheHandler(String routePath, Handler<RoutingContext> handler) {
+        if (responseCache == null || !(handler instanceof ServiceHandler) || handler instanceof PassthroughHandler) {
+            return null;
+        }
+
+        JsonObject policyConfig = config.getJsonObject("cache").getJsonObject("routes", new JsonObject()).getJsonObject(routePath);
+        if (policyConfig == null) {
+            return null;
+        }
+
+        ResponseCache.CachePolicy policy = new ResponseCache.CachePolicy(
+                policyConfig.getLong("ttl-ms", 1000L),
+                policyConfig.getLong("stale-while-revalidate-ms", 0L),
+                policyConfig.getLong("stale-if-error-ms", 0L));
+        return new ResponseCacheHandler(responseCache, policy, (ServiceHandler) handler);
+    }
+
+    /**
+     * Subscribes the response cache to the mutation events of every service with an events address.
+     * An event carries the IDs of the changed items; entries of those items and the service's
+     * list responses are dropped.
+     */
+    private void configureCacheInvalidation() {
+        if (responseCache == null) {
+            return;
+        }
+
+        config.getJsonObject("services", new JsonObject()).forEach(service -> {
+            if (!(service.getValue() instanceof JsonObject)) {
+                return;
+            }
+            String eventsAddress = ((JsonObject) service.getValue()).getString("events-address");
+            if (eventsAddress != null) {
+                String serviceName = service.getKey();
+                vertx.eventBus().<JsonObject>consumer(eventsAddress, message ->
+                        responseCache.invalidate(serviceName, message.body().getJsonArray("ids", new JsonArray())));
+                logger.info("Invalidating cached {} responses on events from {}", serviceName, eventsAddress);
+            }
+        });
+    }
+
+    /**
+     * Gets the response cache.
+     *
+     * @return the response cache, or null if caching is disabled
+     */
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
     /**
      * Configures CORS support.
      *
@@ -0,0 +1,261 @@
+package dev.mars.vertx.gateway.security;
+
+import io.vertx.config.ConfigRetriever;
+import io.vertx.config.ConfigRetrieverOptions;
+import io.vertx.config.ConfigStoreOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Route-level authorization policies, compiled into a table the router checks with one array
+ * read and one bitwise operation per request.
+ *
+ * Policies are declared under {@code security.authorization.policies}, keyed by the gateway's
+ * route keys (method and path pattern, as in {@code DELETE:/api/service-one/:id}):
+ *
+ * <pre>
+ * policies:
+ *   "DELETE:/api/service-one/:id":
+ *     roles: [admin]
+ *   "PUT:/api/service-one/:id":
+ *     roles: [admin, editor]
+ *     require: any
+ * </pre>
+ *
+ * A request to a route with a policy needs a user with any of the roles, or all of them with
+ * {@code require: all}; routes without a policy are public. Route keys are interned to small
+ * integer IDs, and roles to bits (see {@link RoleBits}), so compiling turns the policies into an
+ * array of role masks indexed by route ID. The compiled table is replaced as a whole, so a reload
+ * is atomic for the requests checking it: each sees the old table or the new one.
+ *
+ * With {@code security.authorization.reload.path} set, the table re-reads that configuration file
+ * every {@code scan-period-ms} and recompiles its policies when they change. Policies that fail to
+ * compile on reload are logged and the previous table stays in force.
+ *
+ * The table is shared by all gateway verticles of a Vertx instance.
+ */
+public class AuthorizationPolicyTable implements Shareable {
+    private static final Logger logger = LoggerFactory.getLogger(AuthorizationPolicyTable.class);
+
+    private static final String SHARED_MAP = "gateway.security";
+    private static final String SHARED_KEY = "authorization-policies";
+
+    private final ConcurrentHashMap<String, Integer> routeIds = new ConcurrentHashMap<>();
+    private volatile Compiled compiled = new Compiled(new long[0], new boolean[0], 0);
+    // The roles of the policies in force, registered with RoleBits; guarded by this
+    private Set<String> registeredRoles = Set.of();
+
+    /**
+     * Creates a policy table with the given policies.
+     *
+     * @param policies the policies, keyed by route key
+     * @throws IllegalArgumentException if a policy is invalid
+     */
+    public AuthorizationPolicyTable(JsonObject policies) {
+        update(policies);
+    }
+
+    /**
+     * Gets the policy table shared by the verticles of a Vertx instance, creating it on first use.
+     * The verticle that creates it also starts watching the configuration file for changes, if a
+     * reload path is configured.
+     *
+     * @param vertx the Vertx instance
+     * @param config the {@code security.authorization} configuration section
+     * @return the shared policy table
+     * @throws IllegalArgumentException if a policy is invalid
+     */
+    public static AuthorizationPolicyTable shared(Vertx vertx, JsonObject config) {
+        LocalMap<String, AuthorizationPolicyTable> map = vertx.sharedData().getLocalMap(SHARED_MAP);
+        AuthorizationPolicyTable table = map.get(SHARED_KEY);
+        if (table == null) {
+            AuthorizationPolicyTable created = new AuthorizationPolicyTable(config.getJsonObject("policies", new JsonObject()));
+            table = map.putIfAbsent(SHARED_KEY, created);
+            if (table == null) {
+                table = created;
+                JsonObject reload = config.getJsonObject("reload", new JsonObject());
+                if (reload.getString("path") != null) {
+                    table.watch(vertx, reload.getString("path"), reload.getLong("scan-period-ms", 5000L));
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Re-reads the policies from a configuration file whenever it changes.
+     *
+     * @param vertx the Vertx instance
+     * @param path the configuration file, YAML or JSON
+     * @param scanPeriodMs how often the file is checked for changes
+     */
+    public void watch(Vertx vertx, String path, long scanPeriodMs) {
+        boolean yaml = path.endsWith(".yaml") || path.endsWith(".yml");
+        ConfigRetriever retriever = ConfigRetriever.create(vertx, new ConfigRetrieverOptions()
+            .setScanPeriod(scanPeriodMs)
+            .addStore(new ConfigStoreOptions()
+                .setType("file")
+                .setFormat(yaml ? "yaml" : "json")
+                .setConfig(new JsonObject().put("path", path))));
+
+        retriever.listen(change -> {
+            JsonObject policies = change.getNewConfiguration()
+                .getJsonObject("security", new JsonObject())
+                .getJsonObject("authorization", new JsonObject())
+                .getJsonObject("policies", new JsonObject());
+            try {
+                update(policies);
+            } catch (RuntimeException e) {
+                logger.error("Keeping the previous authorization policies, the reloaded ones are invalid: {}", e.getMessage());
+            }
+        });
+        logger.info("Reloading authorization policies from {} every {} ms", path, scanPeriodMs);
+    }
+
+    /**
+     * Compiles policies and puts them in force, replacing all previous ones.
+     * The roles of the replaced policies are released after the new ones are in force, so their
+     * bits can only be reused by a later update.
+     *
+     * @param policies the policies, keyed by route key
+     * @throws IllegalArgumentException if a policy is invalid, in which case the previous policies stay in force
+     * @throws IllegalStateException if the policies use more roles than fit in a mask, in which case
+     *         the previous policies stay in force
+     */
+    public synchronized void update(JsonObject policies) {
+        List<String> routeKeys = new ArrayList<>();
+        List<List<String>> policyRoles = new ArrayList<>();
+        List<Boolean> requireAll = new ArrayList<>();
+        Set<String> allRoles = new LinkedHashSet<>();
+        for (String routeKey : policies.fieldNames()) {
+            Object value = policies.getValue(routeKey);
+            if (!(value instanceof JsonObject)) {
+                throw new IllegalArgumentException("Authorization policy of " + routeKey + " is not an object");
+            }
+            JsonObject policy = (JsonObject) value;
+
+            Object rolesValue = policy.getValue("roles", new JsonArray());
+            if (!(rolesValue instanceof JsonArray)) {
+                throw new IllegalArgumentException("Authorization policy of " + routeKey + " has roles that are not a list");
+            }
+            JsonArray roles = (JsonArray) rolesValue;
+            List<String> roleNames = new ArrayList<>();
+            for (int i = 0; i < roles.size(); i++) {
+                Object role = roles.getValue(i);
+                if (!(role instanceof String) || ((String) role).isEmpty()) {
+                    throw new IllegalArgumentException("Authorization policy of " + routeKey + " has an invalid role: " + role);
+                }
+                roleNames.add((String) role);
+            }
+            if (roleNames.isEmpty()) {
+                throw new IllegalArgumentException("Authorization policy of " + routeKey + " has no roles");
+            }
+            Object require = policy.getValue("require", "any");
+            if (!"any".equals(require) && !"all".equals(require)) {
+                throw new IllegalArgumentException("Authorization policy of " + routeKey + " requires '" + require + "', not any or all");
+            }
+
+            routeKeys.add(routeKey);
+            policyRoles.add(roleNames);
+            requireAll.add("all".equals(require));
+            allRoles.addAll(roleNames);
+        }
+
+        // Holds the new roles before the previous ones are released, so no bit changes meaning
+        // while a request may still be checking the previous table
+        RoleBits.register(allRoles);
+        int[] ids = new int[routeKeys.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = routeId(routeKeys.get(i));
+        }
+        int size = routeIds.size();
+        long[] maskTable = new long[size];
+        boolean[] requireAllTable = new boolean[size];
+        for (int i = 0; i < ids.length; i++) {
+            maskTable[ids[i]] = RoleBits.maskOf(policyRoles.get(i));
+            requireAllTable[ids[i]] = requireAll.get(i);
+        }
+        compiled = new Compiled(maskTable, requireAllTable, ids.length);
+        RoleBits.release(registeredRoles);
+        registeredRoles = allRoles;
+        logger.info("Compiled {} authorization policies using {} roles", ids.length, allRoles.size());
+    }
+
+    /**
+     * Gets the ID of a route key, giving it one if it has none yet.
+     *
+     * @param routeKey the route key, as in {@code GET:/api/service-one/:id}
+     * @return the route ID
+     */
+    public int routeId(String routeKey) {
+        Integer id = routeIds.get(routeKey);
+        if (id != null) {
+            return id;
+        }
+        synchronized (routeIds) {
+            return routeIds.computeIfAbsent(routeKey, key -> routeIds.size());
+        }
+    }
+
+    /**
+     * Checks whether a route has a policy.
+     *
+     * @param routeId the route ID
+     * @return true if requests to the route must be authorized
+     */
+    public boolean isProtected(int routeId) {
+        Compiled table = compiled;
+        return routeId < table.masks.length && table.masks[routeId] != 0;
+    }
+
+    /**
+     * Checks a user's roles against a route's policy.
+     *
+     * @param routeId the route ID
+     * @param roleMask the mask of the user's roles
+     * @return true if the route has no policy, or the user has the roles it requires
+     */
+    public boolean isAllowed(int routeId, long roleMask) {
+        Compiled table = compiled;
+        if (routeId >= table.masks.length) {
+            return true;
+        }
+        long required = table.masks[routeId];
+        return table.requireAll[routeId] ? (roleMask & required) == required : required == 0 || (roleMask & required) != 0;
+    }
+
+    /**
+     * Gets the number of policies in force.
+     *
+     * @return the number of routes with a policy
+     */
+    public int size() {
+        return compiled.policies;
+    }
+
+    /**
+     * One compiled set of policies; never modified once in force.
+     */
+    private static final class Compiled {
+        private final long[] masks;
+        private final boolean[] requireAll;
+        private final int policies;
+
+        private Compiled(long[] masks, boolean[] requireAll, int policies) {
+            this.masks = masks;
+            this.requireAll = requireAll;
+            this.policies = policies;
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package dev.mars.vertx.gateway.security;
 
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.JWTOptions;
+import io.vertx.ext.auth.User;
+import io.vertx.ext.auth.authentication.TokenCredentials;
 import io.vertx.ext.auth.jwt.JWTAuth;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.JWTAuthHandler;
@@ -13,6 +17,10 @@ import org.slf4j.LoggerFactory;
  * Handler for JWT authentication.
  * Validates JWT tokens in the Authorization header.
  * This is a simplified wrapper around Vert.x's JWTAuthHandler.
+ *
+ * With a VerifiedTokenCache, a bearer token that was verified before is accepted from the cache
+ * until it expires. A token that is not cached is verified once and cached; a token that fails
+ * verification is handed to the Vert.x handler, which sends the usual 401 response.
  */
 public class JwtAuthHandler implements Handler<RoutingContext> {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthHandler.class);
@@ -21,6 +29,7 @@ public class JwtAuthHandler implements Handler<RoutingContext> {
     private final Handler<RoutingContext> jwtAuthHandler;
     private final String realm;
     private final int tokenExpirationSeconds;
+    private final VerifiedTokenCache tokenCache;
 
     /**
      * Creates a new JWT authentication handler with default settings.
@@ -49,9 +58,22 @@ public class JwtAuthHandler implements Handler<RoutingContext> {
      * @param tokenExpirationSeconds the token expiration time in seconds
      */
     public JwtAuthHandler(JWTAuth jwtAuth, String realm, int tokenExpirationSeconds) {
+        this(jwtAuth, realm, tokenExpirationSeconds, null);
+    }
+
+    /**
+     * Creates a new JWT authentication handler that caches verified tokens.
+     *
+     * @param jwtAuth the JWT authentication provider
+     * @param realm the authentication realm
+     * @param tokenExpirationSeconds the token expiration time in seconds
+     * @param tokenCache the cache of verified tokens, or null to verify every token
+     */
+    public JwtAuthHandler(JWTAuth jwtAuth, String realm, int tokenExpirationSeconds, VerifiedTokenCache tokenCache) {
         this.jwtAuth = jwtAuth;
         this.realm = realm;
         this.tokenExpirationSeconds = tokenExpirationSeconds;
+        this.tokenCache = tokenCache;
 
         // Create the Vert.x JWT auth handler
         this.jwtAuthHandler = JWTAuthHandler.create(jwtAuth);
@@ -63,8 +85,61 @@ public class JwtAuthHandler implements Handler<RoutingContext> {
     public void handle(RoutingContext context) {
         logger.debug("Handling JWT authentication for request: {}", context.request().uri());
 
-        // Let the Vert.x JWT auth handler do the work
-        jwtAuthHandler.handle(context);
+        String token = tokenCache != null ? bearerToken(context) : null;
+        if (token == null) {
+            // Let the Vert.x JWT auth handler do the work
+            jwtAuthHandler.handle(context);
+            return;
+        }
+
+        authenticate(token)
+            .onSuccess(user -> {
+                context.setUser(user);
+                context.next();
+            })
+            // The Vert.x handler rejects the token with the same response as without the cache
+            .onFailure(err -> jwtAuthHandler.handle(context));
+    }
+
+    /**
+     * Authenticates the bearer token of a request, from the cache if it was verified before,
+     * without responding to the request.
+     *
+     * @param context the routing context
+     * @return a Future with the user, failed if the request has no valid bearer token
+     */
+    public Future<User> authenticate(RoutingContext context) {
+        String token = bearerToken(context);
+        if (token == null) {
+            return Future.failedFuture("Missing bearer token");
+        }
+        return authenticate(token);
+    }
+
+    private Future<User> authenticate(String token) {
+        if (tokenCache == null) {
+            return jwtAuth.authenticate(new TokenCredentials(token));
+        }
+        User cached = tokenCache.get(token);
+        if (cached != null) {
+            return Future.succeededFuture(cached);
+        }
+        return jwtAuth.authenticate(new TokenCredentials(token))
+            .onSuccess(user -> tokenCache.put(token, user));
+    }
+
+    /**
+     * Gets the bearer token of a request.
+     *
+     * @param context the routing context
+     * @return the token, or null if the request has no bearer token
+     */
+    private static String bearerToken(RoutingContext context) {
+        String authorization = context.request().getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || authorization.length() <= 7 || !authorization.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return null;
+        }
+        return authorization.substring(7);
     }
 
     /**
@@ -14,12 +14,15 @@ import java.util.Set;
  * Handler for role-based authorization.
  * Checks if the authenticated user has the required roles.
  * This handler should be used after a JWT authentication handler.
+ * The required roles are turned into a mask once, so a check is a bitwise AND with the user's
+ * role mask (see {@link RoleBits}).
  */
 public class RoleBasedAuthorizationHandler implements Handler<RoutingContext> {
     private static final Logger logger = LoggerFactory.getLogger(RoleBasedAuthorizationHandler.class);
 
     private final Set<String> requiredRoles;
     private final boolean requireAllRoles;
+    private final long requiredRoleMask;
 
     /**
      * Creates a new role-based authorization handler that requires any of the specified roles.
@@ -39,6 +42,7 @@ public class RoleBasedAuthorizationHandler implements Handler<RoutingContext> {
     public RoleBasedAuthorizationHandler(boolean requireAllRoles, String... requiredRoles) {
         this.requiredRoles = new HashSet<>(Arrays.asList(requiredRoles));
         this.requireAllRoles = requireAllRoles;
+        this.requiredRoleMask = RoleBits.register(this.requiredRoles);
 
         logger.info("Created role-based authorization handler with required roles: {}, requireAllRoles: {}", 
                 this.requiredRoles, this.requireAllRoles);
@@ -57,31 +61,13 @@ public class RoleBasedAuthorizationHandler implements Handler<RoutingContext> {
             return;
         }
 
-        // Get the user roles
-        String rolesStr = user.getString("roles", "");
-        Set<String> userRoles = new HashSet<>();
-
-        // Handle empty roles string
-        if (!rolesStr.isEmpty()) {
-            userRoles.addAll(Arrays.asList(rolesStr.split(",")));
-        }
+        // The user's roles as a mask, computed once per token when it is cached
+        long userRoles = RoleBits.maskOf(context.user());
 
         // Check if the user has the required roles
-        boolean authorized;
-
-        if (requireAllRoles) {
-            // User must have all required roles
-            authorized = userRoles.containsAll(requiredRoles);
-        } else {
-            // User must have at least one of the required roles
-            authorized = false;
-            for (String role : requiredRoles) {
-                if (userRoles.contains(role)) {
-                    authorized = true;
-                    break;
-                }
-            }
-        }
+        boolean authorized = requireAllRoles
+                ? (userRoles & requiredRoleMask) == requiredRoleMask
+                : (userRoles & requiredRoleMask) != 0;
 
         if (authorized) {
             logger.debug("User {} has required role(s) for request: {}", user.getString("sub"), context.request().uri());
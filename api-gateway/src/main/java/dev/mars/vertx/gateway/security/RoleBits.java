@@ -0,0 +1,165 @@
+package dev.mars.vertx.gateway.security;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.User;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gives every role the gateway checks a bit of a {@code long}, so that a user's roles can be held
+ * as one mask and a role check is a bitwise AND instead of splitting the {@code roles} claim into
+ * a set on every request.
+ *
+ * Roles get their bits when an authorization handler or policy requiring them is created; roles
+ * of a user that nothing requires have no bit and are left out of the mask, since nothing checks
+ * them. Every registration holds a reference to its roles, and a role whose last reference is
+ * released gives its bit back, so that reloading policies that rename roles does not use up bits.
+ * The registry is shared by all event loops and holds at most 64 roles at a time; lookups do not
+ * lock, registrations do.
+ *
+ * A user's mask is stored in its attributes together with the generation of the registry when it
+ * was computed, so that a mask computed before a role got or gave back a bit is not trusted.
+ */
+public final class RoleBits {
+
+    static final String MASK_ATTRIBUTE = "role-mask";
+    static final String GENERATION_ATTRIBUTE = "role-generation";
+
+    private static final ConcurrentHashMap<String, Long> BITS = new ConcurrentHashMap<>();
+    private static final Map<String, Integer> REFERENCES = new HashMap<>();
+    private static long usedBits;
+    private static volatile int generation;
+
+    private RoleBits() {
+    }
+
+    /**
+     * Gets the mask of roles, giving each role a bit if it has none yet, and holds a reference
+     * to each of them until {@link #release} is called with the same roles.
+     *
+     * @param roles the roles
+     * @return the mask with the bits of all the roles set
+     * @throws IllegalStateException if more than 64 roles would be registered, in which case
+     *         none of the roles is registered
+     */
+    public static synchronized long register(Collection<String> roles) {
+        Set<String> distinct = new HashSet<>(roles);
+        long missing = distinct.stream().filter(role -> !BITS.containsKey(role)).count();
+        if (BITS.size() + missing > Long.SIZE) {
+            throw new IllegalStateException("More than " + Long.SIZE + " roles are checked, cannot register " + distinct);
+        }
+        long mask = 0;
+        for (String role : distinct) {
+            Long bit = BITS.get(role);
+            if (bit == null) {
+                bit = Long.lowestOneBit(~usedBits);
+                usedBits |= bit;
+                BITS.put(role, bit);
+                generation++;
+            }
+            REFERENCES.merge(role, 1, Integer::sum);
+            mask |= bit;
+        }
+        return mask;
+    }
+
+    /**
+     * Releases the references {@link #register} took to roles. A role without references gives
+     * its bit back, to be reused by roles registered later.
+     *
+     * @param roles the roles, as they were registered
+     */
+    public static synchronized void release(Collection<String> roles) {
+        for (String role : new HashSet<>(roles)) {
+            Integer references = REFERENCES.get(role);
+            if (references == null) {
+                continue;
+            }
+            if (references > 1) {
+                REFERENCES.put(role, references - 1);
+            } else {
+                REFERENCES.remove(role);
+                usedBits &= ~BITS.remove(role);
+                generation++;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of registered roles.
+     *
+     * @return the number of roles with a bit
+     */
+    public static int size() {
+        return BITS.size();
+    }
+
+    /**
+     * Gets the mask of a user's roles, from its attributes if it is up to date, or else from
+     * the comma-separated {@code roles} claim of its principal.
+     *
+     * @param user the user
+     * @return the mask of the user's registered roles
+     */
+    public static long maskOf(User user) {
+        JsonObject attributes = user.attributes();
+        Long mask = attributes.getLong(MASK_ATTRIBUTE);
+        if (mask != null && attributes.getInteger(GENERATION_ATTRIBUTE, -1) == generation) {
+            return mask;
+        }
+        return maskOf(user.principal().getString("roles", ""));
+    }
+
+    /**
+     * Stores the mask of a user's roles in its attributes. Only for users not yet visible to other
+     * threads, such as a user about to be cached.
+     *
+     * @param user the user
+     */
+    static void attach(User user) {
+        int current = generation;
+        user.attributes()
+            .put(MASK_ATTRIBUTE, maskOf(user.principal().getString("roles", "")))
+            .put(GENERATION_ATTRIBUTE, current);
+    }
+
+    /**
+     * Gets the mask of registered roles; roles without a bit are left out.
+     */
+    static long maskOf(Collection<String> roles) {
+        long mask = 0;
+        for (String role : roles) {
+            Long bit = BITS.get(role);
+            if (bit != null) {
+                mask |= bit;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Gets the mask of a comma-separated list of roles, without splitting it into strings
+     * other than the roles themselves.
+     */
+    static long maskOf(String roles) {
+        long mask = 0;
+        int start = 0;
+        while (start < roles.length()) {
+            int end = roles.indexOf(',', start);
+            if (end < 0) {
+                end = roles.length();
+            }
+            Long bit = BITS.get(roles.substring(start, end));
+            if (bit != null) {
+                mask |= bit;
+            }
+            start = end + 1;
+        }
+        return mask;
+    }
+}
@@ -1,5 +1,6 @@
 package dev.mars.vertx.gateway.security;
 
+import dev.mars.vertx.common.metrics.MetricsManager;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
@@ -7,7 +8,6 @@ import io.vertx.ext.auth.PubSecKeyOptions;
 import io.vertx.ext.auth.jwt.JWTAuth;
 import io.vertx.ext.auth.jwt.JWTAuthOptions;
 import io.vertx.ext.web.RoutingContext;
-import io.vertx.ext.web.handler.JWTAuthHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,7 +21,8 @@ public class SecurityManager {
     private final Vertx vertx;
     private final boolean securityEnabled;
     private final JWTAuth jwtAuth;
-    private final Handler<RoutingContext> jwtAuthHandler;
+    private final JwtAuthHandler jwtAuthHandler;
+    private final AuthorizationPolicyTable authorizationPolicies;
     private final String realm;
 
     /**
@@ -40,7 +41,7 @@ public class SecurityManager {
 
         // Initialize JWT auth and handler to null by default
         JWTAuth jwtAuthTemp = null;
-        Handler<RoutingContext> jwtAuthHandlerTemp = null;
+        JwtAuthHandler jwtAuthHandlerTemp = null;
 
         if (securityEnabled) {
             logger.info("Initializing security manager with security enabled");
@@ -75,7 +76,13 @@ public class SecurityManager {
                 options.addPubSecKey(pubSecKeyOptions);
 
                 jwtAuthTemp = JWTAuth.create(vertx, options);
-                jwtAuthHandlerTemp = JWTAuthHandler.create(jwtAuthTemp);
+
+                // Verified tokens are cached by default, so repeat callers skip signature checks
+                JsonObject tokenCacheConfig = securityConfig.getJsonObject("token-cache", new JsonObject());
+                VerifiedTokenCache tokenCache = tokenCacheConfig.getBoolean("enabled", true)
+                        ? VerifiedTokenCache.shared(vertx, tokenCacheConfig, MetricsManager.getRegistry())
+                        : null;
+                jwtAuthHandlerTemp = new JwtAuthHandler(jwtAuthTemp, realm, 3600, tokenCache);
 
                 logger.info("Security manager initialized with JWT authentication");
             } catch (Exception e) {
@@ -92,6 +99,11 @@ public class SecurityManager {
         // Assign the final values to the instance variables
         this.jwtAuth = jwtAuthTemp;
         this.jwtAuthHandler = jwtAuthHandlerTemp;
+
+        // Invalid policies fail the gateway's start rather than leaving routes unprotected
+        this.authorizationPolicies = jwtAuthHandler != null
+                ? AuthorizationPolicyTable.shared(vertx, securityConfig.getJsonObject("authorization", new JsonObject()))
+                : null;
     }
 
     /**
@@ -127,6 +139,30 @@ public class SecurityManager {
         return new RoleBasedAuthorizationHandler(requiredRoles);
     }
 
+    /**
+     * Creates the handler that enforces the authorization policy of a route, whether or not the
+     * route has a policy yet, since policies can be reloaded.
+     *
+     * @param routeKey the route key, as in {@code DELETE:/api/service-one/:id}
+     * @return the policy authorization handler, or null if security is disabled
+     */
+    public Handler<RoutingContext> createPolicyAuthorizationHandler(String routeKey) {
+        if (authorizationPolicies == null) {
+            return null;
+        }
+
+        return new PolicyAuthorizationHandler(authorizationPolicies, jwtAuthHandler, routeKey);
+    }
+
+    /**
+     * Gets the authorization policies of the gateway's routes.
+     *
+     * @return the policy table, or null if security is disabled
+     */
+    public AuthorizationPolicyTable getAuthorizationPolicies() {
+        return authorizationPolicies;
+    }
+
     /**
      * Generates a JWT token for the specified user.
      *
@@ -0,0 +1,222 @@
+package dev.mars.vertx.gateway.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import io.vertx.ext.auth.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of bearer tokens that passed JWT verification, so that a client sending the same token
+ * again is authenticated with one hash lookup instead of decoding the token and checking its
+ * signature again. Entries are keyed by the SHA-256 digest of the token and hold the
+ * authenticated user, with the mask of its roles already computed (see {@link RoleBits}).
+ *
+ * An entry is only valid until the token's {@code exp} claim, and never longer than
+ * {@code max-ttl-ms}, so a token is not accepted from the cache after it would have been rejected.
+ * The cache is shared by all gateway verticles of a Vertx instance and bounded by
+ * {@code max-entries}: when full, expired entries are dropped, then arbitrary ones.
+ *
+ * Cached users are shared by concurrent requests, and must not be modified by later handlers.
+ */
+public class VerifiedTokenCache implements Shareable {
+    private static final Logger logger = LoggerFactory.getLogger(VerifiedTokenCache.class);
+
+    private static final String SHARED_MAP = "gateway.security";
+    private static final String SHARED_KEY = "token-cache";
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private final ConcurrentHashMap<Digest, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long maxTtlMs;
+    private final Counter hits;
+    private final Counter misses;
+
+    /**
+     * Creates a new verified token cache.
+     *
+     * @param maxEntries the maximum number of cached tokens
+     * @param maxTtlMs the longest a token stays cached, whatever its expiry
+     * @param registry the registry to report the cache's size and hit ratio to
+     */
+    public VerifiedTokenCache(int maxEntries, long maxTtlMs, MeterRegistry registry) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Invalid maximum number of cached tokens: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.maxTtlMs = maxTtlMs;
+        this.hits = requests(registry, "hit");
+        this.misses = requests(registry, "miss");
+        Gauge.builder("gateway.auth.token-cache.size", entries, ConcurrentHashMap::size)
+            .description("Verified tokens in the cache")
+            .register(registry);
+        Gauge.builder("gateway.auth.token-cache.hit-ratio", this, VerifiedTokenCache::hitRatio)
+            .description("Share of authenticated requests whose token was found in the cache")
+            .register(registry);
+    }
+
+    private static Counter requests(MeterRegistry registry, String result) {
+        return Counter.builder("gateway.auth.token-cache.requests")
+            .description("Bearer token lookups by cache outcome")
+            .tag("result", result)
+            .register(registry);
+    }
+
+    /**
+     * Gets the token cache shared by the verticles of a Vertx instance, creating it on first use.
+     *
+     * @param vertx the Vertx instance
+     * @param config the {@code security.token-cache} configuration section
+     * @param registry the registry to report the cache's size and hit ratio to
+     * @return the shared token cache
+     */
+    public static VerifiedTokenCache shared(Vertx vertx, JsonObject config, MeterRegistry registry) {
+        LocalMap<String, VerifiedTokenCache> map = vertx.sharedData().getLocalMap(SHARED_MAP);
+        VerifiedTokenCache cache = map.get(SHARED_KEY);
+        if (cache == null) {
+            VerifiedTokenCache created = new VerifiedTokenCache(
+                config.getInteger("max-entries", 10000),
+                config.getLong("max-ttl-ms", 300000L),
+                registry);
+            cache = map.putIfAbsent(SHARED_KEY, created);
+            if (cache == null) {
+                cache = created;
+                logger.info("Created verified token cache with at most {} entries", cache.maxEntries);
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Gets the user of a token verified before, if it has not expired since.
+     *
+     * @param token the bearer token
+     * @return the user, or null if the token must be verified
+     */
+    public User get(String token) {
+        Digest digest = Digest.of(token);
+        Entry entry = entries.get(digest);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (System.currentTimeMillis() >= entry.expiresAt) {
+            entries.remove(digest, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.user;
+    }
+
+    /**
+     * Caches the user of a token that passed verification, with the mask of its roles.
+     *
+     * @param token the bearer token
+     * @param user the user the token authenticated
+     */
+    public void put(String token, User user) {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + maxTtlMs;
+        Long exp = user.principal().getLong("exp");
+        if (exp != null) {
+            expiresAt = Math.min(expiresAt, exp * 1000);
+        }
+        if (expiresAt <= now) {
+            return;
+        }
+
+        if (entries.size() >= maxEntries) {
+            evict(now);
+        }
+        RoleBits.attach(user);
+        entries.put(Digest.of(token), new Entry(user, expiresAt));
+    }
+
+    /**
+     * Drops expired entries, then arbitrary ones until there is room for one more.
+     */
+    private void evict(long now) {
+        entries.values().removeIf(entry -> now >= entry.expiresAt);
+        for (Iterator<Digest> it = entries.keySet().iterator(); it.hasNext() && entries.size() >= maxEntries; ) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    /**
+     * Gets the share of lookups that found their token.
+     *
+     * @return the hit ratio, 0 before any lookup
+     */
+    public double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    /**
+     * Gets the number of cached tokens.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * The SHA-256 digest of a token, so that the cache does not hold the tokens themselves as keys.
+     */
+    private static final class Digest {
+        private final byte[] bytes;
+        private final int hash;
+
+        private Digest(byte[] bytes) {
+            this.bytes = bytes;
+            // The digest is uniformly distributed already
+            this.hash = (bytes[0] & 0xff) << 24 | (bytes[1] & 0xff) << 16 | (bytes[2] & 0xff) << 8 | (bytes[3] & 0xff);
+        }
+
+        static Digest of(String token) {
+            return new Digest(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Digest && Arrays.equals(bytes, ((Digest) o).bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        private final User user;
+        private final long expiresAt;
+
+        private Entry(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
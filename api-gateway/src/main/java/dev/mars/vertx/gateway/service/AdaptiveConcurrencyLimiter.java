@@ -0,0 +1,197 @@
+package dev.mars.vertx.gateway.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.Vertx;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Adaptive limit on the number of requests in flight to one service, in the style of TCP Vegas.
+ * The limiter keeps the lowest round-trip time it has seen as the service's no-load latency. For
+ * every completed request it estimates how many requests are queued at the service from how much
+ * longer than that the request took: {@code limit * (1 - rttNoLoad / rtt)}. While the queue stays
+ * short the limit grows; once requests start queueing it shrinks, and a timeout cuts it by 10%.
+ * The limit therefore settles where the service is busy but not yet queueing, and requests beyond
+ * it are rejected at once instead of piling up on the event bus.
+ *
+ * The no-load latency is forgotten every {@code 30 * limit} samples and measured again, so that a
+ * service that became slower for good does not keep the limit at its minimum.
+ *
+ * One limiter is shared by the clients of a service in all gateway verticle instances of a Vertx
+ * instance (see {@link #shared}), so the limit applies to the gateway as a whole rather than to
+ * each event loop. The methods are synchronized since those clients, and circuit breaker timeouts,
+ * run on different threads; the lock is only held for a few arithmetic operations.
+ */
+public class AdaptiveConcurrencyLimiter implements Shareable {
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    private static final String SHARED_MAP = "gateway.concurrency-limit";
+
+    private static final int PROBE_MULTIPLIER = 30;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final Counter rejections;
+    private double limit;
+    private int inFlight;
+    private long rttNoLoadNanos;
+    private long samplesSinceProbe;
+
+    /**
+     * Creates a new limiter.
+     *
+     * @param initialLimit the limit to start with
+     * @param minLimit the lowest the limit can go
+     * @param maxLimit the highest the limit can go
+     * @param registry the registry to report the limit, the requests in flight and the rejections to
+     * @param serviceName the name of the service, used as a metric tag
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, MeterRegistry registry, String serviceName) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid concurrency limit bounds: " + minLimit + ".." + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+
+        Gauge.builder("gateway.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+            .description("Current adaptive limit on requests in flight to the service")
+            .tag("service", serviceName)
+            .register(registry);
+        Gauge.builder("gateway.concurrency.in-flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+            .description("Requests in flight to the service")
+            .tag("service", serviceName)
+            .register(registry);
+        this.rejections = Counter.builder("gateway.concurrency.rejections")
+            .description("Requests rejected because the service was at its concurrency limit")
+            .tag("service", serviceName)
+            .register(registry);
+    }
+
+    /**
+     * Gets the limiter of a service shared by the verticles of a Vertx instance, creating it on
+     * first use. The limits of later calls for the same service are ignored.
+     *
+     * @param vertx the Vertx instance
+     * @param initialLimit the limit to start with
+     * @param minLimit the lowest the limit can go
+     * @param maxLimit the highest the limit can go
+     * @param registry the registry to report the limit, the requests in flight and the rejections to
+     * @param serviceName the name of the service, used as the key and as a metric tag
+     * @return the shared limiter
+     */
+    public static AdaptiveConcurrencyLimiter shared(Vertx vertx, int initialLimit, int minLimit, int maxLimit,
+                                                    MeterRegistry registry, String serviceName) {
+        LocalMap<String, AdaptiveConcurrencyLimiter> map = vertx.sharedData().getLocalMap(SHARED_MAP);
+        AdaptiveConcurrencyLimiter limiter = map.get(serviceName);
+        if (limiter == null) {
+            // Synchronized so that only one limiter per service registers its gauges
+            synchronized (AdaptiveConcurrencyLimiter.class) {
+                limiter = map.get(serviceName);
+                if (limiter == null) {
+                    limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, registry, serviceName);
+                    map.put(serviceName, limiter);
+                    logger.info("Created concurrency limiter for service {}", serviceName);
+                }
+            }
+        }
+        return limiter;
+    }
+
+    /**
+     * Takes a slot for a request, if the service is below its limit.
+     * Every successful call must be followed by one call to {@link #onSample}, {@link #onDropped}
+     * or {@link #onIgnored} when the request completes.
+     *
+     * @return true if the request may be sent, false if it must be rejected
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            rejections.increment();
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Releases the slot of a request the service answered, whether with a result or an error,
+     * and adjusts the limit to its round-trip time.
+     *
+     * @param rttNanos the round-trip time of the request
+     */
+    public synchronized void onSample(long rttNanos) {
+        // Whether the limit was in use, read before this request leaves the count
+        boolean limited = inFlight * 2 >= limit;
+        inFlight--;
+
+        if (rttNoLoadNanos == 0 || rttNanos < rttNoLoadNanos || ++samplesSinceProbe >= PROBE_MULTIPLIER * limit) {
+            rttNoLoadNanos = Math.max(1, rttNanos);
+            samplesSinceProbe = 0;
+            return;
+        }
+
+        double log = Math.max(1, Math.log10(limit));
+        double queue = Math.ceil(limit * (1 - (double) rttNoLoadNanos / rttNanos));
+        double newLimit;
+        if (queue > 6 * log) {
+            newLimit = limit - log;
+        } else if (!limited) {
+            // Lightly loaded: short round trips say nothing about a higher limit
+            return;
+        } else if (queue <= log) {
+            newLimit = limit + 6 * log;
+        } else if (queue < 3 * log) {
+            newLimit = limit + log;
+        } else {
+            return;
+        }
+        setLimit(newLimit);
+    }
+
+    /**
+     * Releases the slot of a request that timed out, and backs the limit off.
+     */
+    public synchronized void onDropped() {
+        inFlight--;
+        setLimit(limit * BACKOFF_RATIO);
+    }
+
+    /**
+     * Releases the slot of a request that never reached the service, without adjusting the limit.
+     */
+    public synchronized void onIgnored() {
+        inFlight--;
+    }
+
+    private void setLimit(double newLimit) {
+        double bounded = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        if ((int) bounded != (int) limit) {
+            logger.debug("Concurrency limit changed from {} to {}", (int) limit, (int) bounded);
+        }
+        limit = bounded;
+    }
+
+    /**
+     * Gets the current limit.
+     *
+     * @return the maximum number of requests in flight
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Gets the number of requests in flight.
+     *
+     * @return the number of requests in flight
+     */
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
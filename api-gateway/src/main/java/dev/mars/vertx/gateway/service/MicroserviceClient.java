@@ -1,23 +1,38 @@
 package dev.mars.vertx.gateway.service;
 
 import dev.mars.vertx.common.eventbus.EventBusService;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.vertx.circuitbreaker.CircuitBreaker;
+import io.vertx.circuitbreaker.OpenCircuitException;
+import io.vertx.circuitbreaker.TimeoutException;
 import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
 import io.vertx.core.json.JsonObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.function.Supplier;
+
 /**
  * Client for communicating with microservices via the event bus.
- * Encapsulates circuit breaker and event bus communication.
+ * Encapsulates circuit breaker and event bus communication, and optionally an adaptive
+ * concurrency limit that rejects requests beyond it with a ServiceOverloadedException.
  */
 public class MicroserviceClient {
     private static final Logger logger = LoggerFactory.getLogger(MicroserviceClient.class);
     
+    private final Vertx vertx;
     private final EventBusService eventBusService;
     private final CircuitBreaker circuitBreaker;
     private final String serviceAddress;
+    private RequestBatcher batcher;
+    private SingleFlight singleFlight;
+    private AdaptiveConcurrencyLimiter limiter;
+    private boolean passthrough;
     
     /**
      * Creates a new microservice client.
@@ -27,6 +42,7 @@ public class MicroserviceClient {
      * @param serviceAddress the event bus address of the service
      */
     public MicroserviceClient(Vertx vertx, CircuitBreaker circuitBreaker, String serviceAddress) {
+        this.vertx = vertx;
         this.eventBusService = new EventBusService(vertx);
         this.circuitBreaker = circuitBreaker;
         this.serviceAddress = serviceAddress;
@@ -43,16 +59,187 @@ public class MicroserviceClient {
     public Future<JsonObject> sendRequest(JsonObject request) {
         logger.debug("Sending request to service {}: {}", serviceAddress, request);
         
-        return circuitBreaker.execute(promise -> 
-            eventBusService.send(serviceAddress, request, JsonObject.class)
-                .onSuccess(response -> {
-                    logger.debug("Received response from service {}: {}", serviceAddress, response);
-                    promise.complete(response);
-                })
-                .onFailure(err -> {
-                    logger.error("Service {} request failed", serviceAddress, err);
-                    promise.fail(err);
-                })
-        );
+        // Plain lookups by ID are coalesced into multi-get requests when batching is enabled
+        if (batcher != null && request.size() == 1 && request.getValue("id") instanceof String) {
+            return batcher.load(request.getString("id"));
+        }
+        
+        return execute(() -> dispatch(request));
+    }
+    
+    /**
+     * Sends an idempotent request, sharing the response of an identical request already in flight
+     * when coalescing is enabled. The scope must identify everything besides the request object that
+     * can change the response, such as the route and the authenticated user.
+     *
+     * @param request the request to send
+     * @param scope the coalescing scope, or null to never coalesce this request
+     * @return a Future with the response
+     */
+    public Future<JsonObject> sendRequest(JsonObject request, String scope) {
+        if (singleFlight == null || scope == null) {
+            return sendRequest(request);
+        }
+        
+        return singleFlight.execute(scope + " " + SingleFlight.canonical(request), () -> sendRequest(request));
+    }
+    
+    /**
+     * Sends a passthrough request with circuit breaker protection: the raw HTTP body with the
+     * routing metadata as headers. Neither the request nor the response is parsed.
+     *
+     * @param body the raw HTTP body, possibly empty
+     * @param headers the passthrough headers
+     * @return a Future with the encoded response
+     */
+    public Future<Buffer> sendPassthrough(Buffer body, MultiMap headers) {
+        logger.debug("Sending passthrough request to service {}: {} bytes", serviceAddress, body.length());
+        
+        return execute(() -> eventBusService.sendPassthrough(serviceAddress, body, headers));
+    }
+    
+    /**
+     * Runs a call to the service through the concurrency limit, if enabled, and the circuit breaker.
+     * Every call the service answers, with a result or an error, feeds its round-trip time to the
+     * limiter; timeouts make it back off, and calls the open circuit stopped are not counted.
+     *
+     * @param call the function sending the request
+     * @return a Future with the response, failed with a ServiceOverloadedException if the
+     *         service is at its concurrency limit
+     */
+    private <T> Future<T> execute(Supplier<Future<T>> call) {
+        if (limiter == null) {
+            return circuitBreaker.execute(promise -> call.get().onComplete(promise));
+        }
+        if (!limiter.tryAcquire()) {
+            logger.debug("Rejecting request to service {} at concurrency limit {}", serviceAddress, limiter.getLimit());
+            return Future.failedFuture(new ServiceOverloadedException(serviceAddress, limiter.getLimit()));
+        }
+        
+        long start = System.nanoTime();
+        return circuitBreaker.<T>execute(promise -> call.get().onComplete(promise))
+            .onComplete(ar -> {
+                if (ar.succeeded()) {
+                    limiter.onSample(System.nanoTime() - start);
+                } else if (isTimeout(ar.cause())) {
+                    limiter.onDropped();
+                } else if (ar.cause() instanceof OpenCircuitException) {
+                    limiter.onIgnored();
+                } else {
+                    limiter.onSample(System.nanoTime() - start);
+                }
+            });
+    }
+    
+    private static boolean isTimeout(Throwable err) {
+        return err instanceof TimeoutException
+            || err instanceof ReplyException && ((ReplyException) err).failureType() == ReplyFailure.TIMEOUT;
+    }
+    
+    /**
+     * Enables an adaptive limit on the number of requests in flight to the service, shared with
+     * the clients of the same service in the other verticles of the Vertx instance.
+     * Requests beyond the limit fail at once with a ServiceOverloadedException.
+     *
+     * @param initialLimit the limit to start with
+     * @param minLimit the lowest the limit can go
+     * @param maxLimit the highest the limit can go
+     * @param registry the registry to report the limit and rejections to
+     * @return this client
+     */
+    public MicroserviceClient enableConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, MeterRegistry registry) {
+        this.limiter = AdaptiveConcurrencyLimiter.shared(vertx, initialLimit, minLimit, maxLimit, registry, serviceAddress);
+        return this;
+    }
+    
+    /**
+     * Gets the concurrency limiter of this client.
+     *
+     * @return the limiter, or null if the concurrency limit is not enabled
+     */
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return limiter;
+    }
+    
+    /**
+     * Enables passthrough mode, in which routes with a fixed action forward raw HTTP bodies.
+     * The service must register its consumer with {@code EventBusService.requestConsumer}.
+     *
+     * @return this client
+     */
+    public MicroserviceClient enablePassthrough() {
+        this.passthrough = true;
+        return this;
+    }
+    
+    /**
+     * Checks whether passthrough mode is enabled.
+     *
+     * @return true if routes should forward raw HTTP bodies
+     */
+    public boolean isPassthroughEnabled() {
+        return passthrough;
+    }
+    
+    /**
+     * Enables coalescing of identical in-flight requests sent with a scope.
+     *
+     * @param registry the registry to report coalescing hit counts to
+     * @return this client
+     */
+    public MicroserviceClient enableCoalescing(MeterRegistry registry) {
+        this.singleFlight = new SingleFlight(registry, serviceAddress);
+        return this;
+    }
+    
+    /**
+     * Enables batching of concurrent single-ID lookups into {@code getMany} requests.
+     * Only use this for services that implement the {@code getMany} action. A batch passes the
+     * circuit breaker as a single call.
+     *
+     * @param windowMs how long to collect lookups before sending a batch, in milliseconds
+     * @param maxBatchSize the number of distinct IDs that sends a batch before the window ends
+     * @param registry the registry to report batching metrics to
+     * @return this client
+     */
+    public MicroserviceClient enableBatching(long windowMs, int maxBatchSize, MeterRegistry registry) {
+        this.batcher = new RequestBatcher(vertx, ids -> {
+            JsonObject request = new JsonObject().put("action", "getMany").put("ids", ids);
+            return execute(() -> dispatch(request));
+        }, windowMs, maxBatchSize, registry, serviceAddress);
+        return this;
+    }
+    
+    /**
+     * Dispatches a request to the service instance(s) that should handle it.
+     * Subclasses override this to route requests across several addresses.
+     *
+     * @param request the request to dispatch
+     * @return a Future with the response
+     */
+    protected Future<JsonObject> dispatch(JsonObject request) {
+        return send(serviceAddress, request);
+    }
+    
+    /**
+     * Sends a request to a single event bus address.
+     *
+     * @param address the event bus address
+     * @param request the request to send
+     * @return a Future with the response
+     */
+    protected Future<JsonObject> send(String address, JsonObject request) {
+        return eventBusService.send(address, request, JsonObject.class)
+            .onSuccess(response -> logger.debug("Received response from service {}: {}", address, response))
+            .onFailure(err -> logger.error("Service {} request failed", address, err));
+    }
+    
+    /**
+     * Gets the event bus address of the service.
+     *
+     * @return the service address
+     */
+    public String getServiceAddress() {
+        return serviceAddress;
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package dev.mars.vertx.gateway.service;
 
 import dev.mars.vertx.common.eventbus.ServiceDiscoveryManager;
+import dev.mars.vertx.common.eventbus.ShardRing;
+import dev.mars.vertx.common.metrics.MetricsManager;
 import dev.mars.vertx.common.resilience.CircuitBreakerFactory;
 import io.vertx.circuitbreaker.CircuitBreaker;
 import io.vertx.circuitbreaker.CircuitBreakerOptions;
@@ -66,18 +68,57 @@ public class MicroserviceClientFactory {
     private MicroserviceClient createClientSync(String serviceName) {
         logger.info("Creating client for service: {}", serviceName);
 
+        JsonObject serviceConfig = config.getJsonObject("services", new JsonObject())
+                .getJsonObject(serviceName, new JsonObject());
+
         // Create circuit breaker
-        CircuitBreaker circuitBreaker = createCircuitBreaker(serviceName,
-                config.getJsonObject("services", new JsonObject())
-                        .getJsonObject(serviceName, new JsonObject()));
+        CircuitBreaker circuitBreaker = createCircuitBreaker(serviceName, serviceConfig);
 
         // Fallback to configuration directly without trying service discovery
-        String serviceAddress = config.getJsonObject("services", new JsonObject())
-                .getJsonObject(serviceName, new JsonObject())
-                .getString("address", "service." + serviceName);
+        String serviceAddress = serviceConfig.getString("address", "service." + serviceName);
+
+        // Services partitioned into shards get a client that routes by item ID
+        MicroserviceClient client;
+        int shards = serviceConfig.getInteger("shards", 0);
+        if (shards > 0) {
+            logger.info("Creating sharded client with base address: {} and {} shards", serviceAddress, shards);
+            client = new ShardedMicroserviceClient(vertx, circuitBreaker, new ShardRing(serviceAddress, shards));
+        } else {
+            logger.info("Creating client with address: {}", serviceAddress);
+            client = new MicroserviceClient(vertx, circuitBreaker, serviceAddress);
+        }
 
-        logger.info("Creating client with address: {}", serviceAddress);
-        return new MicroserviceClient(vertx, circuitBreaker, serviceAddress);
+        // Services with a getMany action can have concurrent lookups by ID batched
+        JsonObject batchingConfig = serviceConfig.getJsonObject("batching", new JsonObject());
+        if (batchingConfig.getBoolean("enabled", false)) {
+            long windowMs = batchingConfig.getLong("window-ms", 1L);
+            int maxBatchSize = batchingConfig.getInteger("max-batch-size", 64);
+            logger.info("Enabling request batching for service {}: window={} ms, maxBatchSize={}", serviceName, windowMs, maxBatchSize);
+            client.enableBatching(windowMs, maxBatchSize, MetricsManager.getRegistry());
+        }
+
+        // Identical idempotent requests in flight at the same time share one downstream request
+        if (serviceConfig.getJsonObject("coalescing", new JsonObject()).getBoolean("enabled", false)) {
+            logger.info("Enabling request coalescing for service {}", serviceName);
+            client.enableCoalescing(MetricsManager.getRegistry());
+        }
+
+        // Requests beyond an adaptive in-flight limit are rejected before they reach the event bus
+        JsonObject limitConfig = serviceConfig.getJsonObject("concurrency-limit", new JsonObject());
+        if (limitConfig.getBoolean("enabled", false)) {
+            int initialLimit = limitConfig.getInteger("initial-limit", 20);
+            int minLimit = limitConfig.getInteger("min-limit", 1);
+            int maxLimit = limitConfig.getInteger("max-limit", 200);
+            logger.info("Enabling adaptive concurrency limit for service {}: initial={}, min={}, max={}", serviceName, initialLimit, minLimit, maxLimit);
+            client.enableConcurrencyLimit(initialLimit, minLimit, maxLimit, MetricsManager.getRegistry());
+        }
+
+        // Routes with a fixed action can forward raw bodies instead of building request objects
+        if (serviceConfig.getJsonObject("passthrough", new JsonObject()).getBoolean("enabled", false)) {
+            logger.info("Enabling passthrough mode for service {}", serviceName);
+            client.enablePassthrough();
+        }
+        return client;
     }
 
     /**
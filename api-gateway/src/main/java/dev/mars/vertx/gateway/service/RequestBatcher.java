@@ -0,0 +1,179 @@
+package dev.mars.vertx.gateway.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent single-ID lookups into multi-get requests (DataLoader-style batching).
+ * Lookups are collected for a short window, or until the batch is full, and then loaded with one
+ * request whose response carries the found {@code items} and the {@code missing} IDs. Each waiting
+ * caller gets its own item, or fails with the same "Item not found" message a single lookup returns.
+ *
+ * All batch state is confined to the context the batcher was created on; lookups from other
+ * threads are handed over to that context. A window of 0 ms flushes at the end of the current
+ * event loop turn, batching only lookups that were already queued.
+ */
+public class RequestBatcher {
+    private static final Logger logger = LoggerFactory.getLogger(RequestBatcher.class);
+
+    private final Vertx vertx;
+    private final Context context;
+    private final Function<JsonArray, Future<JsonObject>> loader;
+    private final long windowMs;
+    private final int maxBatchSize;
+
+    private final Timer windowTimer;
+    private final DistributionSummary batchSize;
+    private final Timer addedLatency;
+
+    private Map<String, List<Waiter>> pending = new LinkedHashMap<>();
+    private long batchOpenedAt;
+    private long batchSequence;
+    private long timerId = -1;
+
+    /**
+     * Creates a new request batcher.
+     *
+     * @param vertx the Vertx instance
+     * @param loader the function loading a batch of IDs with one multi-get request
+     * @param windowMs how long to collect lookups before sending a batch, in milliseconds
+     * @param maxBatchSize the number of distinct IDs that sends a batch before the window ends
+     * @param registry the registry to report metrics to
+     * @param serviceName the name of the service, used as a metric tag
+     */
+    public RequestBatcher(Vertx vertx, Function<JsonArray, Future<JsonObject>> loader, long windowMs, int maxBatchSize,
+                          MeterRegistry registry, String serviceName) {
+        if (windowMs < 0 || maxBatchSize < 1) {
+            throw new IllegalArgumentException("Batch window must not be negative and batch size must be at least 1");
+        }
+        this.vertx = vertx;
+        this.context = vertx.getOrCreateContext();
+        this.loader = loader;
+        this.windowMs = windowMs;
+        this.maxBatchSize = maxBatchSize;
+
+        this.windowTimer = Timer.builder("gateway.batch.window")
+            .description("Time a batch stayed open collecting lookups")
+            .tag("service", serviceName)
+            .register(registry);
+        this.batchSize = DistributionSummary.builder("gateway.batch.size")
+            .description("Distinct IDs loaded by a single batch")
+            .tag("service", serviceName)
+            .publishPercentileHistogram()
+            .register(registry);
+        this.addedLatency = Timer.builder("gateway.batch.delay")
+            .description("Time a lookup waited for its batch to be sent")
+            .tag("service", serviceName)
+            .publishPercentileHistogram()
+            .register(registry);
+
+        logger.info("Created request batcher for {} with window {} ms and max batch size {}", serviceName, windowMs, maxBatchSize);
+    }
+
+    /**
+     * Looks up a single ID as part of the next batch.
+     *
+     * @param id the item ID
+     * @return a Future with the item, or a failed future if it does not exist or the batch failed
+     */
+    public Future<JsonObject> load(String id) {
+        Promise<JsonObject> promise = Promise.promise();
+        Waiter waiter = new Waiter(promise, System.nanoTime());
+        if (Vertx.currentContext() == context) {
+            enqueue(id, waiter);
+        } else {
+            context.runOnContext(v -> enqueue(id, waiter));
+        }
+        return promise.future();
+    }
+
+    private void enqueue(String id, Waiter waiter) {
+        if (pending.isEmpty()) {
+            batchOpenedAt = waiter.enqueuedAt;
+            long sequence = batchSequence;
+            if (windowMs == 0) {
+                context.runOnContext(v -> flushIfCurrent(sequence));
+            } else {
+                timerId = vertx.setTimer(windowMs, t -> flushIfCurrent(sequence));
+            }
+        }
+
+        pending.computeIfAbsent(id, k -> new ArrayList<>(1)).add(waiter);
+        if (pending.size() >= maxBatchSize) {
+            if (timerId != -1) {
+                vertx.cancelTimer(timerId);
+            }
+            flush();
+        }
+    }
+
+    private void flushIfCurrent(long sequence) {
+        // A batch that filled up was already sent; its window callback must not send the next one early
+        if (sequence == batchSequence && !pending.isEmpty()) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        Map<String, List<Waiter>> batch = pending;
+        pending = new LinkedHashMap<>();
+        batchSequence++;
+        timerId = -1;
+
+        long now = System.nanoTime();
+        windowTimer.record(now - batchOpenedAt, TimeUnit.NANOSECONDS);
+        batchSize.record(batch.size());
+        batch.values().forEach(waiters -> waiters.forEach(waiter ->
+            addedLatency.record(now - waiter.enqueuedAt, TimeUnit.NANOSECONDS)));
+        logger.debug("Sending batch of {} IDs", batch.size());
+
+        loader.apply(new JsonArray(new ArrayList<>(batch.keySet())))
+            .onSuccess(response -> complete(batch, response))
+            .onFailure(err -> batch.values().forEach(waiters -> waiters.forEach(waiter -> waiter.promise.fail(err))));
+    }
+
+    private void complete(Map<String, List<Waiter>> batch, JsonObject response) {
+        Map<String, JsonObject> found = new HashMap<>();
+        response.getJsonArray("items", new JsonArray())
+            .forEach(item -> found.put(((JsonObject) item).getString("id"), (JsonObject) item));
+
+        batch.forEach((id, waiters) -> {
+            JsonObject item = found.get(id);
+            for (int i = 0; i < waiters.size(); i++) {
+                if (item == null) {
+                    waiters.get(i).promise.fail("Item not found with ID: " + id);
+                } else {
+                    // Callers asking for the same ID must not share a mutable response
+                    waiters.get(i).promise.complete(i == 0 ? item : item.copy());
+                }
+            }
+        });
+    }
+
+    private static final class Waiter {
+        private final Promise<JsonObject> promise;
+        private final long enqueuedAt;
+
+        private Waiter(Promise<JsonObject> promise, long enqueuedAt) {
+            this.promise = promise;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
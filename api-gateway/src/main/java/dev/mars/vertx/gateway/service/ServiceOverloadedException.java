@@ -0,0 +1,18 @@
+package dev.mars.vertx.gateway.service;
+
+/**
+ * Signals that a request was rejected without being sent, because the service already has as
+ * many requests in flight as its concurrency limit allows. The gateway answers it with 503.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    /**
+     * Creates a new exception.
+     *
+     * @param serviceAddress the event bus address of the overloaded service
+     * @param limit the concurrency limit that was reached
+     */
+    public ServiceOverloadedException(String serviceAddress, int limit) {
+        super("Service " + serviceAddress + " is at its concurrency limit of " + limit, null, false, false);
+    }
+}
@@ -0,0 +1,274 @@
+package dev.mars.vertx.gateway.service;
+
+import dev.mars.vertx.common.eventbus.ShardRing;
+import dev.mars.vertx.common.util.PageCursor;
+import io.vertx.circuitbreaker.CircuitBreaker;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Client for a service partitioned into shared-nothing shards.
+ * Requests for a single item are routed to the shard that owns its ID, creates are spread
+ * across shards round-robin, and list requests are scattered to every shard and gathered
+ * into a single response.
+ */
+public class ShardedMicroserviceClient extends MicroserviceClient {
+    private static final Logger logger = LoggerFactory.getLogger(ShardedMicroserviceClient.class);
+
+    private final ShardRing shardRing;
+    private final AtomicInteger nextCreateShard = new AtomicInteger();
+
+    /**
+     * Creates a new sharded microservice client.
+     *
+     * @param vertx the Vertx instance
+     * @param circuitBreaker the circuit breaker for this service
+     * @param shardRing the ring mapping item IDs to shard addresses
+     */
+    public ShardedMicroserviceClient(Vertx vertx, CircuitBreaker circuitBreaker, ShardRing shardRing) {
+        super(vertx, circuitBreaker, shardRing.getBaseAddress());
+        this.shardRing = shardRing;
+
+        logger.info("Created sharded microservice client for {} shards of {}",
+                shardRing.getShardCount(), shardRing.getBaseAddress());
+    }
+
+    /**
+     * Passthrough mode is not supported: requests are routed by the item ID in the request object,
+     * which a passthrough request does not have.
+     *
+     * @return this client, unchanged
+     */
+    @Override
+    public MicroserviceClient enablePassthrough() {
+        logger.warn("Passthrough mode is not supported for sharded service {}", shardRing.getBaseAddress());
+        return this;
+    }
+
+    @Override
+    protected Future<JsonObject> dispatch(JsonObject request) {
+        String action = request.getString("action");
+        String id = request.getString("id");
+
+        if ("list".equals(action)) {
+            return scatterGatherList(request);
+        }
+
+        if ("getMany".equals(action)) {
+            return splitGetMany(request);
+        }
+
+        if ("bulk".equals(action)) {
+            return splitBulk(request);
+        }
+
+        if ("create".equals(action) || id == null) {
+            int shard = Math.floorMod(nextCreateShard.getAndIncrement(), shardRing.getShardCount());
+            return send(shardRing.address(shard), request);
+        }
+
+        return send(shardRing.addressFor(id), request);
+    }
+
+    /**
+     * Sends a list request to every shard and merges the partial results.
+     *
+     * @param request the list request
+     * @return a Future with the merged list
+     */
+    private Future<JsonObject> scatterGatherList(JsonObject request) {
+        if (request.containsKey("limit")) {
+            return scatterGatherPage(request);
+        }
+
+        List<Future<JsonObject>> partials = new ArrayList<>(shardRing.getShardCount());
+        for (int shard = 0; shard < shardRing.getShardCount(); shard++) {
+            partials.add(send(shardRing.address(shard), request));
+        }
+
+        return Future.all(partials).map(all -> {
+            JsonArray items = new JsonArray();
+            int count = 0;
+            for (Future<JsonObject> partial : partials) {
+                JsonObject response = partial.result();
+                items.addAll(response.getJsonArray("items", new JsonArray()));
+                count += response.getInteger("count", 0);
+            }
+
+            logger.debug("Gathered {} items from {} shards", count, partials.size());
+            return new JsonObject()
+                .put("items", items)
+                .put("count", count);
+        });
+    }
+
+    /**
+     * Sends a paginated list request to every shard and merges the pages by ID.
+     * Every shard returns its first {@code limit} items after the cursor in ID order, so the first
+     * {@code limit} items of the merged result are exactly the global page, and the ID of the last
+     * one is the cursor for the next page on every shard.
+     *
+     * @param request the paginated list request
+     * @return a Future with the merged page
+     */
+    private Future<JsonObject> scatterGatherPage(JsonObject request) {
+        int limit = Integer.parseInt(request.getValue("limit").toString());
+
+        List<Future<JsonObject>> partials = new ArrayList<>(shardRing.getShardCount());
+        for (int shard = 0; shard < shardRing.getShardCount(); shard++) {
+            partials.add(send(shardRing.address(shard), request));
+        }
+
+        return Future.all(partials).map(all -> {
+            List<JsonObject> merged = new ArrayList<>();
+            boolean shardHasMore = false;
+            for (Future<JsonObject> partial : partials) {
+                JsonObject response = partial.result();
+                response.getJsonArray("items", new JsonArray()).forEach(item -> merged.add((JsonObject) item));
+                shardHasMore |= response.getString("nextCursor") != null;
+            }
+            merged.sort(Comparator.comparing(item -> item.getString("id")));
+
+            List<JsonObject> page = merged.subList(0, Math.min(limit, merged.size()));
+            JsonObject result = new JsonObject()
+                .put("items", new JsonArray(new ArrayList<>(page)))
+                .put("count", page.size());
+            if (shardHasMore || merged.size() > limit) {
+                result.put("nextCursor", PageCursor.encode(page.get(page.size() - 1).getString("id")));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Splits a multi-get request into one request per shard owning some of the IDs and merges
+     * the found items and missing IDs. Items keep the order of the requested IDs.
+     *
+     * @param request the multi-get request
+     * @return a Future with the merged result
+     */
+    private Future<JsonObject> splitGetMany(JsonObject request) {
+        JsonArray ids = request.getJsonArray("ids", new JsonArray());
+
+        Map<Integer, JsonArray> idsByShard = new HashMap<>();
+        for (Object id : ids) {
+            idsByShard.computeIfAbsent(shardRing.shardFor(String.valueOf(id)), s -> new JsonArray()).add(id);
+        }
+
+        List<Future<JsonObject>> partials = new ArrayList<>(idsByShard.size());
+        idsByShard.forEach((shard, shardIds) ->
+            partials.add(send(shardRing.address(shard), request.copy().put("ids", shardIds))));
+
+        return Future.all(partials).map(all -> {
+            Map<String, Object> found = new HashMap<>();
+            JsonArray missing = new JsonArray();
+            for (Future<JsonObject> partial : partials) {
+                JsonObject response = partial.result();
+                response.getJsonArray("items", new JsonArray())
+                    .forEach(item -> found.put(((JsonObject) item).getString("id"), item));
+                missing.addAll(response.getJsonArray("missing", new JsonArray()));
+            }
+
+            JsonArray items = new JsonArray(new ArrayList<>(found.size()));
+            for (Object id : ids) {
+                Object item = found.remove(String.valueOf(id));
+                if (item != null) {
+                    items.add(item);
+                }
+            }
+            return new JsonObject()
+                .put("items", items)
+                .put("count", items.size())
+                .put("missing", missing);
+        });
+    }
+
+    /**
+     * Splits a bulk request into one sub-batch per shard and reassembles the per-operation results
+     * in request order. Operations on an existing ID go to its owner and creates are spread
+     * round-robin. If a whole shard fails, its operations are reported as failed individually.
+     *
+     * @param request the bulk request
+     * @return a Future with the combined results
+     */
+    private Future<JsonObject> splitBulk(JsonObject request) {
+        if (!(request.getValue("operations", new JsonArray()) instanceof JsonArray)) {
+            // Nothing to split; any shard rejects a malformed batch the same way
+            int shard = Math.floorMod(nextCreateShard.getAndIncrement(), shardRing.getShardCount());
+            return send(shardRing.address(shard), request);
+        }
+        JsonArray operations = request.getJsonArray("operations", new JsonArray());
+
+        Map<Integer, JsonArray> batches = new HashMap<>();
+        Map<Integer, List<Integer>> positions = new HashMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            Object operation = operations.getValue(i);
+            // Operations with an invalid ID go round-robin like creates; their shard rejects them
+            Object id = operation instanceof JsonObject ? ((JsonObject) operation).getValue("id") : null;
+            int shard = id instanceof String
+                ? shardRing.shardFor((String) id)
+                : Math.floorMod(nextCreateShard.getAndIncrement(), shardRing.getShardCount());
+            batches.computeIfAbsent(shard, s -> new JsonArray()).add(operation);
+            positions.computeIfAbsent(shard, s -> new ArrayList<>()).add(i);
+        }
+
+        List<Integer> shards = new ArrayList<>(batches.keySet());
+        List<Future<JsonObject>> partials = new ArrayList<>(shards.size());
+        for (int shard : shards) {
+            JsonObject subRequest = request.copy().put("operations", batches.get(shard));
+            partials.add(send(shardRing.address(shard), subRequest));
+        }
+
+        return Future.join(partials).transform(ignored -> {
+            JsonArray results = new JsonArray(new ArrayList<>(Collections.nCopies(operations.size(), null)));
+            int failed = 0;
+            for (int s = 0; s < shards.size(); s++) {
+                List<Integer> shardPositions = positions.get(shards.get(s));
+                Future<JsonObject> partial = partials.get(s);
+                for (int j = 0; j < shardPositions.size(); j++) {
+                    int index = shardPositions.get(j);
+                    JsonObject result = partial.succeeded()
+                        ? partial.result().getJsonArray("results").getJsonObject(j).copy().put("index", index)
+                        : new JsonObject().put("index", index).put("op", opOf(operations.getValue(index))).put("status", "error")
+                            .put("error", "Shard unavailable: " + partial.cause().getMessage());
+                    if ("error".equals(result.getString("status"))) {
+                        failed++;
+                    }
+                    results.set(index, result);
+                }
+            }
+
+            return Future.succeededFuture(new JsonObject()
+                .put("results", results)
+                .put("count", operations.size())
+                .put("succeeded", operations.size() - failed)
+                .put("failed", failed));
+        });
+    }
+
+    private static String opOf(Object operation) {
+        Object op = operation instanceof JsonObject ? ((JsonObject) operation).getValue("op") : null;
+        return op instanceof String ? (String) op : null;
+    }
+
+    /**
+     * Gets the shard ring used for routing.
+     *
+     * @return the shard ring
+     */
+    public ShardRing getShardRing() {
+        return shardRing;
+    }
+}
@@ -0,0 +1,115 @@
+package dev.mars.vertx.gateway.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical in-flight requests (single flight).
+ * The first caller for a key starts the request; callers arriving with the same key while it is
+ * in flight share its result instead of sending their own. The key is dropped as soon as the
+ * request completes, so results are never reused after the fact: this is not a cache.
+ *
+ * Only idempotent requests may be coalesced, and the key must identify everything that can change
+ * the response, including the caller when responses depend on who asks.
+ */
+public class SingleFlight {
+    private static final Logger logger = LoggerFactory.getLogger(SingleFlight.class);
+
+    private final Map<String, Future<JsonObject>> inFlight = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    /**
+     * Creates a new single-flight group.
+     *
+     * @param registry the registry to report hit counts to
+     * @param serviceName the name of the service, used as a metric tag
+     */
+    public SingleFlight(MeterRegistry registry, String serviceName) {
+        this.hits = Counter.builder("gateway.coalescing.requests")
+            .description("Requests served by an identical request already in flight")
+            .tag("service", serviceName)
+            .tag("result", "hit")
+            .register(registry);
+        this.misses = Counter.builder("gateway.coalescing.requests")
+            .description("Requests sent downstream because no identical request was in flight")
+            .tag("service", serviceName)
+            .tag("result", "miss")
+            .register(registry);
+    }
+
+    /**
+     * Runs the call for the key, or joins the call already in flight for it.
+     * Callers that join get their own copy of the response.
+     *
+     * @param key the key identifying the request
+     * @param call the function starting the request
+     * @return a Future with the response
+     */
+    public Future<JsonObject> execute(String key, Supplier<Future<JsonObject>> call) {
+        Promise<JsonObject> promise = Promise.promise();
+        Future<JsonObject> future = promise.future();
+        Future<JsonObject> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            hits.increment();
+            logger.debug("Joining in-flight request: {}", key);
+            return existing.map(JsonObject::copy);
+        }
+
+        misses.increment();
+        // Registered first, so the key is gone before any caller sees the result
+        future.onComplete(ar -> inFlight.remove(key, future));
+        try {
+            call.get().onComplete(promise);
+        } catch (Exception e) {
+            promise.fail(e);
+        }
+        return future;
+    }
+
+    /**
+     * Gets the number of distinct requests in flight.
+     *
+     * @return the number of requests in flight
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Builds a canonical string for a request, with object keys sorted at every level,
+     * so that requests that differ only in key order get the same key.
+     *
+     * @param request the request
+     * @return the canonical form of the request
+     */
+    public static String canonical(JsonObject request) {
+        return canonicalValue(request).toString();
+    }
+
+    private static Object canonicalValue(Object value) {
+        if (value instanceof JsonObject) {
+            TreeMap<String, Object> sorted = new TreeMap<>();
+            ((JsonObject) value).forEach(entry -> sorted.put(entry.getKey(), canonicalValue(entry.getValue())));
+            return new JsonObject(new LinkedHashMap<>(sorted));
+        }
+        if (value instanceof JsonArray) {
+            JsonArray array = new JsonArray();
+            ((JsonArray) value).forEach(element -> array.add(canonicalValue(element)));
+            return array;
+        }
+        return value;
+    }
+}
@@ -123,6 +123,26 @@ class ApiGatewayVerticleTest {
             }));
     }
 
+    @Test
+    void testFixedRoutesTakePrecedenceOverIdRoutes(VertxTestContext testContext) {
+        // Echo the request the gateway sends, to see which route handled it
+        vertx.eventBus().<JsonObject>consumer("service.service-two", message -> message.reply(message.body()));
+        HttpClient client = vertx.createHttpClient();
+
+        client.request(HttpMethod.GET, port, "localhost", "/api/service-two/cities")
+            .compose(request -> request.send())
+            .compose(response -> {
+                assertEquals(200, response.statusCode());
+                return response.body();
+            })
+            .onComplete(testContext.succeeding(body -> testContext.verify(() -> {
+                JsonObject request = new JsonObject(body);
+                assertEquals("cities", request.getString("action"));
+                assertFalse(request.containsKey("id"));
+                testContext.completeNow();
+            })));
+    }
+
     @Test
     void testNonExistentEndpoint(VertxTestContext testContext) {
         // Create an HTTP client to make requests to the server
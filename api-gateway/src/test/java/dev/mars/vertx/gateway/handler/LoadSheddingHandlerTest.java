@@ -0,0 +1,157 @@
+package dev.mars.vertx.gateway.handler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(VertxExtension.class)
+class LoadSheddingHandlerTest {
+
+    private Vertx vertx;
+    private HttpClient client;
+    private SimpleMeterRegistry registry;
+    private int port;
+
+    @BeforeEach
+    void setUp() {
+        vertx = Vertx.vertx();
+        client = vertx.createHttpClient();
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown(VertxTestContext testContext) {
+        vertx.close(testContext.succeedingThenComplete());
+    }
+
+    @Test
+    void testShedsWhileEventLoopLagsExceptExemptRoutes(VertxTestContext testContext) {
+        JsonObject config = new JsonObject()
+                .put("check-interval-ms", 10)
+                .put("lag-window-ms", 300)
+                .put("max-lag-ms", 100)
+                .put("retry-after-s", 2);
+
+        startServer(config)
+            // Warms up the server with an exempt request, then lets the lag of the warm-up leave the window
+            .compose(v -> get("/health"))
+            .compose(v -> delay(700))
+            .compose(v -> get("/api/item"))
+            .compose(response -> {
+                testContext.verify(() -> assertEquals(200, response.statusCode()));
+                // Holds the event loop, so the next lag check fires about 300 ms late
+                return get("/block");
+            })
+            .compose(response -> get("/api/item"))
+            .compose(response -> {
+                testContext.verify(() -> {
+                    assertEquals(503, response.statusCode());
+                    assertEquals("2", response.getHeader("Retry-After"));
+                });
+                return get("/health");
+            })
+            .onComplete(testContext.succeeding(response -> testContext.verify(() -> {
+                assertEquals(200, response.statusCode());
+                assertEquals(1.0, registry.get("gateway.load-shedding.shed").tag("reason", "event-loop-lag").counter().count());
+                assertNotNull(registry.get("gateway.event-loop.lag").timeGauge());
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    void testShedsWhenTooManyRequestsArePending(VertxTestContext testContext) {
+        JsonObject config = new JsonObject().put("max-pending-requests", 1);
+
+        startServer(config)
+            .compose(v -> {
+                Future<HttpClientResponse> slow = get("/slow");
+                // Sent once the slow request is pending at the server
+                Promise<HttpClientResponse> shed = Promise.promise();
+                vertx.setTimer(50, id -> get("/api/item").onComplete(shed));
+                return CompositeFuture.all(slow, shed.future());
+            })
+            // The server releases the request just after the client has the response
+            .compose(responses -> delay(100).map(responses))
+            .onComplete(testContext.succeeding(responses -> testContext.verify(() -> {
+                assertEquals(200, responses.<HttpClientResponse>resultAt(0).statusCode());
+                assertEquals(503, responses.<HttpClientResponse>resultAt(1).statusCode());
+                assertEquals(1.0, registry.get("gateway.load-shedding.shed").tag("reason", "pending-requests").counter().count());
+                assertEquals(0.0, registry.get("gateway.load-shedding.pending-requests").gauge().value());
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    void testExemptPathsMatchWholeSegments(VertxTestContext testContext) {
+        // Every request that is not exempt is shed
+        JsonObject config = new JsonObject().put("max-pending-requests", 0);
+
+        startServer(config)
+            .compose(v -> CompositeFuture.all(get("/health"), get("/admin/stats"), get("/healthz"), get("/administrator")))
+            .onComplete(testContext.succeeding(responses -> testContext.verify(() -> {
+                assertEquals(200, responses.<HttpClientResponse>resultAt(0).statusCode());
+                // Not shed, but there is no such route
+                assertEquals(404, responses.<HttpClientResponse>resultAt(1).statusCode());
+                assertEquals(503, responses.<HttpClientResponse>resultAt(2).statusCode());
+                assertEquals(503, responses.<HttpClientResponse>resultAt(3).statusCode());
+                testContext.completeNow();
+            })));
+    }
+
+    /**
+     * Starts a server from a verticle, as the gateway does, so that the handler measures the
+     * event loop serving the requests.
+     */
+    private Future<Void> startServer(JsonObject config) {
+        return vertx.deployVerticle(new AbstractVerticle() {
+            @Override
+            public void start(Promise<Void> startPromise) {
+                Router router = Router.router(vertx);
+                router.route().handler(new LoadSheddingHandler(vertx, config, registry));
+                router.get("/health").handler(ctx -> ctx.response().end("UP"));
+                router.get("/api/item").handler(ctx -> ctx.response().end("{}"));
+                router.get("/slow").handler(ctx -> vertx.setTimer(200, id -> ctx.response().end("{}")));
+                router.get("/block").handler(ctx -> {
+                    try {
+                        Thread.sleep(300);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    ctx.response().end("{}");
+                });
+                vertx.createHttpServer().requestHandler(router).listen(0)
+                    .onSuccess(server -> port = server.actualPort())
+                    .<Void>mapEmpty()
+                    .onComplete(startPromise);
+            }
+        }).mapEmpty();
+    }
+
+    private Future<Void> delay(long ms) {
+        Promise<Void> promise = Promise.promise();
+        vertx.setTimer(ms, id -> promise.complete());
+        return promise.future();
+    }
+
+    private Future<HttpClientResponse> get(String path) {
+        return client.request(HttpMethod.GET, port, "localhost", path)
+            .compose(request -> request.send())
+            .compose(response -> response.body().map(body -> response));
+    }
+}
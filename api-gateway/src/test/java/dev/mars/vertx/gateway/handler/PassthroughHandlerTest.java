@@ -0,0 +1,137 @@
+package dev.mars.vertx.gateway.handler;
+
+import dev.mars.vertx.common.eventbus.EventBusService;
+import dev.mars.vertx.common.resilience.CircuitBreakerFactory;
+import dev.mars.vertx.gateway.service.MicroserviceClient;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.handler.BodyHandler;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(VertxExtension.class)
+class PassthroughHandlerTest {
+
+    private static final String ADDRESS = "service.passthrough";
+
+    private Vertx vertx;
+    private HttpServer server;
+    private HttpClient httpClient;
+
+    @BeforeEach
+    void setUp(VertxTestContext testContext) {
+        vertx = Vertx.vertx();
+        httpClient = vertx.createHttpClient();
+
+        // The service echoes the request object it was given
+        new EventBusService(vertx).requestConsumer(ADDRESS, request -> {
+            if (request.containsKey("fail")) {
+                return Future.failedFuture("Item not found");
+            }
+            return Future.succeededFuture(request);
+        });
+
+        MicroserviceClient client = new MicroserviceClient(vertx,
+                CircuitBreakerFactory.create(vertx, "passthrough", 5, 10000, 30000), ADDRESS).enablePassthrough();
+        Router router = Router.router(vertx);
+        router.route().handler(BodyHandler.create());
+        router.put("/api/items/:id").handler(new PassthroughHandler(client, "update", "items"));
+        router.post("/api/items").handler(new PassthroughHandler(client, null, "items"));
+        router.get("/api/items/:id").handler(new PassthroughHandler(client, null, "items"));
+
+        server = vertx.createHttpServer();
+        server.requestHandler(router)
+            .listen(0)
+            .onComplete(testContext.succeedingThenComplete());
+    }
+
+    @AfterEach
+    void tearDown(VertxTestContext testContext) {
+        vertx.close(testContext.succeedingThenComplete());
+    }
+
+    @Test
+    void testRequestIsBuiltByTheService(VertxTestContext testContext) {
+        put("/api/items/42?version=3", Buffer.buffer("{\"name\":\"Renamed\"}"))
+            .onComplete(testContext.succeeding(response -> testContext.verify(() -> {
+                assertEquals(200, response.getInteger("status"));
+                JsonObject request = new JsonObject(response.getString("body"));
+                assertEquals("42", request.getString("id"));
+                assertEquals("3", request.getString("version"));
+                assertEquals("Renamed", request.getString("name"));
+                assertEquals("update", request.getString("action"));
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    void testRoutesWithoutActionNameTheMutationMethod(VertxTestContext testContext) {
+        send(HttpMethod.POST, "/api/items", Buffer.buffer("{\"name\":\"New\"}"))
+            .compose(created -> {
+                testContext.verify(() -> {
+                    JsonObject request = new JsonObject(created.getString("body"));
+                    assertEquals("POST", request.getString("method"));
+                    assertNull(request.getString("action"));
+                });
+                return send(HttpMethod.GET, "/api/items/42", Buffer.buffer());
+            })
+            .onComplete(testContext.succeeding(read -> testContext.verify(() -> {
+                // Reads carry no method, so the service looks the item up
+                JsonObject request = new JsonObject(read.getString("body"));
+                assertFalse(request.containsKey("method"));
+                assertEquals("42", request.getString("id"));
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    void testInvalidBodyIsRejectedByTheService(VertxTestContext testContext) {
+        put("/api/items/42", Buffer.buffer("{not json"))
+            .onComplete(testContext.succeeding(response -> testContext.verify(() -> {
+                assertEquals(400, response.getInteger("status"));
+                assertEquals("Invalid JSON body", new JsonObject(response.getString("body")).getString("message"));
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    void testServiceFailureIsReported(VertxTestContext testContext) {
+        put("/api/items/42", Buffer.buffer("{\"fail\":true}"))
+            .onComplete(testContext.succeeding(response -> testContext.verify(() -> {
+                assertEquals(500, response.getInteger("status"));
+                assertEquals("Service unavailable: Item not found",
+                        new JsonObject(response.getString("body")).getString("message"));
+                testContext.completeNow();
+            })));
+    }
+
+    /**
+     * Sends a PUT request and collects the status and raw body.
+     */
+    private Future<JsonObject> put(String path, Buffer body) {
+        return send(HttpMethod.PUT, path, body);
+    }
+
+    /**
+     * Sends a request and collects the status and raw body.
+     */
+    private Future<JsonObject> send(HttpMethod method, String path, Buffer body) {
+        return httpClient.request(method, server.actualPort(), "localhost", path)
+            .compose(request -> request.send(body))
+            .compose(response -> response.body().map(responseBody -> new JsonObject()
+                .put("status", response.statusCode())
+                .put("body", responseBody.toString())));
+    }
+}
@@ -0,0 +1,115 @@
+package dev.mars.vertx.gateway.handler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.User;
+import io.vertx.ext.web.Router;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(VertxExtension.class)
+class RateLimitHandlerTest {
+
+    private Vertx vertx;
+    private HttpClient client;
+    private SimpleMeterRegistry registry;
+    private int port;
+
+    @BeforeEach
+    void setUp(VertxTestContext testContext) {
+        vertx = Vertx.vertx();
+        client = vertx.createHttpClient();
+        registry = new SimpleMeterRegistry();
+
+        RateLimiter limiter = new RateLimiter(100, 10000, registry);
+        RateLimiter.Policy policy = new RateLimiter.Policy(2, 0.01);
+
+        Router router = Router.router(vertx);
+        // Stands in for JWT authentication, which sets the user from the token
+        router.route().handler(ctx -> {
+            String subject = ctx.request().getHeader("X-Test-Subject");
+            if (subject != null) {
+                ctx.setUser(User.fromName(subject));
+                ctx.user().principal().put("sub", subject);
+            }
+            ctx.next();
+        });
+        router.get("/api/items").handler(new RateLimitHandler(limiter, policy, "GET:/api/items", registry))
+            .handler(ctx -> ctx.response().end("{}"));
+
+        vertx.createHttpServer().requestHandler(router).listen(0)
+            .onComplete(testContext.succeeding(server -> {
+                port = server.actualPort();
+                testContext.completeNow();
+            }));
+    }
+
+    @AfterEach
+    void tearDown(VertxTestContext testContext) {
+        vertx.close(testContext.succeedingThenComplete());
+    }
+
+    @Test
+    void testRejectsClientOverLimitWithHeaders(VertxTestContext testContext) {
+        get(null)
+            .compose(first -> {
+                testContext.verify(() -> {
+                    assertEquals(200, first.statusCode());
+                    assertEquals("2", first.getHeader("RateLimit-Limit"));
+                    assertEquals("1", first.getHeader("RateLimit-Remaining"));
+                    assertEquals("100", first.getHeader("RateLimit-Reset"));
+                });
+                return get(null);
+            })
+            .compose(second -> get(null))
+            .onComplete(testContext.succeeding(third -> testContext.verify(() -> {
+                assertEquals(429, third.statusCode());
+                assertEquals("0", third.getHeader("RateLimit-Remaining"));
+                assertEquals("100", third.getHeader("Retry-After"));
+                assertEquals(1.0, registry.get("gateway.rate-limit.rejections").tag("route", "GET:/api/items").counter().count());
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    void testAuthenticatedClientsHaveOwnBuckets(VertxTestContext testContext) {
+        // Same address, but the JWT subject tells the clients apart
+        get("alice")
+            .compose(r -> get("alice"))
+            .compose(r -> get("alice"))
+            .compose(alice -> {
+                testContext.verify(() -> assertEquals(429, alice.statusCode()));
+                return get("bob");
+            })
+            .compose(bob -> {
+                testContext.verify(() -> assertEquals(200, bob.statusCode()));
+                return get(null);
+            })
+            .onComplete(testContext.succeeding(anonymous -> testContext.verify(() -> {
+                assertEquals(200, anonymous.statusCode());
+                testContext.completeNow();
+            })));
+    }
+
+    private Future<HttpClientResponse> get(String subject) {
+        return client.request(HttpMethod.GET, port, "localhost", "/api/items")
+            .compose(request -> {
+                if (subject != null) {
+                    request.putHeader("X-Test-Subject", subject);
+                }
+                return request.send();
+            })
+            .compose(response -> response.body().map(body -> response));
+    }
+}
@@ -0,0 +1,131 @@
+package dev.mars.vertx.gateway.handler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testAllowsBurstUpToCapacityThenRejects() {
+        RateLimiter limiter = new RateLimiter(100, 10000, registry);
+        // Refilled so slowly that no token comes back during the test
+        RateLimiter.Policy policy = new RateLimiter.Policy(3, 0.01);
+
+        for (int remaining = 2; remaining >= 0; remaining--) {
+            RateLimiter.Decision decision = limiter.tryAcquire("ip:1.2.3.4 GET:/a", policy);
+            assertTrue(decision.isAllowed());
+            assertEquals(3, decision.getLimit());
+            assertEquals(remaining, decision.getRemaining());
+        }
+
+        RateLimiter.Decision rejected = limiter.tryAcquire("ip:1.2.3.4 GET:/a", policy);
+        assertFalse(rejected.isAllowed());
+        assertEquals(0, rejected.getRemaining());
+        // The next token is one refill interval of 100 s away
+        assertTrue(rejected.getRetryAfterNanos() > 90_000_000_000L);
+        assertTrue(rejected.getResetNanos() > 200_000_000_000L);
+
+        // Other clients and routes have their own buckets
+        assertTrue(limiter.tryAcquire("ip:5.6.7.8 GET:/a", policy).isAllowed());
+        assertTrue(limiter.tryAcquire("ip:1.2.3.4 GET:/b", policy).isAllowed());
+        assertEquals(3, limiter.size());
+    }
+
+    @Test
+    void testRefillsOverTime() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(100, 10000, registry);
+        RateLimiter.Policy policy = new RateLimiter.Policy(1, 20);
+
+        assertTrue(limiter.tryAcquire("client", policy).isAllowed());
+        assertFalse(limiter.tryAcquire("client", policy).isAllowed());
+
+        // One token comes back every 50 ms
+        Thread.sleep(60);
+        assertTrue(limiter.tryAcquire("client", policy).isAllowed());
+    }
+
+    @Test
+    void testBoundedByDroppingFullBuckets() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(10, 10000, registry);
+        RateLimiter.Policy fast = new RateLimiter.Policy(1, 1000);
+        RateLimiter.Policy slow = new RateLimiter.Policy(5, 0.01);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("fast-" + i, fast);
+        }
+        assertEquals(10, limiter.size());
+
+        // Those buckets are full again after 1 ms, so a new client replaces them
+        Thread.sleep(5);
+        limiter.tryAcquire("slow-client", slow);
+        assertEquals(1, limiter.size());
+
+        // With every bucket draining, arbitrary ones make room
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire("slow-" + i, slow);
+        }
+        assertTrue(limiter.size() <= 10);
+        assertEquals(limiter.size(), registry.get("gateway.rate-limit.buckets").gauge().value());
+    }
+
+    @Test
+    void testConcurrentRequestsNeverExceedCapacity() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(100, 10000, registry);
+        RateLimiter.Policy policy = new RateLimiter.Policy(1000, 0.01);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 500; i++) {
+                    if (limiter.tryAcquire("client", policy).isAllowed()) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1000, allowed.get());
+    }
+
+    @Test
+    void testSharedByVerticlesOfOneVertx() {
+        Vertx vertx = Vertx.vertx();
+        try {
+            JsonObject config = new JsonObject().put("max-buckets", 10);
+            RateLimiter first = RateLimiter.shared(vertx, config, registry);
+            assertSame(first, RateLimiter.shared(vertx, config, registry));
+        } finally {
+            vertx.close();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package dev.mars.vertx.gateway.handler;
+
+import dev.mars.vertx.gateway.service.MicroserviceClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(VertxExtension.class)
+class ResponseCacheHandlerTest {
+
+    private Vertx vertx;
+    private HttpServer server;
+    private HttpClient httpClient;
+    private ResponseCache cache;
+    private MockMicroserviceClient client;
+
+    void startServer(VertxTestContext testContext, ResponseCache.CachePolicy policy) {
+        vertx = Vertx.vertx();
+        cache = new ResponseCache(100, new SimpleMeterRegistry());
+        client = new MockMicroserviceClient(vertx);
+        httpClient = vertx.createHttpClient();
+
+        ServiceHandler serviceHandler = new ServiceHandler(client, "service-one");
+        Router router = Router.router(vertx);
+        router.get("/api/service-one/:id")
+            .handler(new ResponseCacheHandler(cache, policy, serviceHandler))
+            .handler(serviceHandler);
+
+        server = vertx.createHttpServer();
+        server.requestHandler(router)
+            .listen(0)
+            .onComplete(testContext.succeedingThenComplete());
+    }
+
+    @AfterEach
+    void tearDown(VertxTestContext testContext) {
+        vertx.close(testContext.succeedingThenComplete());
+    }
+
+    @Test
+    void testFreshResponseIsServedFromCache(VertxTestContext testContext) throws Throwable {
+        VertxTestContext started = new VertxTestContext();
+        startServer(started, new ResponseCache.CachePolicy(60_000, 0, 0));
+        assertTrue(started.awaitCompletion(5, TimeUnit.SECONDS));
+
+        client.version = 1;
+        get("/api/service-one/1")
+            .compose(first -> {
+                testContext.verify(() -> assertEquals("MISS", first.getString("cache")));
+                client.version = 2;
+                return get("/api/service-one/1");
+            })
+            .onComplete(testContext.succeeding(second -> testContext.verify(() -> {
+                assertEquals("HIT", second.getString("cache"));
+                assertEquals(1, second.getJsonObject("body").getInteger("version"));
+                assertEquals(1, client.calls);
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    void testStaleResponseIsServedWhileRevalidating(VertxTestContext testContext) throws Throwable {
+        VertxTestContext started = new VertxTestContext();
+        startServer(started, new ResponseCache.CachePolicy(0, 60_000, 0));
+        assertTrue(started.awaitCompletion(5, TimeUnit.SECONDS));
+
+        client.version = 1;
+        get("/api/service-one/1")
+            .compose(first -> {
+                client.version = 2;
+                return get("/api/service-one/1");
+            })
+            .compose(second -> {
+                // The stale response is sent at once and refreshed in the background
+                testContext.verify(() -> {
+                    assertEquals("STALE", second.getString("cache"));
+                    assertEquals(1, second.getJsonObject("body").getInteger("version"));
+                });
+                return get("/api/service-one/1");
+            })
+            .onComplete(testContext.succeeding(third -> testContext.verify(() -> {
+                assertEquals("STALE", third.getString("cache"));
+                assertEquals(2, third.getJsonObject("body").getInteger("version"));
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    void testStaleResponseIsServedOnError(VertxTestContext testContext) throws Throwable {
+        VertxTestContext started = new VertxTestContext();
+        startServer(started, new ResponseCache.CachePolicy(0, 0, 60_000));
+        assertTrue(started.awaitCompletion(5, TimeUnit.SECONDS));
+
+        client.version = 1;
+        get("/api/service-one/1")
+            .compose(first -> {
+                client.error = "Circuit breaker is open";
+                return get("/api/service-one/1");
+            })
+            .compose(second -> {
+                testContext.verify(() -> {
+                    assertEquals(200, second.getInteger("status"));
+                    assertEquals("STALE", second.getString("cache"));
+                });
+                // Nothing cached for this item, so the error goes through
+                return get("/api/service-one/2");
+            })
+            .onComplete(testContext.succeeding(third -> testContext.verify(() -> {
+                assertEquals(500, third.getInteger("status"));
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    void testMutationEventInvalidatesItemAndLists(VertxTestContext testContext) throws Throwable {
+        VertxTestContext started = new VertxTestContext();
+        startServer(started, new ResponseCache.CachePolicy(60_000, 0, 0));
+        assertTrue(started.awaitCompletion(5, TimeUnit.SECONDS));
+
+        get("/api/service-one/1")
+            .compose(first -> get("/api/service-one/2"))
+            .compose(second -> {
+                testContext.verify(() -> assertEquals(2, cache.size()));
+                cache.invalidate("service-one", new JsonArray().add("1"));
+                testContext.verify(() -> assertEquals(1, cache.size()));
+                return get("/api/service-one/1");
+            })
+            .onComplete(testContext.succeeding(third -> testContext.verify(() -> {
+                assertEquals("MISS", third.getString("cache"));
+                assertEquals(3, client.calls);
+                testContext.completeNow();
+            })));
+    }
+
+    /**
+     * Sends a GET request and collects the status, X-Cache header and body.
+     */
+    private Future<JsonObject> get(String path) {
+        return httpClient.request(HttpMethod.GET, server.actualPort(), "localhost", path)
+            .compose(request -> request.send())
+            .compose(response -> response.body().map(body -> new JsonObject()
+                .put("status", response.statusCode())
+                .put("cache", response.getHeader("X-Cache"))
+                .put("body", body.toJsonObject())));
+    }
+
+    /**
+     * Mock implementation of MicroserviceClient that answers with a configurable version.
+     */
+    private static class MockMicroserviceClient extends MicroserviceClient {
+        private int version;
+        private String error;
+        private int calls;
+
+        MockMicroserviceClient(Vertx vertx) {
+            // Pass vertx but null for circuit breaker since we're overriding the sendRequest method
+            super(vertx, null, "service-one");
+        }
+
+        @Override
+        public Future<JsonObject> sendRequest(JsonObject request) {
+            calls++;
+            if (error != null) {
+                return Future.failedFuture(error);
+            }
+            return Future.succeededFuture(new JsonObject().put("id", request.getString("id")).put("version", version));
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package dev.mars.vertx.gateway.handler;
 
 import dev.mars.vertx.gateway.service.MicroserviceClient;
+import dev.mars.vertx.gateway.service.ServiceOverloadedException;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpClient;
@@ -52,6 +53,9 @@ class ServiceHandlersTest {
         router.get("/api/service-two/:id").handler(serviceTwoHandler::handle);
         router.post("/api/service-two").handler(serviceTwoHandler::handle);
 
+        // Add the generic handler the gateway routes use
+        router.get("/generic/service-one/:id").handler(new ServiceHandler(serviceOneClient, "service-one"));
+
         // Start a test HTTP server
         server = vertx.createHttpServer();
         server.requestHandler(router)
@@ -148,12 +152,32 @@ class ServiceHandlersTest {
             }));
     }
 
+    @Test
+    void testOverloadedServiceReturns503(VertxTestContext testContext) {
+        serviceOneClient.setNextFailure(new ServiceOverloadedException("service-one", 20));
+
+        vertx.createHttpClient().request(HttpMethod.GET, port, "localhost", "/generic/service-one/test-id")
+            .compose(request -> request.send())
+            .compose(response -> {
+                assertEquals(503, response.statusCode());
+                assertEquals("1", response.getHeader("Retry-After"));
+                return response.body();
+            })
+            .onComplete(testContext.succeeding(body -> testContext.verify(() -> {
+                JsonObject json = new JsonObject(body);
+                assertEquals("Service Unavailable", json.getString("error"));
+                assertTrue(json.getString("message").contains("concurrency limit"));
+                testContext.completeNow();
+            })));
+    }
+
     /**
      * Mock implementation of MicroserviceClient for testing.
      */
     private static class MockMicroserviceClient extends MicroserviceClient {
         private JsonObject nextResponse;
         private String nextError;
+        private Throwable nextFailure;
         private JsonObject lastRequest;
         private final String serviceName;
 
@@ -173,6 +197,11 @@ class ServiceHandlersTest {
             this.nextResponse = null;
         }
 
+        public void setNextFailure(Throwable failure) {
+            this.nextFailure = failure;
+            this.nextResponse = null;
+        }
+
         public JsonObject getLastRequest() {
             return lastRequest;
         }
@@ -185,7 +214,9 @@ class ServiceHandlersTest {
         public Future<JsonObject> sendRequest(JsonObject request) {
             this.lastRequest = request;
 
-            if (nextError != null) {
+            if (nextFailure != null) {
+                return Future.failedFuture(nextFailure);
+            } else if (nextError != null) {
                 return Future.failedFuture(nextError);
             } else if (nextResponse != null) {
                 return Future.succeededFuture(nextResponse);
@@ -1,11 +1,14 @@
 package dev.mars.vertx.gateway.handler;
 
+import dev.mars.vertx.common.util.RequestLimits;
 import dev.mars.vertx.gateway.service.MicroserviceClient;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServer;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.handler.BodyHandler;
@@ -18,6 +21,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -45,6 +50,10 @@ class ServiceOneHandlerTest {
         ServiceOneHandler serviceOneHandler = new ServiceOneHandler(mockClient);
         router.get("/api/service-one/:id").handler(serviceOneHandler::handle);
         router.post("/api/service-one").handler(serviceOneHandler::handle);
+        router.get("/api/service-one").handler(new ServiceHandler(mockClient,
+                ServiceHandler.withIdList("getMany", ServiceHandler.withPagination("list")), "service-one"));
+        router.post("/api/service-one/_bulk").handler(new ServiceHandler(mockClient,
+                ServiceHandler.withArrayBody("bulk", "operations", RequestLimits.MAX_BULK_OPERATIONS), "service-one"));
 
         // Start a test HTTP server
         server = vertx.createHttpServer();
@@ -208,6 +217,53 @@ class ServiceOneHandlerTest {
             }));
     }
 
+    @Test
+    void testRequestsOverTheLimitsAreRejectedAtTheGateway(VertxTestContext testContext) {
+        mockClient.setNextResponse(new JsonObject().put("items", new JsonArray()).put("count", 0));
+        HttpClient client = vertx.createHttpClient();
+
+        // Short IDs, so that the URI stays within the HTTP line limit
+        String ids = String.join(",", Collections.nCopies(RequestLimits.MAX_IDS_PER_REQUEST + 1, "x"));
+        JsonArray operations = new JsonArray();
+        for (int i = 0; i <= RequestLimits.MAX_BULK_OPERATIONS; i++) {
+            operations.add(new JsonObject().put("op", "create").put("name", "n" + i));
+        }
+
+        statusOf(client, HttpMethod.GET, "/api/service-one?limit=" + (RequestLimits.MAX_PAGE_SIZE + 1), null)
+            .compose(status -> {
+                testContext.verify(() -> assertEquals(400, status));
+                return statusOf(client, HttpMethod.GET, "/api/service-one?ids=" + ids, null);
+            })
+            .compose(status -> {
+                testContext.verify(() -> assertEquals(400, status));
+                return statusOf(client, HttpMethod.POST, "/api/service-one/_bulk", operations.toBuffer());
+            })
+            .compose(status -> {
+                testContext.verify(() -> assertEquals(400, status));
+                return statusOf(client, HttpMethod.POST, "/api/service-one/_bulk",
+                        new JsonObject().put("operations", "not an array").toBuffer());
+            })
+            .compose(status -> {
+                testContext.verify(() -> {
+                    assertEquals(400, status);
+                    // None of them reached the service, its circuit breaker or its limiter
+                    assertNull(mockClient.getLastRequest());
+                });
+                return statusOf(client, HttpMethod.GET, "/api/service-one?limit=" + RequestLimits.MAX_PAGE_SIZE, null);
+            })
+            .onComplete(testContext.succeeding(status -> testContext.verify(() -> {
+                assertEquals(200, status);
+                assertEquals(RequestLimits.MAX_PAGE_SIZE, mockClient.getLastRequest().getInteger("limit"));
+                testContext.completeNow();
+            })));
+    }
+
+    private Future<Integer> statusOf(HttpClient client, HttpMethod method, String uri, Buffer body) {
+        return client.request(method, port, "localhost", uri)
+            .compose(request -> body != null ? request.send(body) : request.send())
+            .map(response -> response.statusCode());
+    }
+
     /**
      * Mock implementation of MicroserviceClient for testing.
      */
@@ -66,6 +66,8 @@ class ServiceTwoHandlerTest {
         // This must be last as it's a catch-all for IDs
         router.get("/api/service-two/:id").handler(
                 ServiceTwoHandler.createWeatherItemHandler(serviceTwoClient));
+        router.post("/api/service-two").handler(
+                ServiceTwoHandler.createWeatherItemHandler(serviceTwoClient));
 
         // Start a test HTTP server
         server = vertx.createHttpServer();
@@ -243,6 +245,24 @@ class ServiceTwoHandlerTest {
             }));
     }
 
+    @Test
+    void testWeatherItemHandlerNamesTheMutationMethod(VertxTestContext testContext) {
+        serviceTwoClient.setNextResponse(new JsonObject().put("id", "new-id").put("city", "Lima"));
+
+        HttpClient client = vertx.createHttpClient();
+        client.request(HttpMethod.POST, port, "localhost", "/api/service-two")
+            .compose(request -> request.send(new JsonObject().put("city", "Lima").encode()))
+            .onComplete(testContext.succeeding(response -> testContext.verify(() -> {
+                assertEquals(200, response.statusCode());
+                // Without the method, service two would answer with the weather of the city
+                JsonObject clientRequest = serviceTwoClient.getLastRequest();
+                assertEquals("POST", clientRequest.getString("method"));
+                assertEquals("Lima", clientRequest.getString("city"));
+                assertFalse(clientRequest.containsKey("action"));
+                testContext.completeNow();
+            })));
+    }
+
     /**
      * Mock implementation of MicroserviceClient for testing.
      */
@@ -0,0 +1,124 @@
+package dev.mars.vertx.gateway.security;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(VertxExtension.class)
+class AuthorizationPolicyTableTest {
+
+    @Test
+    void testCompilesAnyAndAllPolicies() {
+        AuthorizationPolicyTable table = new AuthorizationPolicyTable(new JsonObject()
+            .put("DELETE:/api/items/:id", policy("all", "admin", "auditor"))
+            .put("PUT:/api/items/:id", policy("any", "admin", "editor")));
+        long admin = RoleBits.register(List.of("admin"));
+        long auditor = RoleBits.register(List.of("auditor"));
+        long editor = RoleBits.register(List.of("editor"));
+
+        int delete = table.routeId("DELETE:/api/items/:id");
+        int put = table.routeId("PUT:/api/items/:id");
+        int get = table.routeId("GET:/api/items/:id");
+
+        assertEquals(2, table.size());
+        assertTrue(table.isProtected(delete));
+        assertFalse(table.isProtected(get));
+
+        assertTrue(table.isAllowed(delete, admin | auditor));
+        assertFalse(table.isAllowed(delete, admin));
+        assertTrue(table.isAllowed(put, editor));
+        assertFalse(table.isAllowed(put, auditor));
+        assertTrue(table.isAllowed(get, 0));
+    }
+
+    @Test
+    void testUpdateReplacesPoliciesAndKeepsThemWhenInvalid() {
+        AuthorizationPolicyTable table = new AuthorizationPolicyTable(new JsonObject()
+            .put("DELETE:/api/items/:id", policy("any", "admin")));
+        int delete = table.routeId("DELETE:/api/items/:id");
+        int post = table.routeId("POST:/api/items");
+
+        table.update(new JsonObject().put("POST:/api/items", policy("any", "writer")));
+        assertFalse(table.isProtected(delete));
+        assertTrue(table.isProtected(post));
+
+        assertThrows(IllegalArgumentException.class,
+            () -> table.update(new JsonObject().put("POST:/api/items", new JsonObject().put("roles", new JsonArray()))));
+        assertThrows(IllegalArgumentException.class,
+            () -> table.update(new JsonObject().put("POST:/api/items", policy("most", "writer"))));
+        assertTrue(table.isProtected(post));
+        assertFalse(table.isAllowed(post, 0));
+    }
+
+    @Test
+    void testRejectsRolesThatAreNotStrings() {
+        AuthorizationPolicyTable table = new AuthorizationPolicyTable(new JsonObject()
+            .put("POST:/api/items", policy("any", "writer")));
+        int post = table.routeId("POST:/api/items");
+
+        assertThrows(IllegalArgumentException.class, () -> table.update(new JsonObject()
+            .put("POST:/api/items", new JsonObject().put("roles", new JsonArray().add("writer").add(7)))));
+        assertThrows(IllegalArgumentException.class, () -> table.update(new JsonObject()
+            .put("POST:/api/items", new JsonObject().put("roles", "writer"))));
+        assertTrue(table.isProtected(post));
+        assertTrue(table.isAllowed(post, RoleBits.maskOf("writer")));
+    }
+
+    @Test
+    void testReloadsThatRenameRolesDoNotUseUpRoleBits() {
+        AuthorizationPolicyTable table = new AuthorizationPolicyTable(new JsonObject());
+        int post = table.routeId("POST:/api/items");
+        int registered = RoleBits.size();
+
+        for (int i = 0; i < 3 * Long.SIZE; i++) {
+            table.update(new JsonObject().put("POST:/api/items", policy("any", "rotating-" + i)));
+            assertTrue(table.isAllowed(post, RoleBits.maskOf("rotating-" + i)));
+        }
+        assertEquals(registered + 1, RoleBits.size());
+
+        table.update(new JsonObject());
+        assertEquals(registered, RoleBits.size());
+    }
+
+    @Test
+    void testReloadsPoliciesWhenConfigFileChanges(Vertx vertx, VertxTestContext testContext, @TempDir Path dir) throws IOException {
+        Path file = dir.resolve("config.json");
+        Files.writeString(file, config(new JsonObject()).encode());
+
+        JsonObject authorization = new JsonObject()
+            .put("reload", new JsonObject().put("path", file.toString()).put("scan-period-ms", 50));
+        AuthorizationPolicyTable table = AuthorizationPolicyTable.shared(vertx, authorization);
+        assertSame(table, AuthorizationPolicyTable.shared(vertx, authorization));
+        int route = table.routeId("DELETE:/api/items/:id");
+        assertFalse(table.isProtected(route));
+
+        Files.writeString(file, config(new JsonObject().put("DELETE:/api/items/:id", policy("any", "admin"))).encode());
+        vertx.setPeriodic(50, id -> {
+            if (table.isProtected(route)) {
+                vertx.cancelTimer(id);
+                testContext.completeNow();
+            }
+        });
+    }
+
+    private static JsonObject policy(String require, String... roles) {
+        return new JsonObject().put("roles", new JsonArray(List.of((Object[]) roles))).put("require", require);
+    }
+
+    private static JsonObject config(JsonObject policies) {
+        return new JsonObject().put("security", new JsonObject()
+            .put("authorization", new JsonObject().put("policies", policies)));
+    }
+}
@@ -1,7 +1,10 @@
 package dev.mars.vertx.gateway.security;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientResponse;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServer;
 import io.vertx.core.json.JsonObject;
@@ -38,6 +41,7 @@ class JwtAuthHandlerTest {
     private HttpServer server;
     private JWTAuth jwtAuth;
     private JwtAuthHandler jwtAuthHandler;
+    private VerifiedTokenCache tokenCache;
 
     @BeforeEach
     void setUp(VertxTestContext testContext) {
@@ -68,6 +72,12 @@ class JwtAuthHandlerTest {
                 .handler(jwtAuthHandler)
                 .handler(this::handleSecuredEndpoint);
 
+        // Secured endpoint whose verified tokens are cached
+        tokenCache = new VerifiedTokenCache(100, 60000, new SimpleMeterRegistry());
+        router.get("/api/cached")
+                .handler(new JwtAuthHandler(jwtAuth, "test-realm", 3600, tokenCache))
+                .handler(this::handleSecuredEndpoint);
+
         // Start a test HTTP server
         server = vertx.createHttpServer();
         server.requestHandler(router)
@@ -174,6 +184,41 @@ class JwtAuthHandlerTest {
                 }));
     }
 
+    @Test
+    void testCachedTokenIsVerifiedOnce(VertxTestContext testContext) {
+        String token = jwtAuthHandler.generateToken("test-user", new String[]{"user"});
+
+        getCached("Bearer " + token)
+                .compose(first -> {
+                    testContext.verify(() -> {
+                        assertEquals(200, first.statusCode());
+                        assertEquals(1, tokenCache.size());
+                    });
+                    return getCached("Bearer " + token);
+                })
+                .compose(second -> {
+                    testContext.verify(() -> {
+                        assertEquals(200, second.statusCode());
+                        assertEquals("test-user", new JsonObject(second.body().result()).getString("user"));
+                        // The second request found the token verified by the first
+                        assertEquals(0.5, tokenCache.hitRatio(), 0.001);
+                    });
+                    return getCached("Bearer " + token + "x");
+                })
+                .onComplete(testContext.succeeding(tampered -> testContext.verify(() -> {
+                    // A token that fails verification is rejected as without the cache, and not cached
+                    assertEquals(401, tampered.statusCode());
+                    assertEquals(1, tokenCache.size());
+                    testContext.completeNow();
+                })));
+    }
+
+    private Future<HttpClientResponse> getCached(String authorization) {
+        return client.request(HttpMethod.GET, TEST_PORT, TEST_HOST, "/api/cached")
+                .compose(request -> request.putHeader("Authorization", authorization).send())
+                .compose(response -> response.body().map(body -> response));
+    }
+
     @Test
     void testTokenGeneration() {
         // Generate a token for a test user
@@ -0,0 +1,117 @@
+package dev.mars.vertx.gateway.security;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.PubSecKeyOptions;
+import io.vertx.ext.auth.jwt.JWTAuth;
+import io.vertx.ext.auth.jwt.JWTAuthOptions;
+import io.vertx.ext.web.Router;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(VertxExtension.class)
+class PolicyAuthorizationHandlerTest {
+
+    private Vertx vertx;
+    private HttpClient client;
+    private JwtAuthHandler authenticator;
+    private AuthorizationPolicyTable policies;
+    private int port;
+
+    @BeforeEach
+    void setUp(VertxTestContext testContext) {
+        vertx = Vertx.vertx();
+        client = vertx.createHttpClient();
+
+        JWTAuth jwtAuth = JWTAuth.create(vertx, new JWTAuthOptions().addPubSecKey(new PubSecKeyOptions()
+                .setAlgorithm("HS256")
+                .setBuffer("policy-test-secret-key")));
+        authenticator = new JwtAuthHandler(jwtAuth, "test-realm", 3600, null);
+        policies = new AuthorizationPolicyTable(new JsonObject()
+                .put("DELETE:/api/items/:id", new JsonObject().put("roles", new JsonArray().add("admin"))));
+
+        Router router = Router.router(vertx);
+        router.delete("/api/items/:id")
+                .handler(new PolicyAuthorizationHandler(policies, authenticator, "DELETE:/api/items/:id"))
+                .handler(ctx -> ctx.response().end("deleted"));
+        router.get("/api/items/:id")
+                .handler(new PolicyAuthorizationHandler(policies, authenticator, "GET:/api/items/:id"))
+                .handler(ctx -> ctx.response().end("item"));
+
+        vertx.createHttpServer().requestHandler(router).listen(0)
+                .onComplete(testContext.succeeding(server -> {
+                    port = server.actualPort();
+                    testContext.completeNow();
+                }));
+    }
+
+    @AfterEach
+    void tearDown(VertxTestContext testContext) {
+        vertx.close(testContext.succeedingThenComplete());
+    }
+
+    @Test
+    void testEnforcesRoutePolicy(VertxTestContext testContext) {
+        String admin = authenticator.generateToken("alice", new String[]{"admin"});
+        String user = authenticator.generateToken("bob", new String[]{"user"});
+
+        send(HttpMethod.DELETE, null)
+                .compose(anonymous -> {
+                    testContext.verify(() -> assertEquals(401, anonymous.statusCode()));
+                    return send(HttpMethod.DELETE, user);
+                })
+                .compose(forbidden -> {
+                    testContext.verify(() -> assertEquals(403, forbidden.statusCode()));
+                    return send(HttpMethod.DELETE, admin);
+                })
+                .compose(allowed -> {
+                    testContext.verify(() -> assertEquals(200, allowed.statusCode()));
+                    // Routes without a policy need no token
+                    return send(HttpMethod.GET, null);
+                })
+                .onComplete(testContext.succeeding(publicRoute -> testContext.verify(() -> {
+                    assertEquals(200, publicRoute.statusCode());
+                    testContext.completeNow();
+                })));
+    }
+
+    @Test
+    void testReloadedPolicyAppliesToExistingRoutes(VertxTestContext testContext) {
+        String user = authenticator.generateToken("bob", new String[]{"user"});
+
+        policies.update(new JsonObject()
+                .put("GET:/api/items/:id", new JsonObject().put("roles", new JsonArray().add("admin"))));
+
+        send(HttpMethod.GET, user)
+                .compose(forbidden -> {
+                    testContext.verify(() -> assertEquals(403, forbidden.statusCode()));
+                    return send(HttpMethod.DELETE, null);
+                })
+                .onComplete(testContext.succeeding(unprotected -> testContext.verify(() -> {
+                    assertEquals(200, unprotected.statusCode());
+                    testContext.completeNow();
+                })));
+    }
+
+    private Future<HttpClientResponse> send(HttpMethod method, String token) {
+        return client.request(method, port, "localhost", "/api/items/item-1")
+                .compose(request -> {
+                    if (token != null) {
+                        request.putHeader("Authorization", "Bearer " + token);
+                    }
+                    return request.send();
+                })
+                .compose(response -> response.body().map(body -> response));
+    }
+}
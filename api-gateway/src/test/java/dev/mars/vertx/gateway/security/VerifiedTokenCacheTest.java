@@ -0,0 +1,74 @@
+package dev.mars.vertx.gateway.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testCachesUserWithRoleMask() {
+        long adminBit = RoleBits.register(List.of("admin"));
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, 60000, registry);
+        User user = user("alice", "user,admin", System.currentTimeMillis() / 1000 + 3600);
+
+        assertNull(cache.get("token-a"));
+        cache.put("token-a", user);
+
+        User cached = cache.get("token-a");
+        assertSame(user, cached);
+        assertEquals(adminBit, RoleBits.maskOf(cached) & adminBit);
+        assertNull(cache.get("token-b"));
+
+        assertEquals(1.0, registry.get("gateway.auth.token-cache.requests").tag("result", "hit").counter().count());
+        assertEquals(2.0, registry.get("gateway.auth.token-cache.requests").tag("result", "miss").counter().count());
+        assertEquals(1.0 / 3, registry.get("gateway.auth.token-cache.hit-ratio").gauge().value(), 0.001);
+    }
+
+    @Test
+    void testRespectsTokenExpiry() throws InterruptedException {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, 50, registry);
+
+        // Already expired: never cached
+        cache.put("expired", user("bob", "user", System.currentTimeMillis() / 1000 - 1));
+        assertNull(cache.get("expired"));
+        assertEquals(0, cache.size());
+
+        // Valid for an hour, but cached no longer than the maximum TTL
+        cache.put("valid", user("bob", "user", System.currentTimeMillis() / 1000 + 3600));
+        assertNotNull(cache.get("valid"));
+        Thread.sleep(60);
+        assertNull(cache.get("valid"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testBoundedNumberOfEntries() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(3, 60000, registry);
+        long exp = System.currentTimeMillis() / 1000 + 3600;
+
+        for (int i = 0; i < 10; i++) {
+            cache.put("token-" + i, user("user-" + i, "user", exp));
+        }
+
+        assertEquals(3, cache.size());
+        assertNotNull(cache.get("token-9"));
+    }
+
+    private static User user(String subject, String roles, long exp) {
+        return User.create(new JsonObject().put("sub", subject).put("roles", roles).put("exp", exp));
+    }
+}
@@ -0,0 +1,105 @@
+package dev.mars.vertx.gateway.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long BASE_RTT = 1_000_000;
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testRejectsRequestsBeyondLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, registry, "service.test");
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+
+        limiter.onIgnored();
+        assertTrue(limiter.tryAcquire());
+
+        assertEquals(1.0, registry.get("gateway.concurrency.rejections").tag("service", "service.test").counter().count());
+        assertEquals(2.0, registry.get("gateway.concurrency.limit").gauge().value());
+        assertEquals(2.0, registry.get("gateway.concurrency.in-flight").gauge().value());
+    }
+
+    @Test
+    void testLimitGrowsWhileRoundTripsStayAtBaseline() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, registry, "service.test");
+
+        // Keep the limit fully used, with round trips as fast as the first one
+        for (int i = 0; i < 20; i++) {
+            fill(limiter);
+            limiter.onSample(BASE_RTT);
+            drain(limiter);
+        }
+
+        assertTrue(limiter.getLimit() > 10, "limit should grow, was " + limiter.getLimit());
+    }
+
+    @Test
+    void testLimitDoesNotGrowWhenLightlyLoaded() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, registry, "service.test");
+
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire();
+            limiter.onSample(BASE_RTT);
+        }
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void testLimitShrinksWhenRequestsQueue() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 5, 100, registry, "service.test");
+        limiter.tryAcquire();
+        limiter.onSample(BASE_RTT);
+
+        // Round trips four times the baseline mean most of the requests in flight are queued
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire();
+            limiter.onSample(4 * BASE_RTT);
+        }
+
+        assertTrue(limiter.getLimit() < 50, "limit should shrink, was " + limiter.getLimit());
+    }
+
+    @Test
+    void testTimeoutsBackOffToMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 5, 100, registry, "service.test");
+
+        limiter.tryAcquire();
+        limiter.onDropped();
+        assertEquals(18, limiter.getLimit());
+
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.onDropped();
+        }
+        assertEquals(5, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    private static void fill(AdaptiveConcurrencyLimiter limiter) {
+        while (limiter.tryAcquire()) {
+            // take every free slot
+        }
+    }
+
+    private static void drain(AdaptiveConcurrencyLimiter limiter) {
+        while (limiter.getInFlight() > 0) {
+            limiter.onIgnored();
+        }
+    }
+}
@@ -103,4 +103,20 @@ class MicroserviceClientFactoryTest {
         // Verify the clients are different instances
         assertNotSame(clientOne, clientTwo);
     }
+
+    @Test
+    void testShardedServiceConfig() {
+        JsonObject config = new JsonObject()
+                .put("services", new JsonObject()
+                        .put("service-one", new JsonObject()
+                                .put("address", "service.one")
+                                .put("shards", 4)));
+
+        MicroserviceClient client = new MicroserviceClientFactory(vertx, config).getClient("service-one");
+
+        // Verify a sharded client is created with a ring over the configured shards
+        assertTrue(client instanceof ShardedMicroserviceClient);
+        assertEquals(4, ((ShardedMicroserviceClient) client).getShardRing().getShardCount());
+        assertEquals("service.one", client.getServiceAddress());
+    }
 }
@@ -1,12 +1,21 @@
 package dev.mars.vertx.gateway.service;
 
+import dev.mars.vertx.common.resilience.CircuitBreakerFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonObject;
 import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(VertxExtension.class)
@@ -19,11 +28,63 @@ class MicroserviceClientTest {
         vertx = Vertx.vertx();
     }
 
+    @AfterEach
+    void tearDown(VertxTestContext testContext) {
+        vertx.close(testContext.succeedingThenComplete());
+    }
+
     @Test
     void testPlaceholder(VertxTestContext testContext) {
         // This is a placeholder test that always passes
         testContext.completeNow();
     }
 
-    // Mock implementation removed for testing
+    @Test
+    void testRequestsBeyondConcurrencyLimitAreRejected(VertxTestContext testContext) {
+        // The service holds on to its requests until told to answer
+        List<Message<JsonObject>> pending = new ArrayList<>();
+        vertx.eventBus().<JsonObject>consumer("service.limited", pending::add);
+
+        MicroserviceClient client = new MicroserviceClient(vertx,
+                CircuitBreakerFactory.create(vertx, "service-limited", 5, 10000, 30000), "service.limited")
+            .enableConcurrencyLimit(2, 2, 2, new SimpleMeterRegistry());
+
+        Future<JsonObject> first = client.sendRequest(new JsonObject().put("id", "1"));
+        Future<JsonObject> second = client.sendRequest(new JsonObject().put("id", "2"));
+        client.sendRequest(new JsonObject().put("id", "3"))
+            .onComplete(testContext.failing(err -> testContext.verify(() -> {
+                assertTrue(err instanceof ServiceOverloadedException);
+                assertEquals(2, client.getConcurrencyLimiter().getInFlight());
+
+                vertx.setTimer(50, id -> pending.forEach(message -> message.reply(message.body())));
+                Future.all(first, second).onComplete(testContext.succeeding(done -> testContext.verify(() -> {
+                    assertEquals(0, client.getConcurrencyLimiter().getInFlight());
+                    testContext.completeNow();
+                })));
+            })));
+    }
+
+    @Test
+    void testClientsOfOneServiceShareTheConcurrencyLimit(VertxTestContext testContext) {
+        vertx.eventBus().<JsonObject>consumer("service.limited", message -> { });
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        // As created by two gateway verticle instances
+        MicroserviceClient first = new MicroserviceClient(vertx,
+                CircuitBreakerFactory.create(vertx, "service-limited-1", 5, 10000, 30000), "service.limited")
+            .enableConcurrencyLimit(1, 1, 1, registry);
+        MicroserviceClient second = new MicroserviceClient(vertx,
+                CircuitBreakerFactory.create(vertx, "service-limited-2", 5, 10000, 30000), "service.limited")
+            .enableConcurrencyLimit(1, 1, 1, registry);
+
+        assertSame(first.getConcurrencyLimiter(), second.getConcurrencyLimiter());
+        assertEquals(1, registry.find("gateway.concurrency.limit").gauges().size());
+
+        first.sendRequest(new JsonObject().put("id", "1"));
+        second.sendRequest(new JsonObject().put("id", "2"))
+            .onComplete(testContext.failing(err -> testContext.verify(() -> {
+                assertTrue(err instanceof ServiceOverloadedException);
+                testContext.completeNow();
+            })));
+    }
 }
@@ -0,0 +1,120 @@
+package dev.mars.vertx.gateway.service;
+
+import dev.mars.vertx.common.resilience.CircuitBreakerFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(VertxExtension.class)
+class RequestBatcherTest {
+
+    private static final String ADDRESS = "service.batched";
+
+    private Vertx vertx;
+    private SimpleMeterRegistry registry;
+    private AtomicInteger messages;
+
+    @BeforeEach
+    void setUp() {
+        vertx = Vertx.vertx();
+        registry = new SimpleMeterRegistry();
+        messages = new AtomicInteger();
+
+        // The mock service knows every ID starting with "item-"
+        vertx.eventBus().<JsonObject>consumer(ADDRESS, message -> {
+            messages.incrementAndGet();
+            JsonObject request = message.body();
+            if (!"getMany".equals(request.getString("action"))) {
+                message.fail(400, "Unexpected request: " + request);
+                return;
+            }
+            JsonArray items = new JsonArray();
+            JsonArray missing = new JsonArray();
+            request.getJsonArray("ids").forEach(id -> {
+                if (((String) id).startsWith("item-")) {
+                    items.add(new JsonObject().put("id", id).put("name", "Name of " + id));
+                } else {
+                    missing.add(id);
+                }
+            });
+            message.reply(new JsonObject().put("items", items).put("count", items.size()).put("missing", missing));
+        });
+    }
+
+    @AfterEach
+    void tearDown(VertxTestContext testContext) {
+        vertx.close(testContext.succeedingThenComplete());
+    }
+
+    private MicroserviceClient batchingClient(long windowMs, int maxBatchSize) {
+        return new MicroserviceClient(vertx, CircuitBreakerFactory.create(vertx, "batched", 5, 10000, 30000), ADDRESS)
+            .enableBatching(windowMs, maxBatchSize, registry);
+    }
+
+    @Test
+    void testConcurrentLookupsShareOneRequest(VertxTestContext testContext) {
+        MicroserviceClient client = batchingClient(20, 100);
+
+        List<Future<JsonObject>> lookups = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            lookups.add(client.sendRequest(new JsonObject().put("id", "item-" + (i % 5))));
+        }
+        Future<JsonObject> missing = client.sendRequest(new JsonObject().put("id", "unknown"));
+
+        Future.join(Future.all(lookups), missing).onComplete(testContext.failing(err -> testContext.verify(() -> {
+            for (int i = 0; i < lookups.size(); i++) {
+                assertEquals("item-" + (i % 5), lookups.get(i).result().getString("id"));
+            }
+            assertTrue(missing.failed());
+            assertEquals("Item not found with ID: unknown", missing.cause().getMessage());
+
+            // Duplicate IDs are requested once
+            assertEquals(1, messages.get());
+            assertEquals(6.0, registry.get("gateway.batch.size").summary().totalAmount());
+            assertEquals(11, registry.get("gateway.batch.delay").timer().count());
+            testContext.completeNow();
+        })));
+    }
+
+    @Test
+    void testFullBatchIsSentBeforeTheWindowEnds(VertxTestContext testContext) {
+        MicroserviceClient client = batchingClient(60_000, 2);
+
+        List<Future<JsonObject>> lookups = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            lookups.add(client.sendRequest(new JsonObject().put("id", "item-" + i)));
+        }
+
+        Future.all(lookups).onComplete(testContext.succeeding(all -> testContext.verify(() -> {
+            assertEquals(2, messages.get());
+            assertEquals(2, registry.get("gateway.batch.size").summary().count());
+            testContext.completeNow();
+        })));
+    }
+
+    @Test
+    void testOtherRequestsAreNotBatched(VertxTestContext testContext) {
+        MicroserviceClient client = batchingClient(1, 100);
+
+        // The mock rejects everything but getMany, so an unbatched request fails
+        client.sendRequest(new JsonObject().put("id", "item-1").put("action", "delete"))
+            .onComplete(testContext.failing(err -> testContext.verify(() -> {
+                assertTrue(err.getMessage().contains("Unexpected request"));
+                testContext.completeNow();
+            })));
+    }
+}
@@ -0,0 +1,241 @@
+package dev.mars.vertx.gateway.service;
+
+import dev.mars.vertx.common.eventbus.ShardRing;
+import dev.mars.vertx.common.resilience.CircuitBreakerFactory;
+import dev.mars.vertx.common.util.PageCursor;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(VertxExtension.class)
+class ShardedMicroserviceClientTest {
+
+    private static final int SHARDS = 4;
+
+    private Vertx vertx;
+    private ShardRing shardRing;
+    private ShardedMicroserviceClient client;
+
+    @BeforeEach
+    void setUp() {
+        vertx = Vertx.vertx();
+        shardRing = new ShardRing("service.one", SHARDS);
+        client = new ShardedMicroserviceClient(vertx,
+                CircuitBreakerFactory.create(vertx, "service-one", 5, 10000, 30000), shardRing);
+
+        // Each mock shard answers with its own index and one item for list requests
+        for (int shard = 0; shard < SHARDS; shard++) {
+            int index = shard;
+            vertx.eventBus().<JsonObject>consumer(shardRing.address(shard), message -> {
+                JsonObject request = message.body();
+                if ("getMany".equals(request.getString("action"))) {
+                    // Every shard owns only the IDs encoded with its index
+                    JsonArray items = new JsonArray();
+                    JsonArray missing = new JsonArray();
+                    request.getJsonArray("ids").forEach(id -> {
+                        if (ShardRing.encodeKey(index, "x").equals(id)) {
+                            items.add(new JsonObject().put("id", id).put("shard", index));
+                        } else {
+                            missing.add(id);
+                        }
+                    });
+                    message.reply(new JsonObject().put("items", items).put("count", items.size()).put("missing", missing));
+                } else if ("bulk".equals(request.getString("action"))) {
+                    JsonArray results = new JsonArray();
+                    request.getJsonArray("operations").forEach(operation -> results.add(new JsonObject()
+                            .put("status", "ok")
+                            .put("result", new JsonObject().put("shard", index).put("id", ((JsonObject) operation).getValue("id")))));
+                    message.reply(new JsonObject().put("results", results));
+                } else if ("list".equals(request.getString("action")) && request.containsKey("limit")) {
+                    message.reply(pageOf(index, request));
+                } else if ("list".equals(request.getString("action"))) {
+                    message.reply(new JsonObject()
+                            .put("items", new JsonArray().add(new JsonObject().put("id", ShardRing.encodeKey(index, "x"))))
+                            .put("count", 1));
+                } else {
+                    message.reply(new JsonObject().put("shard", index).put("id", request.getString("id")));
+                }
+            });
+        }
+    }
+
+    @AfterEach
+    void tearDown(VertxTestContext testContext) {
+        vertx.close(testContext.succeedingThenComplete());
+    }
+
+    @Test
+    void testRequestsForAnIdGoToItsOwner(VertxTestContext testContext) {
+        String id = ShardRing.encodeKey(2, "abc");
+
+        client.sendRequest(new JsonObject().put("id", id).put("action", "update"))
+                .onComplete(testContext.succeeding(response -> testContext.verify(() -> {
+                    assertEquals(2, response.getInteger("shard"));
+                    assertEquals(id, response.getString("id"));
+                    testContext.completeNow();
+                })));
+    }
+
+    @Test
+    void testHashedIdsGoToTheRingOwner(VertxTestContext testContext) {
+        client.sendRequest(new JsonObject().put("id", "item-3"))
+                .onComplete(testContext.succeeding(response -> testContext.verify(() -> {
+                    assertEquals(shardRing.shardFor("item-3"), response.getInteger("shard"));
+                    testContext.completeNow();
+                })));
+    }
+
+    @Test
+    void testCreatesAreSpreadAcrossShards(VertxTestContext testContext) {
+        Set<Integer> shards = new HashSet<>();
+        Future<JsonObject> chain = Future.succeededFuture();
+        for (int i = 0; i < SHARDS; i++) {
+            chain = chain.compose(v -> client.sendRequest(new JsonObject().put("action", "create").put("name", "n"))
+                    .onSuccess(response -> shards.add(response.getInteger("shard"))));
+        }
+
+        chain.onComplete(testContext.succeeding(v -> testContext.verify(() -> {
+            assertEquals(SHARDS, shards.size());
+            testContext.completeNow();
+        })));
+    }
+
+    @Test
+    void testListIsGatheredFromAllShards(VertxTestContext testContext) {
+        client.sendRequest(new JsonObject().put("action", "list"))
+                .onComplete(testContext.succeeding(response -> testContext.verify(() -> {
+                    assertEquals(SHARDS, response.getInteger("count"));
+                    assertEquals(SHARDS, response.getJsonArray("items").size());
+                    testContext.completeNow();
+                })));
+    }
+
+    @Test
+    void testPagesAreMergedInIdOrderAcrossShards(VertxTestContext testContext) {
+        List<String> seen = new ArrayList<>();
+
+        client.sendRequest(new JsonObject().put("action", "list").put("limit", 5))
+            .compose(first -> {
+                first.getJsonArray("items").forEach(item -> seen.add(((JsonObject) item).getString("id")));
+                testContext.verify(() -> assertNotNull(first.getString("nextCursor")));
+                return client.sendRequest(new JsonObject().put("action", "list").put("limit", 5)
+                        .put("cursor", first.getString("nextCursor")));
+            })
+            .onComplete(testContext.succeeding(second -> testContext.verify(() -> {
+                second.getJsonArray("items").forEach(item -> seen.add(((JsonObject) item).getString("id")));
+
+                // Three items per shard, twelve in total, merged into pages of five in ID order
+                List<String> expected = new ArrayList<>();
+                for (int shard = 0; shard < SHARDS; shard++) {
+                    for (int i = 0; i < 3; i++) {
+                        expected.add(ShardRing.encodeKey(shard, "item-" + i));
+                    }
+                }
+                expected.sort(null);
+                assertEquals(expected.subList(0, 10), seen);
+                assertEquals(5, second.getInteger("count"));
+                assertNotNull(second.getString("nextCursor"));
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    void testGetManyIsSplitByOwningShard(VertxTestContext testContext) {
+        JsonArray ids = new JsonArray();
+        for (int shard = SHARDS - 1; shard >= 0; shard--) {
+            ids.add(ShardRing.encodeKey(shard, "x"));
+        }
+        ids.add(ShardRing.encodeKey(0, "gone"));
+
+        client.sendRequest(new JsonObject().put("action", "getMany").put("ids", ids))
+            .onComplete(testContext.succeeding(response -> testContext.verify(() -> {
+                assertEquals(SHARDS, response.getInteger("count"));
+                JsonArray items = response.getJsonArray("items");
+                for (int i = 0; i < SHARDS; i++) {
+                    // Items keep the requested order and each came from the shard owning its ID
+                    assertEquals(ids.getString(i), items.getJsonObject(i).getString("id"));
+                    assertEquals(SHARDS - 1 - i, items.getJsonObject(i).getInteger("shard"));
+                }
+                assertEquals(new JsonArray().add(ShardRing.encodeKey(0, "gone")), response.getJsonArray("missing"));
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    void testBulkIsSplitByOwningShard(VertxTestContext testContext) {
+        JsonArray operations = new JsonArray();
+        for (int shard = 0; shard < SHARDS; shard++) {
+            operations.add(new JsonObject().put("op", "update").put("id", ShardRing.encodeKey(shard, "x")));
+        }
+        operations.add(new JsonObject().put("op", "create").put("name", "n"));
+
+        client.sendRequest(new JsonObject().put("action", "bulk").put("operations", operations))
+            .onComplete(testContext.succeeding(response -> testContext.verify(() -> {
+                assertEquals(SHARDS + 1, response.getInteger("count"));
+                assertEquals(SHARDS + 1, response.getInteger("succeeded"));
+
+                JsonArray results = response.getJsonArray("results");
+                for (int i = 0; i < SHARDS; i++) {
+                    JsonObject result = results.getJsonObject(i);
+                    // Results come back in request order, each from the shard owning its ID
+                    assertEquals(i, result.getInteger("index"));
+                    assertEquals(i, result.getJsonObject("result").getInteger("shard"));
+                }
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    void testBulkWithAMistypedIdIsStillSplit(VertxTestContext testContext) {
+        JsonArray operations = new JsonArray()
+            .add(new JsonObject().put("op", "update").put("id", 5))
+            .add(new JsonObject().put("op", "update").put("id", ShardRing.encodeKey(2, "x")));
+
+        client.sendRequest(new JsonObject().put("action", "bulk").put("operations", operations))
+            .onComplete(testContext.succeeding(response -> testContext.verify(() -> {
+                JsonArray results = response.getJsonArray("results");
+                assertEquals(2, results.size());
+                // The mistyped operation still reaches a shard, which decides its outcome
+                assertEquals(5, results.getJsonObject(0).getJsonObject("result").getInteger("id"));
+                assertEquals(2, results.getJsonObject(1).getJsonObject("result").getInteger("shard"));
+                testContext.completeNow();
+            })));
+    }
+
+    /**
+     * Answers a paginated list request from a fixed set of three items per shard.
+     */
+    private static JsonObject pageOf(int shard, JsonObject request) {
+        String after = PageCursor.decode(request.getString("cursor"));
+        int limit = request.getInteger("limit");
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String id = ShardRing.encodeKey(shard, "item-" + i);
+            if (after == null || id.compareTo(after) > 0) {
+                ids.add(id);
+            }
+        }
+
+        JsonArray items = new JsonArray();
+        ids.stream().limit(limit).forEach(id -> items.add(new JsonObject().put("id", id)));
+        JsonObject page = new JsonObject().put("items", items).put("count", items.size());
+        if (ids.size() > limit) {
+            page.put("nextCursor", PageCursor.encode(ids.get(limit - 1)));
+        }
+        return page;
+    }
+}
@@ -0,0 +1,94 @@
+package dev.mars.vertx.gateway.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private SimpleMeterRegistry registry;
+    private SingleFlight singleFlight;
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight(registry, "service.test");
+        calls = new AtomicInteger();
+    }
+
+    @Test
+    void testIdenticalRequestsShareOneCall() {
+        Promise<JsonObject> downstream = Promise.promise();
+
+        Future<JsonObject> first = singleFlight.execute("GET /cities anonymous", () -> {
+            calls.incrementAndGet();
+            return downstream.future();
+        });
+        Future<JsonObject> second = singleFlight.execute("GET /cities anonymous", () -> {
+            calls.incrementAndGet();
+            return Future.failedFuture("should not be called");
+        });
+        assertEquals(1, singleFlight.inFlightCount());
+
+        downstream.complete(new JsonObject().put("count", 3));
+
+        assertEquals(1, calls.get());
+        assertEquals(3, first.result().getInteger("count"));
+        assertEquals(3, second.result().getInteger("count"));
+        // Joiners get their own copy of the response
+        assertNotSame(first.result(), second.result());
+        assertEquals(0, singleFlight.inFlightCount());
+        assertEquals(1.0, registry.get("gateway.coalescing.requests").tag("result", "hit").counter().count());
+        assertEquals(1.0, registry.get("gateway.coalescing.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void testCompletedRequestsAreNotReused() {
+        singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            return Future.succeededFuture(new JsonObject());
+        });
+        singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            return Future.failedFuture("down");
+        }).onComplete(ar -> assertTrue(ar.failed()));
+
+        assertEquals(2, calls.get());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void testDifferentScopesAreNotCoalesced() {
+        Promise<JsonObject> downstream = Promise.promise();
+        singleFlight.execute("GET /api/service-one/:id user:alice {\"id\":\"1\"}", () -> {
+            calls.incrementAndGet();
+            return downstream.future();
+        });
+        singleFlight.execute("GET /api/service-one/:id user:bob {\"id\":\"1\"}", () -> {
+            calls.incrementAndGet();
+            return downstream.future();
+        });
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testCanonicalFormIgnoresKeyOrder() {
+        JsonObject a = new JsonObject().put("limit", 5).put("nested", new JsonObject().put("y", 1).put("x", 2))
+            .put("ids", new JsonArray().add("b").add("a"));
+        JsonObject b = new JsonObject().put("ids", new JsonArray().add("b").add("a"))
+            .put("nested", new JsonObject().put("x", 2).put("y", 1)).put("limit", 5);
+
+        assertEquals(SingleFlight.canonical(a), SingleFlight.canonical(b));
+        assertNotEquals(SingleFlight.canonical(a), SingleFlight.canonical(b.copy().put("limit", 6)));
+    }
+}
@@ -0,0 +1,83 @@
+package dev.mars.vertx.benchmarks;
+
+import dev.mars.vertx.common.eventbus.EventBusService;
+import dev.mars.vertx.service.one.model.Item;
+import dev.mars.vertx.service.one.model.ItemMessageCodec;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request/reply round trips through EventBusService on a local Vert.x instance.
+ * The benchmark thread sends and waits for the reply, so this measures the latency of one
+ * round trip including the hand-off to and from the event loop, with messages copied on delivery
+ * or, when shared, handed over as they are.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBusBenchmark {
+
+    private static final String JSON_ADDRESS = "benchmark.json";
+    private static final String ITEM_ADDRESS = "benchmark.item";
+
+    @Param({"false", "true"})
+    private boolean shared;
+
+    private Vertx vertx;
+    private EventBusService eventBusService;
+    private JsonObject request;
+    private Item item;
+
+    @Setup
+    public void setUp() {
+        vertx = Vertx.vertx();
+        eventBusService = new EventBusService(vertx);
+        eventBusService.registerCodec(Item.class, new ItemMessageCodec());
+        if (shared) {
+            eventBusService.shareMessages(JSON_ADDRESS);
+            eventBusService.shareMessages(ITEM_ADDRESS);
+        }
+
+        JsonObject reply = new JsonObject().put("id", "item-1").put("name", "Item 1").put("createdAt", 0L);
+        eventBusService.requestConsumer(JSON_ADDRESS, received -> Future.succeededFuture(reply));
+        eventBusService.<Item>consumer(ITEM_ADDRESS, Future::succeededFuture);
+
+        request = new JsonObject().put("id", "item-1");
+        item = new Item("item-1", "Item 1", "Description", 0L, null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        vertx.close().toCompletionStage().toCompletableFuture().join();
+    }
+
+    @Benchmark
+    public JsonObject sendJsonObject() {
+        return eventBusService.send(JSON_ADDRESS, request, JsonObject.class)
+            .toCompletionStage().toCompletableFuture().join();
+    }
+
+    @Benchmark
+    public Item sendItem() {
+        return eventBusService.send(ITEM_ADDRESS, item, Item.class)
+            .toCompletionStage().toCompletableFuture().join();
+    }
+}
@@ -0,0 +1,209 @@
+package dev.mars.vertx.benchmarks;
+
+import dev.mars.vertx.common.config.ConfigLoader;
+import dev.mars.vertx.gateway.ApiGatewayVerticle;
+import dev.mars.vertx.service.one.ServiceOneMain;
+import dev.mars.vertx.service.two.ServiceTwoVerticle;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end requests through the whole stack: HTTP into ApiGatewayVerticle, over the event bus
+ * to ServiceOneVerticle or ServiceTwoVerticle, and back. All three are deployed in this JVM on a
+ * free port, as VertxReferenceBootstrap deploys them, and every benchmark method drives one
+ * route through a pooled, keep-alive HttpClient running on its own Vert.x instance.
+ *
+ * Each benchmark thread waits for its response before sending the next request (closed loop),
+ * so the thread count sets the concurrency. Throughput mode reports requests per second per
+ * route, sample mode the latency distribution (p50, p90, p99, p99.9, ...). The {@code instances}
+ * parameter sets how many instances of each verticle are deployed, {@code eventLoops} the size of
+ * the server's event loop pool; both can be overridden with {@code -p}.
+ *
+ * The gateway runs with coalescing, batching, passthrough and the response cache off, so each
+ * request reaches the service. To measure a gateway configuration instead, pass its YAML file
+ * with {@code -Dbenchmark.gateway.config=api-gateway/src/main/resources/config.yaml}; the HTTP
+ * port is always replaced by a free one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class FullStackBenchmark {
+
+    private static final String ITEM_ID = "item-1";
+    private static final String CITY = "London";
+
+    @Param({"1", "4"})
+    public int instances;
+
+    @Param({"1", "4"})
+    public int eventLoops;
+
+    private Vertx serverVertx;
+    private Vertx clientVertx;
+    private HttpClient client;
+    private int port;
+    private Buffer updateBody;
+
+    @Setup
+    public void setUp() {
+        port = freePort();
+        serverVertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(eventLoops));
+        await(deployServices().compose(v -> loadGatewayConfig()).compose(this::deployGateway));
+
+        // The client gets its own event loop, so it does not compete with the server's threads
+        clientVertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(1));
+        client = clientVertx.createHttpClient(new HttpClientOptions()
+            .setDefaultHost("localhost")
+            .setDefaultPort(port)
+            .setKeepAlive(true)
+            .setMaxPoolSize(64));
+        updateBody = new JsonObject()
+            .put("name", "Updated Item")
+            .put("description", "Updated by the full-stack benchmark")
+            .toBuffer();
+
+        // Fail fast rather than benchmark error responses
+        request(HttpMethod.GET, "/api/service-one/" + ITEM_ID, null);
+        request(HttpMethod.GET, "/api/service-two/forecast/" + CITY, null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        await(clientVertx.close());
+        await(serverVertx.close());
+    }
+
+    /**
+     * Deploys the services. Service One is deployed by ServiceOneMain, with all instances sharing
+     * one thread-safe repository, so that writes are visible to every instance.
+     */
+    private Future<Void> deployServices() {
+        Future<String> serviceOne = ServiceOneMain.deployVerticles(serverVertx, new JsonObject()
+            .put("service.address", "service.one")
+            .put("service", new JsonObject().put("address", "service.one").put("instances", instances))
+            .put("repository", new JsonObject().put("type", "concurrent")));
+        Future<String> serviceTwo = serverVertx.deployVerticle(ServiceTwoVerticle.class.getName(),
+            new DeploymentOptions()
+                .setConfig(new JsonObject().put("service.address", "service.two"))
+                .setInstances(instances));
+        return Future.all(serviceOne, serviceTwo).mapEmpty();
+    }
+
+    private Future<JsonObject> loadGatewayConfig() {
+        String path = System.getProperty("benchmark.gateway.config");
+        if (path != null) {
+            return ConfigLoader.load(serverVertx, path);
+        }
+        return Future.succeededFuture(new JsonObject()
+            .put("services", new JsonObject()
+                .put("service-one", new JsonObject().put("address", "service.one"))
+                .put("service-two", new JsonObject().put("address", "service.two"))));
+    }
+
+    private Future<String> deployGateway(JsonObject config) {
+        return serverVertx.deployVerticle(ApiGatewayVerticle.class.getName(), new DeploymentOptions()
+            .setConfig(config.copy().put("http.port", port))
+            .setInstances(instances));
+    }
+
+    @Benchmark
+    public Buffer health() {
+        return request(HttpMethod.GET, "/health", null);
+    }
+
+    @Benchmark
+    public Buffer itemGet() {
+        return request(HttpMethod.GET, "/api/service-one/" + ITEM_ID, null);
+    }
+
+    @Benchmark
+    public Buffer itemList() {
+        return request(HttpMethod.GET, "/api/service-one", null);
+    }
+
+    @Benchmark
+    public Buffer itemListPage() {
+        return request(HttpMethod.GET, "/api/service-one?limit=2", null);
+    }
+
+    @Benchmark
+    public Buffer itemUpdate() {
+        return request(HttpMethod.PUT, "/api/service-one/" + ITEM_ID, updateBody);
+    }
+
+    @Benchmark
+    public Buffer weatherForecast() {
+        return request(HttpMethod.GET, "/api/service-two/forecast/" + CITY, null);
+    }
+
+    @Benchmark
+    public Buffer weatherCities() {
+        return request(HttpMethod.GET, "/api/service-two/cities", null);
+    }
+
+    @Benchmark
+    public Buffer weatherList() {
+        return request(HttpMethod.GET, "/api/service-two", null);
+    }
+
+    /**
+     * Sends a request and waits for the whole response body.
+     *
+     * @throws IllegalStateException if the gateway does not answer with status 200
+     */
+    private Buffer request(HttpMethod method, String path, Buffer body) {
+        return await(client.request(method, path)
+            .compose(request -> {
+                if (body != null) {
+                    request.putHeader("Content-Type", "application/json");
+                    return request.send(body);
+                }
+                return request.send();
+            })
+            .compose(response -> response.body().compose(responseBody -> response.statusCode() == 200
+                ? Future.succeededFuture(responseBody)
+                : Future.failedFuture(new IllegalStateException(
+                    method + " " + path + " returned " + response.statusCode() + ": " + responseBody)))));
+    }
+
+    private static <T> T await(Future<T> future) {
+        return future.toCompletionStage().toCompletableFuture().join();
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package dev.mars.vertx.benchmarks;
+
+import dev.mars.vertx.service.one.handler.ItemHandler;
+import dev.mars.vertx.service.one.repository.InMemoryItemRepository;
+import dev.mars.vertx.service.one.service.ItemService;
+import dev.mars.vertx.service.two.handler.WeatherHandler;
+import dev.mars.vertx.service.two.repository.InMemoryWeatherRepository;
+import dev.mars.vertx.service.two.service.WeatherService;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request dispatch through ItemHandler and WeatherHandler over the in-memory repositories,
+ * as the services' event bus consumers run it, without the event bus itself.
+ * The in-memory repositories complete their futures immediately, so results are read directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlerBenchmark {
+
+    private ItemHandler itemHandler;
+    private WeatherHandler weatherHandler;
+    private JsonObject getItemRequest;
+    private JsonObject getManyRequest;
+    private JsonObject listItemsRequest;
+    private JsonObject listPageRequest;
+    private JsonObject cityRequest;
+    private JsonObject forecastRequest;
+    private JsonObject listWeatherRequest;
+
+    @Setup
+    public void setUp() {
+        ItemService itemService = new ItemService(new InMemoryItemRepository());
+        itemService.initialize().result();
+        itemHandler = new ItemHandler(itemService);
+        String id = itemService.getAllItems().result().get(0).getId();
+        getItemRequest = new JsonObject().put("id", id);
+        getManyRequest = new JsonObject().put("action", "getMany").put("ids", new JsonArray().add(id).add("missing"));
+        listItemsRequest = new JsonObject().put("action", "list");
+        listPageRequest = new JsonObject().put("action", "list").put("limit", 2);
+
+        WeatherService weatherService = new WeatherService(new InMemoryWeatherRepository());
+        weatherService.initialize().result();
+        weatherHandler = new WeatherHandler(weatherService);
+        cityRequest = new JsonObject().put("city", "London");
+        forecastRequest = new JsonObject().put("action", "forecast").put("city", "London").put("days", 5);
+        listWeatherRequest = new JsonObject().put("action", "list");
+    }
+
+    @Benchmark
+    public Object itemGet() {
+        return itemHandler.handleRequest(getItemRequest).result();
+    }
+
+    @Benchmark
+    public Object itemGetMany() {
+        return itemHandler.handleRequest(getManyRequest).result();
+    }
+
+    @Benchmark
+    public Object itemList() {
+        return itemHandler.handleRequest(listItemsRequest).result();
+    }
+
+    @Benchmark
+    public Object itemListPage() {
+        return itemHandler.handleRequest(listPageRequest).result();
+    }
+
+    @Benchmark
+    public Object itemGetEncoded() {
+        return itemHandler.handleEncodedRequest(getItemRequest).result();
+    }
+
+    @Benchmark
+    public Object weatherForCity() {
+        return weatherHandler.handleRequest(cityRequest).result();
+    }
+
+    @Benchmark
+    public Object weatherForecast() {
+        return weatherHandler.handleRequest(forecastRequest).result();
+    }
+
+    @Benchmark
+    public Object weatherList() {
+        return weatherHandler.handleRequest(listWeatherRequest).result();
+    }
+
+    @Benchmark
+    public Object weatherListEncoded() {
+        return weatherHandler.handleEncodedRequest(listWeatherRequest).result();
+    }
+}
@@ -0,0 +1,73 @@
+package dev.mars.vertx.benchmarks;
+
+import dev.mars.vertx.service.one.model.Item;
+import dev.mars.vertx.service.one.model.ItemPage;
+import dev.mars.vertx.service.one.repository.InMemoryItemRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CRUD operations of InMemoryItemRepository at several repository sizes.
+ * Creates are paired with deletes so the size stays constant during a run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InMemoryItemRepositoryBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    private int size;
+
+    private InMemoryItemRepository repository;
+    private final AtomicLong nextId = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        nextId.set(0);
+        repository = new InMemoryItemRepository(() -> String.format("item-%09d", nextId.getAndIncrement()));
+        for (int i = 0; i < size; i++) {
+            repository.save(new Item(null, "Item " + i, "Description " + i, 0L, null)).result();
+        }
+    }
+
+    private String randomId() {
+        return String.format("item-%09d", ThreadLocalRandom.current().nextInt(size));
+    }
+
+    @Benchmark
+    public Item findById() {
+        return repository.findById(randomId()).result();
+    }
+
+    @Benchmark
+    public Item update() {
+        return repository.save(new Item(randomId(), "Updated", "Updated description", 0L, null)).result();
+    }
+
+    @Benchmark
+    public Boolean createAndDelete() {
+        Item created = repository.save(new Item(null, "Created", "Created description", 0L, null)).result();
+        return repository.deleteById(created.getId()).result();
+    }
+
+    @Benchmark
+    public ItemPage findPage() {
+        return repository.findPage(randomId(), 20).result();
+    }
+}
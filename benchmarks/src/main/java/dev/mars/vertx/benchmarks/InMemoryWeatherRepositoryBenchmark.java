@@ -0,0 +1,79 @@
+package dev.mars.vertx.benchmarks;
+
+import dev.mars.vertx.service.two.model.Weather;
+import dev.mars.vertx.service.two.repository.InMemoryWeatherRepository;
+import dev.mars.vertx.service.two.service.WeatherService;
+import io.vertx.core.buffer.Buffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * City lookups in the in-memory weather repository as the number of cities grows: finding a city
+ * by a name in another case, listing the cities, encoding that list, and picking a random city.
+ * Listing the cities, plain or encoded, takes the same time and copies nothing whatever their
+ * number. Lookups allocate the same whatever the number of cities, and only slow down as the maps
+ * outgrow the CPU caches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InMemoryWeatherRepositoryBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    private int cities;
+
+    private InMemoryWeatherRepository repository;
+    private WeatherService service;
+    private String[] lookups;
+
+    @Setup
+    public void setUp() {
+        repository = new InMemoryWeatherRepository();
+        service = new WeatherService(repository);
+        long now = System.currentTimeMillis();
+        lookups = new String[cities];
+        for (int i = 0; i < cities; i++) {
+            String city = "City " + i;
+            repository.save(new Weather(city, 20.0, 50.0, 10.0, "Sunny", now));
+            lookups[i] = city.toUpperCase(Locale.ROOT);
+        }
+    }
+
+    @Benchmark
+    public Weather findByCity() {
+        String city = lookups[ThreadLocalRandom.current().nextInt(cities)];
+        return repository.findByCity(city).result();
+    }
+
+    @Benchmark
+    public List<String> getCities() {
+        return repository.getCities().result();
+    }
+
+    @Benchmark
+    public Buffer getEncodedCities() {
+        return repository.getEncodedCities().result();
+    }
+
+    @Benchmark
+    public Weather getRandomWeather() {
+        return service.getRandomWeather().result();
+    }
+}
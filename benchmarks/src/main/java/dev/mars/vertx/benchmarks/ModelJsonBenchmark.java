@@ -0,0 +1,150 @@
+package dev.mars.vertx.benchmarks;
+
+import dev.mars.vertx.service.one.model.Item;
+import dev.mars.vertx.service.one.model.ItemJson;
+import dev.mars.vertx.service.two.model.Weather;
+import dev.mars.vertx.service.two.model.WeatherJson;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON conversion of the models: the JsonObject tree ({@code toJson}/{@code fromJson}) against the
+ * streaming serializers (ItemJson/WeatherJson), for single records and 100-record list envelopes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelJsonBenchmark {
+
+    private Item item;
+    private JsonObject itemJson;
+    private Buffer itemBuffer;
+    private List<Item> items;
+    private Weather weather;
+    private JsonObject weatherJson;
+    private Buffer weatherBuffer;
+    private List<Weather> weatherList;
+
+    @Setup
+    public void setUp() {
+        item = new Item("item-1", "Item 1", "Description of item 1", 1_700_000_000_000L, 1_700_000_100_000L);
+        itemJson = item.toJson();
+        itemBuffer = itemJson.toBuffer();
+        items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(new Item("item-" + i, "Item " + i, "Description of item " + i, 1_700_000_000_000L + i, null));
+        }
+
+        weather = new Weather("weather-1", "London", 15.5, 65.0, 10.2, "Partly Cloudy", 1_700_000_000_000L);
+        weatherJson = weather.toJson();
+        weatherBuffer = weatherJson.toBuffer();
+        weatherList = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            weatherList.add(new Weather("weather-" + i, "City " + i, i * 0.5, 50.0, 12.5, "Sunny", 1_700_000_000_000L + i));
+        }
+    }
+
+    @Benchmark
+    public JsonObject itemToJson() {
+        return item.toJson();
+    }
+
+    @Benchmark
+    public Item itemFromJson() {
+        return Item.fromJson(itemJson);
+    }
+
+    @Benchmark
+    public Buffer itemEncodeTree() {
+        return item.toJson().toBuffer();
+    }
+
+    @Benchmark
+    public Buffer itemEncodeStreaming() {
+        return ItemJson.encode(item);
+    }
+
+    @Benchmark
+    public Item itemDecodeTree() {
+        return Item.fromJson(new JsonObject(itemBuffer));
+    }
+
+    @Benchmark
+    public Item itemDecodeStreaming() {
+        return ItemJson.decode(itemBuffer);
+    }
+
+    @Benchmark
+    public Buffer itemListEncodeTree() {
+        return new JsonObject()
+            .put("items", new JsonArray(items.stream().map(Item::toJson).toList()))
+            .put("count", items.size())
+            .toBuffer();
+    }
+
+    @Benchmark
+    public Buffer itemListEncodeStreaming() {
+        return ItemJson.encodeList(items);
+    }
+
+    @Benchmark
+    public JsonObject weatherToJson() {
+        return weather.toJson();
+    }
+
+    @Benchmark
+    public Weather weatherFromJson() {
+        return Weather.fromJson(weatherJson);
+    }
+
+    @Benchmark
+    public Buffer weatherEncodeTree() {
+        return weather.toJson().toBuffer();
+    }
+
+    @Benchmark
+    public Buffer weatherEncodeStreaming() {
+        return WeatherJson.encode(weather);
+    }
+
+    @Benchmark
+    public Weather weatherDecodeTree() {
+        return Weather.fromJson(new JsonObject(weatherBuffer));
+    }
+
+    @Benchmark
+    public Weather weatherDecodeStreaming() {
+        return WeatherJson.decode(weatherBuffer);
+    }
+
+    @Benchmark
+    public Buffer weatherListEncodeTree() {
+        return new JsonObject()
+            .put("items", weatherList.stream().map(Weather::toJson).toArray())
+            .put("count", weatherList.size())
+            .toBuffer();
+    }
+
+    @Benchmark
+    public Buffer weatherListEncodeStreaming() {
+        return WeatherJson.encodeList(weatherList);
+    }
+}
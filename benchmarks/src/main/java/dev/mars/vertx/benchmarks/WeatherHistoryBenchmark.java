@@ -0,0 +1,79 @@
+package dev.mars.vertx.benchmarks;
+
+import dev.mars.vertx.service.two.model.Weather;
+import dev.mars.vertx.service.two.model.WeatherRollup;
+import dev.mars.vertx.service.two.repository.WeatherSeries;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The weather history of one city: a day of one-minute samples in a WeatherSeries against the
+ * same samples as a list of Weather objects.
+ *
+ * The {@code fill*} benchmarks build the whole day; as nothing they allocate is garbage, the GC
+ * profiler's {@code gc.alloc.rate.norm} divided by {@value #SAMPLES} is the heap per sample of each
+ * representation ({@value WeatherSeries#BYTES_PER_SAMPLE} bytes for the series). The others time
+ * range queries and rollups over the filled series.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WeatherHistoryBenchmark {
+
+    private static final int SAMPLES = 1440;
+    private static final long START = 1_700_000_000_000L;
+    private static final long MINUTE = 60_000L;
+    private static final String[] CONDITIONS = {"Sunny", "Partly Cloudy", "Cloudy", "Rainy"};
+
+    private WeatherSeries series;
+
+    @Setup
+    public void setUp() {
+        series = fillSeries();
+    }
+
+    @Benchmark
+    public WeatherSeries fillSeries() {
+        WeatherSeries filled = new WeatherSeries("London", SAMPLES);
+        for (int i = 0; i < SAMPLES; i++) {
+            filled.append(START + i * MINUTE, 15.0 + i % 10, 60.0, 10.0, CONDITIONS[i % CONDITIONS.length]);
+        }
+        return filled;
+    }
+
+    @Benchmark
+    public List<Weather> fillWeatherList() {
+        List<Weather> filled = new ArrayList<>(SAMPLES);
+        for (int i = 0; i < SAMPLES; i++) {
+            filled.add(new Weather("weather-" + i, "London", 15.0 + i % 10, 60.0, 10.0,
+                CONDITIONS[i % CONDITIONS.length], START + i * MINUTE));
+        }
+        return filled;
+    }
+
+    @Benchmark
+    public List<Weather> rangeLastHour() {
+        long end = START + (SAMPLES - 1) * MINUTE;
+        return series.range(end - 60 * MINUTE, end);
+    }
+
+    @Benchmark
+    public List<WeatherRollup> rollupHourly() {
+        return series.rollup(0, Long.MAX_VALUE, 60 * MINUTE);
+    }
+}
@@ -0,0 +1,113 @@
+package dev.mars.vertx.benchmarks;
+
+import dev.mars.vertx.service.two.repository.CompressedWeatherSegment;
+import dev.mars.vertx.service.two.repository.WeatherSeries;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A sealed weather history segment against the raw arrays it is compressed from: the time to
+ * compress a segment, and to scan every sample of it decoded or raw. The scans sum all values so
+ * that nothing is optimized away; dividing the segment size by their time gives the samples per
+ * microsecond.
+ *
+ * The compressed size is printed at setup. Samples are one a minute with values drifting a tenth
+ * at a time, as a sensor reports them ({@code regular}), or random readings at irregular times
+ * ({@code noisy}), the worst case for the encoding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WeatherSegmentBenchmark {
+
+    @Param({"regular", "noisy"})
+    private String data;
+
+    private final int count = WeatherSeries.DEFAULT_SEGMENT_SIZE;
+    private long[] timestamps;
+    private double[] temperatures;
+    private double[] humidities;
+    private double[] windSpeeds;
+    private byte[] conditions;
+    private CompressedWeatherSegment segment;
+
+    @Setup
+    public void setUp() {
+        timestamps = new long[count];
+        temperatures = new double[count];
+        humidities = new double[count];
+        windSpeeds = new double[count];
+        conditions = new byte[count];
+
+        Random random = new Random(1);
+        boolean regular = data.equals("regular");
+        long timestamp = 1_700_000_000_000L;
+        double temperature = 15.0;
+        double humidity = 60.0;
+        double windSpeed = 10.0;
+        for (int i = 0; i < count; i++) {
+            if (regular) {
+                timestamp += 60_000L;
+                temperature = Math.round((temperature + (random.nextInt(3) - 1) * 0.1) * 10) / 10.0;
+                humidity = i % 10 == 0 ? Math.round((humidity + random.nextInt(3) - 1) * 10) / 10.0 : humidity;
+                windSpeed = Math.round((windSpeed + (random.nextInt(5) - 2) * 0.1) * 10) / 10.0;
+                conditions[i] = (byte) (1 + i / 120);
+            } else {
+                timestamp += 1 + random.nextInt(120_000);
+                temperature = Math.round((10 + 30 * random.nextDouble()) * 10) / 10.0;
+                humidity = Math.round((30 + 60 * random.nextDouble()) * 10) / 10.0;
+                windSpeed = Math.round((5 + 25 * random.nextDouble()) * 10) / 10.0;
+                conditions[i] = (byte) (1 + random.nextInt(6));
+            }
+            timestamps[i] = timestamp;
+            temperatures[i] = temperature;
+            humidities[i] = humidity;
+            windSpeeds[i] = windSpeed;
+        }
+
+        segment = compress();
+        long raw = (long) count * WeatherSeries.BYTES_PER_SAMPLE;
+        System.out.printf("%n%s: %d samples in %d bytes compressed against %d raw (%.2f bytes per sample, ratio %.1f)%n",
+            data, count, segment.compressedBytes(), raw, (double) segment.compressedBytes() / count,
+            (double) raw / segment.compressedBytes());
+    }
+
+    @Benchmark
+    public CompressedWeatherSegment compress() {
+        return CompressedWeatherSegment.encode(timestamps, temperatures, humidities, windSpeeds, conditions, count);
+    }
+
+    @Benchmark
+    public double scanCompressed() {
+        double sum = 0;
+        CompressedWeatherSegment.Decoder decoder = segment.decoder();
+        while (decoder.next()) {
+            sum += decoder.timestamp() + decoder.temperature() + decoder.humidity() + decoder.windSpeed() + decoder.condition();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double scanRaw() {
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += timestamps[i] + temperatures[i] + humidities[i] + windSpeeds[i] + conditions[i];
+        }
+        return sum;
+    }
+}
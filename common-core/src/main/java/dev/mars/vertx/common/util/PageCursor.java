@@ -0,0 +1,48 @@
+package dev.mars.vertx.common.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Utility class for the opaque cursors used by paginated list operations.
+ * A cursor wraps the key of the last item on a page, so the next page can start right after it
+ * (keyset pagination). Clients must treat cursors as opaque strings; services and the gateway
+ * use this class to encode and decode them consistently.
+ */
+public class PageCursor {
+
+    private PageCursor() {
+        // Utility class
+    }
+
+    /**
+     * Encodes a key as a cursor.
+     *
+     * @param key the key of the last item on a page
+     * @return the cursor, or null if the key is null
+     */
+    public static String encode(String key) {
+        if (key == null) {
+            return null;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor back into a key.
+     *
+     * @param cursor the cursor
+     * @return the key, or null if the cursor is null or empty
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static String decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
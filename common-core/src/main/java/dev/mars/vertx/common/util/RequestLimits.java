@@ -0,0 +1,27 @@
+package dev.mars.vertx.common.util;
+
+/**
+ * Size limits of a single request, shared by the services that enforce them and the gateway that
+ * rejects requests over them with 400 before they reach a service.
+ */
+public class RequestLimits {
+
+    /**
+     * The largest page a single list request may ask for.
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * The largest number of IDs a single multi-get request may contain.
+     */
+    public static final int MAX_IDS_PER_REQUEST = 1000;
+
+    /**
+     * The largest number of operations a single bulk request may contain.
+     */
+    public static final int MAX_BULK_OPERATIONS = 1000;
+
+    private RequestLimits() {
+        // Utility class
+    }
+}
@@ -1,27 +1,45 @@
 package dev.mars.vertx.common.eventbus;
 
+import dev.mars.vertx.common.eventbus.codec.ModelMessageCodec;
+import dev.mars.vertx.common.eventbus.codec.JsonEncodable;
+import dev.mars.vertx.common.eventbus.codec.ListMessageCodec;
+import dev.mars.vertx.common.eventbus.codec.SharedBufferCodec;
+import dev.mars.vertx.common.eventbus.codec.SharedJsonObjectCodec;
 import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 /**
  * Utility class for working with the Vert.x Event Bus.
  * Provides methods for sending messages, registering consumers, and handling responses.
  * This implementation includes enhanced logging for better diagnostics.
+ *
+ * Model types can be sent as they are once their codec is registered with {@link #registerCodec}.
+ * Local delivery copies messages, as Vert.x does, unless their address was opted in with
+ * {@link #shareMessages}: requests and replies on such an address are handed over without copying.
  */
 public class EventBusService {
     private static final Logger logger = LoggerFactory.getLogger(EventBusService.class);
     private static final long DEFAULT_TIMEOUT = 30000; // 30 seconds
+    private static final String SHARED_ADDRESSES_MAP = "eventbus.shared-addresses";
     
     private final EventBus eventBus;
+    private final LocalMap<String, Boolean> sharedAddresses;
+    private final Map<Class<?>, String> codecNames = new ConcurrentHashMap<>();
     
     /**
      * Creates a new EventBusService.
@@ -30,9 +48,94 @@ public class EventBusService {
      */
     public EventBusService(Vertx vertx) {
         this.eventBus = vertx.eventBus();
+        this.sharedAddresses = vertx.sharedData().getLocalMap(SHARED_ADDRESSES_MAP);
+        registerIfAbsent(() -> eventBus.registerCodec(new SharedJsonObjectCodec()));
+        registerIfAbsent(() -> eventBus.registerCodec(new SharedBufferCodec()));
         logger.info("EventBusService initialized");
     }
     
+    /**
+     * Registers the codec of a model type, and the codecs of lists of it.
+     * Instances of the type are then sent with the codec, and a consumer may reply with a List of
+     * them. Registering the same type again has no effect.
+     *
+     * @param <T> the model type
+     * @param type the model class
+     * @param codec the codec of the model type
+     */
+    public <T> void registerCodec(Class<T> type, ModelMessageCodec<T> codec) {
+        registerIfAbsent(() -> eventBus.registerDefaultCodec(type, codec));
+        registerIfAbsent(() -> eventBus.registerCodec(codec.shared()));
+        registerIfAbsent(() -> eventBus.registerCodec(new ListMessageCodec<>(codec)));
+        registerIfAbsent(() -> eventBus.registerCodec(new ListMessageCodec<>(codec, true)));
+        codecNames.putIfAbsent(type, codec.name());
+        logger.info("Registered event bus codec {} for {}", codec.name(), type.getName());
+    }
+    
+    /**
+     * Opts an address in to delivery without copying: JsonObject, Buffer and model requests and
+     * replies on it are handed over as they are on local delivery. Only opt in addresses whose
+     * senders never modify a message once sent, and whose consumers never modify the message they
+     * received; the opt-in applies to every EventBusService of the same Vertx instance.
+     *
+     * @param address the address
+     */
+    public void shareMessages(String address) {
+        sharedAddresses.put(address, Boolean.TRUE);
+        logger.info("Sharing messages without copying on address: {}", address);
+    }
+    
+    /**
+     * Returns whether an address was opted in with {@link #shareMessages}.
+     *
+     * @param address the address
+     * @return true if messages on the address are not copied on local delivery
+     */
+    public boolean isShared(String address) {
+        return sharedAddresses.containsKey(address);
+    }
+    
+    private static void registerIfAbsent(Runnable registration) {
+        try {
+            registration.run();
+        } catch (IllegalStateException e) {
+            // Already registered by another EventBusService of the same Vertx instance
+        }
+    }
+    
+    /**
+     * Creates the delivery options for a message body, selecting the codec that avoids copying it
+     * when the address shares messages.
+     *
+     * @param address the address the message is sent to, or replied from
+     * @param body the message body
+     * @return the delivery options
+     */
+    private DeliveryOptions optionsFor(String address, Object body) {
+        DeliveryOptions options = new DeliveryOptions();
+        boolean shared = isShared(address);
+        String suffix = shared ? ModelMessageCodec.SHARED_SUFFIX : "";
+        if (body instanceof List) {
+            // Any list codec carries an empty list, which the receiver cannot tell apart anyway
+            List<?> list = (List<?>) body;
+            String codecName = list.isEmpty()
+                ? codecNames.values().stream().findFirst().orElse(null)
+                : codecNames.get(list.get(0).getClass());
+            if (codecName != null) {
+                options.setCodecName(codecName + suffix + ".list");
+            }
+        } else if (!shared) {
+            return options;
+        } else if (body instanceof JsonObject) {
+            options.setCodecName(SharedJsonObjectCodec.NAME);
+        } else if (body instanceof Buffer) {
+            options.setCodecName(SharedBufferCodec.NAME);
+        } else if (body != null && codecNames.containsKey(body.getClass())) {
+            options.setCodecName(codecNames.get(body.getClass()) + suffix);
+        }
+        return options;
+    }
+    
     /**
      * Sends a message to the event bus and expects a reply.
      *
@@ -59,7 +162,7 @@ public class EventBusService {
     public <T> Future<T> send(String address, Object message, Class<T> replyClass, long timeoutMs) {
         logger.debug("Sending message to {}: {}", address, message);
         
-        DeliveryOptions options = new DeliveryOptions().setSendTimeout(timeoutMs);
+        DeliveryOptions options = optionsFor(address, message).setSendTimeout(timeoutMs);
         
         return Future.<Message<Object>>future(promise -> 
                 eventBus.request(address, message, options, promise)
@@ -67,8 +170,10 @@ public class EventBusService {
             logger.debug("Received reply from {}: {}", address, reply.body());
             if (replyClass.isInstance(reply.body())) {
                 return replyClass.cast(reply.body());
-            } else if (reply.body() instanceof JsonObject && replyClass == JsonObject.class) {
-                return replyClass.cast(reply.body());
+            } else if (reply.body() instanceof JsonEncodable && replyClass == JsonObject.class) {
+                return replyClass.cast(((JsonEncodable) reply.body()).toJson());
+            } else if (JsonEncodable.isJsonEncodableList(reply.body()) && replyClass == JsonObject.class) {
+                return replyClass.cast(JsonEncodable.toJsonList((List<?>) reply.body()));
             } else {
                 throw new ClassCastException("Cannot cast reply to " + replyClass.getName());
             }
@@ -77,6 +182,40 @@ public class EventBusService {
         );
     }
     
+    /**
+     * Sends a passthrough request with the default timeout.
+     *
+     * @param address the address to send the request to
+     * @param body the raw HTTP body, possibly empty
+     * @param headers the passthrough headers
+     * @return a Future with the encoded response
+     */
+    public Future<Buffer> sendPassthrough(String address, Buffer body, MultiMap headers) {
+        return sendPassthrough(address, body, headers, DEFAULT_TIMEOUT);
+    }
+    
+    /**
+     * Sends a passthrough request: the raw HTTP body with the routing metadata as headers
+     * (see {@link Passthrough}). The reply is the encoded response, which is never parsed here.
+     *
+     * @param address the address to send the request to
+     * @param body the raw HTTP body, possibly empty
+     * @param headers the passthrough headers
+     * @param timeoutMs the timeout in milliseconds
+     * @return a Future with the encoded response
+     */
+    public Future<Buffer> sendPassthrough(String address, Buffer body, MultiMap headers, long timeoutMs) {
+        logger.debug("Sending passthrough request to {}: {} bytes", address, body.length());
+        
+        DeliveryOptions options = optionsFor(address, body).setHeaders(headers).setSendTimeout(timeoutMs);
+        
+        return Future.<Message<Buffer>>future(promise ->
+                eventBus.request(address, body, options, promise)
+        ).map(Message::body).onFailure(err ->
+            logger.error("Error sending passthrough request to {}: {}", address, err.getMessage())
+        );
+    }
+    
     /**
      * Publishes a message to the event bus without expecting a reply.
      *
@@ -105,7 +244,7 @@ public class EventBusService {
             handler.apply(message.body())
                 .onSuccess(reply -> {
                     logger.debug("Sending reply to {}: {}", address, reply);
-                    message.reply(reply);
+                    message.reply(reply, optionsFor(address, reply));
                 })
                 .onFailure(err -> {
                     logger.error("Error processing message on {}: {}", address, err.getMessage());
@@ -114,6 +253,66 @@ public class EventBusService {
         });
     }
     
+    /**
+     * Registers a consumer for service requests, which accepts both JsonObject requests and
+     * passthrough requests (see {@link Passthrough}).
+     * A passthrough request is turned into the request object the handler expects, and the
+     * handler's response is sent back encoded; a passthrough request with an invalid body is
+     * failed with code 400.
+     *
+     * @param address the address to listen on
+     * @param handler the function to handle requests
+     * @return the message consumer
+     */
+    public MessageConsumer<Object> requestConsumer(String address, Function<JsonObject, Future<Object>> handler) {
+        return requestConsumer(address, handler, request -> null);
+    }
+    
+    /**
+     * Registers a consumer for service requests, with a second handler that can answer passthrough
+     * requests with a response it encodes itself, such as with a streaming serializer that never
+     * builds a JsonObject. Requests the encoding handler does not answer go to the handler.
+     *
+     * @param address the address to listen on
+     * @param handler the function to handle requests
+     * @param encodingHandler the function answering passthrough requests with an encoded response,
+     *                        returning null for requests it does not handle
+     * @return the message consumer
+     */
+    public MessageConsumer<Object> requestConsumer(String address, Function<JsonObject, Future<Object>> handler,
+                                                   Function<JsonObject, Future<Buffer>> encodingHandler) {
+        logger.info("Registering request consumer for address: {}", address);
+        
+        return eventBus.consumer(address, message -> {
+            boolean passthrough = message.body() instanceof Buffer && Passthrough.isPassthrough(message.headers());
+            JsonObject request;
+            try {
+                request = passthrough
+                    ? Passthrough.toRequest((Buffer) message.body(), message.headers())
+                    : (JsonObject) message.body();
+            } catch (IllegalArgumentException e) {
+                logger.debug("Rejecting passthrough request on {}: {}", address, e.getMessage());
+                message.fail(400, e.getMessage());
+                return;
+            }
+            logger.debug("Received request on {}: {}", address, request);
+            
+            Future<Buffer> encoded = passthrough ? encodingHandler.apply(request) : null;
+            Future<Object> response = encoded != null
+                ? encoded.map(body -> body)
+                : handler.apply(request).map(reply -> passthrough ? Passthrough.encode(reply) : reply);
+            response
+                .onSuccess(reply -> {
+                    logger.debug("Sending reply to {}: {}", address, reply);
+                    message.reply(reply, optionsFor(address, reply));
+                })
+                .onFailure(err -> {
+                    logger.error("Error processing request on {}: {}", address, err.getMessage());
+                    message.fail(500, err.getMessage());
+                });
+        });
+    }
+    
     /**
      * Unregisters a consumer from the event bus.
      *
@@ -0,0 +1,127 @@
+package dev.mars.vertx.common.eventbus;
+
+import dev.mars.vertx.common.eventbus.codec.JsonEncodable;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conventions for passthrough requests, which carry the raw HTTP body instead of a JsonObject.
+ * The API gateway forwards the body as a Buffer and the routing metadata as message headers, so it
+ * never parses the body; the service builds the request object from them, the same object the
+ * gateway would otherwise have built, and replies with the encoded response.
+ */
+public final class Passthrough {
+
+    /**
+     * Header marking a passthrough request, with the HTTP method as its value.
+     */
+    public static final String METHOD = "passthrough.method";
+
+    /**
+     * Header with the action the service should perform, if the route sets one.
+     */
+    public static final String ACTION = "passthrough.action";
+
+    /**
+     * Prefix of the headers carrying the path parameters.
+     */
+    public static final String PATH_PARAM_PREFIX = "passthrough.param.";
+
+    /**
+     * Prefix of the headers carrying the query parameters.
+     */
+    public static final String QUERY_PARAM_PREFIX = "passthrough.query.";
+
+    private Passthrough() {
+        // Utility class
+    }
+
+    /**
+     * Checks whether a message is a passthrough request.
+     *
+     * @param headers the message headers
+     * @return true if the message is a passthrough request
+     */
+    public static boolean isPassthrough(MultiMap headers) {
+        return headers.contains(METHOD);
+    }
+
+    /**
+     * Checks whether an HTTP method changes data: POST, PUT or DELETE. Requests without an action
+     * name such a method, so that the service can tell a create, update or delete from a lookup.
+     *
+     * @param method the HTTP method
+     * @return true if the method is POST, PUT or DELETE
+     */
+    public static boolean isMutation(String method) {
+        return "POST".equals(method) || "PUT".equals(method) || "DELETE".equals(method);
+    }
+
+    /**
+     * Builds the request object of a passthrough request: the path and query parameters, the
+     * fields of the JSON object body, and the action, or without one the method of a mutation.
+     *
+     * @param body the raw HTTP body, possibly empty
+     * @param headers the message headers
+     * @return the request object
+     * @throws IllegalArgumentException if the body is not a JSON object
+     */
+    public static JsonObject toRequest(Buffer body, MultiMap headers) {
+        JsonObject request = new JsonObject();
+        for (Map.Entry<String, String> header : headers) {
+            String name = header.getKey();
+            if (name.startsWith(PATH_PARAM_PREFIX)) {
+                request.put(name.substring(PATH_PARAM_PREFIX.length()), header.getValue());
+            } else if (name.startsWith(QUERY_PARAM_PREFIX)) {
+                request.put(name.substring(QUERY_PARAM_PREFIX.length()), header.getValue());
+            }
+        }
+
+        if (body != null && body.length() > 0) {
+            try {
+                request.mergeIn(new JsonObject(body));
+            } catch (Exception e) {
+                throw new IllegalArgumentException("Invalid JSON body");
+            }
+        }
+
+        String action = headers.get(ACTION);
+        if (action != null) {
+            request.put("action", action);
+        } else if (isMutation(headers.get(METHOD))) {
+            request.put("method", headers.get(METHOD));
+        }
+        return request;
+    }
+
+    /**
+     * Encodes the response to a passthrough request.
+     *
+     * @param response the response returned by the service's handler
+     * @return the encoded response
+     */
+    public static Buffer encode(Object response) {
+        if (response instanceof Buffer) {
+            return (Buffer) response;
+        }
+        if (response instanceof JsonObject) {
+            return ((JsonObject) response).toBuffer();
+        }
+        if (response instanceof JsonArray) {
+            return ((JsonArray) response).toBuffer();
+        }
+        if (response instanceof JsonEncodable) {
+            return ((JsonEncodable) response).toJson().toBuffer();
+        }
+        if (JsonEncodable.isJsonEncodableList(response)) {
+            return JsonEncodable.toJsonList((List<?>) response).toBuffer();
+        }
+        return Json.encodeToBuffer(response);
+    }
+}
@@ -0,0 +1,193 @@
+package dev.mars.vertx.common.eventbus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+
+/**
+ * Consistent hash ring that maps keys to the shards of a partitioned service.
+ * Each shard listens on its own event bus address ({@code <base-address>.shard-<n>}), and
+ * both the service and its callers use the same ring so they agree on which shard owns a key.
+ *
+ * Keys created by a shard can carry their owner explicitly ({@code s<n>-<suffix>}, see
+ * {@link #encodeKey(int, String)}); such keys are routed without hashing. All other keys are
+ * placed on the ring by hash, using several virtual nodes per shard to keep the distribution even.
+ * Instances are immutable and safe to share between threads.
+ */
+public class ShardRing {
+    private static final Logger logger = LoggerFactory.getLogger(ShardRing.class);
+    private static final int DEFAULT_VIRTUAL_NODES = 64;
+
+    private final String baseAddress;
+    private final int shardCount;
+    private final long[] points;
+    private final int[] owners;
+
+    /**
+     * Creates a ring with the default number of virtual nodes per shard.
+     *
+     * @param baseAddress the base event bus address of the service
+     * @param shardCount the number of shards
+     */
+    public ShardRing(String baseAddress, int shardCount) {
+        this(baseAddress, shardCount, DEFAULT_VIRTUAL_NODES);
+    }
+
+    /**
+     * Creates a ring.
+     *
+     * @param baseAddress the base event bus address of the service
+     * @param shardCount the number of shards
+     * @param virtualNodes the number of points each shard occupies on the ring
+     */
+    public ShardRing(String baseAddress, int shardCount, int virtualNodes) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1");
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("Virtual node count must be at least 1");
+        }
+        if ((long) shardCount * virtualNodes > 0x10000L) {
+            throw new IllegalArgumentException("Too many ring points: shardCount * virtualNodes must not exceed 65536");
+        }
+
+        this.baseAddress = baseAddress;
+        this.shardCount = shardCount;
+
+        // Build the ring as parallel sorted arrays so a lookup is a single binary search.
+        // The low 16 bits of each point hold its index so the owner survives the sort.
+        int size = shardCount * virtualNodes;
+        long[] unsortedPoints = new long[size];
+        for (int shard = 0, i = 0; shard < shardCount; shard++) {
+            for (int node = 0; node < virtualNodes; node++, i++) {
+                unsortedPoints[i] = (hash("shard-" + shard + "#" + node) & ~0xFFFFL) | i;
+            }
+        }
+        Arrays.sort(unsortedPoints);
+
+        this.points = new long[size];
+        this.owners = new int[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = unsortedPoints[i];
+            owners[i] = (int) (unsortedPoints[i] & 0xFFFFL) / virtualNodes;
+        }
+
+        logger.info("Created shard ring for {} with {} shards and {} virtual nodes per shard",
+                baseAddress, shardCount, virtualNodes);
+    }
+
+    /**
+     * Gets the shard that owns a key.
+     *
+     * @param key the key
+     * @return the shard index
+     */
+    public int shardFor(String key) {
+        int encoded = decodeShard(key);
+        if (encoded >= 0 && encoded < shardCount) {
+            return encoded;
+        }
+
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    /**
+     * Gets the event bus address of the shard that owns a key.
+     *
+     * @param key the key
+     * @return the event bus address
+     */
+    public String addressFor(String key) {
+        return address(shardFor(key));
+    }
+
+    /**
+     * Gets the event bus address of a shard.
+     *
+     * @param shard the shard index
+     * @return the event bus address
+     */
+    public String address(int shard) {
+        return baseAddress + ".shard-" + shard;
+    }
+
+    /**
+     * Gets the number of shards.
+     *
+     * @return the number of shards
+     */
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Gets the base event bus address of the service.
+     *
+     * @return the base address
+     */
+    public String getBaseAddress() {
+        return baseAddress;
+    }
+
+    /**
+     * Creates a key that is routed to the given shard without hashing.
+     *
+     * @param shard the owning shard
+     * @param suffix the unique part of the key
+     * @return the encoded key
+     */
+    public static String encodeKey(int shard, String suffix) {
+        return "s" + shard + "-" + suffix;
+    }
+
+    /**
+     * Extracts the owning shard from a key created by {@link #encodeKey(int, String)}.
+     *
+     * @param key the key
+     * @return the shard index, or -1 if the key does not encode a shard
+     */
+    public static int decodeShard(String key) {
+        if (key == null || key.length() < 3 || key.charAt(0) != 's') {
+            return -1;
+        }
+
+        int shard = 0;
+        int i = 1;
+        for (; i < key.length() && i < 8; i++) {
+            char c = key.charAt(i);
+            if (c == '-') {
+                break;
+            }
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            shard = shard * 10 + (c - '0');
+        }
+        return i > 1 && i < key.length() && key.charAt(i) == '-' ? shard : -1;
+    }
+
+    /**
+     * Hashes a key to a 64-bit ring position (FNV-1a followed by a murmur3 finalizer).
+     *
+     * @param key the key
+     * @return the ring position
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,98 @@
+package dev.mars.vertx.common.eventbus.codec;
+
+import io.vertx.core.buffer.Buffer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Helpers for the compact binary wire format used by the event bus codecs.
+ * Strings are written as their UTF-8 length followed by the bytes, with -1 for null; numbers use
+ * Buffer's fixed-size big-endian encodings.
+ */
+public final class BinaryWire {
+
+    private BinaryWire() {
+        // Utility class
+    }
+
+    /**
+     * Appends a nullable string.
+     *
+     * @param buffer the buffer to append to
+     * @param value the string, or null
+     */
+    public static void writeString(Buffer buffer, String value) {
+        if (value == null) {
+            buffer.appendInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.appendInt(bytes.length).appendBytes(bytes);
+    }
+
+    /**
+     * Appends a nullable long, as a presence flag followed by the value.
+     *
+     * @param buffer the buffer to append to
+     * @param value the value, or null
+     */
+    public static void writeNullableLong(Buffer buffer, Long value) {
+        if (value == null) {
+            buffer.appendByte((byte) 0);
+        } else {
+            buffer.appendByte((byte) 1).appendLong(value);
+        }
+    }
+
+    /**
+     * Sequential reader over a buffer written with BinaryWire.
+     */
+    public static final class Reader {
+        private final Buffer buffer;
+        private int pos;
+
+        /**
+         * Creates a reader.
+         *
+         * @param buffer the buffer to read
+         * @param pos the position of the first value
+         */
+        public Reader(Buffer buffer, int pos) {
+            this.buffer = buffer;
+            this.pos = pos;
+        }
+
+        public int readInt() {
+            int value = buffer.getInt(pos);
+            pos += 4;
+            return value;
+        }
+
+        public long readLong() {
+            long value = buffer.getLong(pos);
+            pos += 8;
+            return value;
+        }
+
+        public double readDouble() {
+            double value = buffer.getDouble(pos);
+            pos += 8;
+            return value;
+        }
+
+        public String readString() {
+            int length = readInt();
+            if (length < 0) {
+                return null;
+            }
+            String value = buffer.getString(pos, pos + length, StandardCharsets.UTF_8.name());
+            pos += length;
+            return value;
+        }
+
+        public Long readNullableLong() {
+            boolean present = buffer.getByte(pos++) != 0;
+            return present ? readLong() : null;
+        }
+    }
+}
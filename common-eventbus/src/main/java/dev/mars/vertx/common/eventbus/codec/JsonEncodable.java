@@ -0,0 +1,46 @@
+package dev.mars.vertx.common.eventbus.codec;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.List;
+
+/**
+ * Implemented by message types that can be converted to JSON.
+ * EventBusService converts replies of such types when the caller asked for a JsonObject, so that
+ * JSON-speaking callers like the API gateway need not know the service's model classes.
+ * A List of such objects is converted to the list envelope {@code {"items": [...], "count": n}}.
+ */
+public interface JsonEncodable {
+
+    /**
+     * Converts this object to a JsonObject.
+     *
+     * @return the JsonObject
+     */
+    JsonObject toJson();
+
+    /**
+     * Returns whether an object is a List whose elements can all be converted to JSON.
+     *
+     * @param value the object
+     * @return true if the object can be converted with {@link #toJsonList}
+     */
+    static boolean isJsonEncodableList(Object value) {
+        return value instanceof List && ((List<?>) value).stream().allMatch(JsonEncodable.class::isInstance);
+    }
+
+    /**
+     * Converts a List of objects to the list envelope: {@code {"items": [...], "count": n}}.
+     *
+     * @param values the objects, all of them JsonEncodable
+     * @return the JsonObject
+     */
+    static JsonObject toJsonList(List<?> values) {
+        JsonArray items = new JsonArray();
+        for (Object value : values) {
+            items.add(((JsonEncodable) value).toJson());
+        }
+        return new JsonObject().put("items", items).put("count", values.size());
+    }
+}
@@ -0,0 +1,149 @@
+package dev.mars.vertx.common.eventbus.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.EncodeException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Streaming JSON over Vert.x Buffers, for serializers that write model objects straight to bytes
+ * and parsers that read them back without building a JsonObject tree in between.
+ * Generators append to the resulting Buffer and parsers read from the Buffer itself, through
+ * streams over the Buffer API, so neither copies the JSON into an intermediate array.
+ */
+public final class JsonStreams {
+    private static final JsonFactory factory = new JsonFactory();
+
+    private JsonStreams() {
+        // Utility class
+    }
+
+    /**
+     * Writes JSON with a generator.
+     */
+    @FunctionalInterface
+    public interface Writer {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    /**
+     * Reads a value with a parser positioned before its first token.
+     *
+     * @param <T> the type of the value
+     */
+    @FunctionalInterface
+    public interface Reader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+
+    /**
+     * Encodes JSON written by a writer.
+     *
+     * @param writer the writer
+     * @return the encoded JSON
+     * @throws EncodeException if writing fails
+     */
+    public static Buffer encode(Writer writer) {
+        Buffer buffer = Buffer.buffer();
+        try (JsonGenerator generator = factory.createGenerator(new BufferOutputStream(buffer))) {
+            writer.write(generator);
+        } catch (IOException e) {
+            throw new EncodeException("Failed to encode JSON: " + e.getMessage());
+        }
+        return buffer;
+    }
+
+    /**
+     * Decodes JSON with a reader.
+     *
+     * @param <T> the type of the value
+     * @param buffer the encoded JSON
+     * @param reader the reader
+     * @return the value read
+     * @throws DecodeException if the JSON is malformed or does not match the reader
+     */
+    public static <T> T decode(Buffer buffer, Reader<T> reader) {
+        try (JsonParser parser = factory.createParser(new BufferInputStream(buffer))) {
+            return reader.read(parser);
+        } catch (IOException | IllegalStateException e) {
+            throw new DecodeException("Failed to decode JSON: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Advances the parser to the start of an object.
+     *
+     * @param parser the parser
+     * @throws IOException if the next token is not the start of an object
+     */
+    public static void expectStartObject(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken() == JsonToken.START_OBJECT ? JsonToken.START_OBJECT : parser.nextToken();
+        if (token != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object but found " + token);
+        }
+    }
+
+    /**
+     * Output stream appending to a Buffer.
+     */
+    private static final class BufferOutputStream extends OutputStream {
+        private final Buffer buffer;
+
+        private BufferOutputStream(Buffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void write(int b) {
+            buffer.appendByte((byte) b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            buffer.appendBytes(bytes, offset, length);
+        }
+    }
+
+    /**
+     * Input stream reading a Buffer from its start.
+     */
+    private static final class BufferInputStream extends InputStream {
+        private final Buffer buffer;
+        private int pos;
+
+        private BufferInputStream(Buffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return pos < buffer.length() ? buffer.getUnsignedByte(pos++) : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            int count = Math.min(length, buffer.length() - pos);
+            if (count <= 0) {
+                return -1;
+            }
+            buffer.getBytes(pos, pos + count, bytes, offset);
+            pos += count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.length() - pos;
+        }
+    }
+}
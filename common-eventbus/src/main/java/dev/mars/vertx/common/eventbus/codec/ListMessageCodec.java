@@ -0,0 +1,83 @@
+package dev.mars.vertx.common.eventbus.codec;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Event bus codec for lists of model objects, built on the element type's codec.
+ * Local delivery passes a list of copies made by the element codec, or the list itself when the
+ * codec is created to share messages. On the wire the list is a length prefix, the element count
+ * and the elements.
+ *
+ * @param <T> the element type
+ */
+public class ListMessageCodec<T> implements MessageCodec<List<T>, List<T>> {
+    private final ModelMessageCodec<T> elementCodec;
+    private final boolean shared;
+
+    /**
+     * Creates a list codec that copies on local delivery.
+     *
+     * @param elementCodec the codec of the elements
+     */
+    public ListMessageCodec(ModelMessageCodec<T> elementCodec) {
+        this(elementCodec, false);
+    }
+
+    /**
+     * Creates a list codec.
+     *
+     * @param elementCodec the codec of the elements
+     * @param shared whether local delivery passes the list itself instead of a copy
+     */
+    public ListMessageCodec(ModelMessageCodec<T> elementCodec, boolean shared) {
+        this.elementCodec = elementCodec;
+        this.shared = shared;
+    }
+
+    @Override
+    public void encodeToWire(Buffer buffer, List<T> values) {
+        int lengthPos = buffer.length();
+        buffer.appendInt(0).appendInt(values.size());
+        for (T value : values) {
+            elementCodec.write(buffer, value);
+        }
+        buffer.setInt(lengthPos, buffer.length() - lengthPos - 4);
+    }
+
+    @Override
+    public List<T> decodeFromWire(int pos, Buffer buffer) {
+        BinaryWire.Reader reader = new BinaryWire.Reader(buffer, pos + 4);
+        int size = reader.readInt();
+        List<T> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(elementCodec.read(reader));
+        }
+        return values;
+    }
+
+    @Override
+    public List<T> transform(List<T> values) {
+        if (shared) {
+            return values;
+        }
+        List<T> copies = new ArrayList<>(values.size());
+        for (T value : values) {
+            copies.add(elementCodec.transform(value));
+        }
+        return copies;
+    }
+
+    @Override
+    public String name() {
+        return elementCodec.name() + (shared ? ModelMessageCodec.SHARED_SUFFIX : "") + ".list";
+    }
+
+    @Override
+    public byte systemCodecID() {
+        return -1;
+    }
+}
@@ -0,0 +1,113 @@
+package dev.mars.vertx.common.eventbus.codec;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+
+/**
+ * Base class for event bus codecs of model objects.
+ * Local delivery passes a copy made through the binary format, as the built-in codecs do; the
+ * {@link #shared()} variant passes the instance itself, for addresses whose senders and receivers
+ * never modify a message (see EventBusService#shareMessages). Delivery to other nodes uses a
+ * compact binary format: a length prefix followed by the fields written by {@link #write}.
+ *
+ * @param <T> the message type
+ */
+public abstract class ModelMessageCodec<T> implements MessageCodec<T, T> {
+
+    /**
+     * The suffix of the names of codecs that do not copy on local delivery.
+     */
+    public static final String SHARED_SUFFIX = ".shared";
+
+    private final String name;
+
+    /**
+     * Creates a codec.
+     *
+     * @param name the unique codec name
+     */
+    protected ModelMessageCodec(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Appends the fields of a value.
+     *
+     * @param buffer the buffer to append to
+     * @param value the value
+     */
+    protected abstract void write(Buffer buffer, T value);
+
+    /**
+     * Reads the fields of a value written by {@link #write}.
+     *
+     * @param reader the reader positioned at the value
+     * @return the value
+     */
+    protected abstract T read(BinaryWire.Reader reader);
+
+    @Override
+    public void encodeToWire(Buffer buffer, T value) {
+        int lengthPos = buffer.length();
+        buffer.appendInt(0);
+        write(buffer, value);
+        buffer.setInt(lengthPos, buffer.length() - lengthPos - 4);
+    }
+
+    @Override
+    public T decodeFromWire(int pos, Buffer buffer) {
+        return read(new BinaryWire.Reader(buffer, pos + 4));
+    }
+
+    @Override
+    public T transform(T value) {
+        Buffer buffer = Buffer.buffer();
+        write(buffer, value);
+        return read(new BinaryWire.Reader(buffer, 0));
+    }
+
+    /**
+     * Returns the variant of this codec that does not copy on local delivery, named after this
+     * codec with a ".shared" suffix.
+     *
+     * @return the sharing codec
+     */
+    public MessageCodec<T, T> shared() {
+        return new MessageCodec<>() {
+            @Override
+            public void encodeToWire(Buffer buffer, T value) {
+                ModelMessageCodec.this.encodeToWire(buffer, value);
+            }
+
+            @Override
+            public T decodeFromWire(int pos, Buffer buffer) {
+                return ModelMessageCodec.this.decodeFromWire(pos, buffer);
+            }
+
+            @Override
+            public T transform(T value) {
+                return value;
+            }
+
+            @Override
+            public String name() {
+                return name + SHARED_SUFFIX;
+            }
+
+            @Override
+            public byte systemCodecID() {
+                return -1;
+            }
+        };
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public byte systemCodecID() {
+        return -1;
+    }
+}
@@ -0,0 +1,45 @@
+package dev.mars.vertx.common.eventbus.codec;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+
+/**
+ * Buffer codec that does not copy on local delivery.
+ * The built-in Buffer codec copies every message sent within the same Vert.x instance; this codec
+ * hands over the buffer itself, so it must not be modified once sent. EventBusService uses it for
+ * passthrough requests and replies on addresses that share messages. The wire format is the same
+ * as the built-in codec's.
+ */
+public class SharedBufferCodec implements MessageCodec<Buffer, Buffer> {
+
+    /**
+     * The codec name.
+     */
+    public static final String NAME = "buffer.shared";
+
+    @Override
+    public void encodeToWire(Buffer buffer, Buffer value) {
+        buffer.appendInt(value.length()).appendBuffer(value);
+    }
+
+    @Override
+    public Buffer decodeFromWire(int pos, Buffer buffer) {
+        int length = buffer.getInt(pos);
+        return buffer.getBuffer(pos + 4, pos + 4 + length);
+    }
+
+    @Override
+    public Buffer transform(Buffer value) {
+        return value;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte systemCodecID() {
+        return -1;
+    }
+}
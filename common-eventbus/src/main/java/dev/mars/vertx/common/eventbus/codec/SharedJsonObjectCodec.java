@@ -0,0 +1,47 @@
+package dev.mars.vertx.common.eventbus.codec;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * JsonObject codec that does not copy on local delivery.
+ * The built-in JsonObject codec copies every message sent within the same Vert.x instance; this
+ * codec hands over the instance itself. EventBusService uses it for requests and replies on
+ * addresses that share messages, whose senders and consumers never modify a message. The wire
+ * format is the same length-prefixed JSON text as the built-in codec.
+ */
+public class SharedJsonObjectCodec implements MessageCodec<JsonObject, JsonObject> {
+
+    /**
+     * The codec name.
+     */
+    public static final String NAME = "json.shared";
+
+    @Override
+    public void encodeToWire(Buffer buffer, JsonObject value) {
+        Buffer encoded = value.toBuffer();
+        buffer.appendInt(encoded.length()).appendBuffer(encoded);
+    }
+
+    @Override
+    public JsonObject decodeFromWire(int pos, Buffer buffer) {
+        int length = buffer.getInt(pos);
+        return new JsonObject(buffer.slice(pos + 4, pos + 4 + length));
+    }
+
+    @Override
+    public JsonObject transform(JsonObject value) {
+        return value;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte systemCodecID() {
+        return -1;
+    }
+}
@@ -1,6 +1,13 @@
 package dev.mars.vertx.common.eventbus;
 
+import dev.mars.vertx.common.eventbus.codec.BinaryWire;
+import dev.mars.vertx.common.eventbus.codec.ModelMessageCodec;
+import dev.mars.vertx.common.eventbus.codec.JsonEncodable;
+import dev.mars.vertx.common.eventbus.codec.ListMessageCodec;
+import dev.mars.vertx.common.eventbus.codec.SharedJsonObjectCodec;
 import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.eventbus.MessageConsumer;
@@ -12,6 +19,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(VertxExtension.class)
@@ -165,4 +174,211 @@ class EventBusServiceTest {
             testContext.completeNow();
         });
     }
+
+    @Test
+    void testMessagesAreCopiedUnlessTheAddressSharesThem(VertxTestContext testContext) {
+        eventBusService.registerCodec(Point.class, new PointCodec());
+        Point point = new Point("a", 1, 2.5);
+        List<Point> points = List.of(point);
+        JsonObject message = new JsonObject().put("test", "value");
+        JsonObject reply = new JsonObject().put("received", true);
+        eventBusService.consumer(TEST_ADDRESS, (JsonObject received) -> {
+            testContext.verify(() -> {
+                assertNotSame(message, received);
+                assertEquals(message, received);
+            });
+            return Future.succeededFuture(reply);
+        });
+        eventBusService.consumer(TEST_ADDRESS + ".point", (Point received) -> {
+            testContext.verify(() -> {
+                assertNotSame(point, received);
+                assertEquals("a", received.name);
+            });
+            return Future.succeededFuture(points);
+        });
+
+        assertFalse(eventBusService.isShared(TEST_ADDRESS));
+        eventBusService.send(TEST_ADDRESS, message, JsonObject.class)
+                .compose(response -> {
+                    testContext.verify(() -> {
+                        assertNotSame(reply, response);
+                        assertTrue(response.getBoolean("received"));
+                    });
+                    return eventBusService.send(TEST_ADDRESS + ".point", point, List.class);
+                })
+                .onComplete(testContext.succeeding(response -> testContext.verify(() -> {
+                    assertNotSame(points, response);
+                    assertNotSame(point, response.get(0));
+                    assertEquals(1L, ((Point) response.get(0)).x);
+                    testContext.completeNow();
+                })));
+    }
+
+    @Test
+    void testJsonObjectIsNotCopiedOnSharedAddress(VertxTestContext testContext) {
+        // The opt-in applies to every EventBusService of the Vertx instance
+        new EventBusService(vertx).shareMessages(TEST_ADDRESS);
+        JsonObject message = new JsonObject().put("test", "value");
+        JsonObject reply = new JsonObject().put("received", true);
+        eventBusService.consumer(TEST_ADDRESS, (JsonObject received) -> {
+            testContext.verify(() -> assertSame(message, received));
+            return Future.succeededFuture(reply);
+        });
+
+        eventBusService.send(TEST_ADDRESS, message, JsonObject.class)
+                .onComplete(testContext.succeeding(response -> testContext.verify(() -> {
+                    assertSame(reply, response);
+                    testContext.completeNow();
+                })));
+    }
+
+    @Test
+    void testRegisteredCodecSendsInstancesAndListsOnSharedAddress(VertxTestContext testContext) {
+        eventBusService.registerCodec(Point.class, new PointCodec());
+        eventBusService.shareMessages(TEST_ADDRESS);
+        // Registering again, e.g. from another service on the same Vertx instance, is harmless
+        new EventBusService(vertx).registerCodec(Point.class, new PointCodec());
+
+        Point point = new Point("a", 1, 2.5);
+        List<Point> points = List.of(point, new Point(null, 3, 4.0));
+        eventBusService.consumer(TEST_ADDRESS, (Point received) -> {
+            testContext.verify(() -> assertSame(point, received));
+            return Future.succeededFuture(points);
+        });
+        eventBusService.consumer(TEST_ADDRESS + ".json", (Point received) -> Future.succeededFuture(received));
+
+        eventBusService.send(TEST_ADDRESS, point, List.class)
+                .compose(response -> {
+                    testContext.verify(() -> assertSame(points, response));
+                    // JSON callers get the reply converted
+                    return eventBusService.send(TEST_ADDRESS + ".json", point, JsonObject.class);
+                })
+                .onComplete(testContext.succeeding(json -> testContext.verify(() -> {
+                    assertEquals("a", json.getString("name"));
+                    assertEquals(1L, json.getLong("x"));
+                    testContext.completeNow();
+                })));
+    }
+
+    @Test
+    void testListRepliesAreConvertedToTheListEnvelope(VertxTestContext testContext) {
+        eventBusService.registerCodec(Point.class, new PointCodec());
+        eventBusService.consumer(TEST_ADDRESS, (JsonObject received) ->
+                Future.succeededFuture(List.of(new Point("a", 1, 2.5), new Point("b", 2, 0.5))));
+        // An empty list has no element to pick its codec by
+        eventBusService.consumer(TEST_ADDRESS + ".empty", (JsonObject received) -> Future.succeededFuture(List.of()));
+
+        eventBusService.send(TEST_ADDRESS, new JsonObject(), JsonObject.class)
+                .compose(response -> {
+                    testContext.verify(() -> {
+                        assertEquals(2, response.getInteger("count"));
+                        assertEquals("b", response.getJsonArray("items").getJsonObject(1).getString("name"));
+                    });
+                    return eventBusService.send(TEST_ADDRESS + ".empty", new JsonObject(), JsonObject.class);
+                })
+                .onComplete(testContext.succeeding(response -> testContext.verify(() -> {
+                    assertEquals(0, response.getInteger("count"));
+                    assertTrue(response.getJsonArray("items").isEmpty());
+                    testContext.completeNow();
+                })));
+    }
+
+    @Test
+    void testCodecWireFormatRoundTrip(VertxTestContext testContext) {
+        PointCodec codec = new PointCodec();
+        ListMessageCodec<Point> listCodec = new ListMessageCodec<>(codec);
+        SharedJsonObjectCodec jsonCodec = new SharedJsonObjectCodec();
+
+        // Values are written after other data, as the event bus does, to check offsets
+        Buffer buffer = Buffer.buffer().appendString("header");
+        codec.encodeToWire(buffer, new Point("\u00e9t\u00e9", -7, 1.5));
+        int listPos = buffer.length();
+        listCodec.encodeToWire(buffer, List.of(new Point(null, 1, 0.0), new Point("b", 2, -1.0)));
+        int jsonPos = buffer.length();
+        jsonCodec.encodeToWire(buffer, new JsonObject().put("city", "London"));
+
+        Point decoded = codec.decodeFromWire(6, buffer);
+        List<Point> decodedList = listCodec.decodeFromWire(listPos, buffer);
+        JsonObject decodedJson = jsonCodec.decodeFromWire(jsonPos, buffer);
+
+        assertEquals("\u00e9t\u00e9", decoded.name);
+        assertEquals(-7, decoded.x);
+        assertEquals(1.5, decoded.weight);
+        assertEquals(2, decodedList.size());
+        assertNull(decodedList.get(0).name);
+        assertEquals("b", decodedList.get(1).name);
+        assertEquals(-1.0, decodedList.get(1).weight);
+        assertEquals("London", decodedJson.getString("city"));
+        testContext.completeNow();
+    }
+
+    @Test
+    void testRequestConsumerHandlesPassthroughRequests(VertxTestContext testContext) {
+        eventBusService.requestConsumer(TEST_ADDRESS, request -> Future.succeededFuture(request.put("handled", true)));
+
+        MultiMap headers = MultiMap.caseInsensitiveMultiMap()
+                .add(Passthrough.METHOD, "PUT")
+                .add(Passthrough.ACTION, "update")
+                .add(Passthrough.PATH_PARAM_PREFIX + "id", "7")
+                .add(Passthrough.QUERY_PARAM_PREFIX + "mode", "fast");
+
+        eventBusService.sendPassthrough(TEST_ADDRESS, Buffer.buffer("{\"name\":\"x\"}"), headers)
+                .compose(reply -> {
+                    testContext.verify(() -> {
+                        JsonObject request = reply.toJsonObject();
+                        assertEquals("7", request.getString("id"));
+                        assertEquals("fast", request.getString("mode"));
+                        assertEquals("x", request.getString("name"));
+                        assertEquals("update", request.getString("action"));
+                        assertTrue(request.getBoolean("handled"));
+                    });
+                    // JsonObject requests are still accepted by the same consumer
+                    return eventBusService.send(TEST_ADDRESS, new JsonObject().put("id", "8"), JsonObject.class);
+                })
+                .compose(reply -> {
+                    testContext.verify(() -> assertTrue(reply.getBoolean("handled")));
+                    return eventBusService.sendPassthrough(TEST_ADDRESS, Buffer.buffer("[1]"), headers);
+                })
+                .onComplete(testContext.failing(err -> testContext.verify(() -> {
+                    assertEquals("Invalid JSON body", err.getMessage());
+                    testContext.completeNow();
+                })));
+    }
+
+    /**
+     * Immutable model type used to test codecs.
+     */
+    private static final class Point implements JsonEncodable {
+        private final String name;
+        private final long x;
+        private final double weight;
+
+        Point(String name, long x, double weight) {
+            this.name = name;
+            this.x = x;
+            this.weight = weight;
+        }
+
+        @Override
+        public JsonObject toJson() {
+            return new JsonObject().put("name", name).put("x", x).put("weight", weight);
+        }
+    }
+
+    private static final class PointCodec extends ModelMessageCodec<Point> {
+        PointCodec() {
+            super("test.point");
+        }
+
+        @Override
+        protected void write(Buffer buffer, Point value) {
+            BinaryWire.writeString(buffer, value.name);
+            buffer.appendLong(value.x).appendDouble(value.weight);
+        }
+
+        @Override
+        protected Point read(BinaryWire.Reader reader) {
+            return new Point(reader.readString(), reader.readLong(), reader.readDouble());
+        }
+    }
 }
@@ -0,0 +1,85 @@
+package dev.mars.vertx.common.eventbus;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRingTest {
+
+    @Test
+    void testAddresses() {
+        ShardRing ring = new ShardRing("service.one", 4);
+
+        assertEquals(4, ring.getShardCount());
+        assertEquals("service.one", ring.getBaseAddress());
+        assertEquals("service.one.shard-3", ring.address(3));
+    }
+
+    @Test
+    void testEncodedKeysRouteToTheirShard() {
+        ShardRing ring = new ShardRing("service.one", 8);
+
+        for (int shard = 0; shard < 8; shard++) {
+            String key = ShardRing.encodeKey(shard, "0b9b2a6e-4f4e-4d7a-9a43-2f1d1f6c9d10");
+            assertEquals(shard, ShardRing.decodeShard(key));
+            assertEquals(shard, ring.shardFor(key));
+            assertEquals("service.one.shard-" + shard, ring.addressFor(key));
+        }
+    }
+
+    @Test
+    void testDecodeShardRejectsPlainKeys() {
+        assertEquals(-1, ShardRing.decodeShard(null));
+        assertEquals(-1, ShardRing.decodeShard("item-1"));
+        assertEquals(-1, ShardRing.decodeShard("sample-1"));
+        assertEquals(-1, ShardRing.decodeShard("s-1"));
+        assertEquals(-1, ShardRing.decodeShard("s12"));
+        assertEquals(12, ShardRing.decodeShard("s12-x"));
+    }
+
+    @Test
+    void testHashedKeysAreStableAndEvenlyDistributed() {
+        int shards = 4;
+        int keys = 40_000;
+        ShardRing ring = new ShardRing("service.one", shards);
+        int[] counts = new int[shards];
+
+        for (int i = 0; i < keys; i++) {
+            String key = "item-" + i;
+            int shard = ring.shardFor(key);
+            assertEquals(shard, ring.shardFor(key));
+            counts[shard]++;
+        }
+
+        for (int count : counts) {
+            // Each shard should get its fair share within a generous tolerance
+            assertTrue(count > keys / shards / 2, "Shard distribution is too uneven: " + count);
+            assertTrue(count < keys / shards * 2, "Shard distribution is too uneven: " + count);
+        }
+    }
+
+    @Test
+    void testAddingAShardMovesFewKeys() {
+        int keys = 20_000;
+        ShardRing four = new ShardRing("service.one", 4);
+        ShardRing five = new ShardRing("service.one", 5);
+        int moved = 0;
+
+        for (int i = 0; i < keys; i++) {
+            String key = "item-" + i;
+            if (four.shardFor(key) != five.shardFor(key)) {
+                moved++;
+            }
+        }
+
+        // Ideally 1/5 of the keys move; modulo hashing would move about 4/5
+        assertTrue(moved < keys / 3, "Too many keys moved: " + moved);
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardRing("service.one", 0));
+        assertThrows(IllegalArgumentException.class, () -> new ShardRing("service.one", 2, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ShardRing("service.one", 1024, 128));
+    }
+}
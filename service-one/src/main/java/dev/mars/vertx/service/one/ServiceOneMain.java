@@ -1,18 +1,26 @@
 package dev.mars.vertx.service.one;
 import dev.mars.vertx.common.config.ConfigLoader;
+import dev.mars.vertx.common.eventbus.ShardRing;
+import dev.mars.vertx.common.util.ShutdownManager;
+import dev.mars.vertx.service.one.repository.ItemRepositoryFactory;
+import dev.mars.vertx.service.one.repository.ItemRepositoryInterface;
 import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.core.VertxOptions;
 import io.vertx.core.json.JsonObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Main entry point for Service One.
  * Configures and starts the Vert.x instance and deploys the Service One verticle.
  */
 public class ServiceOneMain {
     private static final Logger logger = LoggerFactory.getLogger(ServiceOneMain.class);
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 30;
 
     public static void main(String[] args) {
         logger.info("Starting Service One");
@@ -21,27 +29,97 @@ public class ServiceOneMain {
         VertxOptions options = new VertxOptions();
         Vertx vertx = Vertx.vertx(options);
 
+        // Closing Vert.x on exit stops the verticles, which closes the repository they share
+        new ShutdownManager(vertx, SHUTDOWN_TIMEOUT_SECONDS).registerShutdownHook();
+
         // Load configuration from config.yaml
         ConfigLoader.load(vertx, "service-one/src/main/resources/config.yaml")
             .onSuccess(config -> {
                 logger.info("Configuration loaded successfully");
 
-                // Deploy the Service One verticle with the loaded configuration
-                DeploymentOptions deploymentOptions = new DeploymentOptions()
-                        .setConfig(config);
-
-                vertx.deployVerticle(ServiceOneVerticle.class.getName(), deploymentOptions, ar -> {
-                    if (ar.succeeded()) {
-                        logger.info("Service One verticle deployed successfully: {}", ar.result());
-                    } else {
-                        logger.error("Failed to deploy Service One verticle", ar.cause());
+                deployVerticles(vertx, config)
+                    .onSuccess(id -> logger.info("Service One verticle deployed successfully: {}", id))
+                    .onFailure(err -> {
+                        logger.error("Failed to deploy Service One verticle", err);
                         vertx.close();
-                    }
-                });
+                    });
             })
             .onFailure(err -> {
                 logger.error("Failed to load configuration", err);
                 vertx.close();
             });
     }
+
+    /**
+     * Deploys the Service One verticle with the loaded configuration.
+     * With more than one instance configured, all instances share a single thread-safe
+     * repository and the event bus load-balances requests across their event loops.
+     * A concurrent or durable repository type is always created once and shared.
+     * With shards configured, each instance instead owns one partition of the keyspace
+     * and listens on its own shard address (shared-nothing mode).
+     *
+     * A shared repository is closed when the last instance using it is undeployed, or if the
+     * deployment fails, so that its pending writes are made durable and its timers stopped.
+     *
+     * @param vertx the Vertx instance
+     * @param config the loaded configuration
+     * @return a Future with the deployment ID
+     */
+    public static Future<String> deployVerticles(Vertx vertx, JsonObject config) {
+        JsonObject serviceConfig = config.getJsonObject("service", new JsonObject());
+        int shards = serviceConfig.getInteger("shards", 0);
+        if (shards > 0) {
+            return deployShards(vertx, config, serviceConfig.getString("address", "service.one"), shards);
+        }
+
+        int instances = serviceConfig.getInteger("instances", 1);
+        JsonObject repositoryConfig = config.getJsonObject("repository", new JsonObject());
+        String repositoryType = repositoryConfig.getString("type", "memory");
+
+        DeploymentOptions deploymentOptions = new DeploymentOptions()
+                .setConfig(config)
+                .setInstances(instances);
+
+        if (instances <= 1 && "memory".equals(repositoryType)) {
+            return vertx.deployVerticle(ServiceOneVerticle.class.getName(), deploymentOptions);
+        }
+
+        // The single-threaded repository cannot be shared between event loops
+        if ("memory".equals(repositoryType)) {
+            repositoryType = "concurrent";
+        }
+
+        logger.info("Deploying {} Service One instances with a shared {} repository", instances, repositoryType);
+        ItemRepositoryInterface sharedRepository = ItemRepositoryFactory.create(vertx, repositoryType, repositoryConfig);
+        AtomicInteger running = new AtomicInteger(instances);
+        return sharedRepository.initialize()
+            .compose(v -> vertx.deployVerticle(() -> new ServiceOneVerticle(sharedRepository,
+                () -> running.decrementAndGet() == 0 ? sharedRepository.close() : Future.succeededFuture()),
+                deploymentOptions))
+            .onFailure(err -> sharedRepository.close());
+    }
+
+    /**
+     * Deploys one Service One verticle per shard.
+     * Vert.x assigns the instances to event loops round-robin, so with as many shards as
+     * event loops every shard runs on its own thread without sharing any state.
+     *
+     * @param vertx the Vertx instance
+     * @param config the loaded configuration
+     * @param baseAddress the base event bus address of the service
+     * @param shards the number of shards
+     * @return a Future with the deployment ID
+     */
+    private static Future<String> deployShards(Vertx vertx, JsonObject config, String baseAddress, int shards) {
+        logger.info("Deploying {} Service One shards on {}.shard-*", shards, baseAddress);
+
+        ShardRing shardRing = new ShardRing(baseAddress, shards);
+        AtomicInteger nextShard = new AtomicInteger();
+
+        DeploymentOptions deploymentOptions = new DeploymentOptions()
+                .setConfig(config)
+                .setInstances(shards);
+
+        return vertx.deployVerticle(() -> new ServiceOneVerticle(shardRing, nextShard.getAndIncrement()), deploymentOptions);
+    }
 }
@@ -2,18 +2,25 @@ package dev.mars.vertx.service.one;
 
 import dev.mars.vertx.common.eventbus.EventBusService;
 import dev.mars.vertx.common.eventbus.ServiceDiscoveryManager;
+import dev.mars.vertx.common.eventbus.ShardRing;
 import dev.mars.vertx.service.one.handler.ItemHandler;
 import dev.mars.vertx.service.one.repository.InMemoryItemRepository;
 import dev.mars.vertx.service.one.repository.ItemRepositoryInterface;
 import dev.mars.vertx.service.one.service.ItemService;
+import dev.mars.vertx.service.one.model.Item;
+import dev.mars.vertx.service.one.model.ItemMessageCodec;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.UUID;
+import java.util.function.Supplier;
+
 /**
  * Service One Verticle.
  * Handles requests from the API Gateway via the event bus.
@@ -24,7 +31,7 @@ public class ServiceOneVerticle extends AbstractVerticle {
 
     private ServiceDiscoveryManager serviceDiscoveryManager;
     private EventBusService eventBusService;
-    private MessageConsumer<JsonObject> consumer;
+    private MessageConsumer<Object> consumer;
     private String defaultServiceAddress = "service.one";
     private String defaultServiceName = "Service One";
 
@@ -33,6 +40,64 @@ public class ServiceOneVerticle extends AbstractVerticle {
     private ItemService itemService;
     private ItemHandler itemHandler;
 
+    // Repository shared with other instances of this verticle, or null if each instance owns its own
+    private final ItemRepositoryInterface sharedRepository;
+    // Called when this instance stops using the shared repository, or null if its owner closes it
+    private final Supplier<Future<Void>> releaseSharedRepository;
+
+    // Shard assignment when running shared-nothing partitions, or null/-1 when not sharded
+    private final ShardRing shardRing;
+    private final int shardIndex;
+
+    /**
+     * Creates a verticle that owns a private, single-threaded repository.
+     */
+    public ServiceOneVerticle() {
+        this(null, null, null, -1);
+    }
+
+    /**
+     * Creates a verticle that serves requests from a repository shared with other instances.
+     * The repository must be thread-safe and is expected to be initialized by its owner, so that
+     * deploying several instances does not re-seed it once per instance.
+     *
+     * @param sharedRepository the shared, thread-safe repository
+     */
+    public ServiceOneVerticle(ItemRepositoryInterface sharedRepository) {
+        this(sharedRepository, null, null, -1);
+    }
+
+    /**
+     * Creates a verticle that serves requests from a repository shared with other instances, and
+     * releases it when it stops, so that the last instance to stop can close the repository.
+     *
+     * @param sharedRepository the shared, thread-safe repository
+     * @param releaseSharedRepository called once when this instance stops
+     */
+    public ServiceOneVerticle(ItemRepositoryInterface sharedRepository, Supplier<Future<Void>> releaseSharedRepository) {
+        this(sharedRepository, releaseSharedRepository, null, -1);
+    }
+
+    /**
+     * Creates a verticle that owns one partition of the item keyspace.
+     * The verticle listens on the shard's own event bus address, keeps only the items the ring
+     * assigns to it, and encodes its shard in the IDs of the items it creates.
+     *
+     * @param shardRing the ring shared by all shards and their callers
+     * @param shardIndex the index of the shard this verticle owns
+     */
+    public ServiceOneVerticle(ShardRing shardRing, int shardIndex) {
+        this(null, null, shardRing, shardIndex);
+    }
+
+    private ServiceOneVerticle(ItemRepositoryInterface sharedRepository, Supplier<Future<Void>> releaseSharedRepository,
+                               ShardRing shardRing, int shardIndex) {
+        this.sharedRepository = sharedRepository;
+        this.releaseSharedRepository = releaseSharedRepository;
+        this.shardRing = shardRing;
+        this.shardIndex = shardIndex;
+    }
+
     @Override
     public void start(Promise<Void> startPromise) {
         logger.info("Starting Service One Verticle");
@@ -58,8 +123,15 @@ public class ServiceOneVerticle extends AbstractVerticle {
     private Future<Void> initializeComponents() {
         logger.info("Initializing components");
 
-        // Create repository
-        itemRepositoryInterface = new InMemoryItemRepository();
+        // Use the shared repository if one was provided, otherwise create a private one
+        if (sharedRepository != null) {
+            itemRepositoryInterface = sharedRepository;
+        } else if (shardRing != null) {
+            itemRepositoryInterface = new InMemoryItemRepository(
+                () -> ShardRing.encodeKey(shardIndex, UUID.randomUUID().toString()));
+        } else {
+            itemRepositoryInterface = new InMemoryItemRepository();
+        }
 
         // Create service
         itemService = new ItemService(itemRepositoryInterface);
@@ -69,22 +141,48 @@ public class ServiceOneVerticle extends AbstractVerticle {
 
         // Initialize event bus service
         eventBusService = new EventBusService(vertx);
+        eventBusService.registerCodec(Item.class, new ItemMessageCodec());
+        if (config().getJsonObject("service", new JsonObject()).getBoolean("share-messages", false)) {
+            eventBusService.shareMessages(getServiceAddress());
+        }
 
         // Initialize service discovery manager
         serviceDiscoveryManager = new ServiceDiscoveryManager(vertx);
 
-        // Initialize sample data
+        // Initialize sample data (a shared repository is initialized by its owner)
+        if (sharedRepository != null) {
+            return Future.succeededFuture();
+        }
+        if (shardRing != null) {
+            return itemService.initialize().compose(v -> retainOwnedItems());
+        }
         return itemService.initialize();
     }
 
+    /**
+     * Removes the sample items that the shard ring assigns to other shards.
+     *
+     * @return a Future that completes when the foreign items are removed
+     */
+    private Future<Void> retainOwnedItems() {
+        return itemRepositoryInterface.findAll()
+            .compose(items -> Future.all(items.stream()
+                .filter(item -> shardRing.shardFor(item.getId()) != shardIndex)
+                .map(item -> itemRepositoryInterface.deleteById(item.getId()))
+                .toList()))
+            .compose(v -> itemRepositoryInterface.count())
+            .onSuccess(count -> logger.info("Shard {} owns {} sample items", shardIndex, count))
+            .mapEmpty();
+    }
+
     /**
      * Registers the event bus consumer.
      *
      * @return a Future that completes when registration is done
      */
     private Future<Void> registerEventBusConsumer() {
-        String serviceName = config().getString("service.name", defaultServiceName);
-        String serviceAddress = config().getString("service.address", defaultServiceAddress);
+        String serviceName = getServiceName();
+        String serviceAddress = getServiceAddress();
         logger.info("Registering event bus consumer with service name: " + serviceAddress);
 
         // Register with service discovery
@@ -97,21 +195,111 @@ public class ServiceOneVerticle extends AbstractVerticle {
                     .put("service", serviceName)
             )
             .compose(record -> {
-                consumer = eventBusService.consumer(serviceAddress, itemHandler::handleRequest);
+                consumer = eventBusService.requestConsumer(serviceAddress, this::handleRequest, itemHandler::handleEncodedRequest);
                 return Future.succeededFuture();
         });
     }
 
+    /**
+     * Handles a request and publishes a mutation event when it changed items, so that callers
+     * caching responses (such as the API gateway) can drop the affected ones.
+     *
+     * @param request the request
+     * @return a Future with the response
+     */
+    private Future<Object> handleRequest(JsonObject request) {
+        return itemHandler.handleRequest(request)
+            .onSuccess(result -> publishMutation(request, result));
+    }
+
+    /**
+     * Publishes the IDs of the items a successful create, update, delete or bulk request changed.
+     *
+     * @param request the request
+     * @param result the response to the request
+     */
+    private void publishMutation(JsonObject request, Object result) {
+        String action = request.getString("action");
+        if (action == null) {
+            return;
+        }
+
+        JsonArray ids = new JsonArray();
+        switch (action) {
+            case "create":
+                ids.add(((Item) result).getId());
+                break;
+            case "update":
+            case "delete":
+                ids.add(request.getString("id"));
+                break;
+            case "bulk":
+                // Created items get their ID in the result; the others name it in the operation
+                for (Object operationResult : ((JsonObject) result).getJsonArray("results")) {
+                    JsonObject entry = (JsonObject) operationResult;
+                    if ("ok".equals(entry.getString("status"))) {
+                        Object value = entry.getValue("result");
+                        String id = value instanceof JsonObject ? ((JsonObject) value).getString("id") : null;
+                        if (id != null) {
+                            ids.add(id);
+                        }
+                    }
+                }
+                if (ids.isEmpty()) {
+                    return;
+                }
+                break;
+            default:
+                return;
+        }
+
+        eventBusService.publish(getEventsAddress(), new JsonObject().put("action", action).put("ids", ids));
+    }
+
+    /**
+     * Gets the event bus address mutation events are published to.
+     * All shards publish to the events address of the base service address.
+     *
+     * @return the events address
+     */
+    private String getEventsAddress() {
+        String baseAddress = shardRing != null
+            ? shardRing.getBaseAddress()
+            : config().getString("service.address", defaultServiceAddress);
+        return config().getString("service.events-address", baseAddress + ".events");
+    }
+
+    /**
+     * Gets the service name, qualified with the shard when sharded.
+     *
+     * @return the service name
+     */
+    private String getServiceName() {
+        String serviceName = config().getString("service.name", defaultServiceName);
+        return shardRing != null ? serviceName + " shard-" + shardIndex : serviceName;
+    }
+
+    /**
+     * Gets the event bus address this verticle listens on.
+     *
+     * @return the service address
+     */
+    private String getServiceAddress() {
+        return shardRing != null
+            ? shardRing.address(shardIndex)
+            : config().getString("service.address", defaultServiceAddress);
+    }
+
     @Override
     public void stop(Promise<Void> stopPromise) {
-        String serviceName = config().getString("service.name", defaultServiceName);
-        String serviceAddress = config().getString("service.address", defaultServiceAddress);
+        String serviceAddress = getServiceAddress();
         logger.info("Unregistering event bus consumer with service name: " + serviceAddress);
 
         logger.info("Stopping Service One Verticle");
 
+        Future<Void> unregistered;
         if (serviceDiscoveryManager != null) {
-            serviceDiscoveryManager.unregisterService("service-one")
+            unregistered = serviceDiscoveryManager.unregisterService("service-one")
                     .compose(v -> {
                         if (consumer != null) {
                             return eventBusService.unregisterConsumer(consumer);
@@ -119,16 +307,28 @@ public class ServiceOneVerticle extends AbstractVerticle {
                             return Future.succeededFuture();
                         }
                     })
-                    .onSuccess(v -> {
-                        logger.info("Service unregistered and consumer unregistered successfully");
-                        stopPromise.complete();
-                    })
-                    .onFailure(err -> {
-                        logger.error("Failed to unregister service or consumer", err);
-                        stopPromise.fail(err);
-                    });
-        } else if (consumer != null) {
-            stopPromise.complete();
+                    .onSuccess(v -> logger.info("Service unregistered and consumer unregistered successfully"))
+                    .onFailure(err -> logger.error("Failed to unregister service or consumer", err));
+        } else {
+            unregistered = Future.succeededFuture();
+        }
+
+        // Release the repository even if unregistering failed, so that its writes are made durable
+        unregistered
+                .eventually(v -> releaseRepository()
+                        .onFailure(err -> logger.error("Failed to close the item repository", err)))
+                .onComplete(stopPromise);
+    }
+
+    /**
+     * Closes the repository this instance owns, or releases the shared one to its owner.
+     *
+     * @return a Future that completes when the repository is closed or released
+     */
+    private Future<Void> releaseRepository() {
+        if (sharedRepository != null) {
+            return releaseSharedRepository != null ? releaseSharedRepository.get() : Future.succeededFuture();
         }
+        return itemRepositoryInterface != null ? itemRepositoryInterface.close() : Future.succeededFuture();
     }
 }
@@ -1,18 +1,26 @@
 package dev.mars.vertx.service.one.handler;
 
 import dev.mars.vertx.service.one.model.Item;
+import dev.mars.vertx.service.one.model.ItemJson;
 import dev.mars.vertx.service.one.service.ItemService;
 import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Handler for item-related requests from the event bus.
  * Implements the ItemHandlerInterface for CRUD operations.
+ * Items and lists of items are replied as they are, so that the registered codecs carry them.
  */
 public class ItemHandler implements ItemHandlerInterface {
     private static final Logger logger = LoggerFactory.getLogger(ItemHandler.class);
+    private static final int DEFAULT_PAGE_SIZE = 100;
 
     private final ItemService itemService;
 
@@ -47,7 +55,15 @@ public class ItemHandler implements ItemHandlerInterface {
                     case "delete":
                         return deleteItem(request).map(result -> result);
                     case "list":
+                        // Paginate only when asked to, so existing callers keep the full listing
+                        if (request.containsKey("limit") || request.containsKey("cursor")) {
+                            return listItems(request).map(result -> result);
+                        }
                         return listItems().map(result -> result);
+                    case "getMany":
+                        return getItems(request).map(result -> result);
+                    case "bulk":
+                        return bulk(request).map(result -> result);
                     default:
                         return Future.failedFuture("Unknown action: " + action);
                 }
@@ -63,38 +79,90 @@ public class ItemHandler implements ItemHandlerInterface {
         }
     }
 
+    /**
+     * Handles the requests whose response can be streamed straight to bytes: plain lookups by ID
+     * and full listings. The response is the same JSON as from {@link #handleRequest}, without
+     * building JsonObjects for the items.
+     *
+     * @param request the request
+     * @return a Future with the encoded response, or null if the request is not handled here
+     */
+    public Future<Buffer> handleEncodedRequest(JsonObject request) {
+        String action = request.getString("action");
+        if (action == null && request.getValue("id") instanceof String) {
+            return itemService.getItem(request.getString("id")).map(ItemJson::encode);
+        }
+        if ("list".equals(action) && !request.containsKey("limit") && !request.containsKey("cursor")) {
+            return itemService.getAllItems().map(ItemJson::encodeList);
+        }
+        return null;
+    }
+
     /**
      * Gets an item by ID.
      *
      * @param id the item ID
-     * @return a Future with the item as a JsonObject
+     * @return a Future with the item
      */
     @Override
-    public Future<JsonObject> getItem(String id) {
+    public Future<Item> getItem(String id) {
         logger.debug("Getting item with ID: {}", id);
-        return itemService.getItem(id).map(Item::toJson);
+        return itemService.getItem(id);
+    }
+
+    /**
+     * Gets several items by ID.
+     * The IDs may arrive as a JSON array or, from query parameters, as a comma-separated string.
+     *
+     * @param request the request containing the item IDs
+     * @return a Future with the found items and the missing IDs
+     */
+    @Override
+    public Future<JsonObject> getItems(JsonObject request) {
+        logger.debug("Getting items: {}", request);
+
+        Object rawIds = request.getValue("ids");
+        List<String> ids = new ArrayList<>();
+        if (rawIds instanceof JsonArray) {
+            for (Object id : (JsonArray) rawIds) {
+                if (!(id instanceof String)) {
+                    return Future.failedFuture("Invalid ID: " + id);
+                }
+                ids.add((String) id);
+            }
+        } else if (rawIds instanceof String) {
+            for (String id : ((String) rawIds).split(",")) {
+                if (!id.isBlank()) {
+                    ids.add(id.trim());
+                }
+            }
+        } else {
+            return Future.failedFuture("IDs are required for getMany");
+        }
+
+        return itemService.getItems(ids);
     }
 
     /**
      * Creates a new item.
      *
      * @param request the request containing the item data
-     * @return a Future with the created item as a JsonObject
+     * @return a Future with the created item
      */
     @Override
-    public Future<JsonObject> createItem(JsonObject request) {
+    public Future<Item> createItem(JsonObject request) {
         logger.debug("Creating new item: {}", request);
-        return itemService.createItem(request).map(Item::toJson);
+        return itemService.createItem(request);
     }
 
     /**
      * Updates an existing item.
      *
      * @param request the request containing the item data
-     * @return a Future with the updated item as a JsonObject
+     * @return a Future with the updated item
      */
     @Override
-    public Future<JsonObject> updateItem(JsonObject request) {
+    public Future<Item> updateItem(JsonObject request) {
         logger.debug("Updating item: {}", request);
 
         String id = request.getString("id");
@@ -102,7 +170,7 @@ public class ItemHandler implements ItemHandlerInterface {
             return Future.failedFuture("ID is required for update");
         }
 
-        return itemService.updateItem(id, request).map(Item::toJson);
+        return itemService.updateItem(id, request);
     }
 
     /**
@@ -129,8 +197,51 @@ public class ItemHandler implements ItemHandlerInterface {
      * @return a Future with the list of items
      */
     @Override
-    public Future<JsonObject> listItems() {
+    public Future<List<Item>> listItems() {
         logger.debug("Listing all items");
-        return itemService.listItems();
+        return itemService.getAllItems();
+    }
+
+    /**
+     * Lists one page of items.
+     * The limit may arrive as a number or, from query parameters, as a string.
+     *
+     * @param request the request containing the optional limit and cursor
+     * @return a Future with the page of items
+     */
+    @Override
+    public Future<JsonObject> listItems(JsonObject request) {
+        logger.debug("Listing page of items: {}", request);
+
+        Object rawLimit = request.getValue("limit");
+        int limit;
+        try {
+            limit = rawLimit != null ? Integer.parseInt(rawLimit.toString()) : DEFAULT_PAGE_SIZE;
+        } catch (NumberFormatException e) {
+            return Future.failedFuture("Invalid limit: " + rawLimit);
+        }
+
+        return itemService.listItems(limit, request.getString("cursor"));
+    }
+
+    /**
+     * Applies a batch of create, update and delete operations.
+     *
+     * @param request the request containing the operations
+     * @return a Future with the per-operation results
+     */
+    @Override
+    public Future<JsonObject> bulk(JsonObject request) {
+        logger.debug("Applying bulk request: {}", request);
+
+        Object operations = request.getValue("operations");
+        if (operations == null) {
+            return Future.failedFuture("Operations are required for bulk");
+        }
+        if (!(operations instanceof JsonArray)) {
+            return Future.failedFuture("Operations must be an array");
+        }
+
+        return itemService.applyBulk((JsonArray) operations);
     }
 }
@@ -1,8 +1,11 @@
 package dev.mars.vertx.service.one.handler;
 
+import dev.mars.vertx.service.one.model.Item;
 import io.vertx.core.Future;
 import io.vertx.core.json.JsonObject;
 
+import java.util.List;
+
 /**
  * Interface for item-related request handlers.
  * Defines CRUD operations for handling item requests.
@@ -21,25 +24,33 @@ public interface ItemHandlerInterface {
      * Gets an item by ID.
      *
      * @param id the item ID
-     * @return a Future with the item as a JsonObject
+     * @return a Future with the item
      */
-    Future<JsonObject> getItem(String id);
+    Future<Item> getItem(String id);
+    
+    /**
+     * Gets several items by ID.
+     *
+     * @param request the request containing the item IDs
+     * @return a Future with the found items and the missing IDs
+     */
+    Future<JsonObject> getItems(JsonObject request);
     
     /**
      * Creates a new item.
      *
      * @param request the request containing the item data
-     * @return a Future with the created item as a JsonObject
+     * @return a Future with the created item
      */
-    Future<JsonObject> createItem(JsonObject request);
+    Future<Item> createItem(JsonObject request);
     
     /**
      * Updates an existing item.
      *
      * @param request the request containing the item data
-     * @return a Future with the updated item as a JsonObject
+     * @return a Future with the updated item
      */
-    Future<JsonObject> updateItem(JsonObject request);
+    Future<Item> updateItem(JsonObject request);
     
     /**
      * Deletes an item.
@@ -54,5 +65,21 @@ public interface ItemHandlerInterface {
      *
      * @return a Future with the list of items
      */
-    Future<JsonObject> listItems();
-}
\ No newline at end of file
+    Future<List<Item>> listItems();
+
+    /**
+     * Lists one page of items.
+     *
+     * @param request the request containing the optional limit and cursor
+     * @return a Future with the page of items
+     */
+    Future<JsonObject> listItems(JsonObject request);
+
+    /**
+     * Applies a batch of create, update and delete operations.
+     *
+     * @param request the request containing the operations
+     * @return a Future with the per-operation results
+     */
+    Future<JsonObject> bulk(JsonObject request);
+}
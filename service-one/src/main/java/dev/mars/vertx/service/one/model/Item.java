@@ -1,12 +1,13 @@
 package dev.mars.vertx.service.one.model;
 
+import dev.mars.vertx.common.eventbus.codec.JsonEncodable;
 import io.vertx.core.json.JsonObject;
 import java.util.Objects;
 
 /**
  * Model class representing an Item.
  */
-public class Item {
+public class Item implements JsonEncodable {
     private String id;
     private String name;
     private String description;
@@ -61,6 +62,7 @@ public class Item {
      *
      * @return the JsonObject
      */
+    @Override
     public JsonObject toJson() {
         JsonObject json = new JsonObject()
             .put("id", id)
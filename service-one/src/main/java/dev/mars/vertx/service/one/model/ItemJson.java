@@ -0,0 +1,148 @@
+package dev.mars.vertx.service.one.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import dev.mars.vertx.common.eventbus.codec.JsonStreams;
+import io.vertx.core.buffer.Buffer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming JSON serializer and parser for Item.
+ * Produces the same JSON as {@link Item#toJson()} and the list responses of ItemService, but writes
+ * straight to bytes, without building a JsonObject per item; parsing likewise builds Items
+ * directly from the bytes, with the defaults of {@link Item#fromJson}.
+ */
+public final class ItemJson {
+
+    private ItemJson() {
+        // Utility class
+    }
+
+    /**
+     * Encodes an item.
+     *
+     * @param item the item
+     * @return the encoded item
+     */
+    public static Buffer encode(Item item) {
+        return JsonStreams.encode(generator -> write(generator, item));
+    }
+
+    /**
+     * Encodes a list of items in the list envelope: {@code {"items": [...], "count": n}}.
+     *
+     * @param items the items
+     * @return the encoded list
+     */
+    public static Buffer encodeList(List<Item> items) {
+        return JsonStreams.encode(generator -> {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("items");
+            for (Item item : items) {
+                write(generator, item);
+            }
+            generator.writeEndArray();
+            generator.writeNumberField("count", items.size());
+            generator.writeEndObject();
+        });
+    }
+
+    /**
+     * Writes an item as a JSON object.
+     *
+     * @param generator the generator
+     * @param item the item
+     * @throws IOException if writing fails
+     */
+    public static void write(JsonGenerator generator, Item item) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("id", item.getId());
+        generator.writeStringField("name", item.getName());
+        generator.writeStringField("description", item.getDescription());
+        generator.writeNumberField("createdAt", item.getCreatedAt());
+        if (item.getUpdatedAt() != null) {
+            generator.writeNumberField("updatedAt", item.getUpdatedAt());
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Decodes an item.
+     *
+     * @param buffer the encoded item
+     * @return the item
+     */
+    public static Item decode(Buffer buffer) {
+        return JsonStreams.decode(buffer, ItemJson::read);
+    }
+
+    /**
+     * Decodes the items of a list envelope.
+     *
+     * @param buffer the encoded list
+     * @return the items
+     */
+    public static List<Item> decodeList(Buffer buffer) {
+        return JsonStreams.decode(buffer, parser -> {
+            List<Item> items = new ArrayList<>();
+            JsonStreams.expectStartObject(parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("items".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        items.add(read(parser));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return items;
+        });
+    }
+
+    /**
+     * Reads an item from a JSON object.
+     *
+     * @param parser the parser, before or at the start of the object
+     * @return the item
+     * @throws IOException if the JSON is not an item object
+     */
+    public static Item read(JsonParser parser) throws IOException {
+        JsonStreams.expectStartObject(parser);
+        String id = null;
+        String name = "";
+        String description = "";
+        Long createdAt = null;
+        Long updatedAt = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            boolean isNull = value == JsonToken.VALUE_NULL;
+            switch (field) {
+                case "id":
+                    id = isNull ? null : parser.getText();
+                    break;
+                case "name":
+                    name = isNull ? null : parser.getText();
+                    break;
+                case "description":
+                    description = isNull ? null : parser.getText();
+                    break;
+                case "createdAt":
+                    createdAt = isNull ? null : parser.getLongValue();
+                    break;
+                case "updatedAt":
+                    updatedAt = isNull ? null : parser.getLongValue();
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return new Item(id, name, description, createdAt != null ? createdAt : System.currentTimeMillis(), updatedAt);
+    }
+}
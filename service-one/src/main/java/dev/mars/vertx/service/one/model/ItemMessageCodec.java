@@ -0,0 +1,34 @@
+package dev.mars.vertx.service.one.model;
+
+import dev.mars.vertx.common.eventbus.codec.BinaryWire;
+import dev.mars.vertx.common.eventbus.codec.ModelMessageCodec;
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * Event bus codec for Item.
+ * Local delivery passes a copy, or the Item itself on addresses that share messages.
+ */
+public class ItemMessageCodec extends ModelMessageCodec<Item> {
+
+    /**
+     * Creates a new Item codec.
+     */
+    public ItemMessageCodec() {
+        super("service-one.item");
+    }
+
+    @Override
+    protected void write(Buffer buffer, Item item) {
+        BinaryWire.writeString(buffer, item.getId());
+        BinaryWire.writeString(buffer, item.getName());
+        BinaryWire.writeString(buffer, item.getDescription());
+        buffer.appendLong(item.getCreatedAt());
+        BinaryWire.writeNullableLong(buffer, item.getUpdatedAt());
+    }
+
+    @Override
+    protected Item read(BinaryWire.Reader reader) {
+        return new Item(reader.readString(), reader.readString(), reader.readString(),
+            reader.readLong(), reader.readNullableLong());
+    }
+}
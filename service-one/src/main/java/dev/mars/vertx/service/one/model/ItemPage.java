@@ -0,0 +1,35 @@
+package dev.mars.vertx.service.one.model;
+
+import java.util.List;
+
+/**
+ * Model class representing one page of items.
+ * The next key is the repository position to continue from, or null on the last page.
+ */
+public class ItemPage {
+    private final List<Item> items;
+    private final String nextKey;
+
+    /**
+     * Constructor.
+     *
+     * @param items the items on this page
+     * @param nextKey the key to pass to the next findPage call, or null if there are no more items
+     */
+    public ItemPage(List<Item> items, String nextKey) {
+        this.items = items;
+        this.nextKey = nextKey;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public String getNextKey() {
+        return nextKey;
+    }
+
+    public boolean hasMore() {
+        return nextKey != null;
+    }
+}
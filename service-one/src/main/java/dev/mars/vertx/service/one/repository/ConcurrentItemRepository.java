@@ -0,0 +1,271 @@
+package dev.mars.vertx.service.one.repository;
+
+import dev.mars.vertx.service.one.model.Item;
+import dev.mars.vertx.service.one.model.ItemPage;
+import io.vertx.core.Future;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Thread-safe in-memory implementation of the ItemRepositoryInterface interface.
+ * A single instance can be shared by several ServiceOneVerticle instances running on
+ * different event loops.
+ *
+ * Writes are atomic per item: updates are applied inside ConcurrentHashMap#computeIfPresent,
+ * which only locks the bin holding that item, so writers to different items do not contend.
+ * Reads never take a lock. Items are copied on the way in and on the way out so that callers
+ * on one event loop can never mutate state observed by another.
+ *
+ * A ConcurrentSkipListSet of IDs provides the key order for keyset pagination. An ID is added
+ * to it after its item is stored and removed after its item is deleted, so a page may briefly
+ * skip an item that is being created but never returns a deleted one.
+ */
+public class ConcurrentItemRepository implements ItemRepositoryInterface {
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrentItemRepository.class);
+
+    private final ConcurrentHashMap<String, Item> items;
+    private final ConcurrentSkipListSet<String> sortedIds = new ConcurrentSkipListSet<>();
+
+    /**
+     * Constructor.
+     */
+    public ConcurrentItemRepository() {
+        this(16);
+    }
+
+    /**
+     * Constructor with an expected size, to avoid resizing while the repository grows.
+     *
+     * @param expectedSize the expected number of items
+     */
+    public ConcurrentItemRepository(int expectedSize) {
+        this.items = new ConcurrentHashMap<>(expectedSize);
+    }
+
+    @Override
+    public Future<Item> findById(String id) {
+        logger.debug("Finding item by ID: {}", id);
+
+        Item item = id != null ? items.get(id) : null;
+        if (item != null) {
+            logger.debug("Found item: {}", item);
+            return Future.succeededFuture(copyOf(item));
+        }
+
+        logger.debug("Item not found with ID: {}", id);
+        return Future.failedFuture("Item not found with ID: " + id);
+    }
+
+    @Override
+    public Future<List<Item>> findAll() {
+        logger.debug("Finding all items");
+
+        // Weakly consistent traversal: reflects every write completed before it started
+        // and never blocks concurrent writers
+        List<Item> itemList = new ArrayList<>(items.size());
+        for (Item item : items.values()) {
+            itemList.add(copyOf(item));
+        }
+        logger.debug("Found {} items", itemList.size());
+        return Future.succeededFuture(itemList);
+    }
+
+    @Override
+    public Future<List<Item>> findByIds(Collection<String> ids) {
+        logger.debug("Finding {} items by ID", ids.size());
+
+        List<Item> found = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Item item = id != null ? items.get(id) : null;
+            if (item != null) {
+                found.add(copyOf(item));
+            }
+        }
+        return Future.succeededFuture(found);
+    }
+
+    @Override
+    public Future<Item> save(Item item) {
+        logger.debug("Saving item: {}", item);
+
+        // If no ID, generate one (create operation)
+        if (item.getId() == null || item.getId().isEmpty()) {
+            item.setId(newId());
+            item.setCreatedAt(System.currentTimeMillis());
+            items.put(item.getId(), copyOf(item));
+            sortedIds.add(item.getId());
+            logger.debug("Created new item with ID: {}", item.getId());
+            return Future.succeededFuture(item);
+        }
+
+        // Update operation - check for existence and preserve the creation timestamp atomically
+        Item stored = items.computeIfPresent(item.getId(), (id, existingItem) -> {
+            Item updated = copyOf(item);
+            updated.setCreatedAt(existingItem.getCreatedAt());
+            updated.setUpdatedAt(System.currentTimeMillis());
+            return updated;
+        });
+
+        if (stored == null) {
+            logger.debug("Item not found for update with ID: {}", item.getId());
+            return Future.failedFuture("Item not found with ID: " + item.getId());
+        }
+
+        item.setCreatedAt(stored.getCreatedAt());
+        item.setUpdatedAt(stored.getUpdatedAt());
+        logger.debug("Updated existing item with ID: {}", item.getId());
+        return Future.succeededFuture(item);
+    }
+
+    @Override
+    public Future<Boolean> deleteById(String id) {
+        logger.debug("Deleting item with ID: {}", id);
+
+        boolean success = id != null && items.remove(id) != null;
+        if (success) {
+            sortedIds.remove(id);
+            logger.debug("Successfully deleted item with ID: {}", id);
+        } else {
+            logger.debug("Item not found for deletion with ID: {}", id);
+        }
+
+        return Future.succeededFuture(success);
+    }
+
+    @Override
+    public Future<Void> initialize() {
+        logger.info("Initializing repository with sample data");
+
+        // Clear any existing items
+        items.clear();
+        sortedIds.clear();
+
+        // Create sample items
+        for (int i = 1; i <= 5; i++) {
+            String id = "item-" + i;
+            items.put(id, new Item(
+                id,
+                "Sample Item " + i,
+                "This is a sample item " + i,
+                System.currentTimeMillis(),
+                null
+            ));
+            sortedIds.add(id);
+        }
+
+        logger.info("Sample data initialized with {} items", items.size());
+        return Future.succeededFuture();
+    }
+
+    @Override
+    public Future<ItemPage> findPage(String afterKey, int limit) {
+        logger.debug("Finding page of {} items after key: {}", limit, afterKey);
+
+        NavigableSet<String> remaining = afterKey != null ? sortedIds.tailSet(afterKey, false) : sortedIds;
+        // Never size from the tail view: its size() walks every key after afterKey
+        List<Item> page = new ArrayList<>(Math.min(limit, 256));
+        for (String id : remaining) {
+            Item item = items.get(id);
+            if (item == null) {
+                // Deleted since the ID was read from the index
+                continue;
+            }
+            if (page.size() == limit) {
+                return Future.succeededFuture(new ItemPage(page, page.get(page.size() - 1).getId()));
+            }
+            page.add(copyOf(item));
+        }
+        return Future.succeededFuture(new ItemPage(page, null));
+    }
+
+    @Override
+    public Future<Integer> count() {
+        logger.debug("Getting item count");
+
+        return Future.succeededFuture(items.size());
+    }
+
+    /**
+     * Gets the stored instance of an item without copying it.
+     * Callers must not modify the returned item.
+     *
+     * @param id the item ID
+     * @return the stored item, or null if not found
+     */
+    Item get(String id) {
+        return id != null ? items.get(id) : null;
+    }
+
+    /**
+     * Puts an item as-is, without generating IDs or timestamps.
+     * Used when rebuilding state from a snapshot or log.
+     *
+     * @param item the item to restore
+     */
+    void restore(Item item) {
+        items.put(item.getId(), copyOf(item));
+        sortedIds.add(item.getId());
+    }
+
+    /**
+     * Removes an item without reporting whether it existed.
+     * Used when rebuilding state from a log.
+     *
+     * @param id the item ID
+     */
+    void remove(String id) {
+        items.remove(id);
+        sortedIds.remove(id);
+    }
+
+    /**
+     * Removes all items.
+     */
+    void clear() {
+        items.clear();
+        sortedIds.clear();
+    }
+
+    /**
+     * Gets a live, weakly consistent view of the stored items.
+     * Callers must not modify the returned items.
+     *
+     * @return the stored items
+     */
+    Collection<Item> values() {
+        return items.values();
+    }
+
+    /**
+     * Generates a random (version 4) UUID string.
+     * Uses ThreadLocalRandom instead of UUID.randomUUID() so that concurrent creates on
+     * different event loops do not contend on the shared SecureRandom.
+     *
+     * @return a new item ID
+     */
+    static String newId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long msb = (random.nextLong() & 0xffffffffffff0fffL) | 0x0000000000004000L;
+        long lsb = (random.nextLong() & 0x3fffffffffffffffL) | 0x8000000000000000L;
+        return new UUID(msb, lsb).toString();
+    }
+
+    /**
+     * Creates a detached copy of an item.
+     *
+     * @param item the item to copy
+     * @return the copy
+     */
+    static Item copyOf(Item item) {
+        return new Item(item.getId(), item.getName(), item.getDescription(), item.getCreatedAt(), item.getUpdatedAt());
+    }
+}
@@ -0,0 +1,516 @@
+package dev.mars.vertx.service.one.repository;
+
+import dev.mars.vertx.common.metrics.MetricsManager;
+import dev.mars.vertx.service.one.model.Item;
+import dev.mars.vertx.service.one.model.ItemPage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Durable implementation of the ItemRepositoryInterface interface.
+ * Items are served from a ConcurrentItemRepository, and every save and delete is first
+ * appended to a memory-mapped write-ahead log, so the repository survives restarts.
+ *
+ * Writes use group commit: a mutation is applied and appended under a single lock, but its
+ * Future only completes after the next periodic sync has forced the log to disk, so one fsync
+ * acknowledges every write made during the sync interval. Reads never take the lock and may
+ * observe writes whose sync is still pending.
+ *
+ * A background compaction task periodically rolls the log, writes a snapshot of all items and
+ * deletes the segments the snapshot covers. {@link #initialize()} recovers by loading the latest
+ * snapshot and replaying the log tail, and only seeds sample data into an empty directory.
+ */
+public class DurableItemRepository implements ItemRepositoryInterface {
+    private static final Logger logger = LoggerFactory.getLogger(DurableItemRepository.class);
+
+    private final Vertx vertx;
+    private final Path directory;
+    private final int segmentSize;
+    private final long syncIntervalMs;
+    private final long snapshotIntervalMs;
+    private final ConcurrentItemRepository items = new ConcurrentItemRepository();
+
+    // Guards the log, the pending writes and the write counter
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final AtomicBoolean syncInProgress = new AtomicBoolean();
+    private final AtomicBoolean snapshotInProgress = new AtomicBoolean();
+    private WriteAheadLog wal;
+    private List<PendingWrite<?>> pendingWrites = new ArrayList<>();
+    private long writesSinceSnapshot;
+
+    private WorkerExecutor syncExecutor;
+    private WorkerExecutor compactionExecutor;
+    private long syncTimerId = -1;
+    private long snapshotTimerId = -1;
+
+    // Metrics
+    private final Timer recoveryTimer;
+    private final Counter recoveredRecords;
+    private final Counter appendedRecords;
+    private final Counter appendedBytes;
+    private final Timer syncTimer;
+    private final DistributionSummary syncBatchSize;
+    private final Timer snapshotTimer;
+
+    /**
+     * Constructor that reports metrics to the shared Prometheus registry.
+     *
+     * @param vertx the Vertx instance
+     * @param directory the directory holding the log segments and snapshots
+     * @param segmentSize the size of each log segment in bytes
+     * @param syncIntervalMs the group commit interval in milliseconds
+     * @param snapshotIntervalMs the snapshot interval in milliseconds
+     */
+    public DurableItemRepository(Vertx vertx, Path directory, int segmentSize, long syncIntervalMs, long snapshotIntervalMs) {
+        this(vertx, directory, segmentSize, syncIntervalMs, snapshotIntervalMs, MetricsManager.getRegistry());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param vertx the Vertx instance
+     * @param directory the directory holding the log segments and snapshots
+     * @param segmentSize the size of each log segment in bytes
+     * @param syncIntervalMs the group commit interval in milliseconds
+     * @param snapshotIntervalMs the snapshot interval in milliseconds
+     * @param registry the registry to report metrics to
+     */
+    public DurableItemRepository(Vertx vertx, Path directory, int segmentSize, long syncIntervalMs, long snapshotIntervalMs,
+                                 MeterRegistry registry) {
+        if (syncIntervalMs < 1 || snapshotIntervalMs < 1) {
+            throw new IllegalArgumentException("Sync and snapshot intervals must be at least 1 ms");
+        }
+        this.vertx = vertx;
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.syncIntervalMs = syncIntervalMs;
+        this.snapshotIntervalMs = snapshotIntervalMs;
+
+        this.recoveryTimer = Timer.builder("service.one.repository.recovery")
+            .description("Time taken to recover the repository from its snapshot and log")
+            .register(registry);
+        this.recoveredRecords = Counter.builder("service.one.repository.recovery.records")
+            .description("Log records replayed during recovery")
+            .register(registry);
+        this.appendedRecords = Counter.builder("service.one.repository.wal.appends")
+            .description("Records appended to the write-ahead log")
+            .register(registry);
+        this.appendedBytes = Counter.builder("service.one.repository.wal.bytes")
+            .description("Bytes appended to the write-ahead log")
+            .baseUnit("bytes")
+            .register(registry);
+        this.syncTimer = Timer.builder("service.one.repository.wal.sync")
+            .description("Time taken to force the write-ahead log to disk")
+            .register(registry);
+        this.syncBatchSize = DistributionSummary.builder("service.one.repository.wal.sync.batch")
+            .description("Writes acknowledged by a single sync")
+            .register(registry);
+        this.snapshotTimer = Timer.builder("service.one.repository.snapshot")
+            .description("Time taken to write a snapshot")
+            .register(registry);
+    }
+
+    @Override
+    public Future<Item> findById(String id) {
+        return items.findById(id);
+    }
+
+    @Override
+    public Future<List<Item>> findByIds(Collection<String> ids) {
+        return items.findByIds(ids);
+    }
+
+    @Override
+    public Future<List<Item>> findAll() {
+        return items.findAll();
+    }
+
+    @Override
+    public Future<ItemPage> findPage(String afterKey, int limit) {
+        return items.findPage(afterKey, limit);
+    }
+
+    @Override
+    public Future<Item> save(Item item) {
+        logger.debug("Saving item: {}", item);
+
+        Context context = vertx.getOrCreateContext();
+        Promise<Item> promise = Promise.promise();
+
+        writeLock.lock();
+        try {
+            if (wal == null) {
+                return Future.failedFuture("Repository is not initialized");
+            }
+
+            Item stored = ConcurrentItemRepository.copyOf(item);
+            if (item.getId() == null || item.getId().isEmpty()) {
+                stored.setId(ConcurrentItemRepository.newId());
+                stored.setCreatedAt(System.currentTimeMillis());
+            } else {
+                Item existing = items.get(item.getId());
+                if (existing == null) {
+                    logger.debug("Item not found for update with ID: {}", item.getId());
+                    return Future.failedFuture("Item not found with ID: " + item.getId());
+                }
+                stored.setCreatedAt(existing.getCreatedAt());
+                stored.setUpdatedAt(System.currentTimeMillis());
+            }
+
+            // Log first, so a failed append leaves the in-memory state untouched
+            append(WriteAheadLog.SAVE, ItemBinaryFormat.encode(stored));
+            items.restore(stored);
+
+            item.setId(stored.getId());
+            item.setCreatedAt(stored.getCreatedAt());
+            item.setUpdatedAt(stored.getUpdatedAt());
+            pendingWrites.add(new PendingWrite<>(context, promise, item));
+        } catch (IOException e) {
+            logger.error("Failed to append to the write-ahead log", e);
+            return Future.failedFuture(e);
+        } finally {
+            writeLock.unlock();
+        }
+
+        return promise.future();
+    }
+
+    @Override
+    public Future<Boolean> deleteById(String id) {
+        logger.debug("Deleting item with ID: {}", id);
+
+        Context context = vertx.getOrCreateContext();
+        Promise<Boolean> promise = Promise.promise();
+
+        writeLock.lock();
+        try {
+            if (wal == null) {
+                return Future.failedFuture("Repository is not initialized");
+            }
+            if (items.get(id) == null) {
+                logger.debug("Item not found for deletion with ID: {}", id);
+                return Future.succeededFuture(false);
+            }
+
+            append(WriteAheadLog.DELETE, ItemBinaryFormat.bytes(id));
+            items.remove(id);
+            pendingWrites.add(new PendingWrite<>(context, promise, true));
+        } catch (IOException e) {
+            logger.error("Failed to append to the write-ahead log", e);
+            return Future.failedFuture(e);
+        } finally {
+            writeLock.unlock();
+        }
+
+        return promise.future();
+    }
+
+    /**
+     * Recovers the repository from its directory and starts the sync and snapshot tasks.
+     * Sample data is only created when the directory holds no snapshot and no log.
+     *
+     * @return a Future that completes when recovery is done
+     */
+    @Override
+    public Future<Void> initialize() {
+        if (syncExecutor != null) {
+            logger.debug("Repository in {} is already initialized", directory);
+            return Future.succeededFuture();
+        }
+
+        logger.info("Recovering durable repository from {}", directory);
+        syncExecutor = vertx.createSharedWorkerExecutor("service-one-wal-sync", 1);
+        compactionExecutor = vertx.createSharedWorkerExecutor("service-one-compaction", 1, 10, TimeUnit.MINUTES);
+
+        return compactionExecutor.<Void>executeBlocking(promise -> {
+            try {
+                recover();
+                promise.complete();
+            } catch (IOException | RuntimeException e) {
+                promise.fail(e);
+            }
+        }, false).onSuccess(v -> {
+            syncTimerId = vertx.setPeriodic(syncIntervalMs, id -> syncPendingWrites());
+            snapshotTimerId = vertx.setPeriodic(snapshotIntervalMs, id -> snapshot()
+                .onFailure(err -> logger.error("Failed to write snapshot", err)));
+        });
+    }
+
+    @Override
+    public Future<Integer> count() {
+        return items.count();
+    }
+
+    /**
+     * Writes a snapshot now, unless nothing changed since the last one.
+     *
+     * @return a Future with the number of items written, or -1 if no snapshot was needed
+     */
+    Future<Long> snapshot() {
+        WorkerExecutor compaction = compactionExecutor;
+        if (compaction == null) {
+            return Future.failedFuture("Repository is not initialized");
+        }
+        if (!snapshotInProgress.compareAndSet(false, true)) {
+            return Future.succeededFuture(-1L);
+        }
+        return compaction.<Long>executeBlocking(promise -> {
+            try {
+                promise.complete(writeSnapshot());
+            } catch (IOException | RuntimeException e) {
+                promise.fail(e);
+            }
+        }, false).onComplete(ar -> snapshotInProgress.set(false));
+    }
+
+    /**
+     * Stops the background tasks, syncs the pending writes and closes the log.
+     *
+     * @return a Future that completes when the repository is closed
+     */
+    @Override
+    public Future<Void> close() {
+        WorkerExecutor compaction = compactionExecutor;
+        WorkerExecutor sync = syncExecutor;
+        if (compaction == null) {
+            return Future.succeededFuture();
+        }
+        compactionExecutor = null;
+        syncExecutor = null;
+
+        vertx.cancelTimer(syncTimerId);
+        vertx.cancelTimer(snapshotTimerId);
+
+        // Runs on the compaction executor so it cannot overlap a snapshot
+        return compaction.<Void>executeBlocking(promise -> {
+            try {
+                syncNow();
+                writeLock.lock();
+                try {
+                    if (wal != null) {
+                        wal.close();
+                        wal = null;
+                    }
+                } finally {
+                    writeLock.unlock();
+                }
+                promise.complete();
+            } catch (IOException e) {
+                promise.fail(e);
+            }
+        }, false).onComplete(ar -> {
+            sync.close();
+            compaction.close();
+            logger.info("Closed durable repository in {}", directory);
+        });
+    }
+
+    /**
+     * Appends a record to the log. Must be called while holding the write lock.
+     *
+     * @param type the record type
+     * @param payload the record payload
+     * @throws IOException if the log cannot be written
+     */
+    private void append(byte type, byte[] payload) throws IOException {
+        int size = wal.append(type, payload);
+        writesSinceSnapshot++;
+        appendedRecords.increment();
+        appendedBytes.increment(size);
+    }
+
+    /**
+     * Schedules a sync of the pending writes unless one is already running.
+     */
+    private void syncPendingWrites() {
+        WorkerExecutor sync = syncExecutor;
+        if (sync == null || !syncInProgress.compareAndSet(false, true)) {
+            return;
+        }
+        sync.<Void>executeBlocking(promise -> {
+            syncNow();
+            promise.complete();
+        }, false).onComplete(ar -> syncInProgress.set(false));
+    }
+
+    /**
+     * Forces the log and acknowledges every write appended before the call.
+     */
+    private void syncNow() {
+        List<PendingWrite<?>> batch;
+        WriteAheadLog log;
+        writeLock.lock();
+        try {
+            if (pendingWrites.isEmpty() || wal == null) {
+                return;
+            }
+            batch = pendingWrites;
+            pendingWrites = new ArrayList<>();
+            log = wal;
+        } finally {
+            writeLock.unlock();
+        }
+
+        long start = System.nanoTime();
+        try {
+            log.sync();
+            syncTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            syncBatchSize.record(batch.size());
+            batch.forEach(PendingWrite::complete);
+        } catch (IOException e) {
+            logger.error("Failed to sync the write-ahead log", e);
+            batch.forEach(write -> write.fail(e));
+        }
+    }
+
+    /**
+     * Rolls the log and writes a snapshot of every item, then deletes the files it supersedes.
+     * Writes made while the snapshot is taken may or may not be included in it; they are also
+     * in the new segment, and replaying them on top of the snapshot is idempotent.
+     *
+     * @return the number of items written, or -1 if no snapshot was needed
+     * @throws IOException if the snapshot cannot be written
+     */
+    private long writeSnapshot() throws IOException {
+        long sequence;
+        writeLock.lock();
+        try {
+            if (wal == null || writesSinceSnapshot == 0) {
+                return -1;
+            }
+            sequence = wal.roll();
+            writesSinceSnapshot = 0;
+        } finally {
+            writeLock.unlock();
+        }
+
+        long start = System.nanoTime();
+        long count = ItemSnapshot.write(directory, sequence, items.values());
+        WriteAheadLog.deleteSegmentsBefore(directory, sequence);
+        ItemSnapshot.deleteSnapshotsBefore(directory, sequence);
+        long elapsed = System.nanoTime() - start;
+        snapshotTimer.record(elapsed, TimeUnit.NANOSECONDS);
+
+        logger.info("Wrote snapshot {} with {} items in {} ms", sequence, count, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return count;
+    }
+
+    /**
+     * Rebuilds the items from the latest snapshot and the log, then opens a new log segment.
+     *
+     * @throws IOException if the directory cannot be read or the log cannot be created
+     */
+    private void recover() throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+
+        items.clear();
+        long snapshotSequence = ItemSnapshot.loadLatest(directory, items::restore);
+        long replayed = WriteAheadLog.replay(directory, Math.max(snapshotSequence, 0), this::applyRecord);
+
+        List<Long> segments = WriteAheadLog.segments(directory);
+        long nextSequence = segments.isEmpty()
+            ? Math.max(snapshotSequence, 0)
+            : Math.max(snapshotSequence, segments.get(segments.size() - 1) + 1);
+
+        writeLock.lock();
+        try {
+            wal = new WriteAheadLog(directory, segmentSize, nextSequence);
+            if (snapshotSequence < 0 && segments.isEmpty()) {
+                seedSampleItems();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        wal.sync();
+
+        long elapsed = System.nanoTime() - start;
+        recoveryTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        recoveredRecords.increment(replayed);
+        logger.info("Recovered {} items ({} log records replayed) in {} ms",
+            items.values().size(), replayed, TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    /**
+     * Applies a replayed log record.
+     *
+     * @param type the record type
+     * @param payload the record payload
+     */
+    private void applyRecord(byte type, ByteBuffer payload) {
+        switch (type) {
+            case WriteAheadLog.SAVE -> items.restore(ItemBinaryFormat.decode(payload));
+            case WriteAheadLog.DELETE -> items.remove(StandardCharsets.UTF_8.decode(payload).toString());
+            default -> logger.warn("Ignoring log record of unknown type {}", type);
+        }
+    }
+
+    /**
+     * Creates and logs the sample items. Must be called while holding the write lock.
+     *
+     * @throws IOException if the log cannot be written
+     */
+    private void seedSampleItems() throws IOException {
+        logger.info("No existing data in {}, initializing repository with sample data", directory);
+
+        for (int i = 1; i <= 5; i++) {
+            String id = "item-" + i;
+            Item item = new Item(
+                id,
+                "Sample Item " + i,
+                "This is a sample item " + i,
+                System.currentTimeMillis(),
+                null
+            );
+            append(WriteAheadLog.SAVE, ItemBinaryFormat.encode(item));
+            items.restore(item);
+        }
+    }
+
+    /**
+     * A write waiting for the sync that makes it durable.
+     * The caller's Future is completed on the context the write was made from.
+     *
+     * @param <T> the result type
+     */
+    private static final class PendingWrite<T> {
+        private final Context context;
+        private final Promise<T> promise;
+        private final T result;
+
+        PendingWrite(Context context, Promise<T> promise, T result) {
+            this.context = context;
+            this.promise = promise;
+            this.result = result;
+        }
+
+        void complete() {
+            context.runOnContext(v -> promise.complete(result));
+        }
+
+        void fail(Throwable cause) {
+            context.runOnContext(v -> promise.fail(cause));
+        }
+    }
+}
@@ -1,16 +1,21 @@
 package dev.mars.vertx.service.one.repository;
 
 import dev.mars.vertx.service.one.model.Item;
+import dev.mars.vertx.service.one.model.ItemPage;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * In-memory implementation of the ItemRepositoryInterface interface.
@@ -19,12 +24,24 @@ public class InMemoryItemRepository implements ItemRepositoryInterface {
     private static final Logger logger = LoggerFactory.getLogger(InMemoryItemRepository.class);
 
     private final Map<String, Item> items = new HashMap<>();
+    // Item IDs in key order, for keyset pagination
+    private final NavigableSet<String> sortedIds = new TreeSet<>();
+    private final Supplier<String> idGenerator;
 
     /**
      * Constructor.
      */
     public InMemoryItemRepository() {
-        // No initialization needed
+        this(() -> UUID.randomUUID().toString());
+    }
+
+    /**
+     * Constructor with a custom ID generator for created items.
+     *
+     * @param idGenerator the supplier of new item IDs
+     */
+    public InMemoryItemRepository(Supplier<String> idGenerator) {
+        this.idGenerator = idGenerator;
     }
 
     @Override
@@ -52,6 +69,20 @@ public class InMemoryItemRepository implements ItemRepositoryInterface {
         return Future.succeededFuture(itemList);
     }
 
+    @Override
+    public Future<List<Item>> findByIds(Collection<String> ids) {
+        logger.debug("Finding {} items by ID", ids.size());
+
+        List<Item> found = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Item item = items.get(id);
+            if (item != null) {
+                found.add(item);
+            }
+        }
+        return Future.succeededFuture(found);
+    }
+
     @Override
     public Future<Item> save(Item item) {
         logger.debug("Saving item: {}", item);
@@ -60,7 +91,7 @@ public class InMemoryItemRepository implements ItemRepositoryInterface {
 
         // If no ID, generate one (create operation)
         if (item.getId() == null || item.getId().isEmpty()) {
-            item.setId(UUID.randomUUID().toString());
+            item.setId(idGenerator.get());
             item.setCreatedAt(System.currentTimeMillis());
             logger.debug("Created new item with ID: {}", item.getId());
         } else {
@@ -78,9 +109,26 @@ public class InMemoryItemRepository implements ItemRepositoryInterface {
         }
 
         items.put(item.getId(), item);
+        sortedIds.add(item.getId());
         return Future.succeededFuture(item);
     }
 
+    @Override
+    public Future<ItemPage> findPage(String afterKey, int limit) {
+        logger.debug("Finding page of {} items after key: {}", limit, afterKey);
+
+        NavigableSet<String> remaining = afterKey != null ? sortedIds.tailSet(afterKey, false) : sortedIds;
+        // Never size from the tail view: its size() walks every key after afterKey
+        List<Item> page = new ArrayList<>(Math.min(limit, 256));
+        for (String id : remaining) {
+            if (page.size() == limit) {
+                return Future.succeededFuture(new ItemPage(page, page.get(page.size() - 1).getId()));
+            }
+            page.add(items.get(id));
+        }
+        return Future.succeededFuture(new ItemPage(page, null));
+    }
+
     @Override
     public Future<Boolean> deleteById(String id) {
         logger.debug("Deleting item with ID: {}", id);
@@ -89,6 +137,7 @@ public class InMemoryItemRepository implements ItemRepositoryInterface {
         boolean success = removed != null;
 
         if (success) {
+            sortedIds.remove(id);
             logger.debug("Successfully deleted item with ID: {}", id);
         } else {
             logger.debug("Item not found for deletion with ID: {}", id);
@@ -105,6 +154,7 @@ public class InMemoryItemRepository implements ItemRepositoryInterface {
 
         // Clear any existing items
         items.clear();
+        sortedIds.clear();
 
         // Create sample items
         for (int i = 1; i <= 5; i++) {
@@ -118,6 +168,7 @@ public class InMemoryItemRepository implements ItemRepositoryInterface {
             );
 
             items.put(id, item);
+            sortedIds.add(id);
         }
 
         logger.info("Sample data initialized with {} items", items.size());
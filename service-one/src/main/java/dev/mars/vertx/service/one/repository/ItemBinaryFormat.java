@@ -0,0 +1,108 @@
+package dev.mars.vertx.service.one.repository;
+
+import dev.mars.vertx.service.one.model.Item;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary encoding of an Item used by the durable and off-heap repositories.
+ *
+ * Layout: id, name and description as length-prefixed UTF-8 strings (length -1 for null),
+ * createdAt as a long, then a presence byte and a long for updatedAt.
+ */
+final class ItemBinaryFormat {
+
+    private ItemBinaryFormat() {
+        // Utility class
+    }
+
+    /**
+     * Encodes an item.
+     *
+     * @param item the item
+     * @return the encoded bytes
+     */
+    static byte[] encode(Item item) {
+        byte[] id = bytes(item.getId());
+        byte[] name = bytes(item.getName());
+        byte[] description = bytes(item.getDescription());
+
+        ByteBuffer buffer = ByteBuffer.allocate(
+            stringSize(id) + stringSize(name) + stringSize(description) + Long.BYTES + 1 + Long.BYTES);
+        putString(buffer, id);
+        putString(buffer, name);
+        putString(buffer, description);
+        buffer.putLong(item.getCreatedAt());
+        buffer.put((byte) (item.getUpdatedAt() != null ? 1 : 0));
+        buffer.putLong(item.getUpdatedAt() != null ? item.getUpdatedAt() : 0L);
+        return buffer.array();
+    }
+
+    /**
+     * Decodes an item starting at the buffer's position and advances the position past it.
+     *
+     * @param buffer the buffer
+     * @return the item
+     */
+    static Item decode(ByteBuffer buffer) {
+        String id = getString(buffer);
+        String name = getString(buffer);
+        String description = getString(buffer);
+        long createdAt = buffer.getLong();
+        boolean hasUpdatedAt = buffer.get() != 0;
+        long updatedAt = buffer.getLong();
+        return new Item(id, name, description, createdAt, hasUpdatedAt ? updatedAt : null);
+    }
+
+    /**
+     * Encodes a string as UTF-8, or returns null for a null string.
+     *
+     * @param value the string
+     * @return the UTF-8 bytes, or null
+     */
+    static byte[] bytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * Gets the encoded size of a length-prefixed string.
+     *
+     * @param bytes the UTF-8 bytes, or null
+     * @return the encoded size in bytes
+     */
+    static int stringSize(byte[] bytes) {
+        return Integer.BYTES + (bytes != null ? bytes.length : 0);
+    }
+
+    /**
+     * Writes a length-prefixed string.
+     *
+     * @param buffer the buffer
+     * @param bytes the UTF-8 bytes, or null
+     */
+    static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    /**
+     * Reads a length-prefixed string.
+     *
+     * @param buffer the buffer
+     * @return the string, or null
+     */
+    static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,67 @@
+package dev.mars.vertx.service.one.repository;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+
+/**
+ * Factory for creating item repositories from configuration.
+ *
+ * Supported types:
+ * <ul>
+ *   <li>{@code memory} - InMemoryItemRepository, for a single verticle instance</li>
+ *   <li>{@code concurrent} - ConcurrentItemRepository, shareable between instances</li>
+ *   <li>{@code offheap} - OffHeapItemRepository, shareable and stored outside the Java heap</li>
+ *   <li>{@code durable} - DurableItemRepository, shareable and persisted to disk</li>
+ * </ul>
+ */
+public class ItemRepositoryFactory {
+    private static final Logger logger = LoggerFactory.getLogger(ItemRepositoryFactory.class);
+
+    private static final int DEFAULT_SLAB_SIZE = 64 * 1024 * 1024;
+    private static final int DEFAULT_EXPECTED_SIZE = 1024;
+    private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final long DEFAULT_SYNC_INTERVAL_MS = 5;
+    private static final long DEFAULT_SNAPSHOT_INTERVAL_MS = 60000;
+
+    private ItemRepositoryFactory() {
+        // Utility class
+    }
+
+    /**
+     * Creates a repository.
+     *
+     * @param vertx the Vertx instance
+     * @param type the repository type
+     * @param repositoryConfig the repository configuration
+     * @return the repository
+     */
+    public static ItemRepositoryInterface create(Vertx vertx, String type, JsonObject repositoryConfig) {
+        logger.info("Creating {} item repository", type);
+
+        switch (type) {
+            case "memory":
+                return new InMemoryItemRepository();
+            case "concurrent":
+                return new ConcurrentItemRepository();
+            case "offheap":
+                JsonObject offHeapConfig = repositoryConfig.getJsonObject("offheap", new JsonObject());
+                return new OffHeapItemRepository(
+                    offHeapConfig.getInteger("slab-size", DEFAULT_SLAB_SIZE),
+                    offHeapConfig.getInteger("expected-size", DEFAULT_EXPECTED_SIZE));
+            case "durable":
+                JsonObject durableConfig = repositoryConfig.getJsonObject("durable", new JsonObject());
+                return new DurableItemRepository(
+                    vertx,
+                    Path.of(durableConfig.getString("directory", "data/service-one")),
+                    durableConfig.getInteger("segment-size", DEFAULT_SEGMENT_SIZE),
+                    durableConfig.getLong("sync-interval-ms", DEFAULT_SYNC_INTERVAL_MS),
+                    durableConfig.getLong("snapshot-interval-ms", DEFAULT_SNAPSHOT_INTERVAL_MS));
+            default:
+                throw new IllegalArgumentException("Unknown repository type: " + type);
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package dev.mars.vertx.service.one.repository;
 
 import dev.mars.vertx.service.one.model.Item;
+import dev.mars.vertx.service.one.model.ItemPage;
 import io.vertx.core.Future;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -25,6 +29,51 @@ public interface ItemRepositoryInterface {
      */
     Future<List<Item>> findAll();
     
+    /**
+     * Finds the items with the given IDs in a single repository pass.
+     * IDs that do not exist are left out of the result, so callers can tell them apart by comparing
+     * against the requested IDs. The default implementation looks up each ID with
+     * {@link #findById(String)}; implementations override it to avoid a future per ID.
+     *
+     * @param ids the item IDs
+     * @return a Future with the found items, in the order of the requested IDs
+     */
+    default Future<List<Item>> findByIds(Collection<String> ids) {
+        List<Future<Item>> lookups = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            lookups.add(findById(id).otherwiseEmpty());
+        }
+        return Future.join(lookups).map(all -> {
+            List<Item> found = new ArrayList<>(ids.size());
+            for (Future<Item> lookup : lookups) {
+                if (lookup.result() != null) {
+                    found.add(lookup.result());
+                }
+            }
+            return found;
+        });
+    }
+    
+    /**
+     * Finds one page of items in key order, starting after the given key.
+     * The default implementation sorts the result of {@link #findAll()} and costs O(n log n)
+     * per page; implementations with a sorted index override it to cost O(page size).
+     *
+     * @param afterKey the key returned as the previous page's next key, or null for the first page
+     * @param limit the maximum number of items on the page
+     * @return a Future with the page
+     */
+    default Future<ItemPage> findPage(String afterKey, int limit) {
+        return findAll().map(all -> {
+            List<Item> sorted = all.stream()
+                .filter(item -> afterKey == null || item.getId().compareTo(afterKey) > 0)
+                .sorted(Comparator.comparing(Item::getId))
+                .toList();
+            List<Item> page = sorted.subList(0, Math.min(limit, sorted.size()));
+            return new ItemPage(page, sorted.size() > limit ? page.get(page.size() - 1).getId() : null);
+        });
+    }
+    
     /**
      * Saves an item (creates or updates).
      *
@@ -54,4 +103,14 @@ public interface ItemRepositoryInterface {
      * @return a Future with the count
      */
     Future<Integer> count();
+
+    /**
+     * Releases the resources held by the repository, such as files and timers, after making its
+     * writes durable. The default implementation holds nothing and does nothing.
+     *
+     * @return a Future that completes when the repository is closed
+     */
+    default Future<Void> close() {
+        return Future.succeededFuture();
+    }
 }
\ No newline at end of file
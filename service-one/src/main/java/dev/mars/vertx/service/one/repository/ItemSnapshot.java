@@ -0,0 +1,181 @@
+package dev.mars.vertx.service.one.repository;
+
+import dev.mars.vertx.service.one.model.Item;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Point-in-time snapshot of the items of a repository, stored as {@code snapshot-<sequence>.snap}.
+ * The sequence is the first WAL segment that must be replayed on top of the snapshot.
+ *
+ * Layout: {@code [int magic][int version]}, then one {@code [int length][item]} entry per item,
+ * then a trailer {@code [int -1][long count][int crc32c]} whose checksum covers every entry.
+ * Snapshots are written to a temporary file, forced and atomically renamed, so a snapshot that
+ * exists under its final name is always complete.
+ */
+final class ItemSnapshot {
+    private static final Logger logger = LoggerFactory.getLogger(ItemSnapshot.class);
+
+    private static final int MAGIC = 0x49534e50;
+    private static final int VERSION = 1;
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+
+    private ItemSnapshot() {
+        // Utility class
+    }
+
+    /**
+     * Writes a snapshot.
+     *
+     * @param directory the repository directory
+     * @param sequence the first WAL segment not covered by the snapshot
+     * @param items the items to write
+     * @return the number of items written
+     * @throws IOException if the snapshot cannot be written
+     */
+    static long write(Path directory, long sequence, Iterable<Item> items) throws IOException {
+        Path target = snapshotPath(directory, sequence);
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+
+        long count = 0;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            OutputStream fileStream = Channels.newOutputStream(channel);
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(fileStream, 1 << 16), new CRC32C());
+            DataOutputStream out = new DataOutputStream(checked);
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            checked.getChecksum().reset();
+
+            for (Item item : items) {
+                byte[] encoded = ItemBinaryFormat.encode(item);
+                out.writeInt(encoded.length);
+                out.write(encoded);
+                count++;
+            }
+
+            int checksum = (int) checked.getChecksum().getValue();
+            out.writeInt(-1);
+            out.writeLong(count);
+            out.writeInt(checksum);
+            out.flush();
+            channel.force(true);
+        }
+
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return count;
+    }
+
+    /**
+     * Loads the newest valid snapshot.
+     *
+     * @param directory the repository directory
+     * @param consumer the consumer receiving the items
+     * @return the sequence of the loaded snapshot, or -1 if there is none
+     * @throws IOException if the directory cannot be listed
+     */
+    static long loadLatest(Path directory, Consumer<Item> consumer) throws IOException {
+        List<Long> sequences = snapshots(directory);
+        for (int i = sequences.size() - 1; i >= 0; i--) {
+            long sequence = sequences.get(i);
+            List<Item> items = read(snapshotPath(directory, sequence));
+            if (items != null) {
+                items.forEach(consumer);
+                logger.info("Loaded snapshot {} with {} items", sequence, items.size());
+                return sequence;
+            }
+            logger.error("Skipping invalid snapshot {}", snapshotPath(directory, sequence));
+        }
+        return -1;
+    }
+
+    /**
+     * Reads and validates a snapshot through a read-only mapping.
+     *
+     * @param path the snapshot file
+     * @return the items, or null if the snapshot is invalid
+     * @throws IOException if the file cannot be read
+     */
+    private static List<Item> read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < Integer.BYTES * 2 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+
+            CRC32C crc = new CRC32C();
+            List<Item> items = new ArrayList<>();
+            while (buffer.remaining() >= Integer.BYTES) {
+                int start = buffer.position();
+                int length = buffer.getInt();
+                if (length == -1) {
+                    if (buffer.remaining() < Long.BYTES + Integer.BYTES) {
+                        return null;
+                    }
+                    long count = buffer.getLong();
+                    int checksum = buffer.getInt();
+                    return count == items.size() && checksum == (int) crc.getValue() ? items : null;
+                }
+                if (length < 0 || length > buffer.remaining()) {
+                    return null;
+                }
+
+                crc.update(buffer.slice(start, Integer.BYTES + length));
+                items.add(ItemBinaryFormat.decode(buffer.slice(buffer.position(), length)));
+                buffer.position(buffer.position() + length);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Deletes every snapshot before a sequence number.
+     *
+     * @param directory the repository directory
+     * @param beforeSequence the first snapshot to keep
+     * @throws IOException if a snapshot cannot be deleted
+     */
+    static void deleteSnapshotsBefore(Path directory, long beforeSequence) throws IOException {
+        for (long sequence : snapshots(directory)) {
+            if (sequence < beforeSequence) {
+                Files.deleteIfExists(snapshotPath(directory, sequence));
+            }
+        }
+    }
+
+    private static List<Long> snapshots(Path directory) throws IOException {
+        List<Long> sequences = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                .filter(name -> name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX))
+                .forEach(name -> sequences.add(Long.parseLong(
+                    name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()))));
+        }
+        sequences.sort(null);
+        return sequences;
+    }
+
+    private static Path snapshotPath(Path directory, long sequence) {
+        return directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, sequence, SNAPSHOT_SUFFIX));
+    }
+}
@@ -0,0 +1,520 @@
+package dev.mars.vertx.service.one.repository;
+
+import dev.mars.vertx.service.one.model.Item;
+import dev.mars.vertx.service.one.model.ItemPage;
+import io.vertx.core.Future;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Thread-safe implementation of the ItemRepositoryInterface interface that keeps items
+ * serialized outside the Java heap, for catalogs of millions of items.
+ *
+ * Items are encoded with ItemBinaryFormat into direct ByteBuffer slabs allocated with a bump
+ * pointer. An open-addressing index of two primitive arrays maps the hash of each ID to the
+ * slab address of its record, so the heap holds 16 bytes per slot regardless of item size and
+ * the garbage collector never traces individual items. Item objects are only materialized on read.
+ *
+ * Each record is stored as {@code [int capacity][encoded item]}. An update that fits in the
+ * record's capacity is written in place; otherwise the record is re-appended and the old one
+ * becomes dead space, which is reclaimed by compacting the slabs once it outweighs the live data.
+ * Reads share a read lock and writes take the write lock.
+ */
+public class OffHeapItemRepository implements ItemRepositoryInterface {
+    private static final Logger logger = LoggerFactory.getLogger(OffHeapItemRepository.class);
+
+    private static final int DEFAULT_SLAB_SIZE = 64 * 1024 * 1024;
+    private static final long EMPTY = -1L;
+    private static final int RECORD_HEADER = Integer.BYTES;
+    private static final int RECORD_ALIGNMENT = 8;
+
+    private final int slabSize;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final List<ByteBuffer> slabs = new ArrayList<>();
+    private int writeOffset;
+    private long[] hashes;
+    private long[] addresses;
+    private int size;
+    private long liveBytes;
+    private long deadBytes;
+
+    /**
+     * Constructor with default slab size and initial capacity.
+     */
+    public OffHeapItemRepository() {
+        this(DEFAULT_SLAB_SIZE, 1024);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param slabSize the size of each off-heap slab in bytes
+     * @param expectedSize the expected number of items, to avoid resizing the index while growing
+     */
+    public OffHeapItemRepository(int slabSize, int expectedSize) {
+        if (slabSize < 1024) {
+            throw new IllegalArgumentException("Slab size must be at least 1024 bytes");
+        }
+        this.slabSize = slabSize;
+        allocateIndex(tableSizeFor(expectedSize));
+    }
+
+    @Override
+    public Future<Item> findById(String id) {
+        logger.debug("Finding item by ID: {}", id);
+
+        lock.readLock().lock();
+        try {
+            int slot = id != null ? findSlot(id, ItemBinaryFormat.bytes(id), hash(id)) : -1;
+            if (slot >= 0) {
+                return Future.succeededFuture(read(addresses[slot]));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        logger.debug("Item not found with ID: {}", id);
+        return Future.failedFuture("Item not found with ID: " + id);
+    }
+
+    @Override
+    public Future<List<Item>> findByIds(Collection<String> ids) {
+        logger.debug("Finding {} items by ID", ids.size());
+
+        // One read lock for the whole batch rather than one per ID
+        lock.readLock().lock();
+        try {
+            List<Item> found = new ArrayList<>(ids.size());
+            for (String id : ids) {
+                int slot = id != null ? findSlot(id, ItemBinaryFormat.bytes(id), hash(id)) : -1;
+                if (slot >= 0) {
+                    found.add(read(addresses[slot]));
+                }
+            }
+            return Future.succeededFuture(found);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Future<List<Item>> findAll() {
+        logger.debug("Finding all items");
+
+        lock.readLock().lock();
+        try {
+            List<Item> itemList = new ArrayList<>(size);
+            for (long address : addresses) {
+                if (address != EMPTY) {
+                    itemList.add(read(address));
+                }
+            }
+            logger.debug("Found {} items", itemList.size());
+            return Future.succeededFuture(itemList);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds one page of items in index slot order rather than ID order: keeping a sorted index
+     * of IDs would put every ID back on the heap. The key is the slot of the last returned item.
+     * Pages are stable while the repository is not modified; a concurrent insert that resizes
+     * the index, or a delete that shifts a probe chain, can make a later page skip or repeat items.
+     *
+     * @param afterKey the key returned as the previous page's next key, or null for the first page
+     * @param limit the maximum number of items on the page
+     * @return a Future with the page
+     */
+    @Override
+    public Future<ItemPage> findPage(String afterKey, int limit) {
+        logger.debug("Finding page of {} items after key: {}", limit, afterKey);
+
+        int start;
+        try {
+            start = afterKey != null ? Integer.parseInt(afterKey) + 1 : 0;
+        } catch (NumberFormatException e) {
+            return Future.failedFuture("Invalid page key: " + afterKey);
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Item> page = new ArrayList<>(Math.min(limit, size));
+            int lastSlot = -1;
+            for (int slot = Math.max(start, 0); slot < addresses.length; slot++) {
+                if (addresses[slot] == EMPTY) {
+                    continue;
+                }
+                if (page.size() == limit) {
+                    return Future.succeededFuture(new ItemPage(page, String.valueOf(lastSlot)));
+                }
+                page.add(read(addresses[slot]));
+                lastSlot = slot;
+            }
+            return Future.succeededFuture(new ItemPage(page, null));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Future<Item> save(Item item) {
+        logger.debug("Saving item: {}", item);
+
+        lock.writeLock().lock();
+        try {
+            // If no ID, generate one (create operation)
+            if (item.getId() == null || item.getId().isEmpty()) {
+                item.setId(ConcurrentItemRepository.newId());
+                item.setCreatedAt(System.currentTimeMillis());
+                byte[] encoded = ItemBinaryFormat.encode(item);
+                checkRecordSize(encoded);
+                insert(hash(item.getId()), append(encoded));
+                logger.debug("Created new item with ID: {}", item.getId());
+                return Future.succeededFuture(item);
+            }
+
+            // Update operation - check for existence and preserve the creation timestamp
+            int slot = findSlot(item.getId(), ItemBinaryFormat.bytes(item.getId()), hash(item.getId()));
+            if (slot < 0) {
+                logger.debug("Item not found for update with ID: {}", item.getId());
+                return Future.failedFuture("Item not found with ID: " + item.getId());
+            }
+
+            item.setCreatedAt(readCreatedAt(addresses[slot]));
+            item.setUpdatedAt(System.currentTimeMillis());
+            byte[] encoded = ItemBinaryFormat.encode(item);
+            checkRecordSize(encoded);
+            addresses[slot] = overwrite(addresses[slot], encoded);
+            compactIfFragmented();
+            logger.debug("Updated existing item with ID: {}", item.getId());
+            return Future.succeededFuture(item);
+        } catch (IllegalArgumentException e) {
+            return Future.failedFuture(e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Future<Boolean> deleteById(String id) {
+        logger.debug("Deleting item with ID: {}", id);
+
+        lock.writeLock().lock();
+        try {
+            int slot = id != null ? findSlot(id, ItemBinaryFormat.bytes(id), hash(id)) : -1;
+            if (slot < 0) {
+                logger.debug("Item not found for deletion with ID: {}", id);
+                return Future.succeededFuture(false);
+            }
+
+            release(addresses[slot]);
+            removeSlot(slot);
+            compactIfFragmented();
+            logger.debug("Successfully deleted item with ID: {}", id);
+            return Future.succeededFuture(true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Future<Void> initialize() {
+        logger.info("Initializing repository with sample data");
+
+        lock.writeLock().lock();
+        try {
+            // Clear any existing items; dropped slabs are freed when their buffers are collected
+            slabs.clear();
+            writeOffset = 0;
+            Arrays.fill(hashes, 0L);
+            Arrays.fill(addresses, EMPTY);
+            size = 0;
+            liveBytes = 0;
+            deadBytes = 0;
+
+            // Create sample items
+            for (int i = 1; i <= 5; i++) {
+                String id = "item-" + i;
+                Item item = new Item(
+                    id,
+                    "Sample Item " + i,
+                    "This is a sample item " + i,
+                    System.currentTimeMillis(),
+                    null
+                );
+                insert(hash(id), append(ItemBinaryFormat.encode(item)));
+            }
+
+            logger.info("Sample data initialized with {} items", size);
+            return Future.succeededFuture();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Future<Integer> count() {
+        logger.debug("Getting item count");
+
+        lock.readLock().lock();
+        try {
+            return Future.succeededFuture(size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of off-heap bytes allocated for slabs.
+     *
+     * @return the allocated bytes
+     */
+    public long getOffHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) slabs.size() * slabSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---- Index ----
+
+    /**
+     * Finds the index slot holding an ID. Must be called while holding the lock.
+     *
+     * @param id the item ID
+     * @param idBytes the UTF-8 encoded ID
+     * @param hash the hash of the ID
+     * @return the slot, or -1 if the ID is not in the index
+     */
+    private int findSlot(String id, byte[] idBytes, long hash) {
+        int mask = addresses.length - 1;
+        for (int slot = (int) hash & mask; addresses[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && idMatches(addresses[slot], idBytes)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(long hash, long address) {
+        if ((size + 1) * 4L > addresses.length * 3L) {
+            resizeIndex(addresses.length * 2);
+        }
+        placeInIndex(hash, address);
+        size++;
+    }
+
+    private void placeInIndex(long hash, long address) {
+        int mask = addresses.length - 1;
+        int slot = (int) hash & mask;
+        while (addresses[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        hashes[slot] = hash;
+        addresses[slot] = address;
+    }
+
+    /**
+     * Removes a slot using backward-shift deletion, so probe chains never need tombstones.
+     *
+     * @param slot the slot to remove
+     */
+    private void removeSlot(int slot) {
+        int mask = addresses.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; addresses[next] != EMPTY; next = (next + 1) & mask) {
+            int home = (int) hashes[next] & mask;
+            // Move the entry into the hole unless its home lies cyclically in (hole, next]
+            boolean homeBetween = hole <= next ? (home > hole && home <= next) : (home > hole || home <= next);
+            if (!homeBetween) {
+                hashes[hole] = hashes[next];
+                addresses[hole] = addresses[next];
+                hole = next;
+            }
+        }
+        hashes[hole] = 0L;
+        addresses[hole] = EMPTY;
+        size--;
+    }
+
+    private void resizeIndex(int newLength) {
+        long[] oldHashes = hashes;
+        long[] oldAddresses = addresses;
+        allocateIndex(newLength);
+        for (int i = 0; i < oldAddresses.length; i++) {
+            if (oldAddresses[i] != EMPTY) {
+                placeInIndex(oldHashes[i], oldAddresses[i]);
+            }
+        }
+    }
+
+    private void allocateIndex(int length) {
+        hashes = new long[length];
+        addresses = new long[length];
+        Arrays.fill(addresses, EMPTY);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        long wanted = Math.max(16L, (long) expectedSize * 4 / 3 + 1);
+        if (wanted > 1 << 30) {
+            throw new IllegalArgumentException("Expected size is too large: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) wanted - 1) << 1;
+    }
+
+    /**
+     * Hashes an ID, spreading String#hashCode over 64 bits with a murmur3 finalizer.
+     *
+     * @param id the item ID
+     * @return the hash
+     */
+    private static long hash(String id) {
+        long h = id.hashCode() * 0x9e3779b97f4a7c15L;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // ---- Slabs ----
+
+    private static long address(int slab, int offset) {
+        return ((long) slab << 32) | offset;
+    }
+
+    private ByteBuffer slabOf(long address) {
+        return slabs.get((int) (address >>> 32));
+    }
+
+    private static int offsetOf(long address) {
+        return (int) address;
+    }
+
+    private void checkRecordSize(byte[] encoded) {
+        if (RECORD_HEADER + encoded.length > slabSize) {
+            throw new IllegalArgumentException("Item of " + encoded.length + " bytes does not fit in a slab");
+        }
+    }
+
+    /**
+     * Appends a record to the current slab, starting a new slab when it does not fit.
+     *
+     * @param encoded the encoded item
+     * @return the address of the record
+     */
+    private long append(byte[] encoded) {
+        int capacity = align(encoded.length);
+        int recordSize = RECORD_HEADER + capacity;
+        if (slabs.isEmpty() || writeOffset + recordSize > slabSize) {
+            slabs.add(ByteBuffer.allocateDirect(slabSize));
+            writeOffset = 0;
+        }
+
+        int slab = slabs.size() - 1;
+        int offset = writeOffset;
+        ByteBuffer buffer = slabs.get(slab);
+        buffer.putInt(offset, capacity);
+        buffer.put(offset + RECORD_HEADER, encoded);
+        writeOffset += recordSize;
+        liveBytes += recordSize;
+        return address(slab, offset);
+    }
+
+    /**
+     * Overwrites a record in place if the new encoding fits, otherwise moves it.
+     *
+     * @param address the current address of the record
+     * @param encoded the new encoded item
+     * @return the address of the record after the write
+     */
+    private long overwrite(long address, byte[] encoded) {
+        ByteBuffer buffer = slabOf(address);
+        int offset = offsetOf(address);
+        if (encoded.length <= buffer.getInt(offset)) {
+            buffer.put(offset + RECORD_HEADER, encoded);
+            return address;
+        }
+
+        release(address);
+        return append(encoded);
+    }
+
+    private void release(long address) {
+        int recordSize = RECORD_HEADER + slabOf(address).getInt(offsetOf(address));
+        liveBytes -= recordSize;
+        deadBytes += recordSize;
+    }
+
+    private Item read(long address) {
+        ByteBuffer record = slabOf(address).duplicate();
+        record.position(offsetOf(address) + RECORD_HEADER);
+        return ItemBinaryFormat.decode(record);
+    }
+
+    private long readCreatedAt(long address) {
+        // createdAt follows the three length-prefixed strings
+        ByteBuffer buffer = slabOf(address);
+        int position = offsetOf(address) + RECORD_HEADER;
+        for (int i = 0; i < 3; i++) {
+            position += Integer.BYTES + Math.max(0, buffer.getInt(position));
+        }
+        return buffer.getLong(position);
+    }
+
+    /**
+     * Compares the ID stored in a record with an encoded ID without materializing the record.
+     */
+    private boolean idMatches(long address, byte[] idBytes) {
+        ByteBuffer buffer = slabOf(address);
+        int idOffset = offsetOf(address) + RECORD_HEADER;
+        if (buffer.getInt(idOffset) != idBytes.length) {
+            return false;
+        }
+        return buffer.slice(idOffset + Integer.BYTES, idBytes.length).equals(ByteBuffer.wrap(idBytes));
+    }
+
+    /**
+     * Copies the live records into fresh slabs once dead space outweighs live data.
+     */
+    private void compactIfFragmented() {
+        if (deadBytes < 2L * slabSize || deadBytes < liveBytes) {
+            return;
+        }
+
+        logger.info("Compacting off-heap slabs: {} live bytes, {} dead bytes", liveBytes, deadBytes);
+        List<ByteBuffer> oldSlabs = new ArrayList<>(slabs);
+        slabs.clear();
+        writeOffset = 0;
+        liveBytes = 0;
+        deadBytes = 0;
+
+        for (int slot = 0; slot < addresses.length; slot++) {
+            long address = addresses[slot];
+            if (address == EMPTY) {
+                continue;
+            }
+            ByteBuffer old = oldSlabs.get((int) (address >>> 32));
+            int offset = offsetOf(address);
+            int capacity = old.getInt(offset);
+            byte[] record = new byte[capacity];
+            old.get(offset + RECORD_HEADER, record);
+            addresses[slot] = append(record);
+        }
+    }
+
+    private static int align(int length) {
+        return (length + RECORD_ALIGNMENT - 1) & -RECORD_ALIGNMENT;
+    }
+}
@@ -0,0 +1,261 @@
+package dev.mars.vertx.service.one.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of repository mutations, stored as a sequence of fixed-size memory-mapped
+ * segment files named {@code wal-<sequence>.log}.
+ *
+ * Each record is laid out as {@code [int length][int crc32c][byte type][payload]}, where the
+ * length covers the type and payload and the checksum covers the same bytes. Segments are
+ * pre-sized and zero-filled, so a zero length marks the end of the written part of a segment,
+ * and a checksum mismatch marks a record torn by a crash.
+ *
+ * Appending only copies into the mapping; {@link #sync()} makes everything appended so far
+ * durable. Appends, rolls and syncs may be called from different threads.
+ */
+final class WriteAheadLog implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    static final byte SAVE = 1;
+    static final byte DELETE = 2;
+
+    private static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES + 1;
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    /**
+     * Receives the records of a log during replay.
+     */
+    interface RecordVisitor {
+        /**
+         * Visits a record.
+         *
+         * @param type the record type
+         * @param payload the record payload, positioned at its first byte
+         */
+        void visit(byte type, ByteBuffer payload);
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long sequence;
+    private int syncedPosition;
+
+    /**
+     * Opens a new, empty segment for appending.
+     *
+     * @param directory the log directory
+     * @param segmentSize the size of each segment file in bytes
+     * @param sequence the sequence number of the first segment to write
+     * @throws IOException if the segment cannot be created
+     */
+    WriteAheadLog(Path directory, int segmentSize, long sequence) throws IOException {
+        if (segmentSize < 1024) {
+            throw new IllegalArgumentException("Segment size must be at least 1024 bytes");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        openSegment(sequence);
+    }
+
+    /**
+     * Appends a record to the current segment, rolling to a new segment if it does not fit.
+     *
+     * @param type the record type
+     * @param payload the record payload
+     * @return the number of bytes appended
+     * @throws IOException if a new segment cannot be created
+     */
+    synchronized int append(byte type, byte[] payload) throws IOException {
+        int recordSize = HEADER_SIZE + payload.length;
+        if (recordSize > segmentSize) {
+            throw new IllegalArgumentException("Record of " + recordSize + " bytes does not fit in a segment");
+        }
+        if (segment.remaining() < recordSize) {
+            roll();
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(type);
+        crc.update(payload);
+
+        segment.putInt(payload.length + 1)
+            .putInt((int) crc.getValue())
+            .put(type)
+            .put(payload);
+        return recordSize;
+    }
+
+    /**
+     * Makes every record appended so far durable.
+     * The expensive part (the msync) runs outside the lock so appends are not blocked by it.
+     *
+     * @throws IOException if the segment cannot be forced
+     */
+    void sync() throws IOException {
+        MappedByteBuffer target;
+        int from;
+        int to;
+        synchronized (this) {
+            target = segment;
+            from = syncedPosition;
+            to = segment.position();
+            syncedPosition = to;
+        }
+        if (to > from) {
+            target.force(from, to - from);
+        }
+    }
+
+    /**
+     * Closes the current segment and starts a new one.
+     * The closed segment is forced first, so only the newest segment can ever hold a torn record.
+     *
+     * @return the sequence number of the new segment
+     * @throws IOException if the segment cannot be forced or created
+     */
+    synchronized long roll() throws IOException {
+        segment.force();
+        channel.close();
+        openSegment(sequence + 1);
+        return sequence;
+    }
+
+    /**
+     * Gets the sequence number of the segment currently being written.
+     *
+     * @return the sequence number
+     */
+    synchronized long getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        segment.force();
+        channel.close();
+    }
+
+    private void openSegment(long newSequence) throws IOException {
+        Path path = segmentPath(directory, newSequence);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        // Persist the new file's metadata once, so later syncs only need to flush data pages
+        channel.force(true);
+        sequence = newSequence;
+        syncedPosition = 0;
+        logger.debug("Opened WAL segment {}", path);
+    }
+
+    /**
+     * Replays the records of every segment at or after a sequence number, in order.
+     * Replay of a segment stops at its first torn record; later segments are still replayed.
+     *
+     * @param directory the log directory
+     * @param fromSequence the first segment to replay
+     * @param visitor the visitor receiving the records
+     * @return the number of records replayed
+     * @throws IOException if a segment cannot be read
+     */
+    static long replay(Path directory, long fromSequence, RecordVisitor visitor) throws IOException {
+        long records = 0;
+        for (long segmentSequence : segments(directory)) {
+            if (segmentSequence < fromSequence) {
+                continue;
+            }
+            records += replaySegment(segmentPath(directory, segmentSequence), visitor);
+        }
+        return records;
+    }
+
+    private static long replaySegment(Path path, RecordVisitor visitor) throws IOException {
+        long records = 0;
+        try (FileChannel readChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+            CRC32C crc = new CRC32C();
+
+            while (buffer.remaining() >= HEADER_SIZE) {
+                int start = buffer.position();
+                int length = buffer.getInt();
+                if (length == 0) {
+                    break;
+                }
+                int checksum = buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) {
+                    logger.warn("Ignoring torn record at offset {} of WAL segment {}", start, path);
+                    break;
+                }
+
+                ByteBuffer record = buffer.slice(buffer.position(), length);
+                crc.reset();
+                crc.update(record.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    logger.warn("Ignoring torn record at offset {} of WAL segment {}", start, path);
+                    break;
+                }
+
+                byte type = record.get();
+                visitor.visit(type, record);
+                buffer.position(buffer.position() + length);
+                records++;
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Lists the sequence numbers of the segments in a directory, in ascending order.
+     *
+     * @param directory the log directory
+     * @return the segment sequence numbers
+     * @throws IOException if the directory cannot be listed
+     */
+    static List<Long> segments(Path directory) throws IOException {
+        List<Long> sequences = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                .forEach(name -> sequences.add(Long.parseLong(
+                    name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))));
+        }
+        sequences.sort(null);
+        return sequences;
+    }
+
+    /**
+     * Deletes every segment before a sequence number.
+     *
+     * @param directory the log directory
+     * @param beforeSequence the first segment to keep
+     * @throws IOException if a segment cannot be deleted
+     */
+    static void deleteSegmentsBefore(Path directory, long beforeSequence) throws IOException {
+        for (long segmentSequence : segments(directory)) {
+            if (segmentSequence < beforeSequence) {
+                Files.deleteIfExists(segmentPath(directory, segmentSequence));
+            }
+        }
+    }
+
+    private static Path segmentPath(Path directory, long segmentSequence) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segmentSequence, SEGMENT_SUFFIX));
+    }
+}
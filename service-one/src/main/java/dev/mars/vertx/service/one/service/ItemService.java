@@ -1,12 +1,20 @@
 package dev.mars.vertx.service.one.service;
 
+import dev.mars.vertx.common.util.PageCursor;
+import dev.mars.vertx.common.util.RequestLimits;
 import dev.mars.vertx.service.one.model.Item;
 import dev.mars.vertx.service.one.repository.ItemRepositoryInterface;
 import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 /**
  * Service class for Item operations.
  * Contains business logic for handling items.
@@ -14,6 +22,21 @@ import org.slf4j.LoggerFactory;
 public class ItemService {
     private static final Logger logger = LoggerFactory.getLogger(ItemService.class);
     
+    /**
+     * The largest page a single list request may ask for.
+     */
+    public static final int MAX_PAGE_SIZE = RequestLimits.MAX_PAGE_SIZE;
+    
+    /**
+     * The largest number of operations a single bulk request may contain.
+     */
+    public static final int MAX_BULK_OPERATIONS = RequestLimits.MAX_BULK_OPERATIONS;
+    
+    /**
+     * The largest number of IDs a single multi-get request may contain.
+     */
+    public static final int MAX_IDS_PER_REQUEST = RequestLimits.MAX_IDS_PER_REQUEST;
+    
     private final ItemRepositoryInterface itemRepositoryInterface;
     
     /**
@@ -46,6 +69,37 @@ public class ItemService {
         return itemRepositoryInterface.findById(id);
     }
     
+    /**
+     * Gets several items by ID with one repository call.
+     * Duplicate IDs are looked up once. Found items are returned in request order and the IDs
+     * that do not exist are listed separately under {@code missing}.
+     *
+     * @param ids the item IDs
+     * @return a Future with the found items and the missing IDs
+     */
+    public Future<JsonObject> getItems(List<String> ids) {
+        logger.info("Getting {} items by ID", ids.size());
+        
+        if (ids.size() > MAX_IDS_PER_REQUEST) {
+            return Future.failedFuture("Multi-get requests are limited to " + MAX_IDS_PER_REQUEST + " IDs");
+        }
+        
+        Set<String> uniqueIds = new LinkedHashSet<>(ids);
+        return itemRepositoryInterface.findByIds(uniqueIds)
+            .map(items -> {
+                JsonArray found = new JsonArray(new ArrayList<>(items.size()));
+                for (Item item : items) {
+                    uniqueIds.remove(item.getId());
+                    found.add(item.toJson());
+                }
+                
+                return new JsonObject()
+                    .put("items", found)
+                    .put("count", found.size())
+                    .put("missing", new JsonArray(new ArrayList<>(uniqueIds)));
+            });
+    }
+    
     /**
      * Creates a new item.
      *
@@ -54,6 +108,10 @@ public class ItemService {
      */
     public Future<Item> createItem(JsonObject itemData) {
         logger.info("Creating new item: {}", itemData);
+        String invalid = nonStringField(itemData, "name", "description");
+        if (invalid != null) {
+            return Future.failedFuture("Field " + invalid + " must be a string");
+        }
         
         Item item = new Item();
         item.setName(itemData.getString("name", "Unnamed"));
@@ -71,6 +129,10 @@ public class ItemService {
      */
     public Future<Item> updateItem(String id, JsonObject itemData) {
         logger.info("Updating item with ID: {}", id);
+        String invalid = nonStringField(itemData, "name", "description");
+        if (invalid != null) {
+            return Future.failedFuture("Field " + invalid + " must be a string");
+        }
         
         return itemRepositoryInterface.findById(id)
             .compose(existingItem -> {
@@ -109,6 +171,16 @@ public class ItemService {
             });
     }
     
+    /**
+     * Gets all items.
+     *
+     * @return a Future with all items
+     */
+    public Future<List<Item>> getAllItems() {
+        logger.info("Getting all items");
+        return itemRepositoryInterface.findAll();
+    }
+    
     /**
      * Lists all items.
      *
@@ -117,13 +189,165 @@ public class ItemService {
     public Future<JsonObject> listItems() {
         logger.info("Listing all items");
         
-        return itemRepositoryInterface.findAll()
+        return getAllItems()
             .compose(items -> {
                 JsonObject result = new JsonObject()
-                    .put("items", items.stream().map(Item::toJson).toArray())
+                    .put("items", new JsonArray(items.stream().map(Item::toJson).toList()))
                     .put("count", items.size());
                 
                 return Future.succeededFuture(result);
             });
     }
-}
\ No newline at end of file
+    
+    /**
+     * Lists one page of items in key order.
+     * The response carries a nextCursor to pass back for the following page, unless this is the last page.
+     *
+     * @param limit the maximum number of items to return
+     * @param cursor the cursor from the previous page, or null for the first page
+     * @return a Future with the page of items
+     */
+    public Future<JsonObject> listItems(int limit, String cursor) {
+        logger.info("Listing up to {} items after cursor: {}", limit, cursor);
+        
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return Future.failedFuture("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        
+        String afterKey;
+        try {
+            afterKey = PageCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return Future.failedFuture(e.getMessage());
+        }
+        
+        return itemRepositoryInterface.findPage(afterKey, limit)
+            .map(page -> {
+                JsonObject result = new JsonObject()
+                    .put("items", new JsonArray(page.getItems().stream().map(Item::toJson).toList()))
+                    .put("count", page.getItems().size());
+                
+                if (page.hasMore()) {
+                    result.put("nextCursor", PageCursor.encode(page.getNextKey()));
+                }
+                
+                return result;
+            });
+    }
+    
+    /**
+     * Applies a batch of create, update and delete operations.
+     * Each operation is an object with an {@code op} field and the same fields as the single-item
+     * request. Operations are applied in order without waiting for each other, so a durable
+     * repository acknowledges the whole batch with one sync. A failed operation is reported in its
+     * result and does not fail the batch.
+     *
+     * @param operations the operations to apply
+     * @return a Future with one result per operation, in request order
+     */
+    public Future<JsonObject> applyBulk(JsonArray operations) {
+        if (operations == null) {
+            return Future.failedFuture("Operations are required for bulk");
+        }
+        if (operations.size() > MAX_BULK_OPERATIONS) {
+            return Future.failedFuture("Bulk requests are limited to " + MAX_BULK_OPERATIONS + " operations");
+        }
+        logger.info("Applying {} bulk operations", operations.size());
+        
+        List<Future<JsonObject>> results = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            int index = i;
+            Object operation = operations.getValue(i);
+            Object opValue = operation instanceof JsonObject ? ((JsonObject) operation).getValue("op") : null;
+            String op = opValue instanceof String ? (String) opValue : null;
+            
+            Future<JsonObject> applied;
+            try {
+                applied = applyOperation(operation);
+            } catch (RuntimeException e) {
+                // Whatever one operation throws is its own failure, never the batch's
+                applied = Future.failedFuture(e);
+            }
+            results.add(applied
+                .map(result -> new JsonObject()
+                    .put("index", index)
+                    .put("op", op)
+                    .put("status", "ok")
+                    .put("result", result))
+                .otherwise(err -> new JsonObject()
+                    .put("index", index)
+                    .put("op", op)
+                    .put("status", "error")
+                    .put("error", err.getMessage())));
+        }
+        
+        return Future.all(results).map(all -> {
+            JsonArray resultArray = new JsonArray(new ArrayList<>(results.size()));
+            int failed = 0;
+            for (Future<JsonObject> result : results) {
+                JsonObject operationResult = result.result();
+                if ("error".equals(operationResult.getString("status"))) {
+                    failed++;
+                }
+                resultArray.add(operationResult);
+            }
+            
+            return new JsonObject()
+                .put("results", resultArray)
+                .put("count", results.size())
+                .put("succeeded", results.size() - failed)
+                .put("failed", failed);
+        });
+    }
+    
+    /**
+     * Applies a single bulk operation.
+     *
+     * @param operation the operation
+     * @return a Future with the operation's result
+     */
+    private Future<JsonObject> applyOperation(Object operation) {
+        if (!(operation instanceof JsonObject)) {
+            return Future.failedFuture("Operation must be an object");
+        }
+        
+        JsonObject data = (JsonObject) operation;
+        String invalid = nonStringField(data, "op", "id");
+        if (invalid != null) {
+            return Future.failedFuture("Field " + invalid + " must be a string");
+        }
+        String op = data.getString("op");
+        String id = data.getString("id");
+        if (op == null) {
+            return Future.failedFuture("Operation type (op) is required");
+        }
+        
+        switch (op) {
+            case "create":
+                return createItem(data).map(Item::toJson);
+            case "update":
+                return id != null ? updateItem(id, data).map(Item::toJson) : Future.failedFuture("ID is required for update");
+            case "delete":
+                return id != null ? deleteItem(id) : Future.failedFuture("ID is required for delete");
+            default:
+                return Future.failedFuture("Unknown operation: " + op);
+        }
+    }
+    
+    /**
+     * Gets the first of some fields that is present but not a string.
+     *
+     * @param data the request data
+     * @param fields the fields that must be strings if present
+     * @return the name of the invalid field, or null if all are strings or absent
+     */
+    private static String nonStringField(JsonObject data, String... fields) {
+        for (String field : fields) {
+            Object value = data.getValue(field);
+            if (value != null && !(value instanceof String)) {
+                return field;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,65 @@
+package dev.mars.vertx.service.one;
+
+import dev.mars.vertx.service.one.model.Item;
+import dev.mars.vertx.service.one.repository.DurableItemRepository;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(VertxExtension.class)
+class ServiceOneMainTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testUndeployClosesTheSharedRepository(Vertx vertx, VertxTestContext testContext) {
+        JsonObject config = new JsonObject()
+            .put("service.address", "service.one.test")
+            .put("service", new JsonObject().put("address", "service.one.test").put("instances", 2))
+            .put("repository", new JsonObject()
+                .put("type", "durable")
+                .put("durable", new JsonObject()
+                    .put("directory", directory.toString())
+                    .put("segment-size", 4096)
+                    // Far longer than the test: only closing the repository syncs the write
+                    .put("sync-interval-ms", 3_600_000)
+                    .put("snapshot-interval-ms", 3_600_000)));
+        AtomicReference<Future<Message<Item>>> created = new AtomicReference<>();
+
+        ServiceOneMain.deployVerticles(vertx, config)
+            .compose(deploymentId -> {
+                // Acknowledged only once synced, which undeploying must do
+                created.set(vertx.eventBus().request("service.one.test", new JsonObject()
+                    .put("action", "create")
+                    .put("name", "Closed Item")
+                    .put("description", "Written before undeploy")));
+                Promise<Void> logged = Promise.promise();
+                vertx.setTimer(200, id -> logged.complete());
+                return logged.future().compose(v -> vertx.undeploy(deploymentId));
+            })
+            .compose(v -> created.get())
+            .compose(reply -> {
+                DurableItemRepository recovered = new DurableItemRepository(vertx, directory, 4096, 5, 3_600_000);
+                return recovered.initialize()
+                    .compose(init -> recovered.findById(reply.body().getId()))
+                    .compose(item -> recovered.close().map(item));
+            })
+            .onComplete(testContext.succeeding(item -> testContext.verify(() -> {
+                assertEquals("Closed Item", item.getName());
+                testContext.completeNow();
+            })));
+    }
+}
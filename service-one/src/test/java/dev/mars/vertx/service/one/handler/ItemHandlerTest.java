@@ -3,6 +3,7 @@ package dev.mars.vertx.service.one.handler;
 import dev.mars.vertx.service.one.model.Item;
 import dev.mars.vertx.service.one.service.ItemService;
 import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
@@ -10,7 +11,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -41,9 +44,9 @@ class ItemHandlerTest {
         itemHandler.handleRequest(request)
                 .onComplete(testContext.succeeding(result -> {
                     testContext.verify(() -> {
-                        // Verify the result is a JsonObject
-                        assertTrue(result instanceof JsonObject);
-                        JsonObject jsonResult = (JsonObject) result;
+                        // Verify the result is the item itself, for its codec to carry
+                        assertTrue(result instanceof Item);
+                        JsonObject jsonResult = ((Item) result).toJson();
 
                         // Verify the item properties
                         assertEquals("test-id", jsonResult.getString("id"));
@@ -73,6 +76,24 @@ class ItemHandlerTest {
                 }));
     }
 
+    @Test
+    void testHandleEncodedRequestGetItem(VertxTestContext testContext) {
+        Item testItem = new Item("test-id", "Test Item", "Test Description", 1000L, 2000L);
+        mockService.addItem(testItem);
+
+        // Other requests are left to handleRequest
+        assertNull(itemHandler.handleEncodedRequest(new JsonObject().put("action", "create")));
+
+        itemHandler.handleEncodedRequest(new JsonObject().put("id", "test-id"))
+                .onComplete(testContext.succeeding(result -> {
+                    testContext.verify(() -> {
+                        // Same JSON as the JsonObject response
+                        assertEquals(testItem.toJson(), result.toJsonObject());
+                        testContext.completeNow();
+                    });
+                }));
+    }
+
     @Test
     void testHandleRequestCreateItem(VertxTestContext testContext) {
         // Create a request to create an item
@@ -85,9 +106,9 @@ class ItemHandlerTest {
         itemHandler.handleRequest(request)
                 .onComplete(testContext.succeeding(result -> {
                     testContext.verify(() -> {
-                        // Verify the result is a JsonObject
-                        assertTrue(result instanceof JsonObject);
-                        JsonObject jsonResult = (JsonObject) result;
+                        // Verify the result is the item itself, for its codec to carry
+                        assertTrue(result instanceof Item);
+                        JsonObject jsonResult = ((Item) result).toJson();
 
                         // Verify the item properties
                         assertNotNull(jsonResult.getString("id"));
@@ -123,9 +144,9 @@ class ItemHandlerTest {
         itemHandler.handleRequest(request)
                 .onComplete(testContext.succeeding(result -> {
                     testContext.verify(() -> {
-                        // Verify the result is a JsonObject
-                        assertTrue(result instanceof JsonObject);
-                        JsonObject jsonResult = (JsonObject) result;
+                        // Verify the result is the item itself, for its codec to carry
+                        assertTrue(result instanceof Item);
+                        JsonObject jsonResult = ((Item) result).toJson();
 
                         // Verify the item properties
                         assertEquals("test-id", jsonResult.getString("id"));
@@ -209,6 +230,69 @@ class ItemHandlerTest {
                 }));
     }
 
+    @Test
+    void testHandleRequestListItemsInvalidLimit(VertxTestContext testContext) {
+        // Create a paginated list request with a malformed limit
+        JsonObject request = new JsonObject()
+                .put("action", "list")
+                .put("limit", "ten");
+
+        // Call the handler
+        itemHandler.handleRequest(request)
+                .onComplete(testContext.failing(err -> {
+                    testContext.verify(() -> {
+                        assertTrue(err.getMessage().contains("Invalid limit"));
+                        testContext.completeNow();
+                    });
+                }));
+    }
+
+    @Test
+    void testHandleRequestGetMany(VertxTestContext testContext) {
+        mockService.addItem(new Item("id1", "Item 1", "Description 1", 1000L, null));
+
+        // IDs from query parameters arrive as a comma-separated string
+        JsonObject request = new JsonObject()
+                .put("action", "getMany")
+                .put("ids", "id1, missing");
+
+        // Call the handler
+        itemHandler.handleRequest(request)
+                .onComplete(testContext.succeeding(result -> {
+                    testContext.verify(() -> {
+                        JsonObject jsonResult = (JsonObject) result;
+                        assertEquals(1, jsonResult.getInteger("count"));
+                        assertEquals("id1", jsonResult.getJsonArray("items").getJsonObject(0).getString("id"));
+                        assertEquals(new JsonArray().add("missing"), jsonResult.getJsonArray("missing"));
+                        testContext.completeNow();
+                    });
+                }));
+    }
+
+    @Test
+    void testHandleRequestBulk(VertxTestContext testContext) {
+        mockService.addItem(new Item("id1", "Item 1", "Description 1", 1000L, null));
+
+        // Create a bulk request with a create and a delete of a missing item
+        JsonObject request = new JsonObject()
+                .put("action", "bulk")
+                .put("operations", new JsonArray()
+                        .add(new JsonObject().put("op", "create").put("name", "Bulk Item"))
+                        .add(new JsonObject().put("op", "delete").put("id", "missing")));
+
+        // Call the handler
+        itemHandler.handleRequest(request)
+                .onComplete(testContext.succeeding(result -> {
+                    testContext.verify(() -> {
+                        JsonObject jsonResult = (JsonObject) result;
+                        assertEquals(1, jsonResult.getInteger("succeeded"));
+                        assertEquals(1, jsonResult.getInteger("failed"));
+                        assertEquals(2, mockService.getItems().size());
+                        testContext.completeNow();
+                    });
+                }));
+    }
+
     @Test
     void testHandleRequestListItems(VertxTestContext testContext) {
         // Add test items to the service
@@ -223,14 +307,10 @@ class ItemHandlerTest {
         itemHandler.handleRequest(request)
                 .onComplete(testContext.succeeding(result -> {
                     testContext.verify(() -> {
-                        // Verify the result is a JsonObject
-                        assertTrue(result instanceof JsonObject);
-                        JsonObject jsonResult = (JsonObject) result;
-
-                        // Verify the result properties
-                        assertTrue(jsonResult.containsKey("items"));
-                        assertTrue(jsonResult.containsKey("count"));
-                        assertEquals(2, jsonResult.getInteger("count"));
+                        // Verify the result is the list of items, for the list codec to carry
+                        assertTrue(result instanceof List);
+                        assertEquals(2, ((List<?>) result).size());
+                        assertTrue(((List<?>) result).get(0) instanceof Item);
 
                         testContext.completeNow();
                     });
@@ -302,6 +382,23 @@ class ItemHandlerTest {
             }
         }
 
+        @Override
+        public Future<JsonObject> getItems(java.util.List<String> ids) {
+            JsonArray found = new JsonArray();
+            JsonArray missing = new JsonArray();
+            for (String id : ids) {
+                if (items.containsKey(id)) {
+                    found.add(items.get(id).toJson());
+                } else {
+                    missing.add(id);
+                }
+            }
+            return Future.succeededFuture(new JsonObject()
+                    .put("items", found)
+                    .put("count", found.size())
+                    .put("missing", missing));
+        }
+
         @Override
         public Future<Item> createItem(JsonObject itemData) {
             Item item = new Item();
@@ -346,6 +443,11 @@ class ItemHandlerTest {
             }
         }
 
+        @Override
+        public Future<List<Item>> getAllItems() {
+            return Future.succeededFuture(new ArrayList<>(items.values()));
+        }
+
         @Override
         public Future<JsonObject> listItems() {
             JsonObject result = new JsonObject()
@@ -1,8 +1,12 @@
 package dev.mars.vertx.service.one.model;
 
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ItemTest {
@@ -171,4 +175,54 @@ class ItemTest {
         assertTrue(toString.contains("1000"));
         assertTrue(toString.contains("2000"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testMessageCodecRoundTrip() {
+        ItemMessageCodec codec = new ItemMessageCodec();
+        Item item = new Item("1", "Item", "Description", 1000L, null);
+        Item updated = new Item("2", "Item 2", null, 1000L, 2000L);
+
+        Buffer buffer = Buffer.buffer();
+        codec.encodeToWire(buffer, item);
+        int pos = buffer.length();
+        codec.encodeToWire(buffer, updated);
+
+        Item decoded = codec.decodeFromWire(0, buffer);
+        assertEquals(item.toJson(), decoded.toJson());
+        assertEquals(updated.toJson(), codec.decodeFromWire(pos, buffer).toJson());
+        // Local delivery passes a copy, unless the address shares messages
+        assertNotSame(item, codec.transform(item));
+        assertEquals(item.toJson(), codec.transform(item).toJson());
+        assertSame(item, codec.shared().transform(item));
+    }
+
+    @Test
+    void testStreamingJsonMatchesJsonObject() {
+        Item item = new Item("1", "Item \"one\"", "Description", 1000L, null);
+        Item updated = new Item("2", "Item 2", null, 1000L, 2000L);
+
+        assertEquals(item.toJson(), new JsonObject(ItemJson.encode(item)));
+        assertEquals(updated.toJson(), new JsonObject(ItemJson.encode(updated)));
+
+        JsonObject list = new JsonObject(ItemJson.encodeList(List.of(item, updated)));
+        assertEquals(new JsonArray().add(item.toJson()).add(updated.toJson()), list.getJsonArray("items"));
+        assertEquals(2, list.getInteger("count"));
+    }
+
+    @Test
+    void testStreamingJsonRoundTrip() {
+        Item item = new Item("1", "Item", "Description", 1000L, 2000L);
+
+        assertEquals(item.toJson(), ItemJson.decode(ItemJson.encode(item)).toJson());
+        List<Item> items = ItemJson.decodeList(ItemJson.encodeList(List.of(item, item)));
+        assertEquals(2, items.size());
+        assertEquals(item.toJson(), items.get(1).toJson());
+
+        // Unknown fields are skipped and missing ones get the same defaults as fromJson
+        Item parsed = ItemJson.decode(Buffer.buffer("{\"extra\":{\"a\":[1,2]},\"id\":\"3\",\"createdAt\":5}"));
+        assertEquals("3", parsed.getId());
+        assertEquals("", parsed.getName());
+        assertEquals(5L, parsed.getCreatedAt());
+        assertNull(parsed.getUpdatedAt());
+    }
+}
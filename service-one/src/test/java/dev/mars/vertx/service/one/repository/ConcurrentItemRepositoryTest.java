@@ -0,0 +1,256 @@
+package dev.mars.vertx.service.one.repository;
+
+import dev.mars.vertx.service.one.model.Item;
+import dev.mars.vertx.service.one.model.ItemPage;
+import io.vertx.core.Future;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(VertxExtension.class)
+class ConcurrentItemRepositoryTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 1000;
+
+    private ConcurrentItemRepository repository;
+
+    @BeforeEach
+    void setUp(VertxTestContext testContext) {
+        repository = new ConcurrentItemRepository();
+
+        // Initialize the repository with sample data
+        repository.initialize()
+            .onComplete(testContext.succeedingThenComplete());
+    }
+
+    @Test
+    void testInitialize(VertxTestContext testContext) {
+        repository.count()
+            .onComplete(testContext.succeeding(count -> {
+                testContext.verify(() -> {
+                    assertEquals(5, count);
+                    testContext.completeNow();
+                });
+            }));
+    }
+
+    @Test
+    void testFindByIds(VertxTestContext testContext) {
+        repository.findByIds(List.of("item-4", "non-existent-id", "item-1"))
+            .onComplete(testContext.succeeding(items -> testContext.verify(() -> {
+                assertEquals(2, items.size());
+                assertEquals("item-4", items.get(0).getId());
+                assertEquals("item-1", items.get(1).getId());
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    void testFindByIdNotFound(VertxTestContext testContext) {
+        repository.findById("non-existent-id")
+            .onComplete(testContext.failing(err -> {
+                testContext.verify(() -> {
+                    assertTrue(err.getMessage().contains("not found"));
+                    testContext.completeNow();
+                });
+            }));
+    }
+
+    @Test
+    void testSaveNewItem(VertxTestContext testContext) {
+        Item newItem = new Item();
+        newItem.setName("New Test Item");
+        newItem.setDescription("This is a new test item");
+
+        repository.save(newItem)
+            .compose(savedItem -> {
+                assertNotNull(savedItem.getId());
+                assertTrue(savedItem.getCreatedAt() > 0);
+                assertNull(savedItem.getUpdatedAt());
+                return repository.findById(savedItem.getId());
+            })
+            .onComplete(testContext.succeeding(foundItem -> {
+                testContext.verify(() -> {
+                    assertEquals("New Test Item", foundItem.getName());
+                    assertEquals("This is a new test item", foundItem.getDescription());
+                    testContext.completeNow();
+                });
+            }));
+    }
+
+    @Test
+    void testUpdatePreservesCreatedAt(VertxTestContext testContext) {
+        repository.findById("item-2")
+            .compose(item -> {
+                long createdAt = item.getCreatedAt();
+                Item update = new Item("item-2", "Updated Item 2", "Updated", 0L, null);
+                return repository.save(update).map(updated -> {
+                    assertEquals(createdAt, updated.getCreatedAt());
+                    assertNotNull(updated.getUpdatedAt());
+                    return createdAt;
+                });
+            })
+            .compose(createdAt -> repository.findById("item-2").map(found -> {
+                assertEquals(createdAt, found.getCreatedAt());
+                return found;
+            }))
+            .onComplete(testContext.succeeding(found -> {
+                testContext.verify(() -> {
+                    assertEquals("Updated Item 2", found.getName());
+                    testContext.completeNow();
+                });
+            }));
+    }
+
+    @Test
+    void testUpdateNonExistentItem(VertxTestContext testContext) {
+        Item nonExistentItem = new Item();
+        nonExistentItem.setId("non-existent-id");
+        nonExistentItem.setName("Non-existent Item");
+
+        repository.save(nonExistentItem)
+            .onComplete(testContext.failing(err -> {
+                testContext.verify(() -> {
+                    assertTrue(err.getMessage().contains("not found"));
+                    testContext.completeNow();
+                });
+            }));
+    }
+
+    @Test
+    void testReturnedItemsAreDetached(VertxTestContext testContext) {
+        repository.findById("item-1")
+            .compose(item -> {
+                // Mutating a returned item must not change the stored state
+                item.setName("Mutated");
+                return repository.findById("item-1");
+            })
+            .onComplete(testContext.succeeding(found -> {
+                testContext.verify(() -> {
+                    assertEquals("Sample Item 1", found.getName());
+                    testContext.completeNow();
+                });
+            }));
+    }
+
+    @Test
+    void testDeleteById(VertxTestContext testContext) {
+        repository.deleteById("item-3")
+            .compose(deleted -> {
+                assertTrue(deleted);
+                return repository.deleteById("item-3");
+            })
+            .compose(deletedAgain -> {
+                assertFalse(deletedAgain);
+                return repository.count();
+            })
+            .onComplete(testContext.succeeding(count -> {
+                testContext.verify(() -> {
+                    assertEquals(4, count);
+                    testContext.completeNow();
+                });
+            }));
+    }
+
+    @Test
+    void testConcurrentCreates() throws Exception {
+        runConcurrently(thread -> {
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                Item item = new Item();
+                item.setName("Item " + thread + "-" + i);
+                assertTrue(repository.save(item).succeeded());
+            }
+        });
+
+        assertEquals(5 + THREADS * OPERATIONS_PER_THREAD, repository.count().result());
+        assertEquals(5 + THREADS * OPERATIONS_PER_THREAD, repository.findAll().result().size());
+    }
+
+    @Test
+    void testConcurrentUpdatesAndDeletes() throws Exception {
+        long createdAt = repository.findById("item-1").result().getCreatedAt();
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                Future<Item> saved = repository.save(new Item("item-1", "Name " + thread + "-" + i, "", 0L, null));
+                assertTrue(saved.succeeded());
+                assertEquals(createdAt, saved.result().getCreatedAt());
+
+                // Writers to other items proceed independently while item-1 is hot
+                repository.deleteById("item-" + (2 + thread % 4));
+            }
+        });
+
+        Item item = repository.findById("item-1").result();
+        assertEquals(createdAt, item.getCreatedAt());
+        assertNotNull(item.getUpdatedAt());
+        assertEquals(1, repository.count().result());
+    }
+
+    /**
+     * Runs the task on several threads at once and waits for all of them to finish.
+     *
+     * @param task the task to run, receiving the thread index
+     * @throws Exception if a task fails or the threads do not finish in time
+     */
+    private void runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<java.util.concurrent.Future<?>> results = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            results.add(executor.submit(() -> {
+                start.await();
+                task.run(thread);
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (java.util.concurrent.Future<?> result : results) {
+            result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        void run(int thread) throws Exception;
+    }
+
+    @Test
+    void testFindPageWalksAllItemsInKeyOrder(VertxTestContext testContext) {
+        for (int i = 0; i < 20; i++) {
+            repository.save(new Item(null, "Paged " + i, "Description", 0, null));
+        }
+
+        List<String> seen = new ArrayList<>();
+        String afterKey = null;
+        do {
+            ItemPage page = repository.findPage(afterKey, 7).result();
+            page.getItems().forEach(item -> seen.add(item.getId()));
+            afterKey = page.getNextKey();
+        } while (afterKey != null);
+
+        List<String> sorted = new ArrayList<>(seen);
+        sorted.sort(null);
+        testContext.verify(() -> {
+            assertEquals(25, seen.size());
+            assertEquals(sorted, seen);
+            testContext.completeNow();
+        });
+    }
+}
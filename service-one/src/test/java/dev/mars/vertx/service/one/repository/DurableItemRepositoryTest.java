@@ -0,0 +1,224 @@
+package dev.mars.vertx.service.one.repository;
+
+import dev.mars.vertx.service.one.model.Item;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(VertxExtension.class)
+class DurableItemRepositoryTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    private SimpleMeterRegistry registry;
+    private DurableItemRepository repository;
+
+    @AfterEach
+    void tearDown(VertxTestContext testContext) {
+        if (repository == null) {
+            testContext.completeNow();
+            return;
+        }
+        repository.close().onComplete(testContext.succeedingThenComplete());
+    }
+
+    private DurableItemRepository open(Vertx vertx) {
+        registry = new SimpleMeterRegistry();
+        // A long snapshot interval keeps snapshots under the test's control
+        return new DurableItemRepository(vertx, directory, SEGMENT_SIZE, 2, 3_600_000, registry);
+    }
+
+    /**
+     * Closes the current repository and recovers a new one from the same directory.
+     */
+    private Future<DurableItemRepository> reopen(Vertx vertx) {
+        return repository.close().compose(v -> {
+            repository = open(vertx);
+            return repository.initialize().map(repository);
+        });
+    }
+
+    @Test
+    void testInitializeSeedsAnEmptyDirectory(Vertx vertx, VertxTestContext testContext) {
+        repository = open(vertx);
+
+        repository.initialize()
+            .compose(v -> repository.count())
+            .onComplete(testContext.succeeding(count -> testContext.verify(() -> {
+                assertEquals(5, count);
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    void testWritesSurviveRestart(Vertx vertx, VertxTestContext testContext) {
+        repository = open(vertx);
+        Item newItem = new Item(null, "Durable Item", "Survives restarts", 0, null);
+
+        repository.initialize()
+            .compose(v -> repository.save(newItem))
+            .compose(saved -> repository.save(new Item("item-1", "Renamed", "Updated description", 0, null)))
+            .compose(updated -> repository.deleteById("item-2"))
+            .compose(deleted -> reopen(vertx))
+            .compose(recovered -> Future.all(
+                recovered.count(),
+                recovered.findById(newItem.getId()),
+                recovered.findById("item-1"),
+                recovered.findById("item-2").otherwiseEmpty()))
+            .onComplete(testContext.succeeding(results -> testContext.verify(() -> {
+                assertEquals(5, results.<Integer>resultAt(0));
+
+                Item recoveredNew = results.resultAt(1);
+                assertEquals("Durable Item", recoveredNew.getName());
+                assertEquals(newItem.getCreatedAt(), recoveredNew.getCreatedAt());
+
+                Item recoveredUpdate = results.resultAt(2);
+                assertEquals("Renamed", recoveredUpdate.getName());
+                assertNotNull(recoveredUpdate.getUpdatedAt());
+
+                assertNull(results.resultAt(3));
+                assertEquals(1.0, registry.get("service.one.repository.recovery").timer().count());
+                assertEquals(8.0, registry.get("service.one.repository.recovery.records").counter().count());
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    void testRecoveryFromSnapshotAndLogTail(Vertx vertx, VertxTestContext testContext) {
+        repository = open(vertx);
+
+        repository.initialize()
+            .compose(v -> repository.save(new Item(null, "Before snapshot", "In the snapshot", 0, null)))
+            .compose(saved -> repository.snapshot())
+            .compose(written -> {
+                testContext.verify(() -> assertEquals(6L, written));
+                return repository.save(new Item(null, "After snapshot", "In the log tail", 0, null));
+            })
+            .compose(saved -> repository.deleteById("item-5"))
+            .compose(deleted -> reopen(vertx))
+            .compose(recovered -> recovered.findAll())
+            .onComplete(testContext.succeeding(items -> testContext.verify(() -> {
+                List<String> names = items.stream().map(Item::getName).toList();
+                assertEquals(6, items.size());
+                assertTrue(names.contains("Before snapshot"));
+                assertTrue(names.contains("After snapshot"));
+                assertFalse(names.contains("Sample Item 5"));
+
+                // Only the tail written after the snapshot is replayed
+                assertEquals(2.0, registry.get("service.one.repository.recovery.records").counter().count());
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    void testSnapshotDeletesCoveredSegments(Vertx vertx, VertxTestContext testContext) {
+        repository = open(vertx);
+
+        // Enough writes to roll over several small segments
+        repository.initialize()
+            .compose(v -> {
+                List<Future<Item>> saves = new ArrayList<>();
+                for (int i = 0; i < 200; i++) {
+                    saves.add(repository.save(new Item(null, "Item " + i, "Rolls the log over", 0, null)));
+                }
+                return Future.all(saves);
+            })
+            .compose(v -> {
+                testContext.verify(() -> assertTrue(countFiles("wal-") > 1));
+                return repository.snapshot();
+            })
+            .compose(written -> repository.snapshot())
+            .onComplete(testContext.succeeding(secondSnapshot -> testContext.verify(() -> {
+                // Nothing changed since the first snapshot
+                assertEquals(-1L, secondSnapshot);
+                assertEquals(1, countFiles("wal-"));
+                assertEquals(1, countFiles("snapshot-"));
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    void testTornRecordIsIgnored(Vertx vertx, VertxTestContext testContext) {
+        repository = open(vertx);
+
+        repository.initialize()
+            .compose(v -> repository.save(new Item(null, "Last good write", "Before the tear", 0, null)))
+            .compose(saved -> repository.close())
+            .compose(v -> {
+                try {
+                    tearLastRecord();
+                } catch (IOException e) {
+                    return Future.failedFuture(e);
+                }
+                repository = open(vertx);
+                return repository.initialize();
+            })
+            .compose(v -> repository.findAll())
+            .onComplete(testContext.succeeding(items -> testContext.verify(() -> {
+                // The torn record is dropped and everything before it is kept
+                assertEquals(5, items.size());
+                assertFalse(items.stream().anyMatch(item -> "Last good write".equals(item.getName())));
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    void testUpdateOfMissingItemFails(Vertx vertx, VertxTestContext testContext) {
+        repository = open(vertx);
+
+        repository.initialize()
+            .compose(v -> repository.save(new Item("missing", "Name", "Description", 0, null)))
+            .onComplete(testContext.failing(err -> testContext.verify(() -> {
+                assertTrue(err.getMessage().contains("not found"));
+                assertEquals(5.0, registry.get("service.one.repository.wal.appends").counter().count());
+                testContext.completeNow();
+            })));
+    }
+
+    private long countFiles(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(prefix)).count();
+        }
+    }
+
+    /**
+     * Flips a byte in the payload of the last record of the newest segment.
+     */
+    private void tearLastRecord() throws IOException {
+        List<Long> segments = WriteAheadLog.segments(directory);
+        Path newest = directory.resolve(String.format("wal-%020d.log", segments.get(segments.size() - 1)));
+        List<Integer> offsets = new ArrayList<>();
+
+        try (FileChannel channel = FileChannel.open(newest, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int length;
+            while ((length = buffer.getInt(buffer.position())) > 0) {
+                offsets.add(buffer.position());
+                buffer.position(buffer.position() + Integer.BYTES * 2 + length);
+            }
+            int lastPayload = offsets.get(offsets.size() - 1) + Integer.BYTES * 2 + 1;
+            buffer.put(lastPayload, (byte) (buffer.get(lastPayload) ^ 0xff));
+            buffer.force();
+        }
+    }
+}
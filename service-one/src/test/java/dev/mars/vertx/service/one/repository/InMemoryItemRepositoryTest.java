@@ -210,4 +210,28 @@ class InMemoryItemRepositoryTest {
                 });
             }));
     }
+
+    @Test
+    void testFindPage(VertxTestContext testContext) {
+        repository.deleteById("item-2")
+            .compose(deleted -> repository.findPage(null, 2))
+            .compose(first -> {
+                testContext.verify(() -> {
+                    assertEquals(2, first.getItems().size());
+                    assertEquals("item-1", first.getItems().get(0).getId());
+                    assertEquals("item-3", first.getItems().get(1).getId());
+                    assertEquals("item-3", first.getNextKey());
+                });
+                return repository.findPage(first.getNextKey(), 2);
+            })
+            .onComplete(testContext.succeeding(last -> {
+                testContext.verify(() -> {
+                    assertEquals(2, last.getItems().size());
+                    assertEquals("item-4", last.getItems().get(0).getId());
+                    assertEquals("item-5", last.getItems().get(1).getId());
+                    assertFalse(last.hasMore());
+                    testContext.completeNow();
+                });
+            }));
+    }
 }
@@ -0,0 +1,71 @@
+package dev.mars.vertx.service.one.repository;
+
+import dev.mars.vertx.service.one.model.Item;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Memory footprint comparison between InMemoryItemRepository and OffHeapItemRepository.
+ * Not a unit test: run it manually with enough heap for the chosen size, for example
+ *
+ * <pre>
+ * java -Xmx4g -XX:MaxDirectMemorySize=4g -cp service-one/target/classes:service-one/target/test-classes:&lt;deps&gt; \
+ *     dev.mars.vertx.service.one.repository.ItemRepositoryFootprint inmemory 1000000
+ * </pre>
+ *
+ * Each run fills one repository with generated items and prints the retained heap, the
+ * off-heap bytes in use and the time spent in a full GC with the repository live.
+ */
+public class ItemRepositoryFootprint {
+
+    public static void main(String[] args) {
+        String type = args.length > 0 ? args[0] : "offheap";
+        int items = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        long heapBefore = usedHeapAfterGc();
+        long directBefore = usedDirectMemory();
+
+        ItemRepositoryInterface repository = "inmemory".equals(type)
+            ? new InMemoryItemRepository()
+            : new OffHeapItemRepository(64 * 1024 * 1024, items);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < items; i++) {
+            repository.save(new Item(null, "Item " + i, "Generated item number " + i + " for the footprint test", 0, null));
+        }
+        long loadMs = (System.nanoTime() - start) / 1_000_000;
+
+        long gcStart = totalGcMillis();
+        long heapAfter = usedHeapAfterGc();
+        long gcMs = totalGcMillis() - gcStart;
+        long directAfter = usedDirectMemory();
+
+        long heap = heapAfter - heapBefore;
+        long direct = directAfter - directBefore;
+        System.out.printf("%s, %,d items: heap %,d MB (%d B/item), off-heap %,d MB, load %,d ms, full GC x3 %,d ms%n",
+            type, repository.count().result(), heap >> 20, heap / items, direct >> 20, loadMs, gcMs);
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long usedDirectMemory() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+            .filter(pool -> "direct".equals(pool.getName()))
+            .mapToLong(BufferPoolMXBean::getMemoryUsed)
+            .sum();
+    }
+
+    private static long totalGcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+            .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+            .sum();
+    }
+}
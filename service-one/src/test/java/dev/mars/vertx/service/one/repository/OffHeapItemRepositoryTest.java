@@ -0,0 +1,168 @@
+package dev.mars.vertx.service.one.repository;
+
+import dev.mars.vertx.service.one.model.Item;
+import dev.mars.vertx.service.one.model.ItemPage;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(VertxExtension.class)
+class OffHeapItemRepositoryTest {
+
+    private OffHeapItemRepository repository;
+
+    @BeforeEach
+    void setUp(VertxTestContext testContext) {
+        repository = new OffHeapItemRepository(4096, 4);
+
+        // Initialize the repository with sample data
+        repository.initialize()
+            .onComplete(testContext.succeedingThenComplete());
+    }
+
+    @Test
+    void testInitialize(VertxTestContext testContext) {
+        repository.findById("item-3")
+            .onComplete(testContext.succeeding(item -> testContext.verify(() -> {
+                assertEquals("Sample Item 3", item.getName());
+                assertNull(item.getUpdatedAt());
+                assertEquals(5, repository.count().result());
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    void testSaveNewItem(VertxTestContext testContext) {
+        Item newItem = new Item(null, "New Item", "Stored off-heap", 0, null);
+
+        repository.save(newItem)
+            .compose(saved -> repository.findById(saved.getId()))
+            .onComplete(testContext.succeeding(found -> testContext.verify(() -> {
+                assertEquals(newItem.getId(), found.getId());
+                assertEquals("New Item", found.getName());
+                assertEquals("Stored off-heap", found.getDescription());
+                assertTrue(found.getCreatedAt() > 0);
+                assertNotSame(newItem, found);
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    void testUpdatePreservesCreatedAtAndGrowsRecord(VertxTestContext testContext) {
+        long createdAt = repository.findById("item-1").result().getCreatedAt();
+        String longDescription = "x".repeat(500);
+
+        repository.save(new Item("item-1", "Updated", longDescription, 0, null))
+            .compose(updated -> repository.findById("item-1"))
+            .onComplete(testContext.succeeding(found -> testContext.verify(() -> {
+                assertEquals("Updated", found.getName());
+                assertEquals(longDescription, found.getDescription());
+                assertEquals(createdAt, found.getCreatedAt());
+                assertNotNull(found.getUpdatedAt());
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    void testUpdateNonExistentItem(VertxTestContext testContext) {
+        repository.save(new Item("missing", "Name", "Description", 0, null))
+            .onComplete(testContext.failing(err -> testContext.verify(() -> {
+                assertTrue(err.getMessage().contains("not found"));
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    void testItemLargerThanSlabIsRejected(VertxTestContext testContext) {
+        repository.save(new Item(null, "Huge", "x".repeat(8192), 0, null))
+            .onComplete(testContext.failing(err -> testContext.verify(() -> {
+                assertTrue(err.getMessage().contains("does not fit"));
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    void testDeleteById(VertxTestContext testContext) {
+        repository.deleteById("item-2")
+            .onComplete(testContext.succeeding(deleted -> testContext.verify(() -> {
+                assertTrue(deleted);
+                assertTrue(repository.findById("item-2").failed());
+                assertFalse(repository.deleteById("item-2").result());
+                assertEquals(4, repository.count().result());
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    void testRandomOperationsMatchAHashMap(VertxTestContext testContext) {
+        // Small slabs and index force resizing, record moves and slab compaction
+        Random random = new Random(42);
+        Map<String, String> expected = new HashMap<>();
+        repository.findAll().result().forEach(item -> expected.put(item.getId(), item.getDescription()));
+        List<String> ids = new ArrayList<>(expected.keySet());
+
+        for (int i = 0; i < 20_000; i++) {
+            int operation = random.nextInt(10);
+            String description = "d".repeat(random.nextInt(64));
+            if (operation < 4 || ids.isEmpty()) {
+                Item created = repository.save(new Item(null, "Item " + i, description, 0, null)).result();
+                expected.put(created.getId(), description);
+                ids.add(created.getId());
+            } else if (operation < 7) {
+                String id = ids.get(random.nextInt(ids.size()));
+                repository.save(new Item(id, "Item " + i, description, 0, null)).result();
+                expected.put(id, description);
+            } else {
+                String id = ids.remove(random.nextInt(ids.size()));
+                assertTrue(repository.deleteById(id).result());
+                expected.remove(id);
+            }
+        }
+
+        testContext.verify(() -> {
+            assertEquals(expected.size(), repository.count().result());
+            for (Map.Entry<String, String> entry : expected.entrySet()) {
+                assertEquals(entry.getValue(), repository.findById(entry.getKey()).result().getDescription());
+            }
+            assertEquals(expected.size(), repository.findAll().result().size());
+            testContext.completeNow();
+        });
+    }
+
+    @Test
+    void testFindPageVisitsEveryItemOnce(VertxTestContext testContext) {
+        for (int i = 0; i < 50; i++) {
+            repository.save(new Item(null, "Paged " + i, "Description", 0, null));
+        }
+
+        Set<String> seen = new HashSet<>();
+        String afterKey = null;
+        int pages = 0;
+        do {
+            ItemPage page = repository.findPage(afterKey, 8).result();
+            page.getItems().forEach(item -> assertTrue(seen.add(item.getId())));
+            afterKey = page.getNextKey();
+            pages++;
+        } while (afterKey != null);
+
+        int pageCount = pages;
+        testContext.verify(() -> {
+            assertEquals(55, seen.size());
+            assertEquals(7, pageCount);
+            assertTrue(repository.findPage("not-a-slot", 8).failed());
+            testContext.completeNow();
+        });
+    }
+}
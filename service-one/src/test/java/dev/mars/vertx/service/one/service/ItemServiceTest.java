@@ -3,6 +3,7 @@ package dev.mars.vertx.service.one.service;
 import dev.mars.vertx.service.one.model.Item;
 import dev.mars.vertx.service.one.repository.ItemRepositoryInterface;
 import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
@@ -246,6 +247,129 @@ class ItemServiceTest {
             }));
     }
 
+    @Test
+    void testListItemsPaginated(VertxTestContext testContext) {
+        for (int i = 1; i <= 5; i++) {
+            mockRepository.addItem(new Item("id" + i, "Item " + i, "Description " + i, 1000L, null));
+        }
+
+        itemService.listItems(2, null)
+            .compose(first -> {
+                testContext.verify(() -> {
+                    assertEquals(2, first.getInteger("count"));
+                    assertEquals("id1", first.getJsonArray("items").getJsonObject(0).getString("id"));
+                    assertNotNull(first.getString("nextCursor"));
+                });
+                return itemService.listItems(2, first.getString("nextCursor"));
+            })
+            .compose(second -> {
+                testContext.verify(() -> assertEquals("id3", second.getJsonArray("items").getJsonObject(0).getString("id")));
+                return itemService.listItems(2, second.getString("nextCursor"));
+            })
+            .onComplete(testContext.succeeding(last -> {
+                testContext.verify(() -> {
+                    assertEquals(1, last.getInteger("count"));
+                    assertEquals("id5", last.getJsonArray("items").getJsonObject(0).getString("id"));
+                    assertFalse(last.containsKey("nextCursor"));
+                    testContext.completeNow();
+                });
+            }));
+    }
+
+    @Test
+    void testListItemsRejectsInvalidPaging(VertxTestContext testContext) {
+        itemService.listItems(0, null)
+            .recover(err -> {
+                testContext.verify(() -> assertTrue(err.getMessage().contains("Limit must be between")));
+                return itemService.listItems(10, "not base64!");
+            })
+            .onComplete(testContext.failing(err -> {
+                testContext.verify(() -> {
+                    assertTrue(err.getMessage().contains("Invalid cursor"));
+                    testContext.completeNow();
+                });
+            }));
+    }
+
+    @Test
+    void testGetItemsSeparatesFoundAndMissing(VertxTestContext testContext) {
+        mockRepository.addItem(new Item("id1", "Item 1", "Description 1", 1000L, null));
+        mockRepository.addItem(new Item("id2", "Item 2", "Description 2", 1000L, null));
+
+        itemService.getItems(List.of("id2", "missing", "id1", "id2"))
+            .onComplete(testContext.succeeding(result -> {
+                testContext.verify(() -> {
+                    assertEquals(2, result.getInteger("count"));
+                    assertEquals("id2", result.getJsonArray("items").getJsonObject(0).getString("id"));
+                    assertEquals("id1", result.getJsonArray("items").getJsonObject(1).getString("id"));
+                    assertEquals(new JsonArray().add("missing"), result.getJsonArray("missing"));
+                    testContext.completeNow();
+                });
+            }));
+    }
+
+    @Test
+    void testApplyBulk(VertxTestContext testContext) {
+        mockRepository.addItem(new Item("id1", "Item 1", "Description 1", 1000L, null));
+        mockRepository.addItem(new Item("id2", "Item 2", "Description 2", 1000L, null));
+
+        JsonArray operations = new JsonArray()
+            .add(new JsonObject().put("op", "create").put("name", "Bulk Item"))
+            .add(new JsonObject().put("op", "update").put("id", "id1").put("name", "Renamed"))
+            .add(new JsonObject().put("op", "delete").put("id", "id2"))
+            .add(new JsonObject().put("op", "delete").put("id", "missing"))
+            .add(new JsonObject().put("op", "explode"))
+            .add("not an object");
+
+        itemService.applyBulk(operations)
+            .onComplete(testContext.succeeding(result -> {
+                testContext.verify(() -> {
+                    assertEquals(6, result.getInteger("count"));
+                    assertEquals(3, result.getInteger("succeeded"));
+                    assertEquals(3, result.getInteger("failed"));
+
+                    JsonArray results = result.getJsonArray("results");
+                    assertEquals("ok", results.getJsonObject(0).getString("status"));
+                    assertEquals("Bulk Item", results.getJsonObject(0).getJsonObject("result").getString("name"));
+                    assertEquals("Renamed", mockRepository.getItems().get("id1").getName());
+                    assertFalse(mockRepository.getItems().containsKey("id2"));
+                    assertTrue(results.getJsonObject(3).getString("error").contains("not found"));
+                    assertTrue(results.getJsonObject(4).getString("error").contains("Unknown operation"));
+                    assertEquals(5, results.getJsonObject(5).getInteger("index"));
+                    assertEquals("error", results.getJsonObject(5).getString("status"));
+
+                    testContext.completeNow();
+                });
+            }));
+    }
+
+    @Test
+    void testApplyBulkWithMistypedFields(VertxTestContext testContext) {
+        JsonArray operations = new JsonArray()
+            .add(new JsonObject().put("op", "update").put("id", 5))
+            .add(new JsonObject().put("op", "create").put("name", "ok"))
+            .add(new JsonObject().put("op", "create").put("name", 7))
+            .add(new JsonObject().put("op", 3).put("id", "id1"));
+
+        itemService.applyBulk(operations)
+            .onComplete(testContext.succeeding(result -> {
+                testContext.verify(() -> {
+                    assertEquals(4, result.getInteger("count"));
+                    assertEquals(1, result.getInteger("succeeded"));
+                    assertEquals(3, result.getInteger("failed"));
+
+                    JsonArray results = result.getJsonArray("results");
+                    assertTrue(results.getJsonObject(0).getString("error").contains("id must be a string"));
+                    assertEquals("ok", results.getJsonObject(1).getString("status"));
+                    assertEquals("ok", results.getJsonObject(1).getJsonObject("result").getString("name"));
+                    assertTrue(results.getJsonObject(2).getString("error").contains("name must be a string"));
+                    assertTrue(results.getJsonObject(3).getString("error").contains("op must be a string"));
+
+                    testContext.completeNow();
+                });
+            }));
+    }
+
     /**
      * Mock implementation of ItemRepositoryInterface for testing.
      */
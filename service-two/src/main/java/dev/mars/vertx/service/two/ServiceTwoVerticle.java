@@ -5,12 +5,18 @@ import dev.mars.vertx.common.eventbus.ServiceDiscoveryManager;
 import dev.mars.vertx.service.two.handler.WeatherHandler;
 import dev.mars.vertx.service.two.handler.WeatherHandlerInterface;
 import dev.mars.vertx.service.two.repository.InMemoryWeatherRepository;
+import dev.mars.vertx.service.two.repository.WeatherHistory;
 import dev.mars.vertx.service.two.repository.WeatherRepository;
+import dev.mars.vertx.service.two.repository.WeatherSeries;
+import dev.mars.vertx.service.two.service.ForecastCache;
 import dev.mars.vertx.service.two.service.WeatherService;
+import dev.mars.vertx.service.two.model.Weather;
+import dev.mars.vertx.service.two.model.WeatherMessageCodec;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,13 +32,14 @@ public class ServiceTwoVerticle extends AbstractVerticle {
 
     private ServiceDiscoveryManager serviceDiscoveryManager;
     private EventBusService eventBusService;
-    private MessageConsumer<JsonObject> consumer;
+    private MessageConsumer<Object> consumer;
     private String defaultServiceAddress = "service.two";
     private String defaultServiceName = "Service Two";
 
     // Components
     private WeatherRepository weatherRepository;
     private WeatherService weatherService;
+    private ForecastCache forecastCache;
     private WeatherHandlerInterface weatherHandler;
 
     @Override
@@ -61,16 +68,29 @@ public class ServiceTwoVerticle extends AbstractVerticle {
         logger.info("Initializing components");
 
         // Create repository
-        weatherRepository = new InMemoryWeatherRepository();
+        JsonObject historyConfig = config().getJsonObject("history", new JsonObject());
+        weatherRepository = new InMemoryWeatherRepository(new WeatherHistory(
+                historyConfig.getInteger("capacity", WeatherHistory.DEFAULT_CAPACITY),
+                historyConfig.getInteger("segment-size", WeatherSeries.DEFAULT_SEGMENT_SIZE)));
+
+        // Create the forecast cache, precomputed when the service is initialized
+        JsonObject forecastConfig = config().getJsonObject("forecast", new JsonObject());
+        forecastCache = new ForecastCache(vertx, weatherRepository,
+                forecastConfig.getInteger("max-days", ForecastCache.DEFAULT_MAX_DAYS),
+                forecastConfig.getLong("refresh-interval-ms", ForecastCache.DEFAULT_REFRESH_INTERVAL_MS));
 
         // Create service
-        weatherService = new WeatherService(weatherRepository);
+        weatherService = new WeatherService(weatherRepository, forecastCache);
 
         // Create handler
         weatherHandler = new WeatherHandler(weatherService);
 
         // Initialize event bus service
         eventBusService = new EventBusService(vertx);
+        eventBusService.registerCodec(Weather.class, new WeatherMessageCodec());
+        if (config().getJsonObject("service", new JsonObject()).getBoolean("share-messages", false)) {
+            eventBusService.shareMessages(config().getString("service.address", defaultServiceAddress));
+        }
 
         // Initialize service discovery manager
         serviceDiscoveryManager = new ServiceDiscoveryManager(vertx);
@@ -99,11 +119,63 @@ public class ServiceTwoVerticle extends AbstractVerticle {
                                 .put("service", serviceName)
                 )
                 .compose(record -> {
-                    consumer = eventBusService.consumer(serviceAddress, weatherHandler::handleRequest);
+                    consumer = eventBusService.requestConsumer(serviceAddress, this::handleRequest, weatherHandler::handleEncodedRequest);
                     return Future.succeededFuture();
                 });
     }
 
+    /**
+     * Handles a request and publishes a mutation event when it changed weather records, so that
+     * callers caching responses (such as the API gateway) can drop the affected ones.
+     *
+     * @param request the request
+     * @return a Future with the response
+     */
+    private Future<Object> handleRequest(JsonObject request) {
+        return weatherHandler.handleRequest(request)
+                .onSuccess(result -> publishMutation(request, result));
+    }
+
+    /**
+     * Publishes the ID and city of the weather record a successful create, update or delete
+     * changed. Creating a record for a new city also changes the list of cities.
+     *
+     * @param request the request
+     * @param result the response to the request
+     */
+    private void publishMutation(JsonObject request, Object result) {
+        String method = request.getString("method");
+        if (!"POST".equals(method) && !"PUT".equals(method) && !"DELETE".equals(method)) {
+            return;
+        }
+
+        JsonArray ids = new JsonArray();
+        if (result instanceof Weather) {
+            ids.add(((Weather) result).getId());
+            ids.add(((Weather) result).getCity());
+        } else if (result instanceof JsonObject) {
+            JsonObject record = (JsonObject) result;
+            if (record.getValue("id") instanceof String) {
+                ids.add(record.getString("id"));
+            }
+            if (record.getValue("city") instanceof String) {
+                ids.add(record.getString("city"));
+            }
+        }
+
+        eventBusService.publish(getEventsAddress(), new JsonObject().put("action", method.toLowerCase()).put("ids", ids));
+    }
+
+    /**
+     * Gets the event bus address mutation events are published to.
+     *
+     * @return the events address
+     */
+    private String getEventsAddress() {
+        String serviceAddress = config().getString("service.address", defaultServiceAddress);
+        return config().getString("service.events-address", serviceAddress + ".events");
+    }
+
     @Override
     public void stop(Promise<Void> stopPromise) {
         String serviceName = config().getString("service.name", defaultServiceName);
@@ -112,6 +184,10 @@ public class ServiceTwoVerticle extends AbstractVerticle {
 
         logger.info("Stopping Service Two Verticle");
 
+        if (forecastCache != null) {
+            forecastCache.close();
+        }
+
         if (serviceDiscoveryManager != null) {
             serviceDiscoveryManager.unregisterService(serviceName)
                     .compose(v -> {
@@ -1,15 +1,21 @@
 package dev.mars.vertx.service.two.handler;
 
 import dev.mars.vertx.service.two.model.Weather;
+import dev.mars.vertx.service.two.model.WeatherJson;
 import dev.mars.vertx.service.two.service.WeatherService;
 import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 /**
  * Handler for weather-related requests from the event bus.
  * Implements the WeatherHandlerInterface for weather operations.
+ * Weather records and lists of them are replied as they are, so that the registered codecs carry
+ * them.
  */
 public class WeatherHandler implements WeatherHandlerInterface {
     private static final Logger logger = LoggerFactory.getLogger(WeatherHandler.class);
@@ -45,6 +51,10 @@ public class WeatherHandler implements WeatherHandlerInterface {
                         return getForecast(request).map(forecast -> (Object) forecast);
                     case "cities":
                         return listCities().map(cities -> (Object) cities);
+                    case "history":
+                        return getHistory(request).map(history -> (Object) history);
+                    case "rollup":
+                        return getRollup(request).map(rollup -> (Object) rollup);
                     case "stats":
                         return getStats().map(stats -> (Object) stats);
                     case "list":
@@ -91,27 +101,63 @@ public class WeatherHandler implements WeatherHandlerInterface {
         }
     }
 
+    /**
+     * Handles the requests whose response can be streamed straight to bytes: full listings, the
+     * list of cities, forecasts, and lookups by city or ID. The response is the same JSON as from
+     * {@link #handleRequest}, without building JsonObjects for the weather records; a cached
+     * forecast or list of cities is sent as the encoded response it is cached as.
+     *
+     * @param request the request
+     * @return a Future with the encoded response, or null if the request is not handled here
+     */
+    @Override
+    public Future<Buffer> handleEncodedRequest(JsonObject request) {
+        String action = request.getString("action");
+        if ("list".equals(action)) {
+            return weatherService.getAllWeather().map(WeatherJson::encodeList);
+        }
+        if ("cities".equals(action)) {
+            return weatherService.getEncodedCities();
+        }
+        if ("forecast".equals(action) && request.getValue("city") instanceof String) {
+            Integer days = forecastDays(request);
+            return days == null
+                ? Future.failedFuture("Forecast days must be a number: " + request.getValue("days"))
+                : weatherService.getEncodedForecast(request.getString("city"), days);
+        }
+        if (action != null || request.containsKey("method")) {
+            return null;
+        }
+        if (request.getValue("city") instanceof String) {
+            return weatherService.getWeatherForCity(request.getString("city")).map(WeatherJson::encode);
+        }
+        if (request.getValue("id") instanceof String) {
+            return weatherService.getWeather(request.getString("id")).map(WeatherJson::encode);
+        }
+        return null;
+    }
+
     /**
      * Gets weather data for a specific city.
      *
      * @param city the city name
-     * @return a Future with the weather data as a JsonObject
+     * @return a Future with the weather data
      */
     @Override
-    public Future<JsonObject> getWeatherForCity(String city) {
+    public Future<Weather> getWeatherForCity(String city) {
         logger.debug("Getting weather for city: {}", city);
-        return weatherService.getWeatherForCity(city).map(Weather::toJson);
+        return weatherService.getWeatherForCity(city);
     }
 
     /**
      * Gets weather data for a random city.
      *
-     * @return a Future with the weather data as a JsonObject
+     * @return a Future with the weather data
      */
     @Override
-    public Future<JsonObject> getRandomWeather() {
+    public Future<Weather> getRandomWeather() {
         logger.debug("Getting weather for a random city");
-        return weatherService.getRandomWeather().map(Weather::toJson);
+        return weatherService.getRandomWeather();
     }
 
     /**
@@ -129,10 +175,112 @@ public class WeatherHandler implements WeatherHandlerInterface {
             return Future.failedFuture("City is required for forecast");
         }
 
-        int days = request.getInteger("days", 5);
+        Integer days = forecastDays(request);
+        if (days == null) {
+            return Future.failedFuture("Forecast days must be a number: " + request.getValue("days"));
+        }
         return weatherService.getForecast(city, days);
     }
 
+    /**
+     * Gets the number of forecast days of a request, 5 by default. Requests from the gateway carry
+     * it as the query parameter string.
+     *
+     * @param request the request
+     * @return the number of days, or null if it is not a number
+     */
+    private static Integer forecastDays(JsonObject request) {
+        Object days = request.getValue("days");
+        if (days == null) {
+            return 5;
+        }
+        if (days instanceof Number) {
+            return ((Number) days).intValue();
+        }
+        try {
+            return Integer.parseInt(days.toString().trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets a number parameter of a request. Requests from the gateway carry query parameters as
+     * strings.
+     *
+     * @param request the request
+     * @param name the parameter name
+     * @param defaultValue the value if the parameter is absent
+     * @return the value, or null if it is not a number
+     */
+    private static Long longParam(JsonObject request, String name, long defaultValue) {
+        Object value = request.getValue(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        try {
+            return Long.parseLong(value.toString().trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets a page of the recorded observations of a city in a time range.
+     * The range defaults to all recorded observations, and the page to the largest allowed.
+     *
+     * @param request the request containing the city, and optionally from, to and limit
+     * @return a Future with the observations as a JsonObject
+     */
+    @Override
+    public Future<JsonObject> getHistory(JsonObject request) {
+        logger.debug("Getting history: {}", request);
+
+        String city = request.getString("city");
+        if (city == null) {
+            return Future.failedFuture("City is required for history");
+        }
+
+        Long from = longParam(request, "from", 0L);
+        Long to = longParam(request, "to", Long.MAX_VALUE);
+        Long limit = longParam(request, "limit", WeatherService.MAX_HISTORY_SAMPLES);
+        if (from == null || to == null || limit == null) {
+            return Future.failedFuture("History from, to and limit must be numbers");
+        }
+        if (limit < 1) {
+            return Future.failedFuture("History limit must be positive: " + limit);
+        }
+        return weatherService.getHistory(city, from, to, (int) Math.min(limit, WeatherService.MAX_HISTORY_SAMPLES));
+    }
+
+    /**
+     * Gets the recorded observations of a city in a time range, downsampled into buckets.
+     * The range defaults to all recorded observations, and buckets to an hour.
+     *
+     * @param request the request containing the city, and optionally from, to and bucketMillis
+     * @return a Future with the buckets as a JsonObject
+     */
+    @Override
+    public Future<JsonObject> getRollup(JsonObject request) {
+        logger.debug("Getting rollup: {}", request);
+
+        String city = request.getString("city");
+        if (city == null) {
+            return Future.failedFuture("City is required for rollup");
+        }
+
+        Long from = longParam(request, "from", 0L);
+        Long to = longParam(request, "to", Long.MAX_VALUE);
+        Long bucketMillis = longParam(request, "bucketMillis", 3600000L);
+        if (from == null || to == null || bucketMillis == null) {
+            return Future.failedFuture("Rollup from, to and bucketMillis must be numbers");
+        }
+        return weatherService.getRollup(city, from, to, bucketMillis);
+    }
+
     /**
      * Lists all available cities.
      *
@@ -159,43 +307,43 @@ public class WeatherHandler implements WeatherHandlerInterface {
      * Gets an item by ID.
      *
      * @param id the item ID
-     * @return a Future with the item as a JsonObject
+     * @return a Future with the item
      */
-    public Future<JsonObject> getItem(String id) {
+    public Future<Weather> getItem(String id) {
         logger.debug("Getting item by ID: {}", id);
-        return weatherService.getItem(id);
+        return weatherService.getWeather(id);
     }
 
     /**
      * Lists all items.
      *
-     * @return a Future with the list of items as a JsonObject
+     * @return a Future with the list of items
      */
-    public Future<JsonObject> listItems() {
+    public Future<List<Weather>> listItems() {
         logger.debug("Listing all items");
-        return weatherService.listItems();
+        return weatherService.getAllWeather();
     }
 
     /**
      * Creates a new item.
      *
      * @param request the request containing the item data
-     * @return a Future with the created item as a JsonObject
+     * @return a Future with the created item
      */
-    public Future<JsonObject> createItem(JsonObject request) {
+    public Future<Weather> createItem(JsonObject request) {
         logger.debug("Creating new item: {}", request);
-        return weatherService.createItem(request);
+        return weatherService.createWeather(request);
     }
 
     /**
      * Updates an existing item.
      *
      * @param request the request containing the item data and ID
-     * @return a Future with the updated item as a JsonObject
+     * @return a Future with the updated item
      */
-    public Future<JsonObject> updateItem(JsonObject request) {
+    public Future<Weather> updateItem(JsonObject request) {
         logger.debug("Updating item: {}", request);
-        return weatherService.updateItem(request);
+        return weatherService.updateWeather(request);
     }
 
     /**
@@ -1,6 +1,8 @@
 package dev.mars.vertx.service.two.handler;
 
+import dev.mars.vertx.service.two.model.Weather;
 import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 
 /**
@@ -17,20 +19,30 @@ public interface WeatherHandlerInterface {
      */
     Future<Object> handleRequest(JsonObject request);
     
+    /**
+     * Handles a request whose response can be streamed straight to bytes.
+     *
+     * @param request the request
+     * @return a Future with the encoded response, or null if the request must go to handleRequest
+     */
+    default Future<Buffer> handleEncodedRequest(JsonObject request) {
+        return null;
+    }
+    
     /**
      * Gets weather data for a specific city.
      *
      * @param city the city name
-     * @return a Future with the weather data as a JsonObject
+     * @return a Future with the weather data
      */
-    Future<JsonObject> getWeatherForCity(String city);
+    Future<Weather> getWeatherForCity(String city);
     
     /**
      * Gets weather data for a random city.
      *
-     * @return a Future with the weather data as a JsonObject
+     * @return a Future with the weather data
      */
-    Future<JsonObject> getRandomWeather();
+    Future<Weather> getRandomWeather();
     
     /**
      * Gets a forecast for a city.
@@ -53,4 +65,21 @@ public interface WeatherHandlerInterface {
      * @return a Future with the statistics as a JsonObject
      */
     Future<JsonObject> getStats();
-}
\ No newline at end of file
+
+    /**
+     * Gets a page of the recorded observations of a city in a time range.
+     *
+     * @param request the request containing the city, and optionally from and to in epoch milliseconds
+     *                and the page size limit
+     * @return a Future with the observations as a JsonObject, with the start of the next page if any
+     */
+    Future<JsonObject> getHistory(JsonObject request);
+
+    /**
+     * Gets the recorded observations of a city in a time range, downsampled into buckets.
+     *
+     * @param request the request containing the city, and optionally from, to and bucketMillis
+     * @return a Future with the buckets as a JsonObject
+     */
+    Future<JsonObject> getRollup(JsonObject request);
+}
@@ -1,12 +1,13 @@
 package dev.mars.vertx.service.two.model;
 
+import dev.mars.vertx.common.eventbus.codec.JsonEncodable;
 import io.vertx.core.json.JsonObject;
 import java.util.Objects;
 
 /**
  * Model class representing Weather data.
  */
-public class Weather {
+public class Weather implements JsonEncodable {
     private String id;
     private String city;
     private double temperature;
@@ -89,6 +90,7 @@ public class Weather {
      *
      * @return the JsonObject
      */
+    @Override
     public JsonObject toJson() {
         return new JsonObject()
             .put("id", id)
@@ -171,12 +173,13 @@ public class Weather {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Weather weather = (Weather) o;
-        return Objects.equals(id, weather.id);
+        // A reading is identified by where and when it was taken
+        return timestamp == weather.timestamp && Objects.equals(city, weather.city);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id);
+        return Objects.hash(city, timestamp);
     }
 
     @Override
@@ -0,0 +1,199 @@
+package dev.mars.vertx.service.two.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import dev.mars.vertx.common.eventbus.codec.JsonStreams;
+import io.vertx.core.buffer.Buffer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming JSON serializer and parser for Weather.
+ * Produces the same JSON as {@link Weather#toJson()} and the list responses of WeatherService, but
+ * writes straight to bytes, without building a JsonObject per record; parsing likewise builds
+ * Weather objects directly from the bytes, with the defaults of {@link Weather#fromJson}.
+ */
+public final class WeatherJson {
+
+    private WeatherJson() {
+        // Utility class
+    }
+
+    /**
+     * Encodes a weather record.
+     *
+     * @param weather the weather record
+     * @return the encoded record
+     */
+    public static Buffer encode(Weather weather) {
+        return JsonStreams.encode(generator -> write(generator, weather));
+    }
+
+    /**
+     * Encodes a list of weather records in the list envelope: {@code {"items": [...], "count": n}}.
+     *
+     * @param records the weather records
+     * @return the encoded list
+     */
+    public static Buffer encodeList(List<Weather> records) {
+        return JsonStreams.encode(generator -> {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("items");
+            for (Weather weather : records) {
+                write(generator, weather);
+            }
+            generator.writeEndArray();
+            generator.writeNumberField("count", records.size());
+            generator.writeEndObject();
+        });
+    }
+
+    /**
+     * Encodes city names in the cities envelope: {@code {"cities": [...], "count": n}}.
+     *
+     * @param cities the city names
+     * @return the encoded list
+     */
+    public static Buffer encodeCities(List<String> cities) {
+        return JsonStreams.encode(generator -> {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("cities");
+            for (String city : cities) {
+                generator.writeString(city);
+            }
+            generator.writeEndArray();
+            generator.writeNumberField("count", cities.size());
+            generator.writeEndObject();
+        });
+    }
+
+    /**
+     * Encodes the first days of a forecast in the forecast envelope:
+     * {@code {"city": ..., "days": n, "forecast": [...]}}.
+     *
+     * @param city the city name
+     * @param forecast the forecast, one record per day
+     * @param days the number of days to include, at most the size of the forecast
+     * @return the encoded forecast
+     */
+    public static Buffer encodeForecast(String city, List<Weather> forecast, int days) {
+        return JsonStreams.encode(generator -> {
+            generator.writeStartObject();
+            generator.writeStringField("city", city);
+            generator.writeNumberField("days", days);
+            generator.writeArrayFieldStart("forecast");
+            for (int i = 0; i < days; i++) {
+                write(generator, forecast.get(i));
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        });
+    }
+
+    /**
+     * Writes a weather record as a JSON object.
+     *
+     * @param generator the generator
+     * @param weather the weather record
+     * @throws IOException if writing fails
+     */
+    public static void write(JsonGenerator generator, Weather weather) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("id", weather.getId());
+        generator.writeStringField("city", weather.getCity());
+        generator.writeNumberField("temperature", weather.getTemperature());
+        generator.writeNumberField("humidity", weather.getHumidity());
+        generator.writeNumberField("windSpeed", weather.getWindSpeed());
+        generator.writeStringField("condition", weather.getCondition());
+        generator.writeNumberField("timestamp", weather.getTimestamp());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Decodes a weather record.
+     *
+     * @param buffer the encoded record
+     * @return the weather record
+     */
+    public static Weather decode(Buffer buffer) {
+        return JsonStreams.decode(buffer, WeatherJson::read);
+    }
+
+    /**
+     * Decodes the records of a list envelope.
+     *
+     * @param buffer the encoded list
+     * @return the weather records
+     */
+    public static List<Weather> decodeList(Buffer buffer) {
+        return JsonStreams.decode(buffer, parser -> {
+            List<Weather> records = new ArrayList<>();
+            JsonStreams.expectStartObject(parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("items".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        records.add(read(parser));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return records;
+        });
+    }
+
+    /**
+     * Reads a weather record from a JSON object.
+     *
+     * @param parser the parser, before or at the start of the object
+     * @return the weather record
+     * @throws IOException if the JSON is not a weather object
+     */
+    public static Weather read(JsonParser parser) throws IOException {
+        JsonStreams.expectStartObject(parser);
+        String id = null;
+        String city = null;
+        double temperature = 0.0;
+        double humidity = 0.0;
+        double windSpeed = 0.0;
+        String condition = "Unknown";
+        Long timestamp = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            boolean isNull = value == JsonToken.VALUE_NULL;
+            switch (field) {
+                case "id":
+                    id = isNull ? null : parser.getText();
+                    break;
+                case "city":
+                    city = isNull ? null : parser.getText();
+                    break;
+                case "temperature":
+                    temperature = isNull ? 0.0 : parser.getDoubleValue();
+                    break;
+                case "humidity":
+                    humidity = isNull ? 0.0 : parser.getDoubleValue();
+                    break;
+                case "windSpeed":
+                    windSpeed = isNull ? 0.0 : parser.getDoubleValue();
+                    break;
+                case "condition":
+                    condition = isNull ? null : parser.getText();
+                    break;
+                case "timestamp":
+                    timestamp = isNull ? null : parser.getLongValue();
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return new Weather(id, city, temperature, humidity, windSpeed, condition,
+            timestamp != null ? timestamp : System.currentTimeMillis());
+    }
+}
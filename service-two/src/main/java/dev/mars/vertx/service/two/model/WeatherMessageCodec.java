@@ -0,0 +1,36 @@
+package dev.mars.vertx.service.two.model;
+
+import dev.mars.vertx.common.eventbus.codec.BinaryWire;
+import dev.mars.vertx.common.eventbus.codec.ModelMessageCodec;
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * Event bus codec for Weather.
+ * Local delivery passes a copy, or the Weather itself on addresses that share messages.
+ */
+public class WeatherMessageCodec extends ModelMessageCodec<Weather> {
+
+    /**
+     * Creates a new Weather codec.
+     */
+    public WeatherMessageCodec() {
+        super("service-two.weather");
+    }
+
+    @Override
+    protected void write(Buffer buffer, Weather weather) {
+        BinaryWire.writeString(buffer, weather.getId());
+        BinaryWire.writeString(buffer, weather.getCity());
+        buffer.appendDouble(weather.getTemperature())
+            .appendDouble(weather.getHumidity())
+            .appendDouble(weather.getWindSpeed());
+        BinaryWire.writeString(buffer, weather.getCondition());
+        buffer.appendLong(weather.getTimestamp());
+    }
+
+    @Override
+    protected Weather read(BinaryWire.Reader reader) {
+        return new Weather(reader.readString(), reader.readString(), reader.readDouble(),
+            reader.readDouble(), reader.readDouble(), reader.readString(), reader.readLong());
+    }
+}
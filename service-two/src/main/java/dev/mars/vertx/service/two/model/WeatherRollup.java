@@ -0,0 +1,136 @@
+package dev.mars.vertx.service.two.model;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Summary of the weather observations of a city in one time bucket: the number of samples, and
+ * the minimum, maximum and average temperature, humidity and wind speed.
+ */
+public class WeatherRollup {
+    private final String city;
+    private final long start;
+    private final long end;
+    private int count;
+    private final double[] min = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+    private final double[] max = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+    private final double[] sum = new double[3];
+
+    /**
+     * Creates an empty bucket.
+     *
+     * @param city the city name
+     * @param start the start of the bucket in epoch milliseconds, inclusive
+     * @param end the end of the bucket in epoch milliseconds, exclusive
+     */
+    public WeatherRollup(String city, long start, long end) {
+        this.city = city;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Adds a sample to the bucket.
+     *
+     * @param temperature the temperature in Celsius
+     * @param humidity the humidity percentage
+     * @param windSpeed the wind speed in km/h
+     */
+    public void add(double temperature, double humidity, double windSpeed) {
+        accumulate(0, temperature);
+        accumulate(1, humidity);
+        accumulate(2, windSpeed);
+        count++;
+    }
+
+    private void accumulate(int field, double value) {
+        min[field] = Math.min(min[field], value);
+        max[field] = Math.max(max[field], value);
+        sum[field] += value;
+    }
+
+    /**
+     * Converts this bucket to a JsonObject.
+     *
+     * @return the JsonObject
+     */
+    public JsonObject toJson() {
+        return new JsonObject()
+            .put("city", city)
+            .put("start", start)
+            .put("end", end)
+            .put("count", count)
+            .put("temperature", statistics(0))
+            .put("humidity", statistics(1))
+            .put("windSpeed", statistics(2));
+    }
+
+    private JsonObject statistics(int field) {
+        return new JsonObject()
+            .put("min", min[field])
+            .put("max", max[field])
+            .put("avg", count == 0 ? 0.0 : sum[field] / count);
+    }
+
+    // Getters
+    public String getCity() {
+        return city;
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getMinTemperature() {
+        return min[0];
+    }
+
+    public double getMaxTemperature() {
+        return max[0];
+    }
+
+    public double getAvgTemperature() {
+        return count == 0 ? 0.0 : sum[0] / count;
+    }
+
+    public double getMinHumidity() {
+        return min[1];
+    }
+
+    public double getMaxHumidity() {
+        return max[1];
+    }
+
+    public double getAvgHumidity() {
+        return count == 0 ? 0.0 : sum[1] / count;
+    }
+
+    public double getMinWindSpeed() {
+        return min[2];
+    }
+
+    public double getMaxWindSpeed() {
+        return max[2];
+    }
+
+    public double getAvgWindSpeed() {
+        return count == 0 ? 0.0 : sum[2] / count;
+    }
+
+    @Override
+    public String toString() {
+        return "WeatherRollup{" +
+            "city='" + city + '\'' +
+            ", start=" + start +
+            ", end=" + end +
+            ", count=" + count +
+            '}';
+    }
+}
@@ -0,0 +1,173 @@
+package dev.mars.vertx.service.two.repository;
+
+import dev.mars.vertx.service.two.model.WeatherJson;
+import io.vertx.core.buffer.Buffer;
+
+import java.text.Normalizer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The cities known to the weather repository, looked up in constant time whatever their number.
+ *
+ * Cities are indexed by a normalized key, so that lookups ignore case, surrounding whitespace and
+ * runs of inner whitespace, and accept any Unicode normalization form: "new  york " finds
+ * "New York". The name a city was first added with is its canonical name.
+ *
+ * The names are also kept in an array in the order they were added, and published as an
+ * immutable {@link Snapshot} after each addition. As cities are only ever added, a snapshot is the
+ * prefix of the array it was taken from, so listing the cities or picking one at random copies
+ * nothing, and the encoded list is built once per snapshot.
+ *
+ * Lookups and snapshots are thread-safe; additions are serialized.
+ */
+public class CityDirectory {
+
+    private final ConcurrentHashMap<String, String> index = new ConcurrentHashMap<>();
+    private String[] names = new String[16];
+    private volatile Snapshot snapshot = new Snapshot(names, 0);
+
+    /**
+     * Gets the canonical name of a city.
+     *
+     * @param city the city name, in any case
+     * @return the canonical name, or null if the city is unknown
+     */
+    public String canonical(String city) {
+        return city == null ? null : index.get(normalize(city));
+    }
+
+    /**
+     * Checks whether a city is known.
+     *
+     * @param city the city name, in any case
+     * @return true if the city is known
+     */
+    public boolean contains(String city) {
+        return canonical(city) != null;
+    }
+
+    /**
+     * Adds a city, unless it is already known.
+     *
+     * @param city the city name
+     * @return the canonical name of the city: the given name if it was added, else the known one
+     */
+    public synchronized String add(String city) {
+        String key = normalize(city);
+        String known = index.get(key);
+        if (known != null) {
+            return known;
+        }
+
+        int size = snapshot.size;
+        if (size == names.length) {
+            // Snapshots keep the array they were taken from
+            names = Arrays.copyOf(names, size * 2);
+        }
+        names[size] = city;
+        index.put(key, city);
+        snapshot = new Snapshot(names, size + 1);
+        return city;
+    }
+
+    /**
+     * Removes all cities.
+     */
+    public synchronized void clear() {
+        index.clear();
+        names = new String[16];
+        snapshot = new Snapshot(names, 0);
+    }
+
+    /**
+     * Gets the cities known now.
+     *
+     * @return the current snapshot
+     */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Gets the number of cities.
+     *
+     * @return the number of cities
+     */
+    public int size() {
+        return snapshot.size;
+    }
+
+    /**
+     * Normalizes a city name into its index key: Unicode NFC, lower case, trimmed, with runs of
+     * whitespace collapsed into one space.
+     *
+     * @param city the city name
+     * @return the key
+     */
+    public static String normalize(String city) {
+        String composed = Normalizer.isNormalized(city, Normalizer.Form.NFC)
+            ? city
+            : Normalizer.normalize(city, Normalizer.Form.NFC);
+        StringBuilder key = new StringBuilder(composed.length());
+        boolean space = false;
+        for (int i = 0; i < composed.length(); ) {
+            int codePoint = composed.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isWhitespace(codePoint) || Character.isSpaceChar(codePoint)) {
+                space = key.length() > 0;
+            } else {
+                if (space) {
+                    key.append(' ');
+                    space = false;
+                }
+                key.appendCodePoint(Character.toLowerCase(codePoint));
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * The cities known at one point in time, in the order they were added. Never changes.
+     */
+    public static final class Snapshot extends AbstractList<String> implements RandomAccess {
+        private final String[] names;
+        private final int size;
+        private volatile Buffer encoded;
+
+        private Snapshot(String[] names, int size) {
+            this.names = names;
+            this.size = size;
+        }
+
+        @Override
+        public String get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + size + " cities");
+            }
+            return names[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Gets the cities in the list response envelope, {@code {"cities": [...], "count": n}},
+         * encoded on first use.
+         *
+         * @return the encoded list
+         */
+        public Buffer encoded() {
+            Buffer result = encoded;
+            if (result == null) {
+                result = WeatherJson.encodeCities(this);
+                encoded = result;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package dev.mars.vertx.service.two.repository;
+
+import java.util.Arrays;
+
+/**
+ * An immutable run of weather samples, compressed into one bit stream as in Facebook's Gorilla
+ * time-series database.
+ *
+ * Samples are written one after the other, each as its timestamp, temperature, humidity, wind
+ * speed and condition code:
+ * <ul>
+ *   <li>The first timestamp is written in full. Each following one is written as the change in the
+ *   interval since the previous sample (delta of delta): one bit when observations are regular,
+ *   9 to 16 bits for small changes, and the full 64 otherwise.</li>
+ *   <li>The first value of each double is written in full. Each following one is XORed with the
+ *   previous value: one bit when unchanged; otherwise only the bits between the leading and trailing
+ *   zeros of the XOR, reusing the previous window of meaningful bits when they fit in it.</li>
+ *   <li>A condition code is one bit when unchanged, or nine bits.</li>
+ * </ul>
+ *
+ * Samples are decoded in order with a {@link Decoder}, without expanding the segment.
+ */
+public final class CompressedWeatherSegment {
+
+    private final long[] words;
+    private final int count;
+    private final long firstTimestamp;
+    private final long lastTimestamp;
+
+    private CompressedWeatherSegment(long[] words, int count, long firstTimestamp, long lastTimestamp) {
+        this.words = words;
+        this.count = count;
+        this.firstTimestamp = firstTimestamp;
+        this.lastTimestamp = lastTimestamp;
+    }
+
+    /**
+     * Compresses samples held in parallel arrays.
+     *
+     * @param timestamps the observation times, in ascending order
+     * @param temperatures the temperatures
+     * @param humidities the humidities
+     * @param windSpeeds the wind speeds
+     * @param conditions the condition codes
+     * @param count the number of samples, from the start of the arrays
+     * @return the compressed segment
+     */
+    public static CompressedWeatherSegment encode(long[] timestamps, double[] temperatures, double[] humidities,
+                                                  double[] windSpeeds, byte[] conditions, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("A segment needs at least one sample");
+        }
+        Encoder encoder = new Encoder(count);
+        for (int i = 0; i < count; i++) {
+            encoder.write(timestamps[i], temperatures[i], humidities[i], windSpeeds[i], conditions[i]);
+        }
+        return new CompressedWeatherSegment(encoder.words(), count, timestamps[0], timestamps[count - 1]);
+    }
+
+    /**
+     * Gets a decoder positioned before the first sample.
+     *
+     * @return a new decoder
+     */
+    public Decoder decoder() {
+        return new Decoder(words, count);
+    }
+
+    /**
+     * Gets the number of samples.
+     *
+     * @return the number of samples
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Gets the time of the first sample.
+     *
+     * @return the timestamp in epoch milliseconds
+     */
+    public long firstTimestamp() {
+        return firstTimestamp;
+    }
+
+    /**
+     * Gets the time of the last sample.
+     *
+     * @return the timestamp in epoch milliseconds
+     */
+    public long lastTimestamp() {
+        return lastTimestamp;
+    }
+
+    /**
+     * Gets the size of the compressed samples.
+     *
+     * @return the size in bytes
+     */
+    public long compressedBytes() {
+        return (long) words.length * Long.BYTES;
+    }
+
+    /**
+     * Writes samples to a growing bit stream.
+     */
+    private static final class Encoder {
+        private long[] words;
+        private int bits;
+
+        private long previousTimestamp;
+        private long previousDelta;
+        private final XorState temperature = new XorState();
+        private final XorState humidity = new XorState();
+        private final XorState windSpeed = new XorState();
+        private byte previousCondition;
+        private boolean first = true;
+
+        private Encoder(int count) {
+            // Room for about 8 bytes a sample before growing
+            this.words = new long[Math.max(4, count)];
+        }
+
+        private void write(long timestamp, double temperatureValue, double humidityValue, double windSpeedValue, byte condition) {
+            if (first) {
+                writeBits(timestamp, 64);
+                temperature.previous = writeFirst(temperatureValue);
+                humidity.previous = writeFirst(humidityValue);
+                windSpeed.previous = writeFirst(windSpeedValue);
+                writeBits(condition & 0xFF, 8);
+                first = false;
+            } else {
+                writeTimestamp(timestamp);
+                writeXor(temperature, Double.doubleToRawLongBits(temperatureValue));
+                writeXor(humidity, Double.doubleToRawLongBits(humidityValue));
+                writeXor(windSpeed, Double.doubleToRawLongBits(windSpeedValue));
+                if (condition == previousCondition) {
+                    writeBits(0, 1);
+                } else {
+                    writeBits(1, 1);
+                    writeBits(condition & 0xFF, 8);
+                }
+            }
+            previousTimestamp = timestamp;
+            previousCondition = condition;
+        }
+
+        private long writeFirst(double value) {
+            long bitsOfValue = Double.doubleToRawLongBits(value);
+            writeBits(bitsOfValue, 64);
+            return bitsOfValue;
+        }
+
+        private void writeTimestamp(long timestamp) {
+            long delta = timestamp - previousTimestamp;
+            long deltaOfDelta = delta - previousDelta;
+            previousDelta = delta;
+
+            if (deltaOfDelta == 0) {
+                writeBits(0b0, 1);
+            } else if (deltaOfDelta >= -63 && deltaOfDelta <= 64) {
+                writeBits(0b10, 2);
+                writeBits(deltaOfDelta, 7);
+            } else if (deltaOfDelta >= -255 && deltaOfDelta <= 256) {
+                writeBits(0b110, 3);
+                writeBits(deltaOfDelta, 9);
+            } else if (deltaOfDelta >= -2047 && deltaOfDelta <= 2048) {
+                writeBits(0b1110, 4);
+                writeBits(deltaOfDelta, 12);
+            } else {
+                writeBits(0b1111, 4);
+                writeBits(deltaOfDelta, 64);
+            }
+        }
+
+        private void writeXor(XorState state, long value) {
+            long xor = value ^ state.previous;
+            state.previous = value;
+            if (xor == 0) {
+                writeBits(0, 1);
+                return;
+            }
+            writeBits(1, 1);
+
+            int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (state.meaningful > 0 && leading >= state.leading && trailing >= 64 - state.leading - state.meaningful) {
+                // Fits in the previous window of meaningful bits
+                writeBits(0, 1);
+                writeBits(xor >>> (64 - state.leading - state.meaningful), state.meaningful);
+            } else {
+                int meaningful = 64 - leading - trailing;
+                writeBits(1, 1);
+                writeBits(leading, 5);
+                writeBits(meaningful - 1, 6);
+                writeBits(xor >>> trailing, meaningful);
+                state.leading = leading;
+                state.meaningful = meaningful;
+            }
+        }
+
+        /**
+         * Appends the low {@code length} bits of a value, most significant first.
+         */
+        private void writeBits(long value, int length) {
+            if (bits + length > (long) words.length * 64) {
+                words = Arrays.copyOf(words, words.length * 2);
+            }
+            long masked = length == 64 ? value : value & ((1L << length) - 1);
+            int index = bits >>> 6;
+            int free = 64 - (bits & 63);
+            if (length <= free) {
+                words[index] |= masked << (free - length);
+            } else {
+                int overflow = length - free;
+                words[index] |= masked >>> overflow;
+                words[index + 1] |= masked << (64 - overflow);
+            }
+            bits += length;
+        }
+
+        private long[] words() {
+            return Arrays.copyOf(words, (bits + 63) >>> 6);
+        }
+    }
+
+    /**
+     * Reads the samples of a segment in order. The values of the current sample are available from
+     * the getters after each successful {@link #next()}.
+     */
+    public static final class Decoder {
+        private final long[] words;
+        private final int count;
+        private int position;
+        private int decoded;
+
+        private long timestamp;
+        private long delta;
+        private final XorState temperature = new XorState();
+        private final XorState humidity = new XorState();
+        private final XorState windSpeed = new XorState();
+        private byte condition;
+
+        private Decoder(long[] words, int count) {
+            this.words = words;
+            this.count = count;
+        }
+
+        /**
+         * Decodes the next sample.
+         *
+         * @return true if there was one, false at the end of the segment
+         */
+        public boolean next() {
+            if (decoded == count) {
+                return false;
+            }
+            if (decoded == 0) {
+                timestamp = readBits(64);
+                temperature.previous = readBits(64);
+                humidity.previous = readBits(64);
+                windSpeed.previous = readBits(64);
+                condition = (byte) readBits(8);
+            } else {
+                readTimestamp();
+                readXor(temperature);
+                readXor(humidity);
+                readXor(windSpeed);
+                if (readBits(1) == 1) {
+                    condition = (byte) readBits(8);
+                }
+            }
+            decoded++;
+            return true;
+        }
+
+        private void readTimestamp() {
+            long deltaOfDelta;
+            if (readBits(1) == 0) {
+                deltaOfDelta = 0;
+            } else if (readBits(1) == 0) {
+                deltaOfDelta = readSigned(7);
+            } else if (readBits(1) == 0) {
+                deltaOfDelta = readSigned(9);
+            } else if (readBits(1) == 0) {
+                deltaOfDelta = readSigned(12);
+            } else {
+                deltaOfDelta = readBits(64);
+            }
+            delta += deltaOfDelta;
+            timestamp += delta;
+        }
+
+        private void readXor(XorState state) {
+            if (readBits(1) == 0) {
+                return;
+            }
+            if (readBits(1) == 1) {
+                state.leading = (int) readBits(5);
+                state.meaningful = (int) readBits(6) + 1;
+            }
+            long xor = readBits(state.meaningful) << (64 - state.leading - state.meaningful);
+            state.previous ^= xor;
+        }
+
+        private long readSigned(int length) {
+            long value = readBits(length);
+            // Values are stored in two's complement of the given length, except the top of the positive range
+            long half = 1L << (length - 1);
+            return value > half ? value - (1L << length) : value;
+        }
+
+        /**
+         * Reads {@code length} bits, most significant first.
+         */
+        private long readBits(int length) {
+            int index = position >>> 6;
+            int available = 64 - (position & 63);
+            long value;
+            if (length <= available) {
+                value = words[index] >>> (available - length);
+            } else {
+                int overflow = length - available;
+                value = (words[index] << overflow) | (words[index + 1] >>> (64 - overflow));
+            }
+            position += length;
+            return length == 64 ? value : value & ((1L << length) - 1);
+        }
+
+        public long timestamp() {
+            return timestamp;
+        }
+
+        public double temperature() {
+            return Double.longBitsToDouble(temperature.previous);
+        }
+
+        public double humidity() {
+            return Double.longBitsToDouble(humidity.previous);
+        }
+
+        public double windSpeed() {
+            return Double.longBitsToDouble(windSpeed.previous);
+        }
+
+        public byte condition() {
+            return condition;
+        }
+    }
+
+    /**
+     * The XOR compression state of one double: its previous value, and the window of meaningful bits.
+     */
+    private static final class XorState {
+        private long previous;
+        private int leading;
+        private int meaningful;
+    }
+}
@@ -1,8 +1,10 @@
 package dev.mars.vertx.service.two.repository;
 
 import dev.mars.vertx.service.two.model.Weather;
+import dev.mars.vertx.service.two.model.WeatherRollup;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -14,19 +16,40 @@ import java.util.Random;
 
 /**
  * In-memory implementation of the WeatherRepository interface.
+ * Keeps the latest observation of each city, and the history of observations in a WeatherHistory.
+ * Cities are looked up in a CityDirectory, by name in any case, and stored under their canonical name.
  */
 public class InMemoryWeatherRepository implements WeatherRepository {
     private static final Logger logger = LoggerFactory.getLogger(InMemoryWeatherRepository.class);
 
     private final Map<String, Weather> weatherData = new HashMap<>();
-    private final List<String> cities = new ArrayList<>();
+    private final CityDirectory cities = new CityDirectory();
     private final Random random = new Random();
+    private final WeatherHistory history;
 
     /**
      * Constructor.
      */
     public InMemoryWeatherRepository() {
-        // No initialization needed
+        this(WeatherHistory.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a repository keeping a given number of historical observations per city.
+     *
+     * @param historyCapacity the number of observations kept per city
+     */
+    public InMemoryWeatherRepository(int historyCapacity) {
+        this(new WeatherHistory(historyCapacity));
+    }
+
+    /**
+     * Creates a repository recording observations in a given history.
+     *
+     * @param history the history of observations
+     */
+    public InMemoryWeatherRepository(WeatherHistory history) {
+        this.history = history;
     }
 
     @Override
@@ -34,20 +57,22 @@ public class InMemoryWeatherRepository implements WeatherRepository {
         logger.debug("Finding weather data for city: {}", city);
 
         Promise<Weather> promise = Promise.promise();
-        if (!cities.contains(city)) {
+        String canonical = cities.canonical(city);
+        if (canonical == null) {
             logger.debug("City not found: {}", city);
             promise.fail("City not found: " + city);
             return promise.future();
         }
 
-        Weather weather = weatherData.get(city);
+        Weather weather = weatherData.get(canonical);
         if (weather != null) {
             logger.debug("Found weather data: {}", weather);
             promise.complete(weather);
         } else {
             // Generate new weather data if none exists
-            weather = generateWeatherData(city);
-            weatherData.put(city, weather);
+            weather = generateWeatherData(canonical);
+            weatherData.put(canonical, weather);
+            history.record(weather);
             logger.debug("Generated new weather data: {}", weather);
             promise.complete(weather);
         }
@@ -59,11 +84,12 @@ public class InMemoryWeatherRepository implements WeatherRepository {
         logger.debug("Finding weather data for all cities");
 
         List<Weather> weatherList = new ArrayList<>();
-        for (String city : cities) {
+        for (String city : cities.snapshot()) {
             Weather weather = weatherData.get(city);
             if (weather == null) {
                 weather = generateWeatherData(city);
                 weatherData.put(city, weather);
+                history.record(weather);
             }
             weatherList.add(weather);
         }
@@ -82,12 +108,16 @@ public class InMemoryWeatherRepository implements WeatherRepository {
             return Future.failedFuture("City name is required");
         }
 
-        if (!cities.contains(city)) {
-            cities.add(city);
+        int known = cities.size();
+        String canonical = cities.add(city);
+        if (cities.size() > known) {
             logger.debug("Added new city: {}", city);
         }
 
-        weatherData.put(city, weather);
+        // Stored under the canonical name, whatever case it was saved in
+        weather.setCity(canonical);
+        weatherData.put(canonical, weather);
+        history.record(weather);
         return Future.succeededFuture(weather);
     }
 
@@ -96,7 +126,8 @@ public class InMemoryWeatherRepository implements WeatherRepository {
         logger.debug("Getting {}-day forecast for city: {}", days, city);
 
         Promise<List<Weather>> promise = Promise.promise();
-        if (!cities.contains(city)) {
+        String canonical = cities.canonical(city);
+        if (canonical == null) {
             logger.debug("City not found: {}", city);
             promise.fail("City not found: " + city);
             return promise.future();
@@ -104,7 +135,7 @@ public class InMemoryWeatherRepository implements WeatherRepository {
 
         List<Weather> forecast = new ArrayList<>();
         for (int i = 0; i < days; i++) {
-            Weather weather = generateWeatherData(city);
+            Weather weather = generateWeatherData(canonical);
             // Adjust timestamp for future days
             weather.setTimestamp(System.currentTimeMillis() + (i * 24 * 60 * 60 * 1000));
             forecast.add(weather);
@@ -116,7 +147,13 @@ public class InMemoryWeatherRepository implements WeatherRepository {
     @Override
     public Future<List<String>> getCities() {
         logger.debug("Getting list of cities");
-        return Future.succeededFuture(new ArrayList<>(cities));
+        return Future.succeededFuture(cities.snapshot());
+    }
+
+    @Override
+    public Future<Buffer> getEncodedCities() {
+        logger.debug("Getting encoded list of cities");
+        return Future.succeededFuture(cities.snapshot().encoded());
     }
 
     @Override
@@ -128,6 +165,7 @@ public class InMemoryWeatherRepository implements WeatherRepository {
         // Clear any existing data
         weatherData.clear();
         cities.clear();
+        history.clear();
 
         // Add sample cities
         cities.add("New York");
@@ -142,8 +180,10 @@ public class InMemoryWeatherRepository implements WeatherRepository {
         cities.add("Cairo");
 
         // Generate initial weather data for each city
-        for (String city : cities) {
-            weatherData.put(city, generateWeatherData(city));
+        for (String city : cities.snapshot()) {
+            Weather weather = generateWeatherData(city);
+            weatherData.put(city, weather);
+            history.record(weather);
         }
 
         logger.info("Sample data initialized with {} cities", cities.size());
@@ -190,6 +230,44 @@ public class InMemoryWeatherRepository implements WeatherRepository {
         return promise.future();
     }
 
+    @Override
+    public Future<List<Weather>> getHistory(String city, long from, long to, int limit) {
+        logger.debug("Getting at most {} history samples for city {} from {} to {}", limit, city, from, to);
+
+        String canonical = cities.canonical(city);
+        if (canonical == null) {
+            logger.debug("City not found: {}", city);
+            return Future.failedFuture("City not found: " + city);
+        }
+        WeatherSeries series = history.series(canonical);
+        return Future.succeededFuture(series == null ? new ArrayList<>() : series.range(from, to, limit));
+    }
+
+    @Override
+    public Future<List<WeatherRollup>> getRollup(String city, long from, long to, long bucketMillis) {
+        logger.debug("Getting {} ms rollup for city {} from {} to {}", bucketMillis, city, from, to);
+
+        String canonical = cities.canonical(city);
+        if (canonical == null) {
+            logger.debug("City not found: {}", city);
+            return Future.failedFuture("City not found: " + city);
+        }
+        if (bucketMillis <= 0) {
+            return Future.failedFuture("Bucket length must be positive: " + bucketMillis);
+        }
+        WeatherSeries series = history.series(canonical);
+        return Future.succeededFuture(series == null ? new ArrayList<>() : series.rollup(from, to, bucketMillis));
+    }
+
+    /**
+     * Gets the history of observations.
+     *
+     * @return the history
+     */
+    public WeatherHistory getHistory() {
+        return history;
+    }
+
     /**
      * Generates random weather data for a city.
      *
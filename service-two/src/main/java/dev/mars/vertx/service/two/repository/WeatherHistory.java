@@ -0,0 +1,132 @@
+package dev.mars.vertx.service.two.repository;
+
+import dev.mars.vertx.service.two.model.Weather;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Time series of weather observations per city, each in a {@link WeatherSeries} of fixed capacity.
+ * Recording an observation copies its values into the city's series; the Weather object is not
+ * retained. All but the newest segment of each series are compressed, so long histories are cheap
+ * to keep.
+ */
+public class WeatherHistory {
+    private static final Logger logger = LoggerFactory.getLogger(WeatherHistory.class);
+
+    /**
+     * Default number of samples kept per city: 30 days at one observation per minute.
+     */
+    public static final int DEFAULT_CAPACITY = 30 * 1440;
+
+    private final ConcurrentHashMap<String, WeatherSeries> series = new ConcurrentHashMap<>();
+    private final int capacity;
+    private final int segmentSize;
+
+    /**
+     * Creates a history keeping the default number of samples per city.
+     */
+    public WeatherHistory() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a history.
+     *
+     * @param capacity the number of samples kept per city
+     */
+    public WeatherHistory(int capacity) {
+        this(capacity, WeatherSeries.DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Creates a history.
+     *
+     * @param capacity the number of samples kept per city
+     * @param segmentSize the number of samples compressed together
+     */
+    public WeatherHistory(int capacity, int segmentSize) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("History capacity must be positive: " + capacity);
+        }
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("History segment size must be positive: " + segmentSize);
+        }
+        this.capacity = capacity;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Records an observation in its city's series. An observation without a timestamp is recorded
+     * at the current time.
+     *
+     * @param weather the observation
+     * @return true if it was recorded, false if it has no city or is older than the city's newest sample
+     */
+    public boolean record(Weather weather) {
+        String city = weather.getCity();
+        if (city == null || city.isEmpty()) {
+            return false;
+        }
+        long timestamp = weather.getTimestamp() > 0 ? weather.getTimestamp() : System.currentTimeMillis();
+        boolean recorded = series.computeIfAbsent(city, key -> new WeatherSeries(key, capacity, segmentSize))
+            .append(timestamp, weather.getTemperature(), weather.getHumidity(), weather.getWindSpeed(), weather.getCondition());
+        if (!recorded) {
+            logger.debug("Dropped out-of-order observation for {} at {}", city, timestamp);
+        }
+        return recorded;
+    }
+
+    /**
+     * Gets the series of a city.
+     *
+     * @param city the city name
+     * @return the series, or null if no observation of the city was recorded
+     */
+    public WeatherSeries series(String city) {
+        return series.get(city);
+    }
+
+    /**
+     * Removes all series.
+     */
+    public void clear() {
+        series.clear();
+    }
+
+    /**
+     * Gets the number of samples held for all cities.
+     *
+     * @return the number of samples
+     */
+    public long sampleCount() {
+        long count = 0;
+        for (WeatherSeries citySeries : series.values()) {
+            count += citySeries.size();
+        }
+        return count;
+    }
+
+    /**
+     * Gets the heap used by the samples of all cities.
+     *
+     * @return the size in bytes
+     */
+    public long memoryBytes() {
+        long bytes = 0;
+        for (WeatherSeries citySeries : series.values()) {
+            bytes += citySeries.memoryBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Gets the number of samples kept per city.
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return capacity;
+    }
+}
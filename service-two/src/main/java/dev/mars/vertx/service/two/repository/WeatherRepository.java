@@ -1,7 +1,10 @@
 package dev.mars.vertx.service.two.repository;
 
 import dev.mars.vertx.service.two.model.Weather;
+import dev.mars.vertx.service.two.model.WeatherJson;
+import dev.mars.vertx.service.two.model.WeatherRollup;
 import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
 
 import java.util.List;
 
@@ -49,6 +52,16 @@ public interface WeatherRepository {
      */
     Future<List<String>> getCities();
     
+    /**
+     * Gets the list of all available cities, encoded as the cities response:
+     * {@code {"cities": [...], "count": n}}.
+     *
+     * @return a Future with the encoded list
+     */
+    default Future<Buffer> getEncodedCities() {
+        return getCities().map(WeatherJson::encodeCities);
+    }
+
     /**
      * Initializes the repository with sample data.
      *
@@ -78,4 +91,31 @@ public interface WeatherRepository {
      * @return a Future that completes when deletion is done
      */
     Future<Void> deleteById(String id);
+
+    /**
+     * Gets the first recorded observations of a city in a time range, oldest first.
+     *
+     * @param city the city name
+     * @param from the start of the range in epoch milliseconds, inclusive
+     * @param to the end of the range in epoch milliseconds, inclusive
+     * @param limit the maximum number of observations
+     * @return a Future with the observations, or a failed future if the city is not found
+     */
+    default Future<List<Weather>> getHistory(String city, long from, long to, int limit) {
+        return Future.failedFuture("History is not supported by this repository");
+    }
+
+    /**
+     * Gets the recorded observations of a city in a time range, downsampled into buckets of a
+     * fixed length with the minimum, maximum and average of each value.
+     *
+     * @param city the city name
+     * @param from the start of the range in epoch milliseconds, inclusive
+     * @param to the end of the range in epoch milliseconds, inclusive
+     * @param bucketMillis the length of a bucket in milliseconds
+     * @return a Future with the buckets holding observations, or a failed future if the city is not found
+     */
+    default Future<List<WeatherRollup>> getRollup(String city, long from, long to, long bucketMillis) {
+        return Future.failedFuture("History is not supported by this repository");
+    }
 }
\ No newline at end of file
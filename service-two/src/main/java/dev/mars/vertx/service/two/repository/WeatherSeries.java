@@ -0,0 +1,401 @@
+package dev.mars.vertx.service.two.repository;
+
+import dev.mars.vertx.service.two.model.Weather;
+import dev.mars.vertx.service.two.model.WeatherRollup;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The observation history of one city. A sample is a timestamp, the temperature, humidity and wind
+ * speed, and a one-byte condition code.
+ *
+ * New samples go to the active segment, a set of primitive arrays of {@value #BYTES_PER_SAMPLE}
+ * bytes per sample, grown up to the segment size as samples arrive, so that the many cities with
+ * few samples take little heap. When it is full, the active segment is sealed: compressed
+ * into an immutable {@link CompressedWeatherSegment}, typically a fraction of the size, and emptied
+ * for the next samples. Queries decode the sealed segments they overlap as they go through them,
+ * without expanding them. Once the series holds more than its capacity, the oldest samples are
+ * dropped, and with them each sealed segment whose samples are all dropped.
+ *
+ * Samples are kept in timestamp order, so queries skip the segments outside their range and
+ * binary-search the active one. A sample older than the newest one in the series is dropped.
+ *
+ * Instances are thread-safe.
+ */
+public final class WeatherSeries {
+
+    /**
+     * The bytes of heap used per sample in the active segment.
+     */
+    public static final int BYTES_PER_SAMPLE = Long.BYTES + 3 * Double.BYTES + Byte.BYTES;
+
+    /**
+     * Default number of samples in a segment: half a day at one observation per minute.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 720;
+
+    private static final int INITIAL_ACTIVE_SIZE = 16;
+
+    // Condition codes are read without locking; code 0 is an unknown or missing condition
+    private static final Map<String, Byte> conditionCodes = new ConcurrentHashMap<>();
+    private static volatile String[] conditionNames = {null};
+
+    static {
+        for (String condition : new String[]{"Sunny", "Partly Cloudy", "Cloudy", "Rainy", "Stormy", "Snowy", "Clear"}) {
+            conditionCode(condition);
+        }
+    }
+
+    private final String city;
+    private final int capacity;
+    private final int segmentSize;
+
+    // The active segment
+    private long[] timestamps;
+    private double[] temperatures;
+    private double[] humidities;
+    private double[] windSpeeds;
+    private byte[] conditions;
+    private int activeCount;
+
+    // Sealed segments, oldest first, and the samples at the start of the oldest that are dropped
+    private final ArrayDeque<CompressedWeatherSegment> sealed = new ArrayDeque<>();
+    private long sealedCount;
+    private int dropped;
+
+    private long lastTimestamp;
+
+    /**
+     * Creates an empty series with segments of the default size.
+     *
+     * @param city the city name
+     * @param capacity the maximum number of samples kept
+     */
+    public WeatherSeries(String city, int capacity) {
+        this(city, capacity, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Creates an empty series.
+     *
+     * @param city the city name
+     * @param capacity the maximum number of samples kept
+     * @param segmentSize the number of samples in a segment, at most the capacity
+     */
+    public WeatherSeries(String city, int capacity, int segmentSize) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("History capacity must be positive: " + capacity);
+        }
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("History segment size must be positive: " + segmentSize);
+        }
+        this.city = city;
+        this.capacity = capacity;
+        this.segmentSize = Math.min(segmentSize, capacity);
+        int activeSize = Math.min(INITIAL_ACTIVE_SIZE, this.segmentSize);
+        this.timestamps = new long[activeSize];
+        this.temperatures = new double[activeSize];
+        this.humidities = new double[activeSize];
+        this.windSpeeds = new double[activeSize];
+        this.conditions = new byte[activeSize];
+    }
+
+    /**
+     * Adds a sample, dropping the oldest one if the series is full.
+     *
+     * @param timestamp the observation time in epoch milliseconds
+     * @param temperature the temperature in Celsius
+     * @param humidity the humidity percentage
+     * @param windSpeed the wind speed in km/h
+     * @param condition the weather condition
+     * @return true if the sample was added, false if it is older than the newest sample
+     */
+    public synchronized boolean append(long timestamp, double temperature, double humidity, double windSpeed, String condition) {
+        if (size() > 0 && timestamp < lastTimestamp) {
+            return false;
+        }
+        if (activeCount == timestamps.length) {
+            growActive();
+        }
+        timestamps[activeCount] = timestamp;
+        temperatures[activeCount] = temperature;
+        humidities[activeCount] = humidity;
+        windSpeeds[activeCount] = windSpeed;
+        conditions[activeCount] = conditionCode(condition);
+        activeCount++;
+        lastTimestamp = timestamp;
+
+        if (activeCount == segmentSize) {
+            seal();
+        }
+        dropOldest();
+        return true;
+    }
+
+    /**
+     * Doubles the arrays of the active segment, up to the segment size.
+     */
+    private void growActive() {
+        int size = Math.min(timestamps.length * 2, segmentSize);
+        timestamps = Arrays.copyOf(timestamps, size);
+        temperatures = Arrays.copyOf(temperatures, size);
+        humidities = Arrays.copyOf(humidities, size);
+        windSpeeds = Arrays.copyOf(windSpeeds, size);
+        conditions = Arrays.copyOf(conditions, size);
+    }
+
+    /**
+     * Compresses the active segment into a sealed one, and empties it.
+     */
+    private void seal() {
+        sealed.addLast(CompressedWeatherSegment.encode(timestamps, temperatures, humidities, windSpeeds, conditions, activeCount));
+        sealedCount += activeCount;
+        activeCount = 0;
+    }
+
+    /**
+     * Drops the oldest samples beyond the capacity. As the active segment is never larger than the
+     * capacity, they are all in sealed segments.
+     */
+    private void dropOldest() {
+        long excess = size() - capacity;
+        while (excess > 0) {
+            CompressedWeatherSegment oldest = sealed.peekFirst();
+            int remaining = oldest.count() - dropped;
+            if (excess >= remaining) {
+                sealed.removeFirst();
+                sealedCount -= oldest.count();
+                dropped = 0;
+                excess -= remaining;
+            } else {
+                dropped += (int) excess;
+                excess = 0;
+            }
+        }
+    }
+
+    /**
+     * Gets the samples observed in a time range, oldest first.
+     *
+     * @param from the start of the range in epoch milliseconds, inclusive
+     * @param to the end of the range in epoch milliseconds, inclusive
+     * @return the samples in the range
+     */
+    public List<Weather> range(long from, long to) {
+        return range(from, to, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets the first samples observed in a time range, oldest first. Decoding stops once the limit
+     * is reached.
+     *
+     * @param from the start of the range in epoch milliseconds, inclusive
+     * @param to the end of the range in epoch milliseconds, inclusive
+     * @param limit the maximum number of samples
+     * @return at most limit samples in the range
+     */
+    public synchronized List<Weather> range(long from, long to, int limit) {
+        List<Weather> samples = new ArrayList<>(Math.min(limit, 256));
+        forEach(from, to, (timestamp, temperature, humidity, windSpeed, condition) -> {
+            samples.add(new Weather(null, city, temperature, humidity, windSpeed, conditionName(condition), timestamp));
+            return samples.size() < limit;
+        });
+        return samples;
+    }
+
+    /**
+     * Downsamples the samples observed in a time range into buckets of a fixed length, aligned to
+     * multiples of that length since the epoch. Buckets without samples are left out.
+     *
+     * @param from the start of the range in epoch milliseconds, inclusive
+     * @param to the end of the range in epoch milliseconds, inclusive
+     * @param bucketMillis the length of a bucket in milliseconds
+     * @return the buckets holding samples, oldest first
+     */
+    public synchronized List<WeatherRollup> rollup(long from, long to, long bucketMillis) {
+        if (bucketMillis <= 0) {
+            throw new IllegalArgumentException("Bucket length must be positive: " + bucketMillis);
+        }
+        RollupBuilder builder = new RollupBuilder(city, bucketMillis);
+        forEach(from, to, builder);
+        return builder.buckets;
+    }
+
+    /**
+     * Passes the samples observed in a time range to a visitor, oldest first, decoding the sealed
+     * segments that overlap the range one sample at a time, until the visitor returns false.
+     */
+    private void forEach(long from, long to, SampleVisitor visitor) {
+        int skip = dropped;
+        for (CompressedWeatherSegment segment : sealed) {
+            int segmentSkip = skip;
+            skip = 0;
+            if (segment.lastTimestamp() < from) {
+                continue;
+            }
+            if (segment.firstTimestamp() > to) {
+                return;
+            }
+            CompressedWeatherSegment.Decoder decoder = segment.decoder();
+            for (int i = 0; decoder.next(); i++) {
+                long timestamp = decoder.timestamp();
+                if (i < segmentSkip || timestamp < from) {
+                    continue;
+                }
+                if (timestamp > to) {
+                    return;
+                }
+                if (!visitor.accept(timestamp, decoder.temperature(), decoder.humidity(), decoder.windSpeed(), decoder.condition())) {
+                    return;
+                }
+            }
+        }
+
+        for (int i = firstActiveAtOrAfter(from); i < activeCount; i++) {
+            if (timestamps[i] > to) {
+                return;
+            }
+            if (!visitor.accept(timestamps[i], temperatures[i], humidities[i], windSpeeds[i], conditions[i])) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of samples held.
+     *
+     * @return the number of samples
+     */
+    public synchronized int size() {
+        return (int) (sealedCount - dropped + activeCount);
+    }
+
+    /**
+     * Gets the maximum number of samples kept.
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of sealed segments.
+     *
+     * @return the number of compressed segments
+     */
+    public synchronized int sealedSegments() {
+        return sealed.size();
+    }
+
+    /**
+     * Gets the heap used by the samples: the arrays of the active segment, and the compressed
+     * sealed segments.
+     *
+     * @return the size in bytes
+     */
+    public synchronized long memoryBytes() {
+        long bytes = (long) timestamps.length * BYTES_PER_SAMPLE;
+        for (CompressedWeatherSegment segment : sealed) {
+            bytes += segment.compressedBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Removes all samples.
+     */
+    public synchronized void clear() {
+        sealed.clear();
+        sealedCount = 0;
+        dropped = 0;
+        activeCount = 0;
+    }
+
+    /**
+     * Finds the first sample of the active segment at or after a time, by binary search.
+     *
+     * @return the index of the sample, or the number of active samples if there is none
+     */
+    private int firstActiveAtOrAfter(long from) {
+        int low = 0;
+        int high = activeCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[mid] < from) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Receives the samples of a query.
+     */
+    @FunctionalInterface
+    private interface SampleVisitor {
+        boolean accept(long timestamp, double temperature, double humidity, double windSpeed, byte condition);
+    }
+
+    /**
+     * Adds the samples of a query to buckets, starting a new one when a sample is past the current.
+     */
+    private static final class RollupBuilder implements SampleVisitor {
+        private final String city;
+        private final long bucketMillis;
+        private final List<WeatherRollup> buckets = new ArrayList<>();
+        private WeatherRollup bucket;
+
+        private RollupBuilder(String city, long bucketMillis) {
+            this.city = city;
+            this.bucketMillis = bucketMillis;
+        }
+
+        @Override
+        public boolean accept(long timestamp, double temperature, double humidity, double windSpeed, byte condition) {
+            if (bucket == null || timestamp >= bucket.getEnd()) {
+                long start = timestamp - Math.floorMod(timestamp, bucketMillis);
+                bucket = new WeatherRollup(city, start, start + bucketMillis);
+                buckets.add(bucket);
+            }
+            bucket.add(temperature, humidity, windSpeed);
+            return true;
+        }
+    }
+
+    private static byte conditionCode(String condition) {
+        if (condition == null) {
+            return 0;
+        }
+        Byte code = conditionCodes.get(condition);
+        return code != null ? code : assignConditionCode(condition);
+    }
+
+    private static synchronized byte assignConditionCode(String condition) {
+        Byte code = conditionCodes.get(condition);
+        if (code != null) {
+            return code;
+        }
+        if (conditionNames.length > Byte.MAX_VALUE) {
+            // Out of codes: kept as unknown rather than growing the sample
+            return 0;
+        }
+        byte assigned = (byte) conditionNames.length;
+        String[] names = Arrays.copyOf(conditionNames, assigned + 1);
+        names[assigned] = condition;
+        conditionNames = names;
+        conditionCodes.put(condition, assigned);
+        return assigned;
+    }
+
+    private static String conditionName(byte code) {
+        return conditionNames[code];
+    }
+}
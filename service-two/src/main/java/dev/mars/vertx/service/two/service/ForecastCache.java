@@ -0,0 +1,287 @@
+package dev.mars.vertx.service.two.service;
+
+import dev.mars.vertx.service.two.model.Weather;
+import dev.mars.vertx.service.two.model.WeatherJson;
+import dev.mars.vertx.service.two.repository.CityDirectory;
+import dev.mars.vertx.service.two.repository.WeatherRepository;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encoded forecasts, keyed by city, refreshed in the background.
+ *
+ * For each city, the forecast over the maximum horizon is generated once per refresh and its days
+ * are encoded once, back to back in a single Buffer with the offset where each day ends. The
+ * response for a number of days is the city header followed by the slice of the first days, so a
+ * city costs one encoding of its days whatever number of days is requested. Requests never generate
+ * a forecast of a cached city. Refreshing goes through the cities one at a time on a timer, spaced
+ * so that every city is refreshed once per refresh interval, which spreads the work evenly instead
+ * of regenerating all cities at once.
+ *
+ * Starting does not wait for the cache to fill: the cities are warmed up in the background, a
+ * batch per event loop turn. A request for a city without a cached forecast, such as one not warmed
+ * up yet or added since the last pass, waits for that city's forecast to be generated; concurrent
+ * requests share that one generation.
+ *
+ * Cities are keyed by their normalized name, so that "london" and "London" share one entry.
+ *
+ * Instances are used from the event loop of the verticle that owns them.
+ */
+public class ForecastCache {
+    private static final Logger logger = LoggerFactory.getLogger(ForecastCache.class);
+
+    /**
+     * Default maximum number of forecast days.
+     */
+    public static final int DEFAULT_MAX_DAYS = 14;
+
+    /**
+     * Default time between two refreshes of a city's forecast.
+     */
+    public static final long DEFAULT_REFRESH_INTERVAL_MS = 600_000;
+
+    private static final int WARM_UP_BATCH_SIZE = 100;
+
+    private final Vertx vertx;
+    private final WeatherRepository repository;
+    private final int maxDays;
+    private final long refreshIntervalMs;
+
+    // Encoded forecasts per normalized city name
+    private final Map<String, EncodedForecast> forecasts = new HashMap<>();
+    private final Map<String, Future<EncodedForecast>> loading = new HashMap<>();
+    private final Promise<Void> warmedUp = Promise.promise();
+
+    private List<String> refreshOrder = new ArrayList<>();
+    private int refreshIndex;
+    private long timerId = -1;
+    private boolean closed;
+
+    /**
+     * Creates a forecast cache.
+     *
+     * @param vertx the Vertx instance
+     * @param repository the repository generating forecasts
+     * @param maxDays the maximum number of forecast days
+     * @param refreshIntervalMs the time between two refreshes of a city's forecast
+     */
+    public ForecastCache(Vertx vertx, WeatherRepository repository, int maxDays, long refreshIntervalMs) {
+        if (maxDays <= 0) {
+            throw new IllegalArgumentException("Maximum forecast days must be positive: " + maxDays);
+        }
+        if (refreshIntervalMs <= 0) {
+            throw new IllegalArgumentException("Forecast refresh interval must be positive: " + refreshIntervalMs);
+        }
+        this.vertx = vertx;
+        this.repository = repository;
+        this.maxDays = maxDays;
+        this.refreshIntervalMs = refreshIntervalMs;
+    }
+
+    /**
+     * Starts generating the forecasts of all cities in the background, then refreshing them.
+     *
+     * @return a Future that completes once the cities are listed, before their forecasts are cached
+     */
+    public Future<Void> start() {
+        return repository.getCities()
+            .onSuccess(cities -> {
+                logger.info("Warming up {}-day forecasts for {} cities in the background", maxDays, cities.size());
+                warmUp(cities, 0);
+            })
+            .mapEmpty();
+    }
+
+    /**
+     * Gets a Future that completes when the forecasts of the cities known at start are cached.
+     *
+     * @return a Future that completes when the warm-up is done
+     */
+    public Future<Void> warmedUp() {
+        return warmedUp.future();
+    }
+
+    /**
+     * Stops refreshing forecasts.
+     */
+    public void close() {
+        closed = true;
+        if (timerId >= 0) {
+            vertx.cancelTimer(timerId);
+            timerId = -1;
+        }
+    }
+
+    /**
+     * Gets the encoded forecast of a city.
+     *
+     * @param city the city name
+     * @param days the number of days, from 1 to the maximum
+     * @return a Future with the encoded forecast, or a failed future if the city is not found
+     * @throws IllegalArgumentException if the number of days is out of bounds
+     */
+    public Future<Buffer> get(String city, int days) {
+        if (days < 1 || days > maxDays) {
+            throw new IllegalArgumentException("Forecast days must be between 1 and " + maxDays + ": " + days);
+        }
+        EncodedForecast encoded = forecasts.get(CityDirectory.normalize(city));
+        if (encoded != null) {
+            return Future.succeededFuture(encoded.response(days));
+        }
+        return load(city).map(loaded -> loaded.response(days));
+    }
+
+    /**
+     * Gets the maximum number of forecast days.
+     *
+     * @return the maximum number of days
+     */
+    public int getMaxDays() {
+        return maxDays;
+    }
+
+    /**
+     * Gets the number of cities with a cached forecast.
+     *
+     * @return the number of cities
+     */
+    public int size() {
+        return forecasts.size();
+    }
+
+    /**
+     * Loads one batch of cities, and the next batch on the following event loop turn, so that
+     * warming up many cities never holds the event loop for long.
+     */
+    private void warmUp(List<String> cities, int from) {
+        if (closed) {
+            return;
+        }
+        int to = Math.min(cities.size(), from + WARM_UP_BATCH_SIZE);
+        List<Future<EncodedForecast>> loads = new ArrayList<>(to - from);
+        for (String city : cities.subList(from, to)) {
+            loads.add(load(city));
+        }
+        Future.join(loads).onComplete(batch -> {
+            if (to < cities.size()) {
+                vertx.runOnContext(v -> warmUp(cities, to));
+                return;
+            }
+            logger.info("Cached {}-day forecasts for {} cities, refreshing every {} ms",
+                maxDays, forecasts.size(), refreshIntervalMs);
+            warmedUp.tryComplete();
+            startRefreshPass();
+        });
+    }
+
+    /**
+     * Generates and encodes the forecast of a city, unless it is already being generated.
+     */
+    private Future<EncodedForecast> load(String city) {
+        String key = CityDirectory.normalize(city);
+        Future<EncodedForecast> pending = loading.get(key);
+        if (pending != null) {
+            return pending;
+        }
+        Future<EncodedForecast> generated = repository.getForecast(city, maxDays)
+            .map(forecast -> encode(city, forecast))
+            .onComplete(result -> {
+                loading.remove(key);
+                if (result.succeeded()) {
+                    forecasts.put(key, result.result());
+                } else {
+                    // Gone from the repository: stop serving its old forecast
+                    forecasts.remove(key);
+                }
+            });
+        if (!generated.isComplete()) {
+            loading.put(key, generated);
+        }
+        return generated;
+    }
+
+    private EncodedForecast encode(String city, List<Weather> forecast) {
+        // Named as the repository names the city, whatever case it was requested in
+        if (!forecast.isEmpty() && forecast.get(0).getCity() != null) {
+            city = forecast.get(0).getCity();
+        }
+        Buffer days = Buffer.buffer();
+        int[] ends = new int[maxDays + 1];
+        for (int day = 1; day <= maxDays; day++) {
+            if (day > 1) {
+                days.appendByte((byte) ',');
+            }
+            days.appendBuffer(WeatherJson.encode(forecast.get(day - 1)));
+            ends[day] = days.length();
+        }
+        return new EncodedForecast(Buffer.buffer(Json.encode(city)), days, ends);
+    }
+
+    /**
+     * Starts a pass over the current cities, refreshing one per tick.
+     */
+    private void startRefreshPass() {
+        repository.getCities()
+            .onSuccess(cities -> {
+                refreshOrder = cities;
+                refreshIndex = 0;
+                scheduleNextRefresh();
+            })
+            .onFailure(err -> logger.warn("Failed to list cities for forecast refresh: {}", err.getMessage()));
+    }
+
+    private void scheduleNextRefresh() {
+        if (closed) {
+            return;
+        }
+        long delay = Math.max(1, refreshIntervalMs / Math.max(1, refreshOrder.size()));
+        timerId = vertx.setTimer(delay, id -> {
+            timerId = -1;
+            if (refreshIndex >= refreshOrder.size()) {
+                startRefreshPass();
+                return;
+            }
+            String city = refreshOrder.get(refreshIndex++);
+            load(city)
+                .onFailure(err -> logger.debug("Failed to refresh forecast for {}: {}", city, err.getMessage()))
+                .onComplete(result -> scheduleNextRefresh());
+        });
+    }
+
+    /**
+     * The encoded days of a city's forecast, from which the response for any number of days is cut.
+     * The response is the same JSON as from {@link WeatherJson#encodeForecast}.
+     */
+    private static final class EncodedForecast {
+        private final Buffer city;
+        private final Buffer days;
+        private final int[] ends;
+
+        EncodedForecast(Buffer city, Buffer days, int[] ends) {
+            this.city = city;
+            this.days = days;
+            this.ends = ends;
+        }
+
+        Buffer response(int count) {
+            String daysField = ",\"days\":" + count;
+            return Buffer.buffer(city.length() + ends[count] + daysField.length() + 24)
+                .appendString("{\"city\":")
+                .appendBuffer(city)
+                .appendString(daysField)
+                .appendString(",\"forecast\":[")
+                .appendBuffer(days, 0, ends[count])
+                .appendString("]}");
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package dev.mars.vertx.service.two.service;
 
 import dev.mars.vertx.service.two.model.Weather;
+import dev.mars.vertx.service.two.model.WeatherRollup;
 import dev.mars.vertx.service.two.repository.WeatherRepository;
 import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -17,7 +21,13 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class WeatherService {
     private static final Logger logger = LoggerFactory.getLogger(WeatherService.class);
 
+    /**
+     * The maximum number of observations in one page of history.
+     */
+    public static final int MAX_HISTORY_SAMPLES = 1000;
+
     private final WeatherRepository weatherRepository;
+    private final ForecastCache forecastCache;
     private final AtomicInteger requestCounter = new AtomicInteger(0);
 
     /**
@@ -26,17 +36,29 @@ public class WeatherService {
      * @param weatherRepository the weather repository
      */
     public WeatherService(WeatherRepository weatherRepository) {
+        this(weatherRepository, null);
+    }
+
+    /**
+     * Creates a service answering forecast requests from a forecast cache.
+     *
+     * @param weatherRepository the weather repository
+     * @param forecastCache the forecast cache, or null to generate forecasts on each request
+     */
+    public WeatherService(WeatherRepository weatherRepository, ForecastCache forecastCache) {
         this.weatherRepository = weatherRepository;
+        this.forecastCache = forecastCache;
     }
 
     /**
-     * Initializes the service with sample data.
+     * Initializes the service with sample data, and precomputes the forecasts if they are cached.
      *
      * @return a Future that completes when initialization is done
      */
     public Future<Void> initialize() {
         logger.info("Initializing weather service");
-        return weatherRepository.initialize();
+        Future<Void> initialized = weatherRepository.initialize();
+        return forecastCache == null ? initialized : initialized.compose(v -> forecastCache.start());
     }
 
     /**
@@ -66,8 +88,8 @@ public class WeatherService {
                     return Future.failedFuture("No cities available");
                 }
 
-                int randomIndex = (int) (Math.random() * cities.size());
-                String randomCity = cities.get(randomIndex);
+                // The repository's list is indexed, so picking from it copies nothing
+                String randomCity = cities.get(ThreadLocalRandom.current().nextInt(cities.size()));
                 logger.debug("Selected random city: {}", randomCity);
 
                 return weatherRepository.findByCity(randomCity);
@@ -78,24 +100,137 @@ public class WeatherService {
      * Gets a forecast for a city.
      *
      * @param city the city name
-     * @param days the number of days for the forecast
+     * @param days the number of days for the forecast, from 1 to the maximum
      * @return a Future with the forecast data
      */
     public Future<JsonObject> getForecast(String city, int days) {
+        if (forecastCache != null) {
+            return getEncodedForecast(city, days).map(JsonObject::new);
+        }
+
         logger.info("Getting {}-day forecast for city: {}", days, city);
         incrementRequestCounter();
 
+        if (days < 1 || days > getMaxForecastDays()) {
+            return Future.failedFuture("Forecast days must be between 1 and " + getMaxForecastDays() + ": " + days);
+        }
         return weatherRepository.getForecast(city, days)
             .compose(forecast -> {
                 JsonObject result = new JsonObject()
                     .put("city", city)
                     .put("days", days)
-                    .put("forecast", new io.vertx.core.json.JsonArray(forecast.stream().map(Weather::toJson).toList()));
+                    .put("forecast", new JsonArray(forecast.stream().map(Weather::toJson).toList()));
 
                 return Future.succeededFuture(result);
             });
     }
 
+    /**
+     * Gets a forecast for a city, encoded. With a forecast cache, it is cut from the cached encoding.
+     *
+     * @param city the city name
+     * @param days the number of days for the forecast, from 1 to the maximum
+     * @return a Future with the encoded forecast
+     */
+    public Future<Buffer> getEncodedForecast(String city, int days) {
+        if (forecastCache == null) {
+            return getForecast(city, days).map(JsonObject::toBuffer);
+        }
+
+        logger.info("Getting {}-day forecast for city: {}", days, city);
+        incrementRequestCounter();
+
+        if (days < 1 || days > getMaxForecastDays()) {
+            return Future.failedFuture("Forecast days must be between 1 and " + getMaxForecastDays() + ": " + days);
+        }
+        return forecastCache.get(city, days);
+    }
+
+    /**
+     * Gets the maximum number of forecast days.
+     *
+     * @return the maximum number of days
+     */
+    public int getMaxForecastDays() {
+        return forecastCache != null ? forecastCache.getMaxDays() : ForecastCache.DEFAULT_MAX_DAYS;
+    }
+
+    /**
+     * Gets a page of the recorded observations of a city in a time range, oldest first.
+     * A page holds at most {@link #MAX_HISTORY_SAMPLES} observations. When the range holds more,
+     * the result has a {@code next} timestamp to pass as {@code from} for the following page.
+     *
+     * @param city the city name
+     * @param from the start of the range in epoch milliseconds, inclusive
+     * @param to the end of the range in epoch milliseconds, inclusive
+     * @param limit the maximum number of observations in the page
+     * @return a Future with the observations
+     */
+    public Future<JsonObject> getHistory(String city, long from, long to, int limit) {
+        logger.info("Getting history for city {} from {} to {}", city, from, to);
+        incrementRequestCounter();
+
+        if (from > to) {
+            return Future.failedFuture("History range starts after it ends");
+        }
+        if (limit < 1) {
+            return Future.failedFuture("History limit must be positive: " + limit);
+        }
+        int pageSize = Math.min(limit, MAX_HISTORY_SAMPLES);
+        // One more sample than the page tells whether there is a next page, and where it starts
+        return weatherRepository.getHistory(city, from, to, pageSize + 1)
+            .map(samples -> {
+                JsonObject result = new JsonObject()
+                    .put("city", city)
+                    .put("from", from)
+                    .put("to", to);
+                List<Weather> page = samples;
+                if (samples.size() > pageSize) {
+                    long next = samples.get(pageSize).getTimestamp();
+                    // Samples sharing the next page's first timestamp go to that page, unless they fill this one
+                    int end = pageSize;
+                    while (end > 0 && samples.get(end - 1).getTimestamp() == next) {
+                        end--;
+                    }
+                    if (end == 0) {
+                        end = pageSize;
+                        next++;
+                    }
+                    page = samples.subList(0, end);
+                    result.put("next", next);
+                }
+                return result
+                    .put("count", page.size())
+                    .put("samples", new JsonArray(page.stream().map(Weather::toJson).toList()));
+            });
+    }
+
+    /**
+     * Gets the recorded observations of a city in a time range, downsampled into buckets.
+     *
+     * @param city the city name
+     * @param from the start of the range in epoch milliseconds, inclusive
+     * @param to the end of the range in epoch milliseconds, inclusive
+     * @param bucketMillis the length of a bucket in milliseconds
+     * @return a Future with the buckets
+     */
+    public Future<JsonObject> getRollup(String city, long from, long to, long bucketMillis) {
+        logger.info("Getting {} ms rollup for city {} from {} to {}", bucketMillis, city, from, to);
+        incrementRequestCounter();
+
+        if (from > to) {
+            return Future.failedFuture("History range starts after it ends");
+        }
+        return weatherRepository.getRollup(city, from, to, bucketMillis)
+            .map(buckets -> new JsonObject()
+                .put("city", city)
+                .put("from", from)
+                .put("to", to)
+                .put("bucketMillis", bucketMillis)
+                .put("count", buckets.size())
+                .put("buckets", new JsonArray(buckets.stream().map(WeatherRollup::toJson).toList())));
+    }
+
     /**
      * Lists all available cities.
      *
@@ -115,6 +250,18 @@ public class WeatherService {
             });
     }
 
+    /**
+     * Lists all available cities, encoded. With the in-memory repository, this is the encoded list
+     * it caches until the next city is added.
+     *
+     * @return a Future with the encoded list of cities
+     */
+    public Future<Buffer> getEncodedCities() {
+        logger.info("Listing all cities");
+        incrementRequestCounter();
+        return weatherRepository.getEncodedCities();
+    }
+
     /**
      * Gets statistics about the service.
      *
@@ -142,11 +289,20 @@ public class WeatherService {
      * @return a Future with the item as a JsonObject
      */
     public Future<JsonObject> getItem(String id) {
+        return getWeather(id).map(Weather::toJson);
+    }
+
+    /**
+     * Gets a weather record by ID.
+     *
+     * @param id the record ID
+     * @return a Future with the weather record
+     */
+    public Future<Weather> getWeather(String id) {
         logger.info("Getting item with ID: {}", id);
         incrementRequestCounter();
 
         return weatherRepository.findById(id)
-            .map(Weather::toJson)
             .recover(err -> {
                 logger.warn("Item not found with ID: {}", id);
                 return Future.failedFuture("Item not found with ID: " + id);
@@ -159,10 +315,7 @@ public class WeatherService {
      * @return a Future with the list of items as a JsonObject
      */
     public Future<JsonObject> listItems() {
-        logger.info("Listing all items");
-        incrementRequestCounter();
-
-        return weatherRepository.findAll()
+        return getAllWeather()
             .map(weatherList -> {
                 JsonObject result = new JsonObject()
                     .put("items", weatherList.stream().map(Weather::toJson).toArray())
@@ -172,6 +325,18 @@ public class WeatherService {
             });
     }
 
+    /**
+     * Gets all weather records.
+     *
+     * @return a Future with all weather records
+     */
+    public Future<List<Weather>> getAllWeather() {
+        logger.info("Listing all items");
+        incrementRequestCounter();
+
+        return weatherRepository.findAll();
+    }
+
     /**
      * Creates a new item.
      *
@@ -179,18 +344,28 @@ public class WeatherService {
      * @return a Future with the created item as a JsonObject
      */
     public Future<JsonObject> createItem(JsonObject itemData) {
+        return createWeather(itemData).map(Weather::toJson);
+    }
+
+    /**
+     * Creates a new weather record.
+     *
+     * @param itemData the record data
+     * @return a Future with the created weather record
+     */
+    public Future<Weather> createWeather(JsonObject itemData) {
         logger.info("Creating new item: {}", itemData);
         incrementRequestCounter();
 
         Weather weather = new Weather();
         weather.setCity(itemData.getString("city", "Unknown"));
         weather.setTemperature(itemData.getDouble("temperature", 20.0));
-        weather.setDescription(itemData.getString("description", "Clear"));
+        // Older clients send the condition as "description"
+        weather.setCondition(itemData.getString("condition", itemData.getString("description", "Clear")));
         weather.setHumidity(itemData.getInteger("humidity", 50));
         weather.setWindSpeed(itemData.getDouble("windSpeed", 5.0));
 
-        return weatherRepository.save(weather)
-            .map(Weather::toJson);
+        return weatherRepository.save(weather);
     }
 
     /**
@@ -200,6 +375,16 @@ public class WeatherService {
      * @return a Future with the updated item as a JsonObject
      */
     public Future<JsonObject> updateItem(JsonObject itemData) {
+        return updateWeather(itemData).map(Weather::toJson);
+    }
+
+    /**
+     * Updates an existing weather record.
+     *
+     * @param itemData the record data containing the ID and updated fields
+     * @return a Future with the updated weather record
+     */
+    public Future<Weather> updateWeather(JsonObject itemData) {
         String id = itemData.getString("id");
         if (id == null) {
             return Future.failedFuture("ID is required for update");
@@ -217,8 +402,8 @@ public class WeatherService {
                 if (itemData.containsKey("temperature")) {
                     weather.setTemperature(itemData.getDouble("temperature"));
                 }
-                if (itemData.containsKey("description")) {
-                    weather.setDescription(itemData.getString("description"));
+                if (itemData.containsKey("condition") || itemData.containsKey("description")) {
+                    weather.setCondition(itemData.getString("condition", itemData.getString("description")));
                 }
                 if (itemData.containsKey("humidity")) {
                     weather.setHumidity(itemData.getInteger("humidity"));
@@ -229,7 +414,6 @@ public class WeatherService {
 
                 return weatherRepository.save(weather);
             })
-            .map(Weather::toJson)
             .recover(err -> {
                 logger.warn("Failed to update item with ID: {}", id);
                 return Future.failedFuture("Item not found with ID: " + id);
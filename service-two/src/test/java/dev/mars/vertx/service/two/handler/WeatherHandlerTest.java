@@ -1,8 +1,10 @@
 package dev.mars.vertx.service.two.handler;
 
 import dev.mars.vertx.service.two.model.Weather;
+import dev.mars.vertx.service.two.repository.InMemoryWeatherRepository;
 import dev.mars.vertx.service.two.service.WeatherService;
 import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.junit5.VertxExtension;
@@ -44,9 +46,9 @@ class WeatherHandlerTest {
         weatherHandler.handleRequest(request)
                 .onComplete(testContext.succeeding(result -> {
                     testContext.verify(() -> {
-                        // Verify the result is a JsonObject
-                        assertTrue(result instanceof JsonObject);
-                        JsonObject jsonResult = (JsonObject) result;
+                        // Verify the result is the record itself, for its codec to carry
+                        assertTrue(result instanceof Weather);
+                        JsonObject jsonResult = ((Weather) result).toJson();
 
                         // Verify the weather properties
                         assertEquals("London", jsonResult.getString("city"));
@@ -91,9 +93,9 @@ class WeatherHandlerTest {
         weatherHandler.handleRequest(request)
                 .onComplete(testContext.succeeding(result -> {
                     testContext.verify(() -> {
-                        // Verify the result is a JsonObject
-                        assertTrue(result instanceof JsonObject);
-                        JsonObject jsonResult = (JsonObject) result;
+                        // Verify the result is the record itself, for its codec to carry
+                        assertTrue(result instanceof Weather);
+                        JsonObject jsonResult = ((Weather) result).toJson();
 
                         // Verify the weather properties
                         assertEquals("London", jsonResult.getString("city"));
@@ -172,6 +174,29 @@ class WeatherHandlerTest {
                 }));
     }
 
+    @Test
+    void testHandleRequestForecastDaysFromQueryString(VertxTestContext testContext) {
+        mockService.setForecast(new JsonObject().put("city", "London").put("forecast", new JsonArray()));
+
+        // Requests from the gateway carry query parameters as strings
+        JsonObject request = new JsonObject()
+                .put("action", "forecast")
+                .put("city", "London")
+                .put("days", "3");
+
+        weatherHandler.handleRequest(request)
+                .compose(result -> {
+                    testContext.verify(() -> assertEquals(3, ((JsonObject) result).getInteger("days")));
+                    return weatherHandler.handleRequest(request.copy().put("days", "three"));
+                })
+                .onComplete(testContext.failing(err -> {
+                    testContext.verify(() -> {
+                        assertTrue(err.getMessage().contains("must be a number"));
+                        testContext.completeNow();
+                    });
+                }));
+    }
+
     @Test
     void testHandleRequestForecastMissingCity(VertxTestContext testContext) {
         // Create a request for a forecast without a city
@@ -266,6 +291,84 @@ class WeatherHandlerTest {
                 }));
     }
 
+    @Test
+    void testHandleRequestHistoryAndRollup(VertxTestContext testContext) {
+        WeatherService service = new WeatherService(new InMemoryWeatherRepository());
+        WeatherHandler handler = new WeatherHandler(service);
+
+        service.initialize()
+                .compose(v -> service.createItem(new JsonObject().put("city", "Berlin").put("temperature", 12.0)))
+                .compose(v -> handler.handleRequest(new JsonObject().put("action", "history").put("city", "Berlin")))
+                .compose(result -> {
+                    testContext.verify(() -> {
+                        JsonObject history = (JsonObject) result;
+                        assertEquals("Berlin", history.getString("city"));
+                        assertEquals(2, history.getInteger("count"));
+                        assertEquals(12.0, history.getJsonArray("samples").getJsonObject(1).getDouble("temperature"));
+                    });
+                    return handler.handleRequest(new JsonObject()
+                            .put("action", "rollup")
+                            .put("city", "Berlin")
+                            .put("bucketMillis", Long.MAX_VALUE / 2));
+                })
+                .compose(result -> {
+                    testContext.verify(() -> {
+                        JsonObject rollup = (JsonObject) result;
+                        assertEquals(1, rollup.getInteger("count"));
+                        JsonObject bucket = rollup.getJsonArray("buckets").getJsonObject(0);
+                        assertEquals(2, bucket.getInteger("count"));
+                        assertTrue(bucket.getJsonObject("temperature").getDouble("min") <= 12.0);
+                    });
+                    return handler.handleRequest(new JsonObject().put("action", "rollup"));
+                })
+                .onComplete(testContext.failing(err -> testContext.verify(() -> {
+                    assertTrue(err.getMessage().contains("City is required"));
+                    testContext.completeNow();
+                })));
+    }
+
+    @Test
+    void testHistoryParametersFromQueryStringsAndPaging(VertxTestContext testContext) {
+        InMemoryWeatherRepository repository = new InMemoryWeatherRepository();
+        WeatherService service = new WeatherService(repository);
+        WeatherHandler handler = new WeatherHandler(service);
+        long now = System.currentTimeMillis();
+
+        // The gateway passes query parameters as strings
+        service.initialize()
+                .compose(v -> repository.save(new Weather("Berlin", 12.0, 50.0, 5.0, "Clear", now + 60_000L)))
+                .compose(v -> repository.save(new Weather("Berlin", 14.0, 50.0, 5.0, "Clear", now + 120_000L)))
+                .compose(v -> handler.handleRequest(new JsonObject()
+                        .put("action", "history").put("city", "Berlin").put("from", "0").put("limit", "2")))
+                .compose(result -> {
+                    JsonObject page = (JsonObject) result;
+                    testContext.verify(() -> {
+                        assertEquals(2, page.getInteger("count"));
+                        assertNotNull(page.getLong("next"));
+                    });
+                    return handler.handleRequest(new JsonObject()
+                            .put("action", "history").put("city", "Berlin").put("from", page.getLong("next").toString()));
+                })
+                .compose(result -> {
+                    testContext.verify(() -> {
+                        JsonObject page = (JsonObject) result;
+                        assertEquals(1, page.getInteger("count"));
+                        assertNull(page.getValue("next"));
+                        assertEquals(14.0, page.getJsonArray("samples").getJsonObject(0).getDouble("temperature"));
+                    });
+                    return handler.handleRequest(new JsonObject()
+                            .put("action", "rollup").put("city", "Berlin").put("bucketMillis", String.valueOf(Long.MAX_VALUE / 2)));
+                })
+                .compose(result -> {
+                    testContext.verify(() -> assertEquals(3, ((JsonObject) result).getJsonArray("buckets").getJsonObject(0).getInteger("count")));
+                    return handler.handleRequest(new JsonObject().put("action", "history").put("city", "Berlin").put("to", "soon"));
+                })
+                .onComplete(testContext.failing(err -> testContext.verify(() -> {
+                    assertTrue(err.getMessage().contains("must be numbers"));
+                    testContext.completeNow();
+                })));
+    }
+
     /**
      * Mock implementation of WeatherService for testing.
      */
@@ -344,6 +447,11 @@ class WeatherHandlerTest {
             }
         }
 
+        @Override
+        public Future<Buffer> getEncodedCities() {
+            return listCities().map(JsonObject::toBuffer);
+        }
+
         @Override
         public Future<JsonObject> getStats() {
             if (stats != null) {
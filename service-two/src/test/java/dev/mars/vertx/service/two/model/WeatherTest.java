@@ -1,8 +1,12 @@
 package dev.mars.vertx.service.two.model;
 
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class WeatherTest {
@@ -171,4 +175,47 @@ class WeatherTest {
         assertTrue(toString.contains("Sunny"));
         assertTrue(toString.contains("1000"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testMessageCodecRoundTrip() {
+        WeatherMessageCodec codec = new WeatherMessageCodec();
+        Weather weather = new Weather("1", "London", 15.5, 65.0, 10.2, "Sunny", 1000L);
+
+        Buffer buffer = Buffer.buffer();
+        codec.encodeToWire(buffer, weather);
+
+        Weather decoded = codec.decodeFromWire(0, buffer);
+        assertEquals(weather.toJson(), decoded.toJson());
+        assertNotSame(weather, codec.transform(weather));
+        assertEquals(weather.toJson(), codec.transform(weather).toJson());
+        assertSame(weather, codec.shared().transform(weather));
+    }
+
+    @Test
+    void testStreamingJsonMatchesJsonObject() {
+        Weather weather = new Weather("1", "London", 15.5, 65.0, 10.2, "Sunny", 1000L);
+        Weather other = new Weather("2", "Paris", -3.0, 80.5, 0.0, "Snow", 2000L);
+
+        assertEquals(weather.toJson(), new JsonObject(WeatherJson.encode(weather)));
+
+        JsonObject list = new JsonObject(WeatherJson.encodeList(List.of(weather, other)));
+        assertEquals(new JsonArray().add(weather.toJson()).add(other.toJson()), list.getJsonArray("items"));
+        assertEquals(2, list.getInteger("count"));
+    }
+
+    @Test
+    void testStreamingJsonRoundTrip() {
+        Weather weather = new Weather("1", "London", 15.5, 65.0, 10.2, "Sunny", 1000L);
+
+        assertEquals(weather.toJson(), WeatherJson.decode(WeatherJson.encode(weather)).toJson());
+        List<Weather> records = WeatherJson.decodeList(WeatherJson.encodeList(List.of(weather)));
+        assertEquals(1, records.size());
+        assertEquals(weather.toJson(), records.get(0).toJson());
+
+        Weather parsed = WeatherJson.decode(Buffer.buffer("{\"city\":\"Oslo\",\"temperature\":2,\"timestamp\":7}"));
+        assertEquals("Oslo", parsed.getCity());
+        assertEquals(2.0, parsed.getTemperature());
+        assertEquals("Unknown", parsed.getCondition());
+        assertEquals(7L, parsed.getTimestamp());
+    }
+}
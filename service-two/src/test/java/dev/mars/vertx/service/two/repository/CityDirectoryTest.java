@@ -0,0 +1,76 @@
+package dev.mars.vertx.service.two.repository;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CityDirectoryTest {
+
+    @Test
+    void testLooksUpNormalizedNames() {
+        CityDirectory directory = new CityDirectory();
+        assertEquals("New York", directory.add("New York"));
+        assertEquals("Zürich", directory.add("Zürich"));
+
+        assertEquals("New York", directory.canonical("new york"));
+        assertEquals("New York", directory.canonical("  NEW \t york "));
+        // Decomposed "u" and combining diaeresis
+        assertEquals("Zürich", directory.canonical("zürich"));
+        assertNull(directory.canonical("Newyork"));
+        assertNull(directory.canonical(null));
+
+        // Known in another case: not added again
+        assertEquals("New York", directory.add("NEW YORK"));
+        assertEquals(2, directory.size());
+    }
+
+    @Test
+    void testSnapshotsNeverChange() {
+        CityDirectory directory = new CityDirectory();
+        directory.add("London");
+        CityDirectory.Snapshot before = directory.snapshot();
+        Buffer encoded = before.encoded();
+        assertSame(encoded, before.encoded());
+
+        for (int i = 0; i < 100; i++) {
+            directory.add("City " + i);
+        }
+
+        assertEquals(List.of("London"), before);
+        assertSame(encoded, before.encoded());
+        assertThrows(UnsupportedOperationException.class, () -> before.add("Paris"));
+        assertThrows(IndexOutOfBoundsException.class, () -> before.get(1));
+
+        CityDirectory.Snapshot after = directory.snapshot();
+        assertEquals(101, after.size());
+        assertEquals("City 99", after.get(100));
+        assertNotSame(encoded, after.encoded());
+        assertEquals(101, new JsonObject(after.encoded()).getInteger("count"));
+
+        directory.clear();
+        assertEquals(0, directory.size());
+        assertEquals(101, after.size());
+        assertNull(directory.canonical("London"));
+    }
+
+    @Test
+    void testHoldsManyCities() {
+        CityDirectory directory = new CityDirectory();
+        for (int i = 0; i < 100_000; i++) {
+            directory.add("City " + i);
+        }
+
+        CityDirectory.Snapshot snapshot = directory.snapshot();
+        assertEquals(100_000, snapshot.size());
+        assertEquals("City 54321", directory.canonical("CITY 54321"));
+        assertEquals("City 54321", snapshot.get(54_321));
+
+        JsonObject encoded = new JsonObject(snapshot.encoded());
+        assertEquals(100_000, encoded.getInteger("count"));
+        assertEquals("City 99999", encoded.getJsonArray("cities").getString(99_999));
+    }
+}
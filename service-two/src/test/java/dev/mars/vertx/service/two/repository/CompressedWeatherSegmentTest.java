@@ -0,0 +1,79 @@
+package dev.mars.vertx.service.two.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedWeatherSegmentTest {
+
+    @Test
+    void testRoundTripOfIrregularSamples() {
+        int count = 500;
+        long[] timestamps = new long[count];
+        double[] temperatures = new double[count];
+        double[] humidities = new double[count];
+        double[] windSpeeds = new double[count];
+        byte[] conditions = new byte[count];
+
+        Random random = new Random(42);
+        long timestamp = 1_700_000_000_000L;
+        for (int i = 0; i < count; i++) {
+            // Regular, jittered and very large gaps; repeated, random and special values
+            timestamp += i % 50 == 0 ? random.nextInt(Integer.MAX_VALUE) : 60_000L + random.nextInt(3) * random.nextInt(3000);
+            timestamps[i] = timestamp;
+            temperatures[i] = i % 7 == 0 ? -40.0 + random.nextDouble() * 90 : Math.round(random.nextGaussian() * 100) / 10.0;
+            humidities[i] = i % 3 == 0 ? 50.0 : random.nextDouble();
+            windSpeeds[i] = i == 10 ? Double.NaN : i == 11 ? Double.POSITIVE_INFINITY : i == 12 ? -0.0 : random.nextDouble() * 1e300;
+            conditions[i] = (byte) (i % 5 == 0 ? random.nextInt(128) : 3);
+        }
+
+        CompressedWeatherSegment segment = CompressedWeatherSegment.encode(timestamps, temperatures, humidities, windSpeeds, conditions, count);
+        assertEquals(count, segment.count());
+        assertEquals(timestamps[0], segment.firstTimestamp());
+        assertEquals(timestamps[count - 1], segment.lastTimestamp());
+
+        CompressedWeatherSegment.Decoder decoder = segment.decoder();
+        for (int i = 0; i < count; i++) {
+            assertTrue(decoder.next());
+            assertEquals(timestamps[i], decoder.timestamp(), "timestamp " + i);
+            assertEquals(Double.doubleToRawLongBits(temperatures[i]), Double.doubleToRawLongBits(decoder.temperature()), "temperature " + i);
+            assertEquals(Double.doubleToRawLongBits(humidities[i]), Double.doubleToRawLongBits(decoder.humidity()), "humidity " + i);
+            assertEquals(Double.doubleToRawLongBits(windSpeeds[i]), Double.doubleToRawLongBits(decoder.windSpeed()), "wind speed " + i);
+            assertEquals(conditions[i], decoder.condition(), "condition " + i);
+        }
+        assertFalse(decoder.next());
+    }
+
+    @Test
+    void testCompressesRegularObservations() {
+        int count = WeatherSeries.DEFAULT_SEGMENT_SIZE;
+        long[] timestamps = new long[count];
+        double[] temperatures = new double[count];
+        double[] humidities = new double[count];
+        double[] windSpeeds = new double[count];
+        byte[] conditions = new byte[count];
+
+        // One observation a minute, with values drifting a tenth at a time as a sensor reports them
+        Random random = new Random(7);
+        double temperature = 15.0;
+        double humidity = 60.0;
+        double windSpeed = 10.0;
+        for (int i = 0; i < count; i++) {
+            timestamps[i] = 1_700_000_000_000L + i * 60_000L;
+            temperature = Math.round((temperature + (random.nextInt(3) - 1) * 0.1) * 10) / 10.0;
+            humidity = i % 10 == 0 ? Math.round((humidity + random.nextInt(3) - 1) * 10) / 10.0 : humidity;
+            windSpeed = Math.round((windSpeed + (random.nextInt(5) - 2) * 0.1) * 10) / 10.0;
+            temperatures[i] = temperature;
+            humidities[i] = humidity;
+            windSpeeds[i] = windSpeed;
+            conditions[i] = (byte) (i / 120);
+        }
+
+        CompressedWeatherSegment segment = CompressedWeatherSegment.encode(timestamps, temperatures, humidities, windSpeeds, conditions, count);
+        long raw = (long) count * WeatherSeries.BYTES_PER_SAMPLE;
+        assertTrue(segment.compressedBytes() * 2 < raw,
+            "Compressed " + segment.compressedBytes() + " bytes against " + raw + " raw");
+    }
+}
@@ -64,6 +64,30 @@ class InMemoryWeatherRepositoryTest {
             }));
     }
 
+    @Test
+    void testFindByCityInAnyCase(VertxTestContext testContext) {
+        repository.save(new Weather("são paulo", 25.0, 70.0, 10.0, "Sunny", System.currentTimeMillis()))
+            .compose(saved -> repository.findByCity("  new   YORK "))
+            .compose(newYork -> {
+                testContext.verify(() -> assertEquals("New York", newYork.getCity()));
+                return repository.findByCity("SÃO PAULO");
+            })
+            .compose(saoPaulo -> {
+                testContext.verify(() -> assertEquals("são paulo", saoPaulo.getCity()));
+                // Saved again in another case: the same city, under its first name
+                return repository.save(new Weather("São Paulo", 26.0, 70.0, 10.0, "Sunny", System.currentTimeMillis()));
+            })
+            .compose(saved -> {
+                testContext.verify(() -> assertEquals("são paulo", saved.getCity()));
+                return repository.getCities();
+            })
+            .onComplete(testContext.succeeding(cities -> testContext.verify(() -> {
+                assertEquals(11, cities.size());
+                assertThrows(UnsupportedOperationException.class, () -> cities.add("Oslo"));
+                testContext.completeNow();
+            })));
+    }
+
     @Test
     void testFindByCityNotFound(VertxTestContext testContext) {
         repository.findByCity("non-existent-city")
@@ -161,6 +185,35 @@ class InMemoryWeatherRepositoryTest {
             }));
     }
 
+    @Test
+    void testHistoryRecordsSavedObservations(VertxTestContext testContext) {
+        long now = System.currentTimeMillis();
+        repository.save(new Weather("London", 21.0, 60.0, 8.0, "Cloudy", now + 60_000L))
+            .compose(v -> repository.save(new Weather("London", 23.0, 55.0, 12.0, "Sunny", now + 120_000L)))
+            .compose(v -> repository.getHistory("London", now + 1, Long.MAX_VALUE, 100))
+            .compose(history -> {
+                testContext.verify(() -> {
+                    assertEquals(2, history.size());
+                    assertEquals(21.0, history.get(0).getTemperature());
+                    assertEquals("Sunny", history.get(1).getCondition());
+                });
+                // The sample generated at initialization is in the history too
+                return repository.getRollup("London", 0, Long.MAX_VALUE, Long.MAX_VALUE / 2);
+            })
+            .onComplete(testContext.succeeding(rollup -> {
+                testContext.verify(() -> {
+                    assertEquals(1, rollup.size());
+                    assertEquals(3, rollup.get(0).getCount());
+                    assertTrue(rollup.get(0).getMaxTemperature() >= 23.0);
+                });
+                repository.getHistory("Atlantis", 0, Long.MAX_VALUE, 100)
+                    .onComplete(testContext.failing(err -> testContext.verify(() -> {
+                        assertTrue(err.getMessage().contains("City not found"));
+                        testContext.completeNow();
+                    })));
+            }));
+    }
+
     @Test
     void testSaveWeatherWithoutCity(VertxTestContext testContext) {
         Weather invalidWeather = new Weather(null, 30.5, 75.0, 15.0, "Sunny", System.currentTimeMillis());
@@ -0,0 +1,112 @@
+package dev.mars.vertx.service.two.repository;
+
+import dev.mars.vertx.service.two.model.Weather;
+import dev.mars.vertx.service.two.model.WeatherRollup;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeatherSeriesTest {
+
+    @Test
+    void testRangeQueries() {
+        WeatherSeries series = new WeatherSeries("London", 10);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(series.append(1000L * i, 10.0 + i, 50.0, 5.0, i % 2 == 0 ? "Sunny" : "Rainy"));
+        }
+
+        List<Weather> samples = series.range(1000L, 3000L);
+        assertEquals(3, samples.size());
+        assertEquals(1000L, samples.get(0).getTimestamp());
+        assertEquals(11.0, samples.get(0).getTemperature());
+        assertEquals("Rainy", samples.get(0).getCondition());
+        assertEquals("London", samples.get(0).getCity());
+        assertEquals(3000L, samples.get(2).getTimestamp());
+
+        assertEquals(5, series.range(0, Long.MAX_VALUE).size());
+        assertTrue(series.range(5000L, 9000L).isEmpty());
+        assertEquals(List.of(1000L, 2000L), series.range(1000L, Long.MAX_VALUE, 2).stream().map(Weather::getTimestamp).toList());
+
+        // Older than the newest sample: dropped
+        assertFalse(series.append(2500L, 0.0, 0.0, 0.0, "Sunny"));
+        assertEquals(5, series.size());
+    }
+
+    @Test
+    void testOverwritesOldestSamplesWhenFull() {
+        WeatherSeries series = new WeatherSeries("Paris", 4);
+        for (int i = 0; i < 10; i++) {
+            series.append(i, i, i, i, null);
+        }
+
+        assertEquals(4, series.size());
+        List<Weather> samples = series.range(0, Long.MAX_VALUE);
+        assertEquals(List.of(6L, 7L, 8L, 9L), samples.stream().map(Weather::getTimestamp).toList());
+        assertNull(samples.get(0).getCondition());
+        assertEquals(List.of(7L, 8L), series.range(7, 8).stream().map(Weather::getTimestamp).toList());
+    }
+
+    @Test
+    void testRollupPerBucket() {
+        WeatherSeries series = new WeatherSeries("Tokyo", 100);
+        // Two samples in the first minute, none in the second, three in the third
+        series.append(10_000L, 10.0, 40.0, 1.0, "Sunny");
+        series.append(50_000L, 20.0, 60.0, 3.0, "Sunny");
+        series.append(120_000L, 5.0, 80.0, 2.0, "Cloudy");
+        series.append(150_000L, 7.0, 70.0, 4.0, "Cloudy");
+        series.append(179_999L, 9.0, 90.0, 6.0, "Cloudy");
+
+        List<WeatherRollup> buckets = series.rollup(0, Long.MAX_VALUE, 60_000L);
+        assertEquals(2, buckets.size());
+
+        WeatherRollup first = buckets.get(0);
+        assertEquals(0L, first.getStart());
+        assertEquals(60_000L, first.getEnd());
+        assertEquals(2, first.getCount());
+        assertEquals(10.0, first.getMinTemperature());
+        assertEquals(20.0, first.getMaxTemperature());
+        assertEquals(15.0, first.getAvgTemperature());
+
+        WeatherRollup third = buckets.get(1);
+        assertEquals(120_000L, third.getStart());
+        assertEquals(3, third.getCount());
+        assertEquals(70.0, third.getMinHumidity());
+        assertEquals(90.0, third.getMaxHumidity());
+        assertEquals(4.0, third.getAvgWindSpeed());
+
+        // The range cuts the last bucket short
+        assertEquals(1, series.rollup(120_000L, 149_999L, 60_000L).get(0).getCount());
+        assertThrows(IllegalArgumentException.class, () -> series.rollup(0, 1, 0));
+    }
+
+    @Test
+    void testQueriesSpanSealedAndActiveSegments() {
+        WeatherSeries series = new WeatherSeries("Cairo", 250, 64);
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            long timestamp = 1_000_000L + i * 1000L + (i % 3) * 7;
+            series.append(timestamp, 20.0 + (i % 13) * 0.1, 30.0, i * 0.5, i % 2 == 0 ? "Sunny" : "Cloudy");
+            expected.add(timestamp);
+        }
+        List<Long> kept = expected.subList(expected.size() - 250, expected.size());
+
+        assertEquals(250, series.size());
+        assertTrue(series.sealedSegments() > 0);
+        List<Weather> all = series.range(0, Long.MAX_VALUE);
+        assertEquals(kept, all.stream().map(Weather::getTimestamp).toList());
+        assertEquals(999 * 0.5, all.get(249).getWindSpeed());
+        assertEquals("Cloudy", all.get(249).getCondition());
+
+        // A range starting in a sealed segment and ending in the active one
+        long from = kept.get(10);
+        long to = kept.get(240);
+        assertEquals(kept.subList(10, 241), series.range(from, to).stream().map(Weather::getTimestamp).toList());
+        assertEquals(231, series.rollup(from, to, 1000L).stream().mapToInt(WeatherRollup::getCount).sum());
+
+        // Compressed segments take less than the raw arrays they replaced
+        assertTrue(series.memoryBytes() < 64L * WeatherSeries.BYTES_PER_SAMPLE + (250L - 64) * WeatherSeries.BYTES_PER_SAMPLE);
+    }
+}
@@ -0,0 +1,163 @@
+package dev.mars.vertx.service.two.service;
+
+import dev.mars.vertx.service.two.model.Weather;
+import dev.mars.vertx.service.two.repository.InMemoryWeatherRepository;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(VertxExtension.class)
+class ForecastCacheTest {
+
+    private CountingRepository repository;
+    private Context context;
+
+    @BeforeEach
+    void setUp(Vertx vertx) {
+        repository = new CountingRepository();
+        context = vertx.getOrCreateContext();
+    }
+
+    @Test
+    void testServesPrecomputedForecasts(Vertx vertx, VertxTestContext testContext) {
+        ForecastCache cache = new ForecastCache(vertx, repository, 7, 3600000);
+
+        context.runOnContext(v -> repository.initialize()
+            .compose(init -> cache.start())
+            .compose(started -> cache.warmedUp())
+            .compose(warm -> {
+                testContext.verify(() -> {
+                    assertEquals(10, cache.size());
+                    assertEquals(10, repository.forecasts.get());
+                });
+                return cache.get("London", 3).compose(three -> cache.get("London", 7).map(seven -> List.of(three, seven)));
+            })
+            .compose(payloads -> cache.get("London", 3).map(again -> {
+                testContext.verify(() -> {
+                    // Answered from the cache: the same encoded response, without generating
+                    assertEquals(payloads.get(0), again);
+                    assertEquals(10, repository.forecasts.get());
+
+                    JsonObject three = new JsonObject(payloads.get(0));
+                    JsonObject seven = new JsonObject(payloads.get(1));
+                    assertEquals("London", three.getString("city"));
+                    assertEquals(3, three.getInteger("days"));
+                    JsonArray forecast = three.getJsonArray("forecast");
+                    assertEquals(3, forecast.size());
+                    assertEquals(7, seven.getJsonArray("forecast").size());
+                    // Every horizon is cut from the same maximum-horizon forecast
+                    assertEquals(forecast.getJsonObject(2), seven.getJsonArray("forecast").getJsonObject(2));
+
+                    assertThrows(IllegalArgumentException.class, () -> cache.get("London", 0));
+                    assertThrows(IllegalArgumentException.class, () -> cache.get("London", 8));
+                });
+                return again;
+            }))
+            // A city added after the precomputation is generated once, then cached
+            .compose(v2 -> repository.save(new Weather("Lima", 20.0, 70.0, 8.0, "Cloudy", 0L)))
+            .compose(saved -> cache.get("Lima", 2))
+            .compose(lima -> cache.get("Lima", 5))
+            .compose(lima -> {
+                testContext.verify(() -> assertEquals(11, repository.forecasts.get()));
+                return cache.get("Atlantis", 2);
+            })
+            .onComplete(testContext.failing(err -> testContext.verify(() -> {
+                assertTrue(err.getMessage().contains("City not found"));
+                cache.close();
+                testContext.completeNow();
+            }))));
+    }
+
+    @Test
+    void testRefreshesCitiesInTheBackground(Vertx vertx, VertxTestContext testContext) {
+        // Ten cities, each refreshed every 200 ms: one refresh every 20 ms
+        ForecastCache cache = new ForecastCache(vertx, repository, 3, 200);
+
+        context.runOnContext(v -> repository.initialize()
+            .compose(init -> cache.start())
+            .compose(started -> cache.get("Paris", 3))
+            .onComplete(testContext.succeeding(before -> vertx.setPeriodic(50, id ->
+                cache.get("Paris", 3).onSuccess(current -> {
+                    if (!current.equals(before)) {
+                        vertx.cancelTimer(id);
+                        testContext.verify(() -> {
+                            assertTrue(repository.forecasts.get() > 10);
+                            cache.close();
+                        });
+                        testContext.completeNow();
+                    }
+                })))));
+    }
+
+    @Test
+    void testStartsBeforeTheForecastsAreWarmedUp(Vertx vertx, VertxTestContext testContext) {
+        // Every forecast takes a while to generate
+        SlowRepository slow = new SlowRepository(vertx);
+        ForecastCache cache = new ForecastCache(vertx, slow, 3, 3600000);
+
+        context.runOnContext(v -> slow.initialize()
+            .compose(init -> cache.start())
+            .compose(started -> {
+                testContext.verify(() -> assertEquals(0, cache.size()));
+                // Requested before its turn, a city is generated on demand
+                return cache.get("Tokyo", 2);
+            })
+            .compose(tokyo -> {
+                testContext.verify(() -> {
+                    JsonObject forecast = new JsonObject(tokyo);
+                    assertEquals("Tokyo", forecast.getString("city"));
+                    assertEquals(2, forecast.getJsonArray("forecast").size());
+                });
+                return cache.warmedUp();
+            })
+            .onComplete(testContext.succeeding(warm -> testContext.verify(() -> {
+                assertEquals(10, cache.size());
+                cache.close();
+                testContext.completeNow();
+            }))));
+    }
+
+    /**
+     * Repository generating each forecast after a delay.
+     */
+    private static class SlowRepository extends InMemoryWeatherRepository {
+        private final Vertx vertx;
+
+        SlowRepository(Vertx vertx) {
+            this.vertx = vertx;
+        }
+
+        @Override
+        public Future<List<Weather>> getForecast(String city, int days) {
+            Promise<Void> delay = Promise.promise();
+            vertx.setTimer(20, id -> delay.complete());
+            return delay.future().compose(v -> super.getForecast(city, days));
+        }
+    }
+
+    /**
+     * Repository counting the forecasts it generates.
+     */
+    private static class CountingRepository extends InMemoryWeatherRepository {
+        private final AtomicInteger forecasts = new AtomicInteger();
+
+        @Override
+        public Future<List<Weather>> getForecast(String city, int days) {
+            return super.getForecast(city, days).onSuccess(forecast -> forecasts.incrementAndGet());
+        }
+    }
+}
@@ -169,6 +169,19 @@ class WeatherServiceTest {
             }));
     }
 
+    @Test
+    void testGetForecastDaysAreBounded(VertxTestContext testContext) {
+        mockRepository.setCities(Arrays.asList("London"));
+
+        weatherService.getForecast("London", weatherService.getMaxForecastDays() + 1)
+            .onComplete(testContext.failing(err -> {
+                testContext.verify(() -> {
+                    assertTrue(err.getMessage().contains("Forecast days must be between 1 and"));
+                    testContext.completeNow();
+                });
+            }));
+    }
+
     @Test
     void testGetForecastCityNotFound(VertxTestContext testContext) {
         // Call the service method with a non-existent city
@@ -314,5 +327,20 @@ class WeatherServiceTest {
         public Future<Integer> count() {
             return Future.succeededFuture(cityCount > 0 ? cityCount : cities.size());
         }
+
+        @Override
+        public Future<Weather> findById(String id) {
+            return weatherData.values().stream()
+                .filter(weather -> weather.getId().equals(id))
+                .findFirst()
+                .map(Future::succeededFuture)
+                .orElseGet(() -> Future.failedFuture("Weather not found with ID: " + id));
+        }
+
+        @Override
+        public Future<Void> deleteById(String id) {
+            weatherData.values().removeIf(weather -> weather.getId().equals(id));
+            return Future.succeededFuture();
+        }
     }
 }
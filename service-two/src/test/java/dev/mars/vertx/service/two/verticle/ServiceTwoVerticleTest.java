@@ -1,6 +1,7 @@
 package dev.mars.vertx.service.two.verticle;
 
 import dev.mars.vertx.service.two.ServiceTwoVerticle;
+import dev.mars.vertx.service.two.model.Weather;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.Message;
@@ -62,10 +63,11 @@ class ServiceTwoVerticleTest {
                 .put("city", "London");
 
         // Send the request to the service
-        vertx.eventBus().<JsonObject>request(SERVICE_ADDRESS, request)
+        vertx.eventBus().<Weather>request(SERVICE_ADDRESS, request)
             .onComplete(testContext.succeeding(response -> {
                 testContext.verify(() -> {
-                    JsonObject weather = response.body();
+                    // The reply is the record itself, carried by its codec
+                    JsonObject weather = response.body().toJson();
                     assertNotNull(weather);
                     assertEquals("London", weather.getString("city"));
                     assertTrue(weather.containsKey("temperature"));
@@ -84,10 +86,11 @@ class ServiceTwoVerticleTest {
         JsonObject request = new JsonObject();
 
         // Send the request to the service
-        vertx.eventBus().<JsonObject>request(SERVICE_ADDRESS, request)
+        vertx.eventBus().<Weather>request(SERVICE_ADDRESS, request)
             .onComplete(testContext.succeeding(response -> {
                 testContext.verify(() -> {
-                    JsonObject weather = response.body();
+                    // The reply is the record itself, carried by its codec
+                    JsonObject weather = response.body().toJson();
                     assertNotNull(weather);
                     assertTrue(weather.containsKey("city"));
                     assertTrue(weather.containsKey("temperature"));
@@ -179,4 +182,21 @@ class ServiceTwoVerticleTest {
                 });
             }));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testMutationsPublishEvents(VertxTestContext testContext) {
+        vertx.eventBus().<JsonObject>consumer(SERVICE_ADDRESS + ".events", event -> testContext.verify(() -> {
+            assertEquals("post", event.body().getString("action"));
+            assertTrue(event.body().getJsonArray("ids").contains("Lima"));
+            testContext.completeNow();
+        }));
+
+        // Reads publish nothing; the create that follows does
+        vertx.eventBus().<JsonObject>request(SERVICE_ADDRESS, new JsonObject().put("action", "cities"))
+            .compose(cities -> vertx.eventBus().<JsonObject>request(SERVICE_ADDRESS, new JsonObject()
+                .put("method", "POST")
+                .put("city", "Lima")
+                .put("temperature", 19.0)))
+            .onFailure(testContext::failNow);
+    }
+}
@@ -1,15 +1,19 @@
 package dev.mars.vertx.bootstrap;
 
+import dev.mars.vertx.bootstrap.load.LoadGenerator;
+import dev.mars.vertx.bootstrap.load.LoadProfile;
 import dev.mars.vertx.common.config.ConfigLoader;
 import java.io.File;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import dev.mars.vertx.gateway.ApiGatewayVerticle;
-import dev.mars.vertx.service.one.ServiceOneVerticle;
+import dev.mars.vertx.service.one.ServiceOneMain;
 import dev.mars.vertx.service.two.ServiceTwoVerticle;
 import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.core.VertxOptions;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.client.WebClient;
 import io.vertx.ext.web.client.WebClientOptions;
@@ -22,6 +26,8 @@ import java.util.concurrent.TimeUnit;
 /**
  * Bootstrap class for the Vertx-Reference project.
  * Starts all services in the correct sequence and demonstrates end-to-end functionality.
+ * Started with the {@code load} argument, it runs the open-loop load test described in the
+ * {@code load-test} configuration section instead of the demonstration.
  */
 public class VertxReferenceBootstrap {
     private static final Logger logger = LoggerFactory.getLogger(VertxReferenceBootstrap.class);
@@ -32,9 +38,10 @@ public class VertxReferenceBootstrap {
 
     public static void main(String[] args) {
         VertxReferenceBootstrap bootstrap = new VertxReferenceBootstrap();
+        boolean loadTest = args.length > 0 && "load".equals(args[0]);
 
         bootstrap.start()
-            .compose(v -> bootstrap.runDemonstration())
+            .compose(v -> loadTest ? bootstrap.runLoadTest().<Void>mapEmpty() : bootstrap.runDemonstration())
             .compose(v -> bootstrap.shutdown())
             .onFailure(err -> {
                 logger.error("Error in bootstrap", err);
@@ -95,7 +102,8 @@ public class VertxReferenceBootstrap {
     }
 
     /**
-     * Deploys the Service One verticle.
+     * Deploys the Service One verticles as ServiceOneMain does, so that the instances, shards and
+     * repository type configured for Service One apply.
      */
     private Future<String> deployServiceOne() {
         logger.info("Deploying Service One");
@@ -105,14 +113,17 @@ public class VertxReferenceBootstrap {
         String serviceAddress = serviceOneConfig.getString("address", "service.one");
         int httpPort = serviceOneConfig.getJsonObject("http", new JsonObject()).getInteger("port", 8081);
 
-        DeploymentOptions options = new DeploymentOptions()
-                .setConfig(new JsonObject()
-                        .put("service.address", serviceAddress)
-                        .put("http.port", httpPort)
-                );
+        JsonObject serviceConfig = new JsonObject()
+                .put("service.address", serviceAddress)
+                .put("http.port", httpPort)
+                .put("service", new JsonObject()
+                        .put("address", serviceAddress)
+                        .put("instances", serviceOneConfig.getInteger("instances", 1))
+                        .put("shards", serviceOneConfig.getInteger("shards", 0)))
+                .put("repository", serviceOneConfig.getJsonObject("repository", new JsonObject()));
 
         logger.info("Deploying Service One with address: {} and HTTP port: {}", serviceAddress, httpPort);
-        return vertx.deployVerticle(ServiceOneVerticle.class.getName(), options);
+        return ServiceOneMain.deployVerticles(vertx, serviceConfig);
     }
 
     /**
@@ -208,6 +219,55 @@ public class VertxReferenceBootstrap {
             .onFailure(err -> logger.error("Demonstration failed", err));
     }
 
+    /**
+     * Runs the load test described in the {@code load-test} configuration section against the
+     * API Gateway, and writes its report to the configured file.
+     *
+     * @return A Future with the report
+     */
+    public Future<JsonObject> runLoadTest() {
+        JsonObject loadConfig = config.getJsonObject("load-test");
+        if (loadConfig == null) {
+            return Future.failedFuture("No load-test section in the configuration");
+        }
+
+        LoadProfile profile;
+        try {
+            profile = LoadProfile.fromConfig(loadConfig);
+        } catch (IllegalArgumentException e) {
+            return Future.failedFuture(e);
+        }
+
+        JsonObject apiGatewayConfig = config.getJsonObject("api-gateway", new JsonObject());
+        LoadGenerator generator = new LoadGenerator(vertx,
+                apiGatewayConfig.getString("host", "localhost"),
+                apiGatewayConfig.getInteger("port", 8080),
+                profile);
+
+        return generator.run()
+            .compose(report -> writeReport(profile.getReportPath(), report).map(report))
+            .onSuccess(report -> logger.info("Load test completed"))
+            .onFailure(err -> logger.error("Load test failed", err))
+            .eventually(v -> generator.close());
+    }
+
+    /**
+     * Writes a load test report as JSON.
+     *
+     * @param path The file to write, or null to skip writing
+     * @param report The report
+     * @return A Future that completes when the report is written
+     */
+    private Future<Void> writeReport(String path, JsonObject report) {
+        if (path == null) {
+            return Future.succeededFuture();
+        }
+        Path parent = Paths.get(path).toAbsolutePath().getParent();
+        return vertx.fileSystem().mkdirs(parent.toString())
+            .compose(v -> vertx.fileSystem().writeFile(path, Buffer.buffer(report.encodePrettily())))
+            .onSuccess(v -> logger.info("Load test report written to {}", path));
+    }
+
     /**
      * Checks the health endpoint.
      * 
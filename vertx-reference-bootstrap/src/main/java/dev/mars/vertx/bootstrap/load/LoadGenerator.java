@@ -0,0 +1,291 @@
+package dev.mars.vertx.bootstrap.load;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Open-loop HTTP load generator.
+ * Requests are sent at the rate of the current phase whether or not earlier requests have been
+ * answered, so a slow server builds up a queue instead of slowing the generator down, as real
+ * clients would. Each request has an intended send time derived from the rate alone, and its
+ * latency is measured from that time rather than from when it was actually sent: time spent
+ * waiting for a connection, or for the generator itself to catch up, counts against the
+ * server. This corrects for coordinated omission, which makes closed-loop measurements hide
+ * exactly the stalls they should report.
+ *
+ * Latencies are recorded per phase and route in HdrHistograms. The time from the actual send
+ * on a connection (service time) is recorded as well, so the two can be compared. Failed requests and error
+ * statuses are counted and recorded too, since a fast error is not a fast response.
+ *
+ * All state is confined to the event loop context the generator runs on.
+ */
+public class LoadGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    // How often the generator wakes up to send the requests that are due
+    private static final long TICK_MS = 1;
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Vertx vertx;
+    private final LoadProfile profile;
+    private final HttpClient client;
+    private final String target;
+    private final Random random;
+    private final int[] cumulativeWeights;
+
+    private long inFlight;
+    private boolean allSent;
+    private Promise<Void> drained;
+
+    /**
+     * Creates a load generator.
+     *
+     * @param vertx the Vertx instance
+     * @param host the host to send requests to
+     * @param port the port to send requests to
+     * @param profile the load profile
+     */
+    public LoadGenerator(Vertx vertx, String host, int port, LoadProfile profile) {
+        this.vertx = vertx;
+        this.profile = profile;
+        this.target = host + ":" + port;
+        this.client = vertx.createHttpClient(new HttpClientOptions()
+            .setDefaultHost(host)
+            .setDefaultPort(port)
+            .setKeepAlive(true)
+            .setMaxPoolSize(profile.getConnections()));
+        this.random = new Random(profile.getSeed());
+
+        List<LoadProfile.Route> routes = profile.getRoutes();
+        this.cumulativeWeights = new int[routes.size()];
+        int total = 0;
+        for (int i = 0; i < routes.size(); i++) {
+            total += routes.get(i).getWeight();
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Runs all phases of the profile and waits for the last response.
+     *
+     * @return a Future with the report
+     */
+    public Future<JsonObject> run() {
+        Promise<JsonObject> promise = Promise.promise();
+        vertx.getOrCreateContext().runOnContext(v -> {
+            logger.info("Starting load test against {} with {} phases", target, profile.getPhases().size());
+            drained = Promise.promise();
+            List<PhaseRun> runs = new ArrayList<>();
+            runPhases(0, System.nanoTime(), runs)
+                .compose(done -> {
+                    allSent = true;
+                    if (inFlight == 0) {
+                        drained.tryComplete();
+                    }
+                    return drained.future();
+                })
+                .map(done -> report(runs))
+                .onComplete(promise);
+        });
+        return promise.future();
+    }
+
+    /**
+     * Closes the HTTP client.
+     *
+     * @return a Future that completes when the client is closed
+     */
+    public Future<Void> close() {
+        return client.close();
+    }
+
+    /**
+     * Runs the phases from the given index on, each starting when the previous one's last
+     * request was due, so that the schedule has no gaps between phases.
+     */
+    private Future<Void> runPhases(int index, long startNanos, List<PhaseRun> runs) {
+        if (index == profile.getPhases().size()) {
+            return Future.succeededFuture();
+        }
+        PhaseRun run = new PhaseRun(profile.getPhases().get(index), startNanos);
+        runs.add(run);
+        logger.info("Starting phase {} at {} to {} requests/s for {} ms", run.phase.getName(),
+            run.phase.getFromRate(), run.phase.getToRate(), run.phase.getDurationMs());
+        return run.start().compose(v -> runPhases(index + 1, run.endNanos, runs));
+    }
+
+    private LoadProfile.Route nextRoute() {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return profile.getRoutes().get(i);
+            }
+        }
+        throw new IllegalStateException("Route weights are inconsistent");
+    }
+
+    private void send(LoadProfile.Route route, PhaseRun run, long intendedNanos) {
+        RouteStats stats = run.routeStats.get(route.getName());
+        // Set once a connection is available, so that the service time excludes the wait for one
+        long[] sentNanos = {System.nanoTime()};
+        inFlight++;
+
+        RequestOptions options = new RequestOptions()
+            .setMethod(route.getMethod())
+            .setURI(route.getPath())
+            .setTimeout(profile.getTimeoutMs());
+        client.request(options)
+            .compose(request -> {
+                sentNanos[0] = System.nanoTime();
+                if (route.getBody() != null) {
+                    request.putHeader("Content-Type", "application/json");
+                    return request.send(route.getBody());
+                }
+                return request.send();
+            })
+            .compose(response -> response.body().map(body -> response.statusCode()))
+            .onComplete(ar -> {
+                long now = System.nanoTime();
+                boolean ok = ar.succeeded() && ar.result() < 400;
+                stats.record(now - intendedNanos, now - sentNanos[0], ok);
+                run.all.record(now - intendedNanos, now - sentNanos[0], ok);
+                inFlight--;
+                if (allSent && inFlight == 0) {
+                    drained.tryComplete();
+                }
+            });
+    }
+
+    private JsonObject report(List<PhaseRun> runs) {
+        JsonArray phases = new JsonArray();
+        for (PhaseRun run : runs) {
+            JsonObject routes = new JsonObject();
+            run.routeStats.forEach((name, stats) -> {
+                routes.put(name, stats.toJson());
+                logger.info("{} {}: {}", run.phase.getName(), name, stats.summary());
+            });
+            logger.info("{} all: {}", run.phase.getName(), run.all.summary());
+            phases.add(new JsonObject()
+                .put("name", run.phase.getName())
+                .put("duration-ms", run.phase.getDurationMs())
+                .put("from-rate", run.phase.getFromRate())
+                .put("to-rate", run.phase.getToRate())
+                .put("sent", run.sent)
+                .put("all", run.all.toJson())
+                .put("routes", routes));
+        }
+        return new JsonObject()
+            .put("target", target)
+            .put("latency-unit", "us")
+            .put("phases", phases);
+    }
+
+    /**
+     * One phase being run: schedules its requests from the phase's rate and records their results.
+     */
+    private final class PhaseRun {
+        private final LoadProfile.Phase phase;
+        private final long startNanos;
+        private final long endNanos;
+        private final Map<String, RouteStats> routeStats = new LinkedHashMap<>();
+        private final RouteStats all = new RouteStats();
+        private final Promise<Void> scheduled = Promise.promise();
+        private long nextNanos;
+        private long sent;
+        private long timerId = -1;
+
+        PhaseRun(LoadProfile.Phase phase, long startNanos) {
+            this.phase = phase;
+            this.startNanos = startNanos;
+            this.endNanos = startNanos + phase.getDurationMs() * 1_000_000;
+            this.nextNanos = startNanos;
+            profile.getRoutes().forEach(route -> routeStats.put(route.getName(), new RouteStats()));
+        }
+
+        /**
+         * Starts sending requests.
+         *
+         * @return a Future that completes once the last request of the phase has been sent
+         */
+        Future<Void> start() {
+            tick();
+            if (!scheduled.future().isComplete()) {
+                timerId = vertx.setPeriodic(TICK_MS, id -> tick());
+            }
+            return scheduled.future();
+        }
+
+        /**
+         * Sends every request whose intended time has come. When the generator wakes up late,
+         * the overdue requests go out at once, keeping their intended times.
+         */
+        private void tick() {
+            long now = System.nanoTime();
+            while (nextNanos <= now && nextNanos < endNanos) {
+                send(nextRoute(), this, nextNanos);
+                sent++;
+                nextNanos += (long) (1_000_000_000 / phase.rateAt(nextNanos - startNanos));
+            }
+            if (nextNanos >= endNanos) {
+                vertx.cancelTimer(timerId);
+                scheduled.tryComplete();
+            }
+        }
+    }
+
+    /**
+     * Latency histograms and error count of one route, or of all routes, in one phase.
+     */
+    private static final class RouteStats {
+        private final Histogram latency = new Histogram(SIGNIFICANT_DIGITS);
+        private final Histogram serviceTime = new Histogram(SIGNIFICANT_DIGITS);
+        private long errors;
+
+        void record(long latencyNanos, long serviceTimeNanos, boolean ok) {
+            latency.recordValue(latencyNanos / 1000);
+            serviceTime.recordValue(serviceTimeNanos / 1000);
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        JsonObject toJson() {
+            return new JsonObject()
+                .put("count", latency.getTotalCount())
+                .put("errors", errors)
+                .put("latency", percentiles(latency))
+                .put("service-time", percentiles(serviceTime));
+        }
+
+        String summary() {
+            return String.format("count=%d errors=%d p50=%dus p99=%dus p99.9=%dus max=%dus",
+                latency.getTotalCount(), errors,
+                latency.getValueAtPercentile(50), latency.getValueAtPercentile(99),
+                latency.getValueAtPercentile(99.9), latency.getMaxValue());
+        }
+
+        private static JsonObject percentiles(Histogram histogram) {
+            return new JsonObject()
+                .put("p50", histogram.getValueAtPercentile(50))
+                .put("p99", histogram.getValueAtPercentile(99))
+                .put("p99.9", histogram.getValueAtPercentile(99.9))
+                .put("max", histogram.getMaxValue())
+                .put("mean", histogram.getMean());
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package dev.mars.vertx.bootstrap.load;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Describes an open-loop load test: the routes to call with their share of the traffic, and
+ * the phases to run one after another, each with a request rate that is either constant or
+ * ramps linearly from one rate to another.
+ *
+ * Read from the {@code load-test} section of the bootstrap configuration:
+ *
+ * <pre>
+ * load-test:
+ *   report: target/load-report.json
+ *   connections: 64
+ *   timeout-ms: 10000
+ *   seed: 42
+ *   routes:
+ *     - name: item-get
+ *       method: GET
+ *       path: /api/service-one/item-1
+ *       weight: 80
+ *     - name: item-update
+ *       method: PUT
+ *       path: /api/service-one/item-2
+ *       body: { name: Updated }
+ *       weight: 20
+ *   phases:
+ *     - name: ramp
+ *       duration-s: 30
+ *       from-rate: 10
+ *       to-rate: 500
+ *     - name: steady
+ *       duration-s: 60
+ *       rate: 500
+ * </pre>
+ */
+public class LoadProfile {
+
+    private final List<Route> routes;
+    private final List<Phase> phases;
+    private final int connections;
+    private final long timeoutMs;
+    private final long seed;
+    private final String reportPath;
+
+    /**
+     * Creates a load profile.
+     *
+     * @param routes the routes, with a weight each
+     * @param phases the phases, in the order they run
+     * @param connections the maximum number of connections to the target
+     * @param timeoutMs the time after which a request fails if it got no response
+     * @param seed the seed of the random route selection, so runs send the same sequence
+     * @param reportPath the file the report is written to, or null to only log it
+     */
+    public LoadProfile(List<Route> routes, List<Phase> phases, int connections, long timeoutMs, long seed, String reportPath) {
+        if (routes.isEmpty()) {
+            throw new IllegalArgumentException("A load profile needs at least one route");
+        }
+        if (phases.isEmpty()) {
+            throw new IllegalArgumentException("A load profile needs at least one phase");
+        }
+        this.routes = Collections.unmodifiableList(new ArrayList<>(routes));
+        this.phases = Collections.unmodifiableList(new ArrayList<>(phases));
+        this.connections = connections;
+        this.timeoutMs = timeoutMs;
+        this.seed = seed;
+        this.reportPath = reportPath;
+    }
+
+    /**
+     * Creates a load profile from its configuration.
+     *
+     * @param config the {@code load-test} configuration section
+     * @return the load profile
+     * @throws IllegalArgumentException if the configuration is invalid
+     */
+    public static LoadProfile fromConfig(JsonObject config) {
+        List<Route> routes = new ArrayList<>();
+        for (Object entry : config.getJsonArray("routes", new JsonArray())) {
+            JsonObject route = (JsonObject) entry;
+            Object body = route.getValue("body");
+            routes.add(new Route(
+                route.getString("name", route.getString("path")),
+                HttpMethod.valueOf(route.getString("method", "GET").toUpperCase()),
+                route.getString("path"),
+                body instanceof JsonObject ? ((JsonObject) body).toBuffer() : body != null ? Buffer.buffer(body.toString()) : null,
+                route.getInteger("weight", 1)));
+        }
+
+        List<Phase> phases = new ArrayList<>();
+        for (Object entry : config.getJsonArray("phases", new JsonArray())) {
+            JsonObject phase = (JsonObject) entry;
+            Double rate = phase.getDouble("rate");
+            phases.add(new Phase(
+                phase.getString("name", "phase-" + (phases.size() + 1)),
+                phase.getLong("duration-s", 10L) * 1000,
+                rate != null ? rate : phase.getDouble("from-rate", 1.0),
+                rate != null ? rate : phase.getDouble("to-rate", 1.0)));
+        }
+
+        return new LoadProfile(routes, phases,
+            config.getInteger("connections", 64),
+            config.getLong("timeout-ms", 10000L),
+            config.getLong("seed", 42L),
+            config.getString("report"));
+    }
+
+    public List<Route> getRoutes() {
+        return routes;
+    }
+
+    public List<Phase> getPhases() {
+        return phases;
+    }
+
+    public int getConnections() {
+        return connections;
+    }
+
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public String getReportPath() {
+        return reportPath;
+    }
+
+    /**
+     * A route of the mix: one request, sent with a probability proportional to its weight.
+     */
+    public static final class Route {
+        private final String name;
+        private final HttpMethod method;
+        private final String path;
+        private final Buffer body;
+        private final int weight;
+
+        public Route(String name, HttpMethod method, String path, Buffer body, int weight) {
+            if (path == null) {
+                throw new IllegalArgumentException("Route " + name + " has no path");
+            }
+            if (weight < 1) {
+                throw new IllegalArgumentException("Route " + name + " needs a positive weight");
+            }
+            this.name = name;
+            this.method = method;
+            this.path = path;
+            this.body = body;
+            this.weight = weight;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public HttpMethod getMethod() {
+            return method;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public Buffer getBody() {
+            return body;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+    }
+
+    /**
+     * A phase of the test, whose request rate goes linearly from {@code fromRate} to
+     * {@code toRate} requests per second over its duration.
+     */
+    public static final class Phase {
+        private final String name;
+        private final long durationMs;
+        private final double fromRate;
+        private final double toRate;
+
+        public Phase(String name, long durationMs, double fromRate, double toRate) {
+            if (durationMs <= 0) {
+                throw new IllegalArgumentException("Phase " + name + " needs a positive duration");
+            }
+            if (fromRate <= 0 || toRate <= 0) {
+                throw new IllegalArgumentException("Phase " + name + " needs positive rates");
+            }
+            this.name = name;
+            this.durationMs = durationMs;
+            this.fromRate = fromRate;
+            this.toRate = toRate;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+
+        public double getFromRate() {
+            return fromRate;
+        }
+
+        public double getToRate() {
+            return toRate;
+        }
+
+        /**
+         * Gets the target rate at a point of the phase.
+         *
+         * @param elapsedNanos the time since the phase started
+         * @return the rate in requests per second
+         */
+        double rateAt(long elapsedNanos) {
+            double progress = Math.min(1.0, elapsedNanos / (durationMs * 1_000_000.0));
+            return fromRate + (toRate - fromRate) * progress;
+        }
+    }
+}
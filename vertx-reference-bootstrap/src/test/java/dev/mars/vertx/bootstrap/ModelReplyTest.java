@@ -0,0 +1,94 @@
+package dev.mars.vertx.bootstrap;
+
+import dev.mars.vertx.common.resilience.CircuitBreakerFactory;
+import dev.mars.vertx.gateway.service.MicroserviceClient;
+import dev.mars.vertx.service.one.ServiceOneVerticle;
+import dev.mars.vertx.service.one.model.Item;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that service replies travel the event bus as model objects, carried by their codecs, and
+ * reach the API gateway's client as the JSON it expects.
+ */
+@ExtendWith(VertxExtension.class)
+class ModelReplyTest {
+
+    private static final String SERVICE_ADDRESS = "service.one.model-reply";
+
+    private Vertx vertx;
+    private MicroserviceClient client;
+
+    @BeforeEach
+    void setUp(VertxTestContext testContext) {
+        vertx = Vertx.vertx();
+        client = new MicroserviceClient(vertx,
+                CircuitBreakerFactory.create(vertx, "service-one", 5, 10000, 30000), SERVICE_ADDRESS);
+
+        DeploymentOptions options = new DeploymentOptions()
+                .setConfig(new JsonObject().put("service.address", SERVICE_ADDRESS));
+        vertx.deployVerticle(new ServiceOneVerticle(), options)
+                .onComplete(testContext.succeedingThenComplete());
+    }
+
+    @AfterEach
+    void tearDown(VertxTestContext testContext) {
+        vertx.close(testContext.succeedingThenComplete());
+    }
+
+    @Test
+    void testItemReplyIsCarriedByItsCodec(VertxTestContext testContext) {
+        vertx.eventBus().request(SERVICE_ADDRESS, new JsonObject().put("action", "create").put("name", "Carried"))
+            .onComplete(testContext.succeeding(reply -> testContext.verify(() -> {
+                assertTrue(reply.body() instanceof Item);
+                assertEquals("Carried", ((Item) reply.body()).getName());
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    void testListReplyIsCarriedByTheListCodec(VertxTestContext testContext) {
+        vertx.eventBus().request(SERVICE_ADDRESS, new JsonObject().put("action", "list"))
+            .onComplete(testContext.succeeding(reply -> testContext.verify(() -> {
+                assertTrue(reply.body() instanceof List);
+                assertFalse(((List<?>) reply.body()).isEmpty());
+                assertTrue(((List<?>) reply.body()).get(0) instanceof Item);
+                testContext.completeNow();
+            })));
+    }
+
+    @Test
+    void testItemRepliesReachTheGatewayClientAsJson(VertxTestContext testContext) {
+        client.sendRequest(new JsonObject().put("action", "create").put("name", "Gateway Item"))
+            .compose(created -> {
+                testContext.verify(() -> {
+                    assertNotNull(created.getString("id"));
+                    assertEquals("Gateway Item", created.getString("name"));
+                });
+                return client.sendRequest(new JsonObject().put("id", created.getString("id")))
+                    .compose(found -> {
+                        testContext.verify(() -> assertEquals(created, found));
+                        return client.sendRequest(new JsonObject().put("action", "list"));
+                    });
+            })
+            .onComplete(testContext.succeeding(list -> testContext.verify(() -> {
+                // A list of items arrives in the same envelope the service used to build
+                JsonArray items = list.getJsonArray("items");
+                assertEquals(items.size(), list.getInteger("count"));
+                assertTrue(items.stream().anyMatch(item -> "Gateway Item".equals(((JsonObject) item).getString("name"))));
+                testContext.completeNow();
+            })));
+    }
+}
@@ -0,0 +1,134 @@
+package dev.mars.vertx.bootstrap.load;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(VertxExtension.class)
+class LoadGeneratorTest {
+
+    private Vertx vertx;
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp(VertxTestContext testContext) {
+        vertx = Vertx.vertx();
+        server = vertx.createHttpServer().requestHandler(request -> {
+            switch (request.path()) {
+                case "/ok":
+                    request.response().end("{}");
+                    break;
+                case "/slow":
+                    vertx.setTimer(50, id -> request.response().end("{}"));
+                    break;
+                default:
+                    request.response().setStatusCode(500).end();
+            }
+        });
+        server.listen(0).onComplete(testContext.succeedingThenComplete());
+    }
+
+    @AfterEach
+    void tearDown(VertxTestContext testContext) {
+        vertx.close(testContext.succeedingThenComplete());
+    }
+
+    @Test
+    void testSendsRouteMixAtPhaseRates(VertxTestContext testContext) {
+        LoadProfile profile = new LoadProfile(
+            List.of(new LoadProfile.Route("ok", HttpMethod.GET, "/ok", null, 3),
+                new LoadProfile.Route("fail", HttpMethod.GET, "/fail", null, 1)),
+            List.of(new LoadProfile.Phase("ramp", 500, 100, 300),
+                new LoadProfile.Phase("steady", 500, 200, 200)),
+            16, 5000, 42, null);
+        LoadGenerator generator = new LoadGenerator(vertx, "localhost", server.actualPort(), profile);
+
+        generator.run().onComplete(testContext.succeeding(report -> testContext.verify(() -> {
+            JsonArray phases = report.getJsonArray("phases");
+            assertEquals(2, phases.size());
+            for (int i = 0; i < phases.size(); i++) {
+                JsonObject phase = phases.getJsonObject(i);
+                // Both phases average 200 requests/s over 500 ms
+                assertEquals(100, phase.getLong("sent"), 2);
+
+                JsonObject ok = phase.getJsonObject("routes").getJsonObject("ok");
+                JsonObject fail = phase.getJsonObject("routes").getJsonObject("fail");
+                assertEquals(phase.getLong("sent"), ok.getLong("count") + fail.getLong("count"));
+                assertTrue(ok.getLong("count") > fail.getLong("count"));
+                assertEquals(0, ok.getLong("errors"));
+                assertEquals(fail.getLong("count"), fail.getLong("errors"));
+
+                JsonObject latency = phase.getJsonObject("all").getJsonObject("latency");
+                assertTrue(latency.getLong("p50") <= latency.getLong("p99"));
+                assertTrue(latency.getLong("p99") <= latency.getLong("p99.9"));
+                assertTrue(latency.getLong("p99.9") <= latency.getLong("max"));
+            }
+            testContext.completeNow();
+        })));
+    }
+
+    @Test
+    void testQueueingIsCountedInLatency(VertxTestContext testContext) {
+        // One connection serving 50 ms responses can answer 20 requests/s, so at 40 requests/s
+        // a queue builds up: each response takes 50 ms, but the requests wait longer and longer
+        LoadProfile profile = new LoadProfile(
+            List.of(new LoadProfile.Route("slow", HttpMethod.GET, "/slow", null, 1)),
+            List.of(new LoadProfile.Phase("overload", 500, 40, 40)),
+            1, 5000, 42, null);
+        LoadGenerator generator = new LoadGenerator(vertx, "localhost", server.actualPort(), profile);
+
+        generator.run().onComplete(testContext.succeeding(report -> testContext.verify(() -> {
+            JsonObject slow = report.getJsonArray("phases").getJsonObject(0).getJsonObject("routes").getJsonObject("slow");
+            assertEquals(20, slow.getLong("count"));
+            assertTrue(slow.getJsonObject("service-time").getLong("max") < 200_000);
+            // The last request waits for the 19 before it
+            assertTrue(slow.getJsonObject("latency").getLong("max") > 400_000);
+            testContext.completeNow();
+        })));
+    }
+
+    @Test
+    void testProfileFromConfig() {
+        JsonObject config = new JsonObject()
+            .put("connections", 8)
+            .put("report", "target/report.json")
+            .put("routes", new JsonArray()
+                .add(new JsonObject().put("name", "create").put("method", "post").put("path", "/api/service-one")
+                    .put("body", new JsonObject().put("name", "Item")).put("weight", 2)))
+            .put("phases", new JsonArray()
+                .add(new JsonObject().put("name", "steady").put("duration-s", 5).put("rate", 100))
+                .add(new JsonObject().put("duration-s", 10).put("from-rate", 100).put("to-rate", 300)));
+
+        LoadProfile profile = LoadProfile.fromConfig(config);
+
+        assertEquals(8, profile.getConnections());
+        assertEquals("target/report.json", profile.getReportPath());
+        LoadProfile.Route route = profile.getRoutes().get(0);
+        assertEquals(HttpMethod.POST, route.getMethod());
+        assertEquals("Item", route.getBody().toJsonObject().getString("name"));
+        assertEquals(2, route.getWeight());
+
+        LoadProfile.Phase steady = profile.getPhases().get(0);
+        assertEquals(5000, steady.getDurationMs());
+        assertEquals(100, steady.getFromRate());
+        assertEquals(100, steady.getToRate());
+        LoadProfile.Phase ramp = profile.getPhases().get(1);
+        assertEquals("phase-2", ramp.getName());
+        assertEquals(200, ramp.rateAt(5_000_000_000L), 0.001);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> LoadProfile.fromConfig(config.copy().put("phases", new JsonArray())));
+    }
+}